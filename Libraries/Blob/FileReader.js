@@ -12,6 +12,7 @@
 
 const Blob = require('./Blob');
 const EventTarget = require('event-target-shim');
+const RCTDeviceEventEmitter = require('../EventEmitter/RCTDeviceEventEmitter');
 
 import NativeFileReaderModule from './NativeFileReaderModule';
 
@@ -22,8 +23,16 @@ type ReadyState =
 
 type ReaderResult = string | ArrayBuffer;
 
+type ReadOptions = {|
+  // Size in bytes of the slices the native module reads the blob in
+  chunkSize?: number,
+  // Dispatch every decoded slice in a 'chunk' event and leave `result` null
+  emitChunks?: boolean,
+|};
+
 const READER_EVENTS = [
   'abort',
+  'chunk',
   'error',
   'load',
   'loadstart',
@@ -35,6 +44,8 @@ const EMPTY = 0;
 const LOADING = 1;
 const DONE = 2;
 
+let nextReaderId = 1;
+
 class FileReader extends (EventTarget(...READER_EVENTS): any) {
   static EMPTY: number = EMPTY;
   static LOADING: number = LOADING;
@@ -49,6 +60,7 @@ class FileReader extends (EventTarget(...READER_EVENTS): any) {
   _result: ?ReaderResult;
   _aborted: boolean = false;
   _subscriptions: Array<*> = [];
+  _readerId: ?number = null;
 
   constructor() {
     super();
@@ -66,6 +78,86 @@ class FileReader extends (EventTarget(...READER_EVENTS): any) {
     this._subscriptions = [];
   }
 
+  _read(
+    data: Object,
+    format: 'text' | 'dataURL',
+    encoding: string,
+    options: ?ReadOptions,
+  ): Promise<?string> {
+    const {chunkSize, emitChunks = false} = options || {};
+    const readChunked = NativeFileReaderModule.readChunked;
+    if (readChunked == null) {
+      const read =
+        format === 'text'
+          ? NativeFileReaderModule.readAsText(data, encoding)
+          : NativeFileReaderModule.readAsDataURL(data);
+      if (!emitChunks) {
+        return read;
+      }
+      // Without native slicing the whole result is the only chunk
+      return read.then(result => {
+        if (!this._aborted) {
+          this.dispatchEvent({
+            type: 'chunk',
+            data: result,
+            loaded: data.size,
+            total: data.size,
+          });
+        }
+        return null;
+      });
+    }
+
+    // Read the blob in slices off the JS thread so large files report progress
+    const readerId = nextReaderId++;
+    this._readerId = readerId;
+    this._clearSubscriptions();
+    this._subscriptions.push(
+      RCTDeviceEventEmitter.addListener('fileReaderProgress', event => {
+        if (event.readerId !== readerId || this._aborted) {
+          return;
+        }
+        if (event.data != null) {
+          this.dispatchEvent({
+            type: 'chunk',
+            data: event.data,
+            loaded: event.loaded,
+            total: event.total,
+          });
+        }
+        this.dispatchEvent({
+          type: 'progress',
+          lengthComputable: true,
+          loaded: event.loaded,
+          total: event.total,
+        });
+      }),
+    );
+    const done = () => {
+      if (this._readerId === readerId) {
+        this._readerId = null;
+        this._clearSubscriptions();
+      }
+    };
+    return readChunked(data, {
+      readerId,
+      format,
+      encoding,
+      emitChunks,
+      // Leave the key out when unset so the native module keeps its default
+      ...(chunkSize != null ? {chunkSize} : null),
+    }).then(
+      result => {
+        done();
+        return result;
+      },
+      error => {
+        done();
+        throw error;
+      },
+    );
+  }
+
   _setReadyState(newState: ReadyState) {
     this._readyState = newState;
     this.dispatchEvent({type: 'readystatechange'});
@@ -85,7 +177,7 @@ class FileReader extends (EventTarget(...READER_EVENTS): any) {
     throw new Error('FileReader.readAsArrayBuffer is not implemented');
   }
 
-  readAsDataURL(blob: ?Blob) {
+  readAsDataURL(blob: ?Blob, options?: ReadOptions) {
     this._aborted = false;
 
     if (blob == null) {
@@ -94,8 +186,8 @@ class FileReader extends (EventTarget(...READER_EVENTS): any) {
       );
     }
 
-    NativeFileReaderModule.readAsDataURL(blob.data).then(
-      (text: string) => {
+    this._read(blob.data, 'dataURL', 'UTF-8', options).then(
+      (text: ?string) => {
         if (this._aborted) {
           return;
         }
@@ -112,7 +204,11 @@ class FileReader extends (EventTarget(...READER_EVENTS): any) {
     );
   }
 
-  readAsText(blob: ?Blob, encoding: string = 'UTF-8') {
+  readAsText(
+    blob: ?Blob,
+    encoding: string = 'UTF-8',
+    options?: ReadOptions,
+  ) {
     this._aborted = false;
 
     if (blob == null) {
@@ -121,8 +217,8 @@ class FileReader extends (EventTarget(...READER_EVENTS): any) {
       );
     }
 
-    NativeFileReaderModule.readAsText(blob.data, encoding).then(
-      (text: string) => {
+    this._read(blob.data, 'text', encoding, options).then(
+      (text: ?string) => {
         if (this._aborted) {
           return;
         }
@@ -141,6 +237,10 @@ class FileReader extends (EventTarget(...READER_EVENTS): any) {
 
   abort() {
     this._aborted = true;
+    const readerId = this._readerId;
+    if (readerId != null && NativeFileReaderModule.abort != null) {
+      NativeFileReaderModule.abort(readerId);
+    }
     // only call onreadystatechange if there is something to abort, as per spec
     if (this._readyState !== EMPTY && this._readyState !== DONE) {
       this._reset();
@@ -16,6 +16,17 @@ import * as TurboModuleRegistry from '../TurboModule/TurboModuleRegistry';
 export interface Spec extends TurboModule {
   +readAsDataURL: (data: Object) => Promise<string>;
   +readAsText: (data: Object, encoding: string) => Promise<string>;
+  +readChunked?: (
+    data: Object,
+    options: {|
+      readerId: number,
+      format: string,
+      encoding: string,
+      chunkSize?: ?number,
+      emitChunks?: ?boolean,
+    |},
+  ) => Promise<?string>;
+  +abort?: (readerId: number) => void;
 }
 
 export default (TurboModuleRegistry.getEnforcing<Spec>(
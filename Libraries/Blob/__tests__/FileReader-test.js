@@ -38,4 +38,59 @@ describe('FileReader', function() {
     });
     expect(e.target.result).toBe('data:text/plain;base64,NDI=');
   });
+
+  it('should dispatch one chunk without native slicing', async () => {
+    const chunks = [];
+    const e = await new Promise((resolve, reject) => {
+      const reader = new FileReader();
+      reader.onchunk = event => chunks.push(event.data);
+      reader.onload = resolve;
+      reader.onerror = reject;
+      reader.readAsDataURL(new Blob(), {emitChunks: true});
+    });
+    expect(chunks).toEqual(['data:text/plain;base64,NDI=']);
+    expect(e.target.result).toBe(null);
+  });
+
+  it('should dispatch the chunks read by the native module', async () => {
+    const FileReaderModule = require('../__mocks__/FileReaderModule');
+    const RCTDeviceEventEmitter = require('../../EventEmitter/RCTDeviceEventEmitter');
+    FileReaderModule.readChunked = jest.fn(async (data, options) => {
+      const emit = (loaded, chunk) =>
+        RCTDeviceEventEmitter.emit('fileReaderProgress', {
+          readerId: options.readerId,
+          loaded,
+          total: 4,
+          data: chunk,
+        });
+      emit(2, 'ab');
+      emit(4, 'cd');
+      return null;
+    });
+    try {
+      const chunks = [];
+      const e = await new Promise((resolve, reject) => {
+        const reader = new FileReader();
+        reader.onchunk = event => chunks.push([event.data, event.loaded]);
+        reader.onload = resolve;
+        reader.onerror = reject;
+        reader.readAsText(new Blob(), 'UTF-8', {
+          chunkSize: 2,
+          emitChunks: true,
+        });
+      });
+      expect(FileReaderModule.readChunked.mock.calls[0][1]).toEqual(
+        expect.objectContaining({
+          format: 'text',
+          encoding: 'UTF-8',
+          chunkSize: 2,
+          emitChunks: true,
+        }),
+      );
+      expect(chunks).toEqual([['ab', 2], ['cd', 4]]);
+      expect(e.target.result).toBe(null);
+    } finally {
+      delete FileReaderModule.readChunked;
+    }
+  });
 });
@@ -536,6 +536,13 @@ export type NativeProps = $ReadOnly<{|
    */
   mostRecentEventCount: Int32,
   text?: ?string,
+
+  /**
+   * When `true`, `onChange` events carry the replaced `range` and the
+   * `insertedText` instead of the whole `text`, and `onTextInput` events
+   * leave out `previousText`.
+   */
+  textChangeDeltas?: ?boolean,
 |}>;
 
 type NativeType = HostComponent<NativeProps>;
@@ -554,6 +561,15 @@ interface NativeCommands {
     start: Int32,
     end: Int32,
   ) => void;
+  +replaceTextRange: (
+    viewRef: React.ElementRef<NativeType>,
+    mostRecentEventCount: Int32,
+    start: Int32,
+    end: Int32,
+    text: string,
+    selectionStart: Int32,
+    selectionEnd: Int32,
+  ) => void;
 }
 
 export const Commands: NativeCommands = codegenNativeCommands<NativeCommands>({
@@ -562,6 +578,7 @@ export const Commands: NativeCommands = codegenNativeCommands<NativeCommands>({
     'blur',
     'setMostRecentEventCount',
     'setTextAndSelection',
+    'replaceTextRange',
   ],
 });
 
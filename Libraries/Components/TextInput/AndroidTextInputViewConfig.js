@@ -75,6 +75,7 @@ const AndroidTextInputViewConfig = {
     allowFontScaling: true,
     onSelectionChange: true,
     mostRecentEventCount: true,
+    textChangeDeltas: true,
     inlineImageLeft: true,
     editable: true,
     fontVariant: true,
@@ -29,6 +29,8 @@ export interface Spec extends TurboModule {
   ) => void;
   +abortRequest: (requestId: number) => void;
   +clearCookies: (callback: (result: boolean) => void) => void;
+  +prewarmCache?: (urls: Array<string>, contentClass: string) => void;
+  +getCacheStats?: () => Promise<Object>;
 
   // RCTEventEmitter
   +addListener: (eventName: string) => void;
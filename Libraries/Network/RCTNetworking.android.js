@@ -20,6 +20,7 @@ import NativeNetworkingAndroid from './NativeNetworkingAndroid';
 import type {RequestBody} from './convertRequestBody';
 
 type Header = [string, string];
+type RequestPriority = 'low' | 'normal' | 'high';
 
 // Convert FormData headers to arrays, which are easier to consume in
 // native on Android.
@@ -56,6 +57,7 @@ class RCTNetworking extends NativeEventEmitter {
     timeout: number,
     callback: (requestId: number) => mixed,
     withCredentials: boolean,
+    priority?: ?RequestPriority,
   ) {
     const body = convertRequestBody(data);
     if (body && body.formData) {
@@ -70,7 +72,7 @@ class RCTNetworking extends NativeEventEmitter {
       url,
       requestId,
       convertHeadersMapToArray(headers),
-      {...body, trackingName},
+      {...body, trackingName, priority},
       responseType,
       incrementalUpdates,
       timeout,
@@ -86,6 +88,29 @@ class RCTNetworking extends NativeEventEmitter {
   clearCookies(callback: (result: boolean) => any) {
     NativeNetworkingAndroid.clearCookies(callback);
   }
+
+  /**
+   * Fetches `urls` into the native HTTP cache once the UI is idle, so that
+   * later requests for them are served from disk. Images are cached by the
+   * image pipeline, not the HTTP cache: use `Image.prefetch` for them, the
+   * 'image' class is only cached if the app gave it a budget.
+   */
+  prewarmCache(urls: Array<string>, contentClass: 'api' | 'image' = 'api') {
+    if (NativeNetworkingAndroid.prewarmCache != null) {
+      NativeNetworkingAndroid.prewarmCache(urls, contentClass);
+    }
+  }
+
+  /**
+   * Hit, miss, bytes saved and size counters of the native HTTP caches, keyed
+   * by content class.
+   */
+  getCacheStats(): Promise<?Object> {
+    if (NativeNetworkingAndroid.getCacheStats == null) {
+      return Promise.resolve(null);
+    }
+    return NativeNetworkingAndroid.getCacheStats();
+  }
 }
 
 module.exports = (new RCTNetworking(): RCTNetworking);
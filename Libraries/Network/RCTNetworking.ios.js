@@ -34,6 +34,8 @@ class RCTNetworking extends NativeEventEmitter {
     timeout: number,
     callback: (requestId: number) => void,
     withCredentials: boolean,
+    // Only used on Android
+    priority?: ?('low' | 'normal' | 'high'),
   ) {
     const body = convertRequestBody(data);
     NativeNetworkingIOS.sendRequest(
@@ -58,6 +60,13 @@ class RCTNetworking extends NativeEventEmitter {
   clearCookies(callback: (result: boolean) => void) {
     NativeNetworkingIOS.clearCookies(callback);
   }
+
+  // HTTP cache prewarming and stats are only implemented on Android
+  prewarmCache(urls: Array<string>, contentClass: 'api' | 'image' = 'api') {}
+
+  getCacheStats(): Promise<?Object> {
+    return Promise.resolve(null);
+  }
 }
 
 module.exports = (new RCTNetworking(): RCTNetworking);
@@ -141,6 +141,7 @@ class XMLHttpRequest extends (EventTarget(...XHR_EVENTS): any) {
   _url: ?string = null;
   _timedOut: boolean = false;
   _trackingName: string = 'unknown';
+  _priority: ?('low' | 'normal' | 'high') = null;
   _incrementalEvents: boolean = false;
 
   static setInterceptor(interceptor: ?XHRInterceptor) {
@@ -449,6 +450,15 @@ class XMLHttpRequest extends (EventTarget(...XHR_EVENTS): any) {
     return this;
   }
 
+  /**
+   * Custom extension to order requests waiting for the network. Only honored
+   * on Android, where identical in-flight GET requests are also coalesced.
+   */
+  setPriority(priority: 'low' | 'normal' | 'high'): XMLHttpRequest {
+    this._priority = priority;
+    return this;
+  }
+
   open(method: string, url: string, async: ?boolean): void {
     /* Other optional arguments are not supported yet */
     if (this.readyState !== this.UNSENT) {
@@ -545,6 +555,7 @@ class XMLHttpRequest extends (EventTarget(...XHR_EVENTS): any) {
         this.timeout,
         this.__didCreateRequest.bind(this),
         this.withCredentials,
+        this._priority,
       );
     };
     if (DEBUG_NETWORK_SEND_DELAY) {
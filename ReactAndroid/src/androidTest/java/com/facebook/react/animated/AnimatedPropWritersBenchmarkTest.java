@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.animated;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.runner.AndroidJUnit4;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.uimanager.DisplayMetricsHolder;
+import com.facebook.react.uimanager.MatrixMathHelper;
+import com.facebook.react.uimanager.ReactStylesDiffMap;
+import com.facebook.react.views.view.ReactViewGroup;
+import com.facebook.react.views.view.ReactViewManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Compares updating the opacity and transform of animated views through a props map, as {@link
+ * PropsAnimatedNode} does by default, with the typed setters used by its prop writers.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AnimatedPropWritersBenchmarkTest {
+
+  private static final String TAG = "AnimatedPropWritersBenchmarkTest";
+  private static final int ANIMATED_VIEWS = 500;
+  private static final int FRAMES = 60;
+
+  private final ReactViewManager mViewManager = new ReactViewManager();
+  private final ReactViewGroup[] mViews = new ReactViewGroup[ANIMATED_VIEWS];
+
+  @Before
+  public void setUp() {
+    Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    DisplayMetricsHolder.initDisplayMetricsIfNotInitialized(context);
+    for (int i = 0; i < ANIMATED_VIEWS; i++) {
+      mViews[i] = new ReactViewGroup(context);
+    }
+  }
+
+  @Test
+  public void testAnimateViews() {
+    final long[] results = new long[2];
+    InstrumentationRegistry.getInstrumentation()
+        .runOnMainSync(
+            new Runnable() {
+              @Override
+              public void run() {
+                animateWithPropsMap();
+                animateWithPropWriters();
+                results[0] = animateWithPropsMap();
+                results[1] = animateWithPropWriters();
+              }
+            });
+
+    Log.i(
+        TAG,
+        "Animated "
+            + ANIMATED_VIEWS
+            + " views for "
+            + FRAMES
+            + " frames: "
+            + results[0]
+            + "ms with props maps, "
+            + results[1]
+            + "ms with prop writers");
+  }
+
+  private long animateWithPropsMap() {
+    long start = SystemClock.elapsedRealtime();
+    JavaOnlyMap propMap = new JavaOnlyMap();
+    for (int frame = 0; frame < FRAMES; frame++) {
+      double progress = (double) frame / FRAMES;
+      for (int i = 0; i < ANIMATED_VIEWS; i++) {
+        // What PropsAnimatedNode and TransformAnimatedNode build every frame
+        propMap.putDouble("opacity", progress);
+        propMap.putArray(
+            "transform",
+            JavaOnlyArray.of(
+                JavaOnlyMap.of("translateX", progress * 100),
+                JavaOnlyMap.of("rotate", progress * Math.PI)));
+        mViewManager.updateProperties(mViews[i], new ReactStylesDiffMap(propMap));
+      }
+    }
+    return SystemClock.elapsedRealtime() - start;
+  }
+
+  private long animateWithPropWriters() {
+    long start = SystemClock.elapsedRealtime();
+    double[] matrix = new double[16];
+    double[] helperMatrix = new double[16];
+    for (int frame = 0; frame < FRAMES; frame++) {
+      double progress = (double) frame / FRAMES;
+      for (int i = 0; i < ANIMATED_VIEWS; i++) {
+        // What the opacity and transform writers of PropsAnimatedNode do every frame
+        mViewManager.setOpacity(mViews[i], (float) progress);
+        MatrixMathHelper.resetIdentityMatrix(matrix);
+        MatrixMathHelper.resetIdentityMatrix(helperMatrix);
+        MatrixMathHelper.applyTranslate2D(helperMatrix, progress * 100, 0d);
+        MatrixMathHelper.multiplyInto(matrix, matrix, helperMatrix);
+        MatrixMathHelper.resetIdentityMatrix(helperMatrix);
+        MatrixMathHelper.applyRotateZ(helperMatrix, progress * Math.PI);
+        MatrixMathHelper.multiplyInto(matrix, matrix, helperMatrix);
+        mViewManager.setTransformMatrix(mViews[i], matrix);
+      }
+    }
+    return SystemClock.elapsedRealtime() - start;
+  }
+}
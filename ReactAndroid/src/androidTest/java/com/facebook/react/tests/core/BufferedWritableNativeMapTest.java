@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.tests.core;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.test.runner.AndroidJUnit4;
+import com.facebook.react.bridge.BufferedWritableNativeArray;
+import com.facebook.react.bridge.BufferedWritableNativeMap;
+import com.facebook.react.bridge.ObjectAlreadyConsumedException;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.bridge.WritableNativeArray;
+import com.facebook.react.bridge.WritableNativeMap;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class BufferedWritableNativeMapTest {
+
+  private static final String TAG = "BufferedWritableNativeMapTest";
+  private static final int BENCHMARK_EVENTS = 2000;
+  private static final int BENCHMARK_WARMUP_EVENTS = 200;
+  private static final int TOUCHES_PER_EVENT = 3;
+
+  private interface Factory {
+    WritableMap createMap();
+
+    WritableArray createArray();
+  }
+
+  private static final Factory NATIVE =
+      new Factory() {
+        @Override
+        public WritableMap createMap() {
+          return new WritableNativeMap();
+        }
+
+        @Override
+        public WritableArray createArray() {
+          return new WritableNativeArray();
+        }
+      };
+
+  private static final Factory BUFFERED =
+      new Factory() {
+        @Override
+        public WritableMap createMap() {
+          return new BufferedWritableNativeMap();
+        }
+
+        @Override
+        public WritableArray createArray() {
+          return new BufferedWritableNativeArray();
+        }
+      };
+
+  @Test
+  public void testBufferedPayloadMatchesNativePayload() {
+    WritableNativeArray expected = createTouchEvent(NATIVE, 1);
+    WritableNativeArray actual = createTouchEvent(BUFFERED, 1);
+
+    assertThat(actual.toArrayList()).isEqualTo(expected.toArrayList());
+  }
+
+  @Test
+  public void testReadsSeeBufferedEntries() {
+    BufferedWritableNativeMap map = new BufferedWritableNativeMap();
+    map.putInt("int", 1);
+    map.putString("string", "abc");
+    map.putNull("null");
+    map.putBoolean("boolean", true);
+
+    assertThat(map.getInt("int")).isEqualTo(1);
+    assertThat(map.getString("string")).isEqualTo("abc");
+    assertThat(map.isNull("null")).isTrue();
+    assertThat(map.getBoolean("boolean")).isTrue();
+  }
+
+  @Test
+  public void testMapWrittenAfterReadIsNestedNatively() {
+    BufferedWritableNativeMap child = new BufferedWritableNativeMap();
+    child.putDouble("x", 1.5);
+    assertThat(child.getDouble("x")).isEqualTo(1.5);
+    child.putDouble("y", 2.5);
+
+    BufferedWritableNativeMap parent = new BufferedWritableNativeMap();
+    parent.putString("before", "a");
+    parent.putMap("child", child);
+    parent.putString("after", "b");
+
+    assertThat(parent.getString("before")).isEqualTo("a");
+    assertThat(parent.getMap("child").getDouble("x")).isEqualTo(1.5);
+    assertThat(parent.getMap("child").getDouble("y")).isEqualTo(2.5);
+    assertThat(parent.getString("after")).isEqualTo("b");
+  }
+
+  @Test(expected = ObjectAlreadyConsumedException.class)
+  public void testNestedMapIsConsumed() {
+    BufferedWritableNativeMap child = new BufferedWritableNativeMap();
+    BufferedWritableNativeArray parent = new BufferedWritableNativeArray();
+    parent.pushMap(child);
+    child.putInt("int", 1);
+  }
+
+  @Test
+  public void testEventPayloadConstruction() {
+    buildEvents(NATIVE, BENCHMARK_WARMUP_EVENTS);
+    long nativeMs = buildEvents(NATIVE, BENCHMARK_EVENTS);
+    buildEvents(BUFFERED, BENCHMARK_WARMUP_EVENTS);
+    long bufferedMs = buildEvents(BUFFERED, BENCHMARK_EVENTS);
+
+    Log.i(
+        TAG,
+        "Built "
+            + BENCHMARK_EVENTS
+            + " touch events: "
+            + nativeMs
+            + "ms with WritableNativeMap, "
+            + bufferedMs
+            + "ms with BufferedWritableNativeMap");
+  }
+
+  private static long buildEvents(Factory factory, int count) {
+    long start = SystemClock.elapsedRealtime();
+    for (int i = 0; i < count; i++) {
+      // What the bridge does before handing the arguments of a JS call to native code
+      createTouchEvent(factory, i).materialize();
+    }
+    return SystemClock.elapsedRealtime() - start;
+  }
+
+  /** Arguments of RCTEventEmitter.receiveTouches, as built by TouchesHelper. */
+  private static WritableNativeArray createTouchEvent(Factory factory, int timestamp) {
+    WritableArray touches = factory.createArray();
+    for (int i = 0; i < TOUCHES_PER_EVENT; i++) {
+      WritableMap touch = factory.createMap();
+      touch.putDouble("pageX", 100.5 + i);
+      touch.putDouble("pageY", 200.5 + i);
+      touch.putDouble("locationX", 10.5 + i);
+      touch.putDouble("locationY", 20.5 + i);
+      touch.putInt("target", 42);
+      touch.putDouble("timestamp", timestamp);
+      touch.putDouble("identifier", i);
+      touches.pushMap(touch);
+    }
+    WritableArray changedIndices = factory.createArray();
+    changedIndices.pushInt(0);
+
+    WritableNativeArray arguments = (WritableNativeArray) factory.createArray();
+    arguments.pushString("topTouchMove");
+    arguments.pushArray(touches);
+    arguments.pushArray(changedIndices);
+    return arguments;
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.runner.AndroidJUnit4;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.config.ReactFeatureFlags;
+import com.facebook.soloader.SoLoader;
+import com.facebook.yoga.YogaEdge;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Checks that layout props applied to Yoga in one native batch give the same layout as props
+ * applied one by one.
+ */
+@RunWith(AndroidJUnit4.class)
+public class LayoutShadowNodeStyleInputsTest {
+
+  private boolean mEnableBatchedYogaStyleInputs;
+
+  @Before
+  public void setUp() {
+    Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    SoLoader.init(context, false);
+    mEnableBatchedYogaStyleInputs = ReactFeatureFlags.enableBatchedYogaStyleInputs;
+  }
+
+  @After
+  public void tearDown() {
+    ReactFeatureFlags.enableBatchedYogaStyleInputs = mEnableBatchedYogaStyleInputs;
+  }
+
+  @Test
+  public void testBatchedStyleInputsMatchIndividualSetters() {
+    ReactFeatureFlags.enableBatchedYogaStyleInputs = false;
+    LayoutShadowNode expected = createLaidOutNode();
+    ReactFeatureFlags.enableBatchedYogaStyleInputs = true;
+    LayoutShadowNode actual = createLaidOutNode();
+
+    assertEquals(expected.getStyleWidth(), actual.getStyleWidth());
+    assertEquals(expected.getStyleHeight(), actual.getStyleHeight());
+    for (YogaEdge edge : YogaEdge.values()) {
+      assertEquals(
+          expected.getStylePadding(edge.intValue()), actual.getStylePadding(edge.intValue()));
+      assertEquals(expected.getPadding(edge.intValue()), actual.getPadding(edge.intValue()), 0);
+    }
+    assertEquals(expected.getLayoutWidth(), actual.getLayoutWidth(), 0);
+    assertEquals(expected.getLayoutHeight(), actual.getLayoutHeight(), 0);
+    assertEquals(expected.getChildAt(0).getLayoutX(), actual.getChildAt(0).getLayoutX(), 0);
+    assertEquals(expected.getChildAt(0).getLayoutY(), actual.getChildAt(0).getLayoutY(), 0);
+    assertEquals(
+        expected.getChildAt(0).getLayoutWidth(), actual.getChildAt(0).getLayoutWidth(), 0);
+  }
+
+  private static LayoutShadowNode createLaidOutNode() {
+    LayoutShadowNode root = new LayoutShadowNode();
+    root.updateProperties(createLayoutProps());
+    LayoutShadowNode child = new LayoutShadowNode();
+    child.updateProperties(
+        new ReactStylesDiffMap(JavaOnlyMap.of("flexGrow", 1.0, "height", "50%", "margin", 4.0)));
+    root.addChildAt(child, 0);
+    root.calculateLayout();
+    return root;
+  }
+
+  private static ReactStylesDiffMap createLayoutProps() {
+    JavaOnlyMap props = new JavaOnlyMap();
+    props.putDouble("width", 320);
+    props.putDouble("height", 480);
+    props.putDouble("minWidth", 100);
+    props.putString("maxHeight", "100%");
+    props.putString("flexDirection", "row");
+    props.putString("justifyContent", "space-between");
+    props.putString("alignItems", "center");
+    props.putString("flexWrap", "wrap");
+    props.putDouble("flexShrink", 0);
+    props.putDouble("padding", 8);
+    props.putDouble("paddingHorizontal", 12);
+    props.putString("paddingTop", "5%");
+    props.putDouble("marginTop", 10);
+    props.putString("marginLeft", "auto");
+    props.putDouble("borderWidth", 1);
+    props.putString("position", "relative");
+    return new ReactStylesDiffMap(props);
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import androidx.annotation.Nullable;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.runner.AndroidJUnit4;
+import com.facebook.react.config.ReactFeatureFlags;
+import com.facebook.soloader.SoLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Checks that shadow nodes keep count of their children with unseen updates, which is used to skip
+ * clean children when dispatching layout updates.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ReactShadowNodeUpdatedChildCountTest {
+
+  private static final int TREE_DEPTH = 4;
+  private static final int TREE_FAN_OUT = 3;
+
+  private boolean mEnableLayoutUpdatesSubtreeSkipping;
+
+  @Before
+  public void setUp() {
+    Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    SoLoader.init(context, false);
+    mEnableLayoutUpdatesSubtreeSkipping = ReactFeatureFlags.enableLayoutUpdatesSubtreeSkipping;
+  }
+
+  @After
+  public void tearDown() {
+    ReactFeatureFlags.enableLayoutUpdatesSubtreeSkipping = mEnableLayoutUpdatesSubtreeSkipping;
+  }
+
+  @Test
+  public void testNewChildrenAreCounted() {
+    ReactShadowNodeImpl parent = new ReactShadowNodeImpl();
+    parent.addChildAt(new ReactShadowNodeImpl(), 0);
+    parent.addChildAt(new ReactShadowNodeImpl(), 1);
+
+    assertEquals(2, parent.getUpdatedChildCount());
+  }
+
+  @Test
+  public void testSeenChildrenAreNotCounted() {
+    ReactShadowNodeImpl root = createSeenTree();
+    ReactShadowNodeImpl parent = root.getChildAt(0);
+
+    parent.getChildAt(1).markUpdated();
+
+    assertEquals(1, root.getUpdatedChildCount());
+    assertEquals(1, parent.getUpdatedChildCount());
+
+    parent.getChildAt(1).markUpdateSeen();
+    parent.markUpdateSeen();
+
+    assertEquals(0, root.getUpdatedChildCount());
+    assertEquals(0, parent.getUpdatedChildCount());
+  }
+
+  @Test
+  public void testRemovedChildrenAreNotCounted() {
+    ReactShadowNodeImpl root = createSeenTree();
+    ReactShadowNodeImpl parent = root.getChildAt(0);
+    parent.getChildAt(0).markUpdated();
+
+    ReactShadowNodeImpl removed = parent.removeChildAt(0);
+
+    assertEquals(0, parent.getUpdatedChildCount());
+    removed.markUpdateSeen();
+    assertEquals(0, parent.getUpdatedChildCount());
+
+    parent.addChildAt(new ReactShadowNodeImpl(), 0);
+    parent.removeAndDisposeAllChildren();
+    assertEquals(0, parent.getUpdatedChildCount());
+  }
+
+  @Test
+  public void testApplyUpdatesSkipsCleanSubtrees() {
+    ReactFeatureFlags.enableLayoutUpdatesSubtreeSkipping = true;
+    List<ReactShadowNode> dispatched = new ArrayList<>();
+    TestShadowNode root = createLaidOutTree(dispatched);
+    List<ReactShadowNode> path = updateMiddleLeaf(root);
+    RecordingUIImplementation uiImplementation = new RecordingUIImplementation();
+
+    uiImplementation.applyUpdatesRecursive(root, 0, 0);
+
+    // Only the updated leaf and its ancestors are visited, the clean subtrees of their siblings
+    // aren't. Updates are dispatched children first, so the leaf still gets its update.
+    assertEquals(path, uiImplementation.mVisited);
+    Collections.reverse(path);
+    assertEquals(path, dispatched);
+    assertEquals(0, root.getUpdatedChildCount());
+  }
+
+  @Test
+  public void testApplyUpdatesVisitsCleanSubtreesWithoutSkipping() {
+    ReactFeatureFlags.enableLayoutUpdatesSubtreeSkipping = false;
+    List<ReactShadowNode> dispatched = new ArrayList<>();
+    TestShadowNode root = createLaidOutTree(dispatched);
+    List<ReactShadowNode> path = updateMiddleLeaf(root);
+    RecordingUIImplementation uiImplementation = new RecordingUIImplementation();
+
+    uiImplementation.applyUpdatesRecursive(root, 0, 0);
+
+    int nodeCount = 0;
+    for (int depth = 0, levelCount = 1; depth <= TREE_DEPTH; depth++) {
+      nodeCount += levelCount;
+      levelCount *= TREE_FAN_OUT;
+    }
+    assertEquals(nodeCount, uiImplementation.mVisited.size());
+    Collections.reverse(path);
+    assertEquals(path, dispatched);
+  }
+
+  /**
+   * A tree of {@link #TREE_DEPTH} levels below the root where every node but the leaves has {@link
+   * #TREE_FAN_OUT} children. It is laid out and all nodes have seen their updates.
+   */
+  private static TestShadowNode createLaidOutTree(List<ReactShadowNode> dispatched) {
+    TestShadowNode root = createSubtree(TREE_DEPTH, dispatched);
+    root.calculateLayout();
+    markTreeSeen(root);
+    return root;
+  }
+
+  private static TestShadowNode createSubtree(int depth, List<ReactShadowNode> dispatched) {
+    TestShadowNode node = new TestShadowNode(dispatched);
+    for (int i = 0; depth > 0 && i < TREE_FAN_OUT; i++) {
+      node.addChildAt(createSubtree(depth - 1, dispatched), i);
+    }
+    return node;
+  }
+
+  private static void markTreeSeen(ReactShadowNodeImpl node) {
+    for (int i = 0; i < node.getChildCount(); i++) {
+      markTreeSeen(node.getChildAt(i));
+    }
+    node.markUpdateSeen();
+  }
+
+  /**
+   * Marks the leaf reached by always taking the middle child as updated.
+   *
+   * @return the nodes on the path from the root to the leaf
+   */
+  private static List<ReactShadowNode> updateMiddleLeaf(ReactShadowNodeImpl root) {
+    List<ReactShadowNode> path = new ArrayList<>();
+    ReactShadowNodeImpl node = root;
+    path.add(node);
+    while (node.getChildCount() > 0) {
+      node = node.getChildAt(TREE_FAN_OUT / 2);
+      path.add(node);
+    }
+    node.markUpdated();
+    return path;
+  }
+
+  /** Records the nodes whose updates are dispatched. */
+  private static class TestShadowNode extends ReactShadowNodeImpl {
+
+    private final List<ReactShadowNode> mDispatched;
+
+    TestShadowNode(List<ReactShadowNode> dispatched) {
+      mDispatched = dispatched;
+    }
+
+    @Override
+    public boolean dispatchUpdates(
+        float absoluteX,
+        float absoluteY,
+        UIViewOperationQueue uiViewOperationQueue,
+        @Nullable NativeViewHierarchyOptimizer nativeViewHierarchyOptimizer) {
+      mDispatched.add(this);
+      return super.dispatchUpdates(
+          absoluteX, absoluteY, uiViewOperationQueue, nativeViewHierarchyOptimizer);
+    }
+  }
+
+  /** Records the nodes visited while applying updates, in the order they are visited. */
+  private static class RecordingUIImplementation extends UIImplementation {
+
+    private final List<ReactShadowNode> mVisited = new ArrayList<>();
+
+    RecordingUIImplementation() {
+      super(null, new ViewManagerRegistry(new ArrayList<ViewManager>()), null, null);
+    }
+
+    @Override
+    protected void applyUpdatesRecursive(
+        ReactShadowNode cssNode, float absoluteX, float absoluteY) {
+      mVisited.add(cssNode);
+      super.applyUpdatesRecursive(cssNode, absoluteX, absoluteY);
+    }
+  }
+
+  /** A root with one child that has three children, all of which have seen their updates. */
+  private static ReactShadowNodeImpl createSeenTree() {
+    ReactShadowNodeImpl root = new ReactShadowNodeImpl();
+    ReactShadowNodeImpl parent = new ReactShadowNodeImpl();
+    root.addChildAt(parent, 0);
+    for (int i = 0; i < 3; i++) {
+      ReactShadowNodeImpl child = new ReactShadowNodeImpl();
+      parent.addChildAt(child, i);
+      child.markUpdateSeen();
+    }
+    parent.markUpdateSeen();
+    root.markUpdateSeen();
+    return root;
+  }
+}
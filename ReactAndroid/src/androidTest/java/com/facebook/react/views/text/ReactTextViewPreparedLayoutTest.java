@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.text;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.SystemClock;
+import android.text.Layout;
+import android.text.SpannableString;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.Log;
+import android.util.TypedValue;
+import android.view.View;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.runner.AndroidJUnit4;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Compares the UI thread cost of showing text in {@link ReactTextView} with and without the layout
+ * prepared by the shadow node.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ReactTextViewPreparedLayoutTest {
+
+  private static final String TAG = "ReactTextViewPreparedLayoutTest";
+  private static final int BENCHMARK_TEXT_NODES = 1000;
+  private static final int WIDTH = 600;
+  private static final int HEIGHT = 120;
+  private static final float TEXT_SIZE = 36;
+
+  private Context mContext;
+  private Canvas mCanvas;
+
+  @Before
+  public void setUp() {
+    mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    mCanvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+  }
+
+  @Test
+  public void testPreparedLayoutIsUsedForPlainText() {
+    final ReactTextUpdate update = createUpdate(0, true);
+    InstrumentationRegistry.getInstrumentation()
+        .runOnMainSync(
+            new Runnable() {
+              @Override
+              public void run() {
+                ReactTextView view = createView(0);
+                view.setText(update);
+                showView(view);
+
+                // TextView only builds its own layout when it measures the text
+                assertThat(view.getLayout()).isNull();
+              }
+            });
+  }
+
+  @Test
+  public void testSelectableTextFallsBackToTextViewLayout() {
+    final ReactTextUpdate update = createUpdate(0, true);
+    InstrumentationRegistry.getInstrumentation()
+        .runOnMainSync(
+            new Runnable() {
+              @Override
+              public void run() {
+                ReactTextView view = createView(0);
+                view.setTextIsSelectable(true);
+                view.setText(update);
+                showView(view);
+
+                assertThat(view.getLayout()).isNotNull();
+              }
+            });
+  }
+
+  @Test
+  public void testShowTextNodes() {
+    // Layouts are built before the benchmark, as the shadow node does on the layout thread
+    final ReactTextUpdate[] plainUpdates = new ReactTextUpdate[BENCHMARK_TEXT_NODES];
+    final ReactTextUpdate[] preparedUpdates = new ReactTextUpdate[BENCHMARK_TEXT_NODES];
+    for (int i = 0; i < BENCHMARK_TEXT_NODES; i++) {
+      plainUpdates[i] = createUpdate(i, false);
+      preparedUpdates[i] = createUpdate(i, true);
+    }
+
+    final long[] results = new long[2];
+    InstrumentationRegistry.getInstrumentation()
+        .runOnMainSync(
+            new Runnable() {
+              @Override
+              public void run() {
+                showTextNodes(plainUpdates);
+                showTextNodes(preparedUpdates);
+                results[0] = showTextNodes(plainUpdates);
+                results[1] = showTextNodes(preparedUpdates);
+              }
+            });
+
+    Log.i(
+        TAG,
+        "Showed "
+            + BENCHMARK_TEXT_NODES
+            + " text nodes on the UI thread: "
+            + results[0]
+            + "ms with TextView layouts, "
+            + results[1]
+            + "ms with prepared layouts");
+  }
+
+  private long showTextNodes(ReactTextUpdate[] updates) {
+    long start = SystemClock.elapsedRealtime();
+    for (int i = 0; i < updates.length; i++) {
+      ReactTextView view = createView(i);
+      view.setText(updates[i]);
+      showView(view);
+    }
+    return SystemClock.elapsedRealtime() - start;
+  }
+
+  private ReactTextView createView(int index) {
+    ReactTextView view = new ReactTextView(mContext);
+    view.setTextSize(TypedValue.COMPLEX_UNIT_PX, TEXT_SIZE);
+    // Even tags belong to Fabric, for which ReactTextView does not look up inline views in
+    // onLayout. This lets the views be laid out without a UIManagerModule.
+    view.setId(index * 2);
+    return view;
+  }
+
+  private void showView(View view) {
+    view.measure(
+        View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+        View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+    view.layout(0, 0, WIDTH, HEIGHT);
+    view.draw(mCanvas);
+  }
+
+  private static ReactTextUpdate createUpdate(int index, boolean withPreparedLayout) {
+    SpannableString text =
+        new SpannableString("Text node " + index + " with enough words to wrap onto a second line");
+    ReactTextUpdate update =
+        new ReactTextUpdate(
+            text,
+            -1,
+            false,
+            0,
+            0,
+            0,
+            0,
+            0,
+            Layout.BREAK_STRATEGY_HIGH_QUALITY,
+            Layout.JUSTIFICATION_MODE_NONE);
+    if (withPreparedLayout) {
+      TextPaint paint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+      paint.setTextSize(TEXT_SIZE);
+      update.setPreparedLayout(
+          new StaticLayout(text, paint, WIDTH, Layout.Alignment.ALIGN_NORMAL, 1.f, 0.f, true));
+    }
+    return update;
+  }
+}
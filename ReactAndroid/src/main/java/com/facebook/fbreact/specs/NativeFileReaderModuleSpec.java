@@ -25,9 +25,17 @@ public abstract class NativeFileReaderModuleSpec extends ReactContextBaseJavaMod
     super(reactContext);
   }
 
+  @ReactMethod
+  public void abort(double readerId) {
+  }
+
   @ReactMethod
   public abstract void readAsDataURL(ReadableMap data, Promise promise);
 
   @ReactMethod
   public abstract void readAsText(ReadableMap data, String encoding, Promise promise);
+
+  @ReactMethod
+  public void readChunked(ReadableMap data, ReadableMap options, Promise promise) {
+  }
 }
@@ -13,6 +13,7 @@
 package com.facebook.fbreact.specs;
 
 import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
@@ -35,6 +36,12 @@ public abstract class NativeNetworkingAndroidSpec extends ReactContextBaseJavaMo
   @ReactMethod
   public abstract void clearCookies(Callback callback);
 
+  @ReactMethod
+  public abstract void prewarmCache(ReadableArray urls, String contentClass);
+
+  @ReactMethod
+  public abstract void getCacheStats(Promise promise);
+
   @ReactMethod
   public abstract void sendRequest(String method, String url, double requestId,
       ReadableArray headers, ReadableMap data, String responseType, boolean useIncrementalUpdates,
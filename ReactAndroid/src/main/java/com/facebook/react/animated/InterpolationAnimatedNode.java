@@ -30,6 +30,12 @@ import java.util.regex.Pattern;
   private static final String fpRegex = "[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?";
   private static final Pattern fpPattern = Pattern.compile(fpRegex);
 
+  // Types of output range, see the constructor
+  private static final int OUTPUT_TYPE_NUMBER = 0;
+  private static final int OUTPUT_TYPE_COLOR = 1;
+  private static final int OUTPUT_TYPE_SUFFIXED = 2;
+  private static final int OUTPUT_TYPE_PATTERN = 3;
+
   private static double[] fromDoubleArray(ReadableArray ary) {
     double[] res = new double[ary.size()];
     for (int i = 0; i < res.length; i++) {
@@ -124,8 +130,11 @@ import java.util.regex.Pattern;
   private final double mOutputRange[];
   private String mPattern;
   private double mOutputs[][];
-  private final boolean mHasStringOutput;
+  private final int mOutputType;
   private final Matcher mSOutputMatcher;
+  private @Nullable String mOutputPrefix;
+  private @Nullable String mOutputSuffix;
+  private int mColor;
   private final String mExtrapolateLeft;
   private final String mExtrapolateRight;
   private @Nullable ValueAnimatedNode mParent;
@@ -135,15 +144,14 @@ import java.util.regex.Pattern;
   public InterpolationAnimatedNode(ReadableMap config) {
     mInputRange = fromDoubleArray(config.getArray("inputRange"));
     ReadableArray output = config.getArray("outputRange");
-    mHasStringOutput = output.getType(0) == ReadableType.String;
-    if (mHasStringOutput) {
+    if (output.getType(0) == ReadableType.String) {
       /*
-       * Supports string shapes by extracting numbers so new values can be computed,
-       * and recombines those values into new strings of the same shape.  Supports
-       * things like:
+       * Supports string shapes by extracting numbers so new values can be computed.
+       * Supports things like:
        *
-       *   rgba(123, 42, 99, 0.36) // colors
-       *   -45deg                  // values with units
+       *   rgba(123, 42, 99, 0.36) // colors, interpolated to an ARGB int
+       *   -45deg                  // values with units, interpolated as a number
+       *   0px 10px                // other shapes, recombined into new strings of the same shape
        */
       int size = output.size();
       mOutputRange = new double[size];
@@ -180,7 +188,19 @@ import java.util.regex.Pattern;
           arr[i] = mOutputRanges.get(i).get(j);
         }
       }
+
+      if (mShouldRound && (mNumVals == 3 || mNumVals == 4)) {
+        mOutputType = OUTPUT_TYPE_COLOR;
+      } else if (mNumVals == 1) {
+        mOutputType = OUTPUT_TYPE_SUFFIXED;
+        mSOutputMatcher.find();
+        mOutputPrefix = mPattern.substring(0, mSOutputMatcher.start());
+        mOutputSuffix = mPattern.substring(mSOutputMatcher.end());
+      } else {
+        mOutputType = OUTPUT_TYPE_PATTERN;
+      }
     } else {
+      mOutputType = OUTPUT_TYPE_NUMBER;
       mOutputRange = fromDoubleArray(output);
       mSOutputMatcher = null;
     }
@@ -216,37 +236,84 @@ import java.util.regex.Pattern;
     }
     double value = mParent.getValue();
     mValue = interpolate(value, mInputRange, mOutputRange, mExtrapolateLeft, mExtrapolateRight);
-    if (mHasStringOutput) {
-      // 'rgba(0, 100, 200, 0)'
+    if (mOutputType == OUTPUT_TYPE_COLOR) {
+      mColor = interpolateColor(value);
+    } else if (mOutputType == OUTPUT_TYPE_SUFFIXED) {
+      // Built from mValue if a view needs the string, see getAnimatedObject
+      mAnimatedObject = null;
+    } else if (mOutputType == OUTPUT_TYPE_PATTERN) {
+      // '0px 10px'
       // ->
-      // 'rgba(${interpolations[0](input)}, ${interpolations[1](input)}, ...'
-      if (mNumVals > 1) {
-        StringBuffer sb = new StringBuffer(mPattern.length());
-        int i = 0;
-        mSOutputMatcher.reset();
-        while (mSOutputMatcher.find()) {
-          double val =
-              interpolate(value, mInputRange, mOutputs[i++], mExtrapolateLeft, mExtrapolateRight);
-          if (mShouldRound) {
-            // rgba requires that the r,g,b are integers.... so we want to round them, but we *dont*
-            // want to
-            // round the opacity (4th column).
-            boolean isAlpha = i == 4;
-            int rounded = (int) Math.round(isAlpha ? val * 1000 : val);
-            String num =
-                isAlpha ? Double.toString((double) rounded / 1000) : Integer.toString(rounded);
-            mSOutputMatcher.appendReplacement(sb, num);
-          } else {
-            int intVal = (int) val;
-            String num = intVal != val ? Double.toString(val) : Integer.toString(intVal);
-            mSOutputMatcher.appendReplacement(sb, num);
-          }
+      // '${interpolations[0](input)}px ${interpolations[1](input)}px'
+      StringBuffer sb = new StringBuffer(mPattern.length());
+      int i = 0;
+      mSOutputMatcher.reset();
+      while (mSOutputMatcher.find()) {
+        double val =
+            interpolate(value, mInputRange, mOutputs[i++], mExtrapolateLeft, mExtrapolateRight);
+        if (mShouldRound) {
+          // rgba requires that the r,g,b are integers.... so we want to round them, but we *dont*
+          // want to
+          // round the opacity (4th column).
+          boolean isAlpha = i == 4;
+          int rounded = (int) Math.round(isAlpha ? val * 1000 : val);
+          String num =
+              isAlpha ? Double.toString((double) rounded / 1000) : Integer.toString(rounded);
+          mSOutputMatcher.appendReplacement(sb, num);
+        } else {
+          int intVal = (int) val;
+          String num = intVal != val ? Double.toString(val) : Integer.toString(intVal);
+          mSOutputMatcher.appendReplacement(sb, num);
         }
-        mSOutputMatcher.appendTail(sb);
-        mAnimatedObject = sb.toString();
-      } else {
-        mAnimatedObject = mSOutputMatcher.replaceFirst(String.valueOf(mValue));
       }
+      mSOutputMatcher.appendTail(sb);
+      mAnimatedObject = sb.toString();
+    }
+  }
+
+  @Override
+  public Object getAnimatedObject() {
+    if (mOutputType == OUTPUT_TYPE_SUFFIXED && mAnimatedObject == null) {
+      mAnimatedObject = mOutputPrefix + mValue + mOutputSuffix;
+    }
+    return mAnimatedObject;
+  }
+
+  /** Whether the output range is made of rgb(a) colors, see {@link #getColor}. */
+  /*package*/ boolean hasColorOutput() {
+    return mOutputType == OUTPUT_TYPE_COLOR;
+  }
+
+  /** The interpolated color as an ARGB int, for nodes with a color output range. */
+  /*package*/ int getColor() {
+    return mColor;
+  }
+
+  /**
+   * Interpolates each channel of the rgb(a) output range, rounded the same way as the string
+   * would be when parsed by processColor in JS.
+   */
+  private int interpolateColor(double value) {
+    int red = interpolateColorChannel(value, 0);
+    int green = interpolateColorChannel(value, 1);
+    int blue = interpolateColorChannel(value, 2);
+    int alpha = 255;
+    if (mNumVals == 4) {
+      double opacity =
+          interpolate(value, mInputRange, mOutputs[3], mExtrapolateLeft, mExtrapolateRight);
+      alpha = clampColorChannel(Math.round(Math.round(opacity * 1000) / 1000d * 255));
     }
+    return (alpha << 24) | (red << 16) | (green << 8) | blue;
+  }
+
+  private int interpolateColorChannel(double value, int channel) {
+    return clampColorChannel(
+        Math.round(
+            interpolate(
+                value, mInputRange, mOutputs[channel], mExtrapolateLeft, mExtrapolateRight)));
+  }
+
+  private static int clampColorChannel(long value) {
+    return (int) Math.max(0, Math.min(255, value));
   }
 }
@@ -7,28 +7,122 @@
 
 package com.facebook.react.animated;
 
+import android.view.View;
 import androidx.annotation.Nullable;
 import com.facebook.react.bridge.JSApplicationIllegalArgumentException;
 import com.facebook.react.bridge.JavaOnlyMap;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableMapKeySetIterator;
 import com.facebook.react.bridge.UIManager;
+import com.facebook.react.config.ReactFeatureFlags;
+import com.facebook.react.uimanager.BaseViewManager;
+import com.facebook.react.uimanager.IllegalViewOperationException;
+import com.facebook.react.uimanager.UIManagerModule;
+import com.facebook.react.uimanager.ViewManager;
+import com.facebook.react.uimanager.ViewProps;
+import com.facebook.react.uimanager.common.UIManagerType;
+import com.facebook.react.uimanager.common.ViewUtil;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Animated node that represents view properties. There is a special handling logic implemented for
  * the nodes of this type in {@link NativeAnimatedNodesManager} that is responsible for extracting a
  * map of updated properties, which can be then passed down to the view.
+ *
+ * <p>When all the properties are ones a {@link PropWriter} exists for, the values are instead
+ * written to the view with the typed setters of its view manager, see {@link
+ * ReactFeatureFlags#enableNativeAnimatedPropWriters}.
+ *
+ * <p>Layout properties are sent to the shadow node rather than the view, so that layout is computed
+ * again without going through JS, see {@link ReactFeatureFlags#enableNativeAnimatedLayoutProps}.
  */
 /*package*/ class PropsAnimatedNode extends AnimatedNode {
 
+  /** Writes the value of an animated node to a view without going through a props map. */
+  private abstract class PropWriter {
+    protected final int mNodeTag;
+
+    PropWriter(int nodeTag) {
+      mNodeTag = nodeTag;
+    }
+
+    /** Returns false if the node doesn't have the type the writer was created for anymore. */
+    abstract boolean write(View view, BaseViewManager<View, ?> viewManager);
+  }
+
+  private class OpacityWriter extends PropWriter {
+    OpacityWriter(int nodeTag) {
+      super(nodeTag);
+    }
+
+    @Override
+    boolean write(View view, BaseViewManager<View, ?> viewManager) {
+      AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(mNodeTag);
+      if (!isNumericNode(node)) {
+        return false;
+      }
+      viewManager.setOpacity(view, (float) ((ValueAnimatedNode) node).getValue());
+      return true;
+    }
+  }
+
+  private class TransformWriter extends PropWriter {
+    private final double[] mMatrix = new double[16];
+    private @Nullable JavaOnlyMap mTransformProps;
+
+    TransformWriter(int nodeTag) {
+      super(nodeTag);
+    }
+
+    @Override
+    boolean write(View view, BaseViewManager<View, ?> viewManager) {
+      AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(mNodeTag);
+      if (!isMatrixTransformNode(node)) {
+        return false;
+      }
+      TransformAnimatedNode transformNode = (TransformAnimatedNode) node;
+      if (viewManager.supportsTransformMatrix()) {
+        transformNode.computeMatrix(mMatrix);
+        viewManager.setTransformMatrix(view, mMatrix);
+      } else {
+        // The view manager has its own setTransform
+        if (mTransformProps == null) {
+          mTransformProps = new JavaOnlyMap();
+        }
+        transformNode.collectViewUpdates(mTransformProps);
+        viewManager.setTransform(view, mTransformProps.getArray(ViewProps.TRANSFORM));
+      }
+      return true;
+    }
+  }
+
+  private static boolean isNumericNode(@Nullable AnimatedNode node) {
+    return node instanceof ValueAnimatedNode
+        && !(node instanceof InterpolationAnimatedNode
+            && ((InterpolationAnimatedNode) node).hasColorOutput());
+  }
+
+  private static boolean isMatrixTransformNode(@Nullable AnimatedNode node) {
+    return node instanceof TransformAnimatedNode
+        && ((TransformAnimatedNode) node).supportsMatrix();
+  }
+
   private int mConnectedViewTag = -1;
   private final NativeAnimatedNodesManager mNativeAnimatedNodesManager;
   private final UIManager mUIManager;
   private final Map<String, Integer> mPropNodeMapping;
   private final JavaOnlyMap mPropMap;
 
+  // Resolved on the first update after connecting to a view
+  private boolean mPropWritersResolved;
+  private @Nullable List<PropWriter> mPropWriters;
+  private @Nullable View mConnectedView;
+  private @Nullable BaseViewManager<View, ?> mConnectedViewManager;
+
   PropsAnimatedNode(
       ReadableMap config,
       NativeAnimatedNodesManager nativeAnimatedNodesManager,
@@ -62,6 +156,7 @@ import java.util.Map;
     }
 
     mConnectedViewTag = -1;
+    resetPropWriters();
   }
 
   public void restoreDefaultValues() {
@@ -70,19 +165,28 @@ import java.util.Map;
       mPropMap.putNull(it.nextKey());
     }
 
-    mUIManager.synchronouslyUpdateViewOnUIThread(mConnectedViewTag, mPropMap);
+    sendPropMap();
   }
 
   public final void updateView() {
     if (mConnectedViewTag == -1) {
       return;
     }
+    if (!mPropWritersResolved) {
+      resolvePropWriters();
+    }
+    if (mPropWriters != null && writeProps(mPropWriters)) {
+      return;
+    }
     for (Map.Entry<String, Integer> entry : mPropNodeMapping.entrySet()) {
       @Nullable AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(entry.getValue());
       if (node == null) {
         throw new IllegalArgumentException("Mapped property node does not exists");
       } else if (node instanceof StyleAnimatedNode) {
         ((StyleAnimatedNode) node).collectViewUpdates(mPropMap);
+      } else if (node instanceof InterpolationAnimatedNode
+          && ((InterpolationAnimatedNode) node).hasColorOutput()) {
+        mPropMap.putInt(entry.getKey(), ((InterpolationAnimatedNode) node).getColor());
       } else if (node instanceof ValueAnimatedNode) {
         Object animatedObject = ((ValueAnimatedNode) node).getAnimatedObject();
         if (animatedObject instanceof String) {
@@ -96,6 +200,125 @@ import java.util.Map;
       }
     }
 
-    mUIManager.synchronouslyUpdateViewOnUIThread(mConnectedViewTag, mPropMap);
+    sendPropMap();
+  }
+
+  private void sendPropMap() {
+    if (!ReactFeatureFlags.enableNativeAnimatedLayoutProps
+        || !(mUIManager instanceof UIManagerModule)
+        || ViewUtil.getUIManagerType(mConnectedViewTag) == UIManagerType.FABRIC) {
+      mUIManager.synchronouslyUpdateViewOnUIThread(mConnectedViewTag, mPropMap);
+      return;
+    }
+
+    // The maps are handed over to another thread, so they can't be reused for the next frame
+    List<Object> viewProps = new ArrayList<>();
+    List<Object> layoutProps = new ArrayList<>();
+    Iterator<Map.Entry<String, Object>> it = mPropMap.getEntryIterator();
+    while (it.hasNext()) {
+      Map.Entry<String, Object> entry = it.next();
+      List<Object> props = ViewProps.isLayoutProp(entry.getKey()) ? layoutProps : viewProps;
+      props.add(entry.getKey());
+      props.add(entry.getValue());
+    }
+
+    if (!viewProps.isEmpty()) {
+      mUIManager.synchronouslyUpdateViewOnUIThread(
+          mConnectedViewTag, JavaOnlyMap.of(viewProps.toArray()));
+    }
+    if (!layoutProps.isEmpty()) {
+      ((UIManagerModule) mUIManager)
+          .updateLayoutPropsFromAnimation(mConnectedViewTag, JavaOnlyMap.of(layoutProps.toArray()));
+    }
+  }
+
+  private boolean writeProps(List<PropWriter> propWriters) {
+    View view = mConnectedView;
+    BaseViewManager<View, ?> viewManager = mConnectedViewManager;
+    for (int i = 0, size = propWriters.size(); i < size; i++) {
+      if (!propWriters.get(i).write(view, viewManager)) {
+        // The graph changed since the writers were created
+        mPropWriters = null;
+        return false;
+      }
+    }
+    viewManager.onAfterTypedPropsUpdate(view);
+    return true;
+  }
+
+  private void resetPropWriters() {
+    mPropWritersResolved = false;
+    mPropWriters = null;
+    mConnectedView = null;
+    mConnectedViewManager = null;
+  }
+
+  /**
+   * Creates the writers for the properties of this node, or leaves them null if any property can't
+   * be written directly. Nothing is resolved while the view doesn't exist yet, so this is tried
+   * again on the next update.
+   */
+  @SuppressWarnings("unchecked")
+  private void resolvePropWriters() {
+    if (!ReactFeatureFlags.enableNativeAnimatedPropWriters
+        || !(mUIManager instanceof UIManagerModule)
+        || ViewUtil.getUIManagerType(mConnectedViewTag) == UIManagerType.FABRIC) {
+      mPropWritersResolved = true;
+      return;
+    }
+
+    List<PropWriter> propWriters = new ArrayList<>();
+    List<String> propNames = new ArrayList<>();
+    for (Map.Entry<String, Integer> entry : mPropNodeMapping.entrySet()) {
+      @Nullable AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(entry.getValue());
+      if (node instanceof StyleAnimatedNode) {
+        for (Map.Entry<String, Integer> styleEntry :
+            ((StyleAnimatedNode) node).getPropMapping().entrySet()) {
+          if (!addPropWriter(propWriters, propNames, styleEntry.getKey(), styleEntry.getValue())) {
+            mPropWritersResolved = true;
+            return;
+          }
+        }
+      } else if (!addPropWriter(propWriters, propNames, entry.getKey(), entry.getValue())) {
+        mPropWritersResolved = true;
+        return;
+      }
+    }
+
+    View view;
+    ViewManager viewManager;
+    try {
+      UIManagerModule uiManagerModule = (UIManagerModule) mUIManager;
+      view = uiManagerModule.resolveView(mConnectedViewTag);
+      viewManager = uiManagerModule.resolveViewManager(mConnectedViewTag);
+    } catch (IllegalViewOperationException e) {
+      return;
+    }
+
+    mPropWritersResolved = true;
+    if (!(viewManager instanceof BaseViewManager)) {
+      return;
+    }
+    mConnectedView = view;
+    mConnectedViewManager = (BaseViewManager<View, ?>) viewManager;
+    mPropWriters = propWriters;
+    // restoreDefaultValues resets the properties that are in the props map
+    for (int i = 0; i < propNames.size(); i++) {
+      mPropMap.putNull(propNames.get(i));
+    }
+  }
+
+  private boolean addPropWriter(
+      List<PropWriter> propWriters, List<String> propNames, String propName, int nodeTag) {
+    @Nullable AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(nodeTag);
+    if (ViewProps.OPACITY.equals(propName) && isNumericNode(node)) {
+      propWriters.add(new OpacityWriter(nodeTag));
+    } else if (ViewProps.TRANSFORM.equals(propName) && isMatrixTransformNode(node)) {
+      propWriters.add(new TransformWriter(nodeTag));
+    } else {
+      return false;
+    }
+    propNames.add(propName);
+    return true;
   }
 }
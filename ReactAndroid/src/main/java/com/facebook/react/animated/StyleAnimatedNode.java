@@ -34,6 +34,10 @@ import java.util.Map;
     mNativeAnimatedNodesManager = nativeAnimatedNodesManager;
   }
 
+  /*package*/ Map<String, Integer> getPropMapping() {
+    return mPropMapping;
+  }
+
   public void collectViewUpdates(JavaOnlyMap propsMap) {
     for (Map.Entry<String, Integer> entry : mPropMapping.entrySet()) {
       @Nullable AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(entry.getValue());
@@ -41,6 +45,9 @@ import java.util.Map;
         throw new IllegalArgumentException("Mapped style node does not exists");
       } else if (node instanceof TransformAnimatedNode) {
         ((TransformAnimatedNode) node).collectViewUpdates(propsMap);
+      } else if (node instanceof InterpolationAnimatedNode
+          && ((InterpolationAnimatedNode) node).hasColorOutput()) {
+        propsMap.putInt(entry.getKey(), ((InterpolationAnimatedNode) node).getColor());
       } else if (node instanceof ValueAnimatedNode) {
         propsMap.putDouble(entry.getKey(), ((ValueAnimatedNode) node).getValue());
       } else {
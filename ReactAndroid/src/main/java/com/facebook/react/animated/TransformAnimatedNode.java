@@ -11,6 +11,7 @@ import com.facebook.react.bridge.JavaOnlyArray;
 import com.facebook.react.bridge.JavaOnlyMap;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.uimanager.MatrixMathHelper;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,8 +21,47 @@ import java.util.List;
  */
 /* package */ class TransformAnimatedNode extends AnimatedNode {
 
+  // Transform types that can be applied to a matrix directly, see computeMatrix
+  private static final int TRANSFORM_TYPE_UNSUPPORTED = -1;
+  private static final int TRANSFORM_TYPE_TRANSLATE_X = 0;
+  private static final int TRANSFORM_TYPE_TRANSLATE_Y = 1;
+  private static final int TRANSFORM_TYPE_SCALE = 2;
+  private static final int TRANSFORM_TYPE_SCALE_X = 3;
+  private static final int TRANSFORM_TYPE_SCALE_Y = 4;
+  private static final int TRANSFORM_TYPE_ROTATE = 5;
+  private static final int TRANSFORM_TYPE_ROTATE_X = 6;
+  private static final int TRANSFORM_TYPE_ROTATE_Y = 7;
+  private static final int TRANSFORM_TYPE_PERSPECTIVE = 8;
+
+  private static int getTransformType(String property) {
+    switch (property) {
+      case "translateX":
+        return TRANSFORM_TYPE_TRANSLATE_X;
+      case "translateY":
+        return TRANSFORM_TYPE_TRANSLATE_Y;
+      case "scale":
+        return TRANSFORM_TYPE_SCALE;
+      case "scaleX":
+        return TRANSFORM_TYPE_SCALE_X;
+      case "scaleY":
+        return TRANSFORM_TYPE_SCALE_Y;
+      case "rotate":
+      case "rotateZ":
+        return TRANSFORM_TYPE_ROTATE;
+      case "rotateX":
+        return TRANSFORM_TYPE_ROTATE_X;
+      case "rotateY":
+        return TRANSFORM_TYPE_ROTATE_Y;
+      case "perspective":
+        return TRANSFORM_TYPE_PERSPECTIVE;
+      default:
+        return TRANSFORM_TYPE_UNSUPPORTED;
+    }
+  }
+
   private class TransformConfig {
     public String mProperty;
+    public int mType;
   }
 
   private class AnimatedTransformConfig extends TransformConfig {
@@ -34,6 +74,8 @@ import java.util.List;
 
   private final NativeAnimatedNodesManager mNativeAnimatedNodesManager;
   private final List<TransformConfig> mTransformConfigs;
+  private final double[] mHelperMatrix = new double[16];
+  private boolean mSupportsMatrix = true;
 
   TransformAnimatedNode(ReadableMap config, NativeAnimatedNodesManager nativeAnimatedNodesManager) {
     ReadableArray transforms = config.getArray("transforms");
@@ -46,13 +88,16 @@ import java.util.List;
         AnimatedTransformConfig transformConfig = new AnimatedTransformConfig();
         transformConfig.mProperty = property;
         transformConfig.mNodeTag = transformConfigMap.getInt("nodeTag");
+        transformConfig.mType = getTransformType(property);
         mTransformConfigs.add(transformConfig);
       } else {
         StaticTransformConfig transformConfig = new StaticTransformConfig();
         transformConfig.mProperty = property;
         transformConfig.mValue = transformConfigMap.getDouble("value");
+        transformConfig.mType = getTransformType(property);
         mTransformConfigs.add(transformConfig);
       }
+      mSupportsMatrix &= mTransformConfigs.get(i).mType != TRANSFORM_TYPE_UNSUPPORTED;
     }
     mNativeAnimatedNodesManager = nativeAnimatedNodesManager;
   }
@@ -61,25 +106,79 @@ import java.util.List;
     List<JavaOnlyMap> transforms = new ArrayList<>(mTransformConfigs.size());
 
     for (TransformConfig transformConfig : mTransformConfigs) {
-      double value;
-      if (transformConfig instanceof AnimatedTransformConfig) {
-        int nodeTag = ((AnimatedTransformConfig) transformConfig).mNodeTag;
-        AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(nodeTag);
-        if (node == null) {
-          throw new IllegalArgumentException("Mapped style node does not exists");
-        } else if (node instanceof ValueAnimatedNode) {
-          value = ((ValueAnimatedNode) node).getValue();
-        } else {
-          throw new IllegalArgumentException(
-              "Unsupported type of node used as a transform child " + "node " + node.getClass());
-        }
-      } else {
-        value = ((StaticTransformConfig) transformConfig).mValue;
-      }
-
-      transforms.add(JavaOnlyMap.of(transformConfig.mProperty, value));
+      transforms.add(JavaOnlyMap.of(transformConfig.mProperty, getTransformValue(transformConfig)));
     }
 
     propsMap.putArray("transform", JavaOnlyArray.from(transforms));
   }
+
+  /** Whether {@link #computeMatrix} supports all the transforms of this node. */
+  /*package*/ boolean supportsMatrix() {
+    return mSupportsMatrix;
+  }
+
+  /**
+   * Computes the transform matrix the same way {@link
+   * com.facebook.react.uimanager.TransformHelper#processTransform} would for the transforms
+   * collected by {@link #collectViewUpdates}.
+   */
+  /*package*/ void computeMatrix(double[] result) {
+    MatrixMathHelper.resetIdentityMatrix(result);
+    for (int i = 0, size = mTransformConfigs.size(); i < size; i++) {
+      TransformConfig transformConfig = mTransformConfigs.get(i);
+      double value = getTransformValue(transformConfig);
+      double[] helperMatrix = mHelperMatrix;
+      MatrixMathHelper.resetIdentityMatrix(helperMatrix);
+      switch (transformConfig.mType) {
+        case TRANSFORM_TYPE_TRANSLATE_X:
+          MatrixMathHelper.applyTranslate2D(helperMatrix, value, 0d);
+          break;
+        case TRANSFORM_TYPE_TRANSLATE_Y:
+          MatrixMathHelper.applyTranslate2D(helperMatrix, 0d, value);
+          break;
+        case TRANSFORM_TYPE_SCALE:
+          MatrixMathHelper.applyScaleX(helperMatrix, value);
+          MatrixMathHelper.applyScaleY(helperMatrix, value);
+          break;
+        case TRANSFORM_TYPE_SCALE_X:
+          MatrixMathHelper.applyScaleX(helperMatrix, value);
+          break;
+        case TRANSFORM_TYPE_SCALE_Y:
+          MatrixMathHelper.applyScaleY(helperMatrix, value);
+          break;
+        case TRANSFORM_TYPE_ROTATE:
+          MatrixMathHelper.applyRotateZ(helperMatrix, value);
+          break;
+        case TRANSFORM_TYPE_ROTATE_X:
+          MatrixMathHelper.applyRotateX(helperMatrix, value);
+          break;
+        case TRANSFORM_TYPE_ROTATE_Y:
+          MatrixMathHelper.applyRotateY(helperMatrix, value);
+          break;
+        case TRANSFORM_TYPE_PERSPECTIVE:
+          MatrixMathHelper.applyPerspective(helperMatrix, value);
+          break;
+        default:
+          throw new IllegalStateException(
+              "Unsupported transform type: " + transformConfig.mProperty);
+      }
+      MatrixMathHelper.multiplyInto(result, result, helperMatrix);
+    }
+  }
+
+  private double getTransformValue(TransformConfig transformConfig) {
+    if (transformConfig instanceof AnimatedTransformConfig) {
+      int nodeTag = ((AnimatedTransformConfig) transformConfig).mNodeTag;
+      AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(nodeTag);
+      if (node == null) {
+        throw new IllegalArgumentException("Mapped style node does not exists");
+      } else if (node instanceof ValueAnimatedNode) {
+        return ((ValueAnimatedNode) node).getValue();
+      } else {
+        throw new IllegalArgumentException(
+            "Unsupported type of node used as a transform child " + "node " + node.getClass());
+      }
+    }
+    return ((StaticTransformConfig) transformConfig).mValue;
+  }
 }
@@ -10,6 +10,7 @@ package com.facebook.react.bridge;
 import android.os.Bundle;
 import android.os.Parcelable;
 import androidx.annotation.Nullable;
+import com.facebook.react.config.ReactFeatureFlags;
 import java.lang.reflect.Array;
 import java.util.AbstractList;
 import java.util.ArrayList;
@@ -147,16 +148,26 @@ public class Arguments {
 
   /** This method should be used when you need to stub out creating NativeArrays in unit tests. */
   public static WritableArray createArray() {
+    if (ReactFeatureFlags.useBufferedWritableNativeCollections) {
+      return new BufferedWritableNativeArray();
+    }
     return new WritableNativeArray();
   }
 
   /** This method should be used when you need to stub out creating NativeMaps in unit tests. */
   public static WritableMap createMap() {
+    if (ReactFeatureFlags.useBufferedWritableNativeCollections) {
+      return new BufferedWritableNativeMap();
+    }
     return new WritableNativeMap();
   }
 
   public static WritableNativeArray fromJavaArgs(Object[] args) {
-    WritableNativeArray arguments = new WritableNativeArray();
+    // Buffered arguments absorb buffered maps and arrays, so the whole call is written at once.
+    WritableNativeArray arguments =
+        ReactFeatureFlags.useBufferedWritableNativeCollections
+            ? new BufferedWritableNativeArray()
+            : new WritableNativeArray();
     for (int i = 0; i < args.length; i++) {
       Object argument = args[i];
       if (argument == null) {
@@ -175,9 +186,9 @@ public class Arguments {
         arguments.pushDouble(((Float) argument).doubleValue());
       } else if (argumentClass == String.class) {
         arguments.pushString(argument.toString());
-      } else if (argumentClass == WritableNativeMap.class) {
+      } else if (argument instanceof WritableNativeMap) {
         arguments.pushMap((WritableNativeMap) argument);
-      } else if (argumentClass == WritableNativeArray.class) {
+      } else if (argument instanceof WritableNativeArray) {
         arguments.pushArray((WritableNativeArray) argument);
       } else {
         throw new RuntimeException("Cannot convert argument of type " + argumentClass);
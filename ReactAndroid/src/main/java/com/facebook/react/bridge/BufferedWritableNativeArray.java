@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.bridge;
+
+import androidx.annotation.Nullable;
+import com.facebook.infer.annotation.Assertions;
+import com.facebook.proguard.annotations.DoNotStrip;
+
+/**
+ * {@link WritableNativeArray} that keeps its entries on the Java side until native code needs them,
+ * see {@link BufferedWritableNativeMap}.
+ *
+ * <p>Returned by {@link Arguments#createArray()} when {@link
+ * com.facebook.react.config.ReactFeatureFlags#useBufferedWritableNativeCollections} is enabled.
+ */
+@DoNotStrip
+public class BufferedWritableNativeArray extends WritableNativeArray {
+
+  private final WritableNativeBuffer mBuffer = new WritableNativeBuffer();
+  // Whether the native array has entries, in which case the buffer can't be folded into a parent.
+  private boolean mMaterialized;
+  private boolean mConsumed;
+
+  @Override
+  public void pushNull() {
+    throwIfConsumed();
+    mBuffer.putNull();
+  }
+
+  @Override
+  public void pushBoolean(boolean value) {
+    throwIfConsumed();
+    mBuffer.putBoolean(value);
+  }
+
+  @Override
+  public void pushDouble(double value) {
+    throwIfConsumed();
+    mBuffer.putDouble(value);
+  }
+
+  @Override
+  public void pushInt(int value) {
+    throwIfConsumed();
+    mBuffer.putInt(value);
+  }
+
+  @Override
+  public void pushString(@Nullable String value) {
+    throwIfConsumed();
+    mBuffer.putString(value);
+  }
+
+  // Note: this consumes the array so do not reuse it.
+  @Override
+  public void pushArray(@Nullable ReadableArray array) {
+    Assertions.assertCondition(
+        array == null || array instanceof WritableNativeArray, "Illegal type provided");
+    throwIfConsumed();
+    mBuffer.putArray((WritableNativeArray) array);
+  }
+
+  // Note: this consumes the map so do not reuse it.
+  @Override
+  public void pushMap(@Nullable ReadableMap map) {
+    Assertions.assertCondition(
+        map == null || map instanceof WritableNativeMap, "Illegal type provided");
+    throwIfConsumed();
+    mBuffer.putMap((WritableNativeMap) map);
+  }
+
+  @Override
+  public String toString() {
+    materialize();
+    return super.toString();
+  }
+
+  @Override
+  public void materialize() {
+    throwIfConsumed();
+    if (!mBuffer.isEmpty()) {
+      pushBuffered(
+          mBuffer.getTypes(), mBuffer.getTypeCount(), mBuffer.getNumbers(), mBuffer.getObjects());
+      mBuffer.clear();
+    }
+    mMaterialized = true;
+  }
+
+  /**
+   * Move the entries of this array into {@code target} as a nested array, which consumes this
+   * array.
+   *
+   * @return false if part of this array is already in native memory, in which case it has to be
+   *     consumed natively
+   */
+  /* package */ boolean transferTo(WritableNativeBuffer target) {
+    throwIfConsumed();
+    if (mMaterialized) {
+      return false;
+    }
+    target.appendNested(mBuffer, false);
+    mBuffer.clear();
+    mConsumed = true;
+    return true;
+  }
+
+  private void throwIfConsumed() {
+    if (mConsumed) {
+      throw new ObjectAlreadyConsumedException("Array already consumed");
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.bridge;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.facebook.infer.annotation.Assertions;
+import com.facebook.proguard.annotations.DoNotStrip;
+
+/**
+ * {@link WritableNativeMap} that keeps its entries on the Java side until native code needs them,
+ * and then writes them all with a single JNI call. Nested buffered maps and arrays are folded into
+ * the buffer of their parent, so an event payload is usually sent to native memory in one go when
+ * it is passed to JS.
+ *
+ * <p>Returned by {@link Arguments#createMap()} when {@link
+ * com.facebook.react.config.ReactFeatureFlags#useBufferedWritableNativeCollections} is enabled.
+ */
+@DoNotStrip
+public class BufferedWritableNativeMap extends WritableNativeMap {
+
+  private final WritableNativeBuffer mBuffer = new WritableNativeBuffer();
+  // Whether the native map has entries, in which case the buffer can't be folded into a parent.
+  private boolean mMaterialized;
+  private boolean mConsumed;
+
+  @Override
+  public void putBoolean(@NonNull String key, boolean value) {
+    throwIfConsumed();
+    mBuffer.putKey(key);
+    mBuffer.putBoolean(value);
+  }
+
+  @Override
+  public void putDouble(@NonNull String key, double value) {
+    throwIfConsumed();
+    mBuffer.putKey(key);
+    mBuffer.putDouble(value);
+  }
+
+  @Override
+  public void putInt(@NonNull String key, int value) {
+    throwIfConsumed();
+    mBuffer.putKey(key);
+    mBuffer.putInt(value);
+  }
+
+  @Override
+  public void putNull(@NonNull String key) {
+    throwIfConsumed();
+    mBuffer.putKey(key);
+    mBuffer.putNull();
+  }
+
+  @Override
+  public void putString(@NonNull String key, @Nullable String value) {
+    throwIfConsumed();
+    mBuffer.putKey(key);
+    mBuffer.putString(value);
+  }
+
+  // Note: this consumes the map so do not reuse it.
+  @Override
+  public void putMap(@NonNull String key, @Nullable ReadableMap value) {
+    Assertions.assertCondition(
+        value == null || value instanceof WritableNativeMap, "Illegal type provided");
+    throwIfConsumed();
+    mBuffer.putKey(key);
+    mBuffer.putMap((WritableNativeMap) value);
+  }
+
+  // Note: this consumes the array so do not reuse it.
+  @Override
+  public void putArray(@NonNull String key, @Nullable ReadableArray value) {
+    Assertions.assertCondition(
+        value == null || value instanceof WritableNativeArray, "Illegal type provided");
+    throwIfConsumed();
+    mBuffer.putKey(key);
+    mBuffer.putArray((WritableNativeArray) value);
+  }
+
+  @Override
+  public void merge(@NonNull ReadableMap source) {
+    materialize();
+    super.merge(source);
+  }
+
+  @Override
+  public String toString() {
+    materialize();
+    return super.toString();
+  }
+
+  @Override
+  public void materialize() {
+    throwIfConsumed();
+    if (!mBuffer.isEmpty()) {
+      putBuffered(
+          mBuffer.getTypes(), mBuffer.getTypeCount(), mBuffer.getNumbers(), mBuffer.getObjects());
+      mBuffer.clear();
+    }
+    mMaterialized = true;
+  }
+
+  /**
+   * Move the entries of this map into {@code target} as a nested map, which consumes this map.
+   *
+   * @return false if part of this map is already in native memory, in which case it has to be
+   *     consumed natively
+   */
+  /* package */ boolean transferTo(WritableNativeBuffer target) {
+    throwIfConsumed();
+    if (mMaterialized) {
+      return false;
+    }
+    target.appendNested(mBuffer, true);
+    mBuffer.clear();
+    mConsumed = true;
+    return true;
+  }
+
+  private void throwIfConsumed() {
+    if (mConsumed) {
+      throw new ObjectAlreadyConsumedException("Map already consumed");
+    }
+  }
+}
@@ -65,6 +65,7 @@ public class CatalystInstanceImpl implements CatalystInstance {
 
     void call(CatalystInstanceImpl catalystInstance) {
       NativeArray arguments = mArguments != null ? mArguments : new WritableNativeArray();
+      arguments.materialize();
       catalystInstance.jniCallJSFunction(mModule, mMethod, arguments);
     }
 
@@ -146,7 +147,8 @@ public class CatalystInstanceImpl implements CatalystInstance {
         jsExecutor,
         mReactQueueConfiguration.getJSQueueThread(),
         mNativeModulesQueueThread,
-        mNativeModuleRegistry.getJavaModules(this),
+        mNativeModuleRegistry.getJavaModules(
+            this, mReactQueueConfiguration.getExecutionLaneManager()),
         mNativeModuleRegistry.getCxxModules());
     FLog.d(ReactConstants.TAG, "Initializing React Xplat Bridge after initializeBridge");
     Systrace.endSection(TRACE_TAG_REACT_JAVA_BRIDGE);
@@ -199,7 +201,8 @@ public class CatalystInstanceImpl implements CatalystInstance {
   public void extendNativeModules(NativeModuleRegistry modules) {
     // Extend the Java-visible registry of modules
     mNativeModuleRegistry.registerModules(modules);
-    Collection<JavaModuleWrapper> javaModules = modules.getJavaModules(this);
+    Collection<JavaModuleWrapper> javaModules =
+        modules.getJavaModules(this, mReactQueueConfiguration.getExecutionLaneManager());
     Collection<ModuleHolder> cxxModules = modules.getCxxModules();
     // Extend the Cxx-visible registry of modules wrapped in appropriate interfaces
     jniExtendNativeModules(javaModules, cxxModules);
@@ -321,7 +324,9 @@ public class CatalystInstanceImpl implements CatalystInstance {
       return;
     }
 
-    jniCallJSCallback(callbackID, (NativeArray) arguments);
+    NativeArray nativeArguments = (NativeArray) arguments;
+    nativeArguments.materialize();
+    jniCallJSCallback(callbackID, nativeArguments);
   }
 
   /**
@@ -359,6 +364,8 @@ public class CatalystInstanceImpl implements CatalystInstance {
         new Runnable() {
           @Override
           public void run() {
+            // Drop the lane calls that haven't run yet, modules are invalidated next.
+            mReactQueueConfiguration.getExecutionLaneManager().stop();
             mNativeModuleRegistry.notifyJSInstanceDestroy();
             mJSIModuleRegistry.notifyJSInstanceDestroy();
             boolean wasIdle = (mPendingJSCalls.getAndSet(0) == 0);
@@ -447,6 +454,8 @@ public class CatalystInstanceImpl implements CatalystInstance {
           @Override
           public void run() {
             FLog.d("CatalystInstanceImpl", ".destroy on native modules thread");
+            // Drop the lane calls that haven't run yet, modules are invalidated next.
+            mReactQueueConfiguration.getExecutionLaneManager().stop();
             mNativeModuleRegistry.notifyJSInstanceDestroy();
 
             // Notifies all JSI modules that they are being destroyed, including the FabricUIManager
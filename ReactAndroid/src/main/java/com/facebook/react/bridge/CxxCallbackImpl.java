@@ -24,7 +24,9 @@ public class CxxCallbackImpl implements Callback {
 
   @Override
   public void invoke(Object... args) {
-    nativeInvoke(fromJavaArgs(args));
+    NativeArray arguments = fromJavaArgs(args);
+    arguments.materialize();
+    nativeInvoke(arguments);
   }
 
   private native void nativeInvoke(NativeArray arguments);
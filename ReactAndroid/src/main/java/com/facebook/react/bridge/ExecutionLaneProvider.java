@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.bridge;
+
+import com.facebook.react.bridge.queue.ExecutionLane;
+
+/**
+ * Implemented by native modules whose async {@link ReactMethod}s should not run on the shared
+ * native modules thread, so that slow calls (disk, media store, ...) don't delay other modules.
+ *
+ * <p>Modules opting into a lane other than {@link ExecutionLane#DEFAULT} must not assume they are
+ * invoked on the native modules thread. Synchronous methods are not affected.
+ */
+public interface ExecutionLaneProvider {
+
+  /** Called once, the first time one of the module's methods is invoked. */
+  ExecutionLane getExecutionLane();
+}
@@ -8,7 +8,10 @@
 package com.facebook.react.bridge;
 
 import android.content.Context;
+import com.facebook.common.logging.FLog;
 import com.facebook.react.common.DebugServerException;
+import com.facebook.react.common.ReactConstants;
+import java.io.File;
 
 /**
  * A class that stores JS bundle information and allows a {@link JSBundleLoaderDelegate} (e.g.
@@ -16,6 +19,8 @@ import com.facebook.react.common.DebugServerException;
  */
 public abstract class JSBundleLoader {
 
+  private static final String STAGED_BUNDLE_SUFFIX = ".staged";
+
   /**
    * This loader is recommended one for release version of your app. In that case local JS executor
    * should be used. JS bundle will be read from assets in native code to save on passing large
@@ -51,6 +56,37 @@ public abstract class JSBundleLoader {
     };
   }
 
+  /**
+   * This loader loads bundle from file system like {@link #createFileLoader(String)}, but first
+   * replaces the bundle with the update staged in {@link #getStagedBundleFileName(String)}, if
+   * there is one. Updates staged while the app runs are thus only used once the bundle is loaded
+   * again.
+   */
+  public static JSBundleLoader createStagedFileLoader(
+      final String fileName, final String assetUrl, final boolean loadSynchronously) {
+    return new JSBundleLoader() {
+      @Override
+      public String loadScript(JSBundleLoaderDelegate delegate) {
+        installStagedBundle(fileName);
+        delegate.loadScriptFromFile(fileName, assetUrl, loadSynchronously);
+        return fileName;
+      }
+    };
+  }
+
+  /** Returns the file an update of the given bundle file is staged in until it's loaded again. */
+  public static String getStagedBundleFileName(String fileName) {
+    return fileName + STAGED_BUNDLE_SUFFIX;
+  }
+
+  private static void installStagedBundle(String fileName) {
+    File stagedFile = new File(getStagedBundleFileName(fileName));
+    // Renaming within a directory is atomic, so the bundle is either the old or the new one
+    if (stagedFile.exists() && !stagedFile.renameTo(new File(fileName))) {
+      FLog.w(ReactConstants.TAG, "Couldn't install staged bundle " + stagedFile);
+    }
+  }
+
   /**
    * This loader is used when bundle gets reloaded from dev server. In that case loader expect JS
    * bundle to be prefetched and stored in local file. We do that to avoid passing large strings
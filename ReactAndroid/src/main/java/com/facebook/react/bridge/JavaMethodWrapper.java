@@ -234,8 +234,9 @@ public class JavaMethodWrapper implements NativeModule.NativeMethod {
       mArgumentExtractors = buildArgumentExtractors(mParameterTypes);
       mSignature =
           buildSignature(mMethod, mParameterTypes, (mType.equals(BaseJavaModule.METHOD_TYPE_SYNC)));
-      // Since native methods are invoked from a message queue executed on a single thread, it is
-      // safe to allocate only one arguments object per method that can be reused across calls
+      // Since the methods of a module are invoked one at a time (on the native modules thread or on
+      // the module's execution lane), it is safe to allocate only one arguments object per method
+      // that can be reused across calls
       mArguments = new Object[mParameterTypes.length];
       mJSArgumentsNeeded = calculateJSArgumentsNeeded();
     } finally {
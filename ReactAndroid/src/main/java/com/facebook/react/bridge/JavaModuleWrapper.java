@@ -15,6 +15,8 @@ import static com.facebook.systrace.Systrace.TRACE_TAG_REACT_JAVA_BRIDGE;
 
 import androidx.annotation.Nullable;
 import com.facebook.proguard.annotations.DoNotStrip;
+import com.facebook.react.bridge.queue.ExecutionLane;
+import com.facebook.react.bridge.queue.ExecutionLaneManager;
 import com.facebook.systrace.Systrace;
 import com.facebook.systrace.SystraceMessage;
 import java.lang.reflect.Method;
@@ -23,6 +25,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * This is part of the glue which wraps a java BaseJavaModule in a C++ NativeModule. This could all
@@ -43,12 +46,23 @@ public class JavaModuleWrapper {
   private final ModuleHolder mModuleHolder;
   private final ArrayList<NativeModule.NativeMethod> mMethods;
   private final ArrayList<MethodDescriptor> mDescs;
+  private final @Nullable ExecutionLaneManager mExecutionLaneManager;
+  private volatile boolean mExecutionLaneResolved = false;
+  private @Nullable Executor mLaneExecutor;
 
   public JavaModuleWrapper(JSInstance jsInstance, ModuleHolder moduleHolder) {
+    this(jsInstance, moduleHolder, null);
+  }
+
+  public JavaModuleWrapper(
+      JSInstance jsInstance,
+      ModuleHolder moduleHolder,
+      @Nullable ExecutionLaneManager executionLaneManager) {
     mJSInstance = jsInstance;
     mModuleHolder = moduleHolder;
     mMethods = new ArrayList<>();
     mDescs = new ArrayList();
+    mExecutionLaneManager = executionLaneManager;
   }
 
   @DoNotStrip
@@ -143,11 +157,39 @@ public class JavaModuleWrapper {
   }
 
   @DoNotStrip
-  public void invoke(int methodId, ReadableNativeArray parameters) {
+  public void invoke(int methodId, final ReadableNativeArray parameters) {
     if (mMethods == null || methodId >= mMethods.size()) {
       return;
     }
 
-    mMethods.get(methodId).invoke(mJSInstance, parameters);
+    final NativeModule.NativeMethod method = mMethods.get(methodId);
+    Executor laneExecutor = getLaneExecutor();
+    if (laneExecutor == null) {
+      method.invoke(mJSInstance, parameters);
+      return;
+    }
+    laneExecutor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            method.invoke(mJSInstance, parameters);
+          }
+        });
+  }
+
+  /**
+   * Resolves the module's {@link ExecutionLane} the first time it's invoked. Only ever called on
+   * the native modules thread.
+   */
+  private @Nullable Executor getLaneExecutor() {
+    if (!mExecutionLaneResolved) {
+      mExecutionLaneResolved = true;
+      NativeModule module = mModuleHolder.getModule();
+      if (mExecutionLaneManager != null && module instanceof ExecutionLaneProvider) {
+        ExecutionLane lane = ((ExecutionLaneProvider) module).getExecutionLane();
+        mLaneExecutor = mExecutionLaneManager.createModuleExecutor(lane);
+      }
+    }
+    return mLaneExecutor;
   }
 }
@@ -24,5 +24,12 @@ public abstract class NativeArray implements NativeArrayInterface {
   @Override
   public native String toString();
 
+  /**
+   * Write the entries still buffered on the Java side, if any, to native memory. Called before
+   * native code reads this array, see {@link BufferedWritableNativeArray}.
+   */
+  @DoNotStrip
+  public void materialize() {}
+
   @DoNotStrip private HybridData mHybridData;
 }
@@ -24,5 +24,12 @@ public abstract class NativeMap {
   @Override
   public native String toString();
 
+  /**
+   * Write the entries still buffered on the Java side, if any, to native memory. Called before
+   * native code reads this map, see {@link BufferedWritableNativeMap}.
+   */
+  @DoNotStrip
+  public void materialize() {}
+
   @DoNotStrip private HybridData mHybridData;
 }
@@ -7,7 +7,9 @@
 
 package com.facebook.react.bridge;
 
+import androidx.annotation.Nullable;
 import com.facebook.infer.annotation.Assertions;
+import com.facebook.react.bridge.queue.ExecutionLaneManager;
 import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.systrace.Systrace;
 import java.util.ArrayList;
@@ -37,10 +39,16 @@ public class NativeModuleRegistry {
   }
 
   /* package */ Collection<JavaModuleWrapper> getJavaModules(JSInstance jsInstance) {
+    return getJavaModules(jsInstance, null);
+  }
+
+  /* package */ Collection<JavaModuleWrapper> getJavaModules(
+      JSInstance jsInstance, @Nullable ExecutionLaneManager executionLaneManager) {
     ArrayList<JavaModuleWrapper> javaModules = new ArrayList<>();
     for (Map.Entry<String, ModuleHolder> entry : mModules.entrySet()) {
       if (!entry.getValue().isCxxModule()) {
-        javaModules.add(new JavaModuleWrapper(jsInstance, entry.getValue()));
+        javaModules.add(
+            new JavaModuleWrapper(jsInstance, entry.getValue(), executionLaneManager));
       }
     }
     return javaModules;
@@ -32,6 +32,10 @@ public enum ReactMarkerConstants {
   CREATE_VIEW_MANAGERS_END,
   CREATE_UI_MANAGER_MODULE_CONSTANTS_START,
   CREATE_UI_MANAGER_MODULE_CONSTANTS_END,
+  CREATE_VIEW_MANAGER_CONSTANTS_START,
+  CREATE_VIEW_MANAGER_CONSTANTS_END,
+  READ_VIEW_MANAGER_CONSTANTS_CACHE_START,
+  READ_VIEW_MANAGER_CONSTANTS_CACHE_END,
   NATIVE_MODULE_SETUP_START,
   NATIVE_MODULE_SETUP_END,
   CREATE_MODULE_START,
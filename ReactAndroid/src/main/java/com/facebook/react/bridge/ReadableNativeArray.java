@@ -46,6 +46,7 @@ public class ReadableNativeArray extends NativeArray implements ReadableArray {
     synchronized (this) {
       // Make sure no concurrent call already updated
       if (mLocalArray == null) {
+        materialize();
         jniPassCounter++;
         mLocalArray = Assertions.assertNotNull(importArray());
       }
@@ -62,6 +63,7 @@ public class ReadableNativeArray extends NativeArray implements ReadableArray {
     synchronized (this) {
       // Make sure no concurrent call already updated
       if (mLocalTypeArray == null) {
+        materialize();
         jniPassCounter++;
         Object[] tempArray = Assertions.assertNotNull(importTypeArray());
         mLocalTypeArray = Arrays.copyOf(tempArray, tempArray.length, ReadableType[].class);
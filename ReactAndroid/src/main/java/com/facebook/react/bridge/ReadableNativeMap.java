@@ -44,6 +44,7 @@ public class ReadableNativeMap extends NativeMap implements ReadableMap {
       return mLocalMap;
     }
     synchronized (this) {
+      materialize();
       if (mKeys == null) {
         mKeys = Assertions.assertNotNull(importKeys());
         mJniCallCounter++;
@@ -70,6 +71,7 @@ public class ReadableNativeMap extends NativeMap implements ReadableMap {
       return mLocalTypeMap;
     }
     synchronized (this) {
+      materialize();
       if (mKeys == null) {
         mKeys = Assertions.assertNotNull(importKeys());
         mJniCallCounter++;
@@ -46,6 +46,9 @@ public class WritableNativeArray extends ReadableNativeArray implements Writable
   public void pushArray(@Nullable ReadableArray array) {
     Assertions.assertCondition(
         array == null || array instanceof WritableNativeArray, "Illegal type provided");
+    if (array != null) {
+      ((WritableNativeArray) array).materialize();
+    }
     pushNativeArray((WritableNativeArray) array);
   }
 
@@ -54,6 +57,9 @@ public class WritableNativeArray extends ReadableNativeArray implements Writable
   public void pushMap(@Nullable ReadableMap map) {
     Assertions.assertCondition(
         map == null || map instanceof WritableNativeMap, "Illegal type provided");
+    if (map != null) {
+      ((WritableNativeMap) map).materialize();
+    }
     pushNativeMap((WritableNativeMap) map);
   }
 
@@ -62,4 +68,8 @@ public class WritableNativeArray extends ReadableNativeArray implements Writable
   private native void pushNativeArray(WritableNativeArray array);
 
   private native void pushNativeMap(WritableNativeMap map);
+
+  /** Add the entries of a {@link WritableNativeBuffer}, see {@link BufferedWritableNativeArray}. */
+  /* package */ native void pushBuffered(
+      byte[] types, int typeCount, double[] numbers, Object[] objects);
 }
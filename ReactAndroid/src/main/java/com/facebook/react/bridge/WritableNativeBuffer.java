@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.bridge;
+
+import androidx.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Entries written to a {@link BufferedWritableNativeMap} or {@link BufferedWritableNativeArray}
+ * that have not been sent to native memory yet. Entries are stored as a stream of type tags, with
+ * numbers and objects (keys, strings, nested native collections) in their own arrays, so that a
+ * whole tree of maps and arrays can be turned into a folly::dynamic with a single JNI call.
+ *
+ * <p>The layout needs to be kept in sync with WritableNativeBuffer.cpp.
+ */
+/* package */ final class WritableNativeBuffer {
+
+  // Type tags. In a map every value is preceded by its key in the objects array.
+  /* package */ static final byte TYPE_NULL = 0;
+  /* package */ static final byte TYPE_BOOLEAN = 1;
+  /* package */ static final byte TYPE_DOUBLE = 2;
+  /* package */ static final byte TYPE_INT = 3;
+  /* package */ static final byte TYPE_STRING = 4;
+  /* package */ static final byte TYPE_MAP_START = 5;
+  /* package */ static final byte TYPE_ARRAY_START = 6;
+  /* package */ static final byte TYPE_END = 7;
+  /* package */ static final byte TYPE_NATIVE_MAP = 8;
+  /* package */ static final byte TYPE_NATIVE_ARRAY = 9;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private byte[] mTypes = new byte[INITIAL_CAPACITY];
+  private int mTypeCount;
+  private double[] mNumbers = new double[INITIAL_CAPACITY];
+  private int mNumberCount;
+  private Object[] mObjects = new Object[INITIAL_CAPACITY];
+  private int mObjectCount;
+
+  public byte[] getTypes() {
+    return mTypes;
+  }
+
+  public int getTypeCount() {
+    return mTypeCount;
+  }
+
+  public double[] getNumbers() {
+    return mNumbers;
+  }
+
+  public Object[] getObjects() {
+    return mObjects;
+  }
+
+  public boolean isEmpty() {
+    return mTypeCount == 0;
+  }
+
+  public void putKey(String key) {
+    addObject(key);
+  }
+
+  public void putNull() {
+    addType(TYPE_NULL);
+  }
+
+  public void putBoolean(boolean value) {
+    addType(TYPE_BOOLEAN);
+    addNumber(value ? 1 : 0);
+  }
+
+  public void putDouble(double value) {
+    addType(TYPE_DOUBLE);
+    addNumber(value);
+  }
+
+  public void putInt(int value) {
+    addType(TYPE_INT);
+    addNumber(value);
+  }
+
+  public void putString(@Nullable String value) {
+    if (value == null) {
+      putNull();
+      return;
+    }
+    addType(TYPE_STRING);
+    addObject(value);
+  }
+
+  /**
+   * Add a nested map. The entries of a buffered map that was never sent to native memory are
+   * copied into this buffer, any other map is consumed when this buffer is.
+   */
+  public void putMap(@Nullable WritableNativeMap value) {
+    if (value == null) {
+      putNull();
+      return;
+    }
+    if (value instanceof BufferedWritableNativeMap
+        && ((BufferedWritableNativeMap) value).transferTo(this)) {
+      return;
+    }
+    value.materialize();
+    addType(TYPE_NATIVE_MAP);
+    addObject(value);
+  }
+
+  /** Add a nested array, see {@link #putMap}. */
+  public void putArray(@Nullable WritableNativeArray value) {
+    if (value == null) {
+      putNull();
+      return;
+    }
+    if (value instanceof BufferedWritableNativeArray
+        && ((BufferedWritableNativeArray) value).transferTo(this)) {
+      return;
+    }
+    value.materialize();
+    addType(TYPE_NATIVE_ARRAY);
+    addObject(value);
+  }
+
+  /** Append the entries of {@code other} wrapped as a nested map or array. */
+  public void appendNested(WritableNativeBuffer other, boolean isMap) {
+    addType(isMap ? TYPE_MAP_START : TYPE_ARRAY_START);
+    ensureTypeCapacity(other.mTypeCount + 1);
+    System.arraycopy(other.mTypes, 0, mTypes, mTypeCount, other.mTypeCount);
+    mTypeCount += other.mTypeCount;
+    ensureNumberCapacity(other.mNumberCount);
+    System.arraycopy(other.mNumbers, 0, mNumbers, mNumberCount, other.mNumberCount);
+    mNumberCount += other.mNumberCount;
+    ensureObjectCapacity(other.mObjectCount);
+    System.arraycopy(other.mObjects, 0, mObjects, mObjectCount, other.mObjectCount);
+    mObjectCount += other.mObjectCount;
+    addType(TYPE_END);
+  }
+
+  public void clear() {
+    // Don't hold on to strings and consumed collections
+    Arrays.fill(mObjects, 0, mObjectCount, null);
+    mTypeCount = 0;
+    mNumberCount = 0;
+    mObjectCount = 0;
+  }
+
+  private void addType(byte type) {
+    ensureTypeCapacity(1);
+    mTypes[mTypeCount++] = type;
+  }
+
+  private void addNumber(double number) {
+    ensureNumberCapacity(1);
+    mNumbers[mNumberCount++] = number;
+  }
+
+  private void addObject(Object object) {
+    ensureObjectCapacity(1);
+    mObjects[mObjectCount++] = object;
+  }
+
+  private void ensureTypeCapacity(int count) {
+    if (mTypeCount + count > mTypes.length) {
+      mTypes = Arrays.copyOf(mTypes, Math.max(mTypes.length * 2, mTypeCount + count));
+    }
+  }
+
+  private void ensureNumberCapacity(int count) {
+    if (mNumberCount + count > mNumbers.length) {
+      mNumbers = Arrays.copyOf(mNumbers, Math.max(mNumbers.length * 2, mNumberCount + count));
+    }
+  }
+
+  private void ensureObjectCapacity(int count) {
+    if (mObjectCount + count > mObjects.length) {
+      mObjects = Arrays.copyOf(mObjects, Math.max(mObjects.length * 2, mObjectCount + count));
+    }
+  }
+}
@@ -42,6 +42,9 @@ public class WritableNativeMap extends ReadableNativeMap implements WritableMap
   public void putMap(@NonNull String key, @Nullable ReadableMap value) {
     Assertions.assertCondition(
         value == null || value instanceof WritableNativeMap, "Illegal type provided");
+    if (value != null) {
+      ((WritableNativeMap) value).materialize();
+    }
     putNativeMap(key, (WritableNativeMap) value);
   }
 
@@ -50,6 +53,9 @@ public class WritableNativeMap extends ReadableNativeMap implements WritableMap
   public void putArray(@NonNull String key, @Nullable ReadableArray value) {
     Assertions.assertCondition(
         value == null || value instanceof WritableNativeArray, "Illegal type provided");
+    if (value != null) {
+      ((WritableNativeArray) value).materialize();
+    }
     putNativeArray(key, (WritableNativeArray) value);
   }
 
@@ -57,6 +63,7 @@ public class WritableNativeMap extends ReadableNativeMap implements WritableMap
   @Override
   public void merge(@NonNull ReadableMap source) {
     Assertions.assertCondition(source instanceof ReadableNativeMap, "Illegal type provided");
+    ((ReadableNativeMap) source).materialize();
     mergeNativeMap((ReadableNativeMap) source);
   }
 
@@ -78,4 +85,8 @@ public class WritableNativeMap extends ReadableNativeMap implements WritableMap
   private native void putNativeArray(String key, WritableNativeArray value);
 
   private native void mergeNativeMap(ReadableNativeMap source);
+
+  /** Add the entries of a {@link WritableNativeBuffer}, see {@link BufferedWritableNativeMap}. */
+  /* package */ native void putBuffered(
+      byte[] types, int typeCount, double[] numbers, Object[] objects);
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.bridge.queue;
+
+/**
+ * Describes where the async methods of a native module are executed.
+ *
+ * <ul>
+ *   <li>{@link #DEFAULT}: the shared native modules {@link MessageQueueThread}.
+ *   <li>{@link #SHARED_POOL}: a small pool of background threads shared by all modules using it.
+ *   <li>{@link #dedicated(String)}: a {@link MessageQueueThread} of its own. Modules declaring a
+ *       dedicated lane with the same name share that thread.
+ * </ul>
+ *
+ * Calls to a given module always execute one at a time and in the order they were made from JS,
+ * whatever lane the module uses.
+ */
+public class ExecutionLane {
+
+  public enum Type {
+    DEFAULT,
+    SHARED_POOL,
+    DEDICATED,
+  }
+
+  public static final ExecutionLane DEFAULT = new ExecutionLane(Type.DEFAULT, "native_modules");
+  public static final ExecutionLane SHARED_POOL =
+      new ExecutionLane(Type.SHARED_POOL, "native_modules_pool");
+
+  public static ExecutionLane dedicated(String name) {
+    return new ExecutionLane(Type.DEDICATED, name);
+  }
+
+  private final Type mType;
+  private final String mName;
+
+  private ExecutionLane(Type type, String name) {
+    mType = type;
+    mName = name;
+  }
+
+  public Type getType() {
+    return mType;
+  }
+
+  public String getName() {
+    return mName;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ExecutionLane other = (ExecutionLane) o;
+    return mType == other.mType && mName.equals(other.mName);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * mType.hashCode() + mName.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return mType + ":" + mName;
+  }
+}
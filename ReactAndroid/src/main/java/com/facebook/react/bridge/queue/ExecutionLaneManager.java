@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.bridge.queue;
+
+import android.os.Process;
+import android.os.SystemClock;
+import androidx.annotation.Nullable;
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates and owns the threads backing the non default {@link ExecutionLane}s, and hands out one
+ * serial {@link Executor} per native module so calls to a module keep their order even when the
+ * lane itself runs work concurrently.
+ *
+ * <p>Once {@link #stop()} has been called, calls that are still queued on a lane or submitted
+ * afterwards are dropped, so that no module method runs after the module has been invalidated.
+ */
+public class ExecutionLaneManager {
+
+  private static final long STOP_TIMEOUT_MS = 1000;
+
+  private final QueueThreadExceptionHandler mExceptionHandler;
+  private final int mSharedPoolSize;
+  private final Map<String, MessageQueueThreadImpl> mDedicatedThreads = new HashMap<>();
+  private final Map<ExecutionLane, LaneCounters> mLaneCounters = new HashMap<>();
+  private @Nullable ThreadPoolExecutor mSharedPool;
+  private final Object mRunningCallsLock = new Object();
+  private int mRunningCalls = 0;
+  private volatile boolean mIsStopped = false;
+
+  /* package */ ExecutionLaneManager(
+      int sharedPoolSize, QueueThreadExceptionHandler exceptionHandler) {
+    mSharedPoolSize = sharedPoolSize;
+    mExceptionHandler = exceptionHandler;
+  }
+
+  /**
+   * Get an executor that runs the calls of one module on the given lane, one at a time and in
+   * submission order. Returns null for {@link ExecutionLane#DEFAULT}, meaning calls should run
+   * inline on the native modules thread.
+   */
+  public synchronized @Nullable Executor createModuleExecutor(ExecutionLane lane) {
+    LaneCounters counters;
+    switch (lane.getType()) {
+      case DEFAULT:
+        return null;
+      case DEDICATED:
+        if (mIsStopped) {
+          return new DroppingExecutor();
+        }
+        counters = getLaneCounters(lane);
+        // A MessageQueueThread is already serial, no need for a per module queue.
+        return new InstrumentedExecutor(getDedicatedThread(lane.getName()), counters);
+      case SHARED_POOL:
+        if (mIsStopped) {
+          return new DroppingExecutor();
+        }
+        counters = getLaneCounters(lane);
+        return new InstrumentedExecutor(new SerialExecutor(getSharedPool()), counters);
+      default:
+        throw new IllegalArgumentException("Unknown execution lane: " + lane);
+    }
+  }
+
+  /** Get a snapshot of the counters of every lane that has been used so far. */
+  public synchronized List<ExecutionLaneStats> getStats() {
+    List<ExecutionLaneStats> stats = new ArrayList<>(mLaneCounters.size());
+    for (Map.Entry<ExecutionLane, LaneCounters> entry : mLaneCounters.entrySet()) {
+      stats.add(entry.getValue().snapshot(entry.getKey().getName()));
+    }
+    return stats;
+  }
+
+  /**
+   * Stop running calls on the lanes. Calls that haven't started yet are dropped, and this waits a
+   * bounded time for the calls currently running to finish. Should be called on the native modules
+   * thread before the native modules are invalidated.
+   */
+  public void stop() {
+    synchronized (mRunningCallsLock) {
+      mIsStopped = true;
+      long deadline = SystemClock.uptimeMillis() + STOP_TIMEOUT_MS;
+      long remaining = STOP_TIMEOUT_MS;
+      while (mRunningCalls > 0 && remaining > 0) {
+        try {
+          mRunningCallsLock.wait(remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+        remaining = deadline - SystemClock.uptimeMillis();
+      }
+      if (mRunningCalls > 0) {
+        FLog.w(
+            ReactConstants.TAG,
+            "Stopped execution lanes while " + mRunningCalls + " native module calls still run");
+      }
+    }
+  }
+
+  /**
+   * Release the lane threads. Should be called after the threads that submit calls to the lanes
+   * have been quit.
+   */
+  /* package */ synchronized void destroy() {
+    stop();
+    for (MessageQueueThreadImpl thread : mDedicatedThreads.values()) {
+      thread.quitSynchronous();
+    }
+    mDedicatedThreads.clear();
+    if (mSharedPool != null) {
+      mSharedPool.shutdown();
+      mSharedPool = null;
+    }
+  }
+
+  private LaneCounters getLaneCounters(ExecutionLane lane) {
+    LaneCounters counters = mLaneCounters.get(lane);
+    if (counters == null) {
+      counters = new LaneCounters();
+      mLaneCounters.put(lane, counters);
+    }
+    return counters;
+  }
+
+  private Executor getDedicatedThread(String name) {
+    MessageQueueThreadImpl thread = mDedicatedThreads.get(name);
+    if (thread == null) {
+      thread =
+          MessageQueueThreadImpl.create(
+              MessageQueueThreadSpec.newBackgroundThreadSpec(name), mExceptionHandler);
+      mDedicatedThreads.put(name, thread);
+    }
+    final MessageQueueThreadImpl queueThread = thread;
+    return new Executor() {
+      @Override
+      public void execute(Runnable runnable) {
+        queueThread.runOnQueue(runnable);
+      }
+    };
+  }
+
+  private Executor getSharedPool() {
+    if (mSharedPool == null) {
+      final AtomicInteger threadCount = new AtomicInteger();
+      mSharedPool =
+          new ThreadPoolExecutor(
+              mSharedPoolSize,
+              mSharedPoolSize,
+              30,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<Runnable>(),
+              new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                  String name =
+                      "mqt_"
+                          + ExecutionLane.SHARED_POOL.getName()
+                          + "_"
+                          + threadCount.getAndIncrement();
+                  return new Thread(
+                      new Runnable() {
+                        @Override
+                        public void run() {
+                          Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                          runnable.run();
+                        }
+                      },
+                      name);
+                }
+              });
+      mSharedPool.allowCoreThreadTimeOut(true);
+    }
+    final ThreadPoolExecutor pool = mSharedPool;
+    return new Executor() {
+      @Override
+      public void execute(final Runnable runnable) {
+        pool.execute(
+            new Runnable() {
+              @Override
+              public void run() {
+                try {
+                  runnable.run();
+                } catch (Exception e) {
+                  mExceptionHandler.handleException(e);
+                }
+              }
+            });
+      }
+    };
+  }
+
+  private static class LaneCounters {
+    private final AtomicInteger mQueueDepth = new AtomicInteger();
+    private long mExecutedCalls;
+    private long mTotalQueueLatencyMs;
+    private long mMaxQueueLatencyMs;
+    private long mTotalRunTimeMs;
+
+    private synchronized void onCallFinished(long queueLatencyMs, long runTimeMs) {
+      mExecutedCalls++;
+      mTotalQueueLatencyMs += queueLatencyMs;
+      mMaxQueueLatencyMs = Math.max(mMaxQueueLatencyMs, queueLatencyMs);
+      mTotalRunTimeMs += runTimeMs;
+    }
+
+    private synchronized ExecutionLaneStats snapshot(String laneName) {
+      ExecutionLaneStats stats = new ExecutionLaneStats();
+      stats.laneName = laneName;
+      stats.queueDepth = mQueueDepth.get();
+      stats.executedCalls = mExecutedCalls;
+      stats.totalQueueLatencyMs = mTotalQueueLatencyMs;
+      stats.maxQueueLatencyMs = mMaxQueueLatencyMs;
+      stats.totalRunTimeMs = mTotalRunTimeMs;
+      return stats;
+    }
+  }
+
+  private boolean beginCall() {
+    synchronized (mRunningCallsLock) {
+      if (mIsStopped) {
+        return false;
+      }
+      mRunningCalls++;
+      return true;
+    }
+  }
+
+  private void endCall() {
+    synchronized (mRunningCallsLock) {
+      mRunningCalls--;
+      if (mRunningCalls == 0) {
+        mRunningCallsLock.notifyAll();
+      }
+    }
+  }
+
+  private static void dropCall() {
+    FLog.w(ReactConstants.TAG, "Execution lanes have been stopped, dropping native module call.");
+  }
+
+  /** Used for the modules resolving their lane after the lanes have been stopped. */
+  private static class DroppingExecutor implements Executor {
+    @Override
+    public void execute(Runnable runnable) {
+      dropCall();
+    }
+  }
+
+  private class InstrumentedExecutor implements Executor {
+    private final Executor mDelegate;
+    private final LaneCounters mCounters;
+
+    private InstrumentedExecutor(Executor delegate, LaneCounters counters) {
+      mDelegate = delegate;
+      mCounters = counters;
+    }
+
+    @Override
+    public void execute(final Runnable runnable) {
+      if (mIsStopped) {
+        dropCall();
+        return;
+      }
+      final long enqueueTime = SystemClock.uptimeMillis();
+      mCounters.mQueueDepth.incrementAndGet();
+      mDelegate.execute(
+          new Runnable() {
+            @Override
+            public void run() {
+              mCounters.mQueueDepth.decrementAndGet();
+              if (!beginCall()) {
+                dropCall();
+                return;
+              }
+              long startTime = SystemClock.uptimeMillis();
+              try {
+                runnable.run();
+              } finally {
+                endCall();
+                mCounters.onCallFinished(
+                    startTime - enqueueTime, SystemClock.uptimeMillis() - startTime);
+              }
+            }
+          });
+    }
+  }
+
+  /** Runs tasks one at a time on the given executor, in submission order. */
+  private static class SerialExecutor implements Executor {
+    private final ArrayDeque<Runnable> mTasks = new ArrayDeque<>();
+    private final Executor mExecutor;
+    private @Nullable Runnable mActive;
+
+    private SerialExecutor(Executor executor) {
+      mExecutor = executor;
+    }
+
+    @Override
+    public synchronized void execute(final Runnable runnable) {
+      mTasks.offer(
+          new Runnable() {
+            @Override
+            public void run() {
+              try {
+                runnable.run();
+              } finally {
+                scheduleNext();
+              }
+            }
+          });
+      if (mActive == null) {
+        scheduleNext();
+      }
+    }
+
+    private synchronized void scheduleNext() {
+      if ((mActive = mTasks.poll()) != null) {
+        try {
+          mExecutor.execute(mActive);
+        } catch (RejectedExecutionException e) {
+          // The shared pool has been shut down, the lanes are stopped.
+          mActive = null;
+          mTasks.clear();
+          dropCall();
+        }
+      }
+    }
+  }
+}
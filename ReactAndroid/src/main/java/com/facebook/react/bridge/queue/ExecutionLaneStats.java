@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.bridge.queue;
+
+/** Snapshot of the counters of one {@link ExecutionLane}. */
+public class ExecutionLaneStats {
+  public String laneName;
+  /** Calls dispatched to the lane that have not started running yet. */
+  public int queueDepth;
+  public long executedCalls;
+  /** Sum and max of the time calls spent between dispatch and start, in ms. */
+  public long totalQueueLatencyMs;
+  public long maxQueueLatencyMs;
+  /** Sum of the time calls spent running, in ms. */
+  public long totalRunTimeMs;
+}
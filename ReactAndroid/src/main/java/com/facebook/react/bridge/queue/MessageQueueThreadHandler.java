@@ -7,22 +7,66 @@
 
 package com.facebook.react.bridge.queue;
 
+import static com.facebook.systrace.Systrace.TRACE_TAG_REACT_JAVA_BRIDGE;
+
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
+import android.os.SystemClock;
+import androidx.annotation.Nullable;
+import com.facebook.systrace.Systrace;
 
-/** Handler that can catch and dispatch Exceptions to an Exception handler. */
+/**
+ * Handler that can catch and dispatch Exceptions to an Exception handler, and optionally records
+ * how long each message waited and ran.
+ */
 public class MessageQueueThreadHandler extends Handler {
 
   private final QueueThreadExceptionHandler mExceptionHandler;
+  private final @Nullable MessageQueueThreadTaskStatsRecorder mTaskStatsRecorder;
 
   public MessageQueueThreadHandler(Looper looper, QueueThreadExceptionHandler exceptionHandler) {
+    this(looper, exceptionHandler, null);
+  }
+
+  /* package */ MessageQueueThreadHandler(
+      Looper looper,
+      QueueThreadExceptionHandler exceptionHandler,
+      @Nullable MessageQueueThreadTaskStatsRecorder taskStatsRecorder) {
     super(looper);
     mExceptionHandler = exceptionHandler;
+    mTaskStatsRecorder = taskStatsRecorder;
   }
 
   @Override
   public void dispatchMessage(Message msg) {
+    if (mTaskStatsRecorder == null) {
+      dispatchMessageSafely(msg);
+      return;
+    }
+
+    // Message#getWhen is the uptime the message became due, so this is the time it spent waiting
+    // behind other messages (postDelayed time excluded).
+    final long startTime = SystemClock.uptimeMillis();
+    final long queueLatency = startTime - msg.getWhen();
+    final Runnable callback = msg.getCallback();
+    final boolean isTracing = Systrace.isTracing(TRACE_TAG_REACT_JAVA_BRIDGE);
+    if (isTracing) {
+      Systrace.beginSection(
+          TRACE_TAG_REACT_JAVA_BRIDGE, mTaskStatsRecorder.getTraceSectionName(callback));
+    }
+    try {
+      dispatchMessageSafely(msg);
+    } finally {
+      if (isTracing) {
+        Systrace.endSection(TRACE_TAG_REACT_JAVA_BRIDGE);
+      }
+      mTaskStatsRecorder.record(
+          callback, startTime, queueLatency, SystemClock.uptimeMillis() - startTime);
+    }
+  }
+
+  private void dispatchMessageSafely(Message msg) {
     try {
       super.dispatchMessage(msg);
     } catch (Exception e) {
@@ -18,16 +18,19 @@ import com.facebook.react.bridge.SoftAssertions;
 import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.common.ReactConstants;
 import com.facebook.react.common.futures.SimpleSettableFuture;
+import com.facebook.react.config.ReactFeatureFlags;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 
 /** Encapsulates a Thread that has a {@link Looper} running on it that can accept Runnables. */
 @DoNotStrip
-public class MessageQueueThreadImpl implements MessageQueueThread {
+public class MessageQueueThreadImpl
+    implements MessageQueueThread, MessageQueueThreadTaskStatsProvider {
 
   private final String mName;
   private final Looper mLooper;
   private final MessageQueueThreadHandler mHandler;
+  private final MessageQueueThreadTaskStatsRecorder mTaskStatsRecorder;
   private final String mAssertionErrorMessage;
   private MessageQueueThreadPerfStats mPerfStats;
   private volatile boolean mIsFinished = false;
@@ -44,7 +47,12 @@ public class MessageQueueThreadImpl implements MessageQueueThread {
       MessageQueueThreadPerfStats stats) {
     mName = name;
     mLooper = looper;
-    mHandler = new MessageQueueThreadHandler(looper, exceptionHandler);
+    mTaskStatsRecorder = new MessageQueueThreadTaskStatsRecorder(name);
+    mHandler =
+        new MessageQueueThreadHandler(
+            looper,
+            exceptionHandler,
+            ReactFeatureFlags.enableMessageQueueTaskStats ? mTaskStatsRecorder : null);
     mPerfStats = stats;
     mAssertionErrorMessage = "Expected to be called from the '" + getName() + "' thread!";
   }
@@ -139,9 +147,21 @@ public class MessageQueueThreadImpl implements MessageQueueThread {
     return mPerfStats;
   }
 
+  /** Returns empty stats unless {@link ReactFeatureFlags#enableMessageQueueTaskStats} is set. */
+  @Override
+  public MessageQueueThreadTaskStats getTaskStats() {
+    return mTaskStatsRecorder.snapshot();
+  }
+
+  @Override
+  public void setLongTaskThresholdMs(long thresholdMs) {
+    mTaskStatsRecorder.setLongTaskThresholdMs(thresholdMs);
+  }
+
   @DoNotStrip
   @Override
   public void resetPerfStats() {
+    mTaskStatsRecorder.reset();
     assignToPerfStats(mPerfStats, -1, -1);
     runOnQueue(
         new Runnable() {
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.bridge.queue;
+
+import java.util.List;
+
+/**
+ * Snapshot of how the runnables of a {@link MessageQueueThread} behaved since it was created or
+ * since {@link MessageQueueThread#resetPerfStats()}. Unlike {@link MessageQueueThreadPerfStats},
+ * which only marks the start of an RN startup, this is meant to be read periodically in production
+ * to find out what keeps the JS and native modules threads busy.
+ *
+ * <p>Histograms use exponential buckets: bucket 0 counts durations below 1ms and bucket {@code i}
+ * counts durations in {@code [2^(i-1), 2^i)} ms, the last bucket holding everything above.
+ */
+public class MessageQueueThreadTaskStats {
+
+  public static final int HISTOGRAM_BUCKET_COUNT = 12;
+
+  /** A runnable that ran for longer than the queue's long task threshold. */
+  public static class LongTask {
+    /** Class of the runnable, e.g. {@code NativeRunnable} for work posted from C++. */
+    public String runnableClassName;
+    /** Name of the Systrace section the runnable was reported under. */
+    public String traceSectionName;
+    /** {@link android.os.SystemClock#uptimeMillis()} when the runnable started. */
+    public long startTimeMs;
+    public long queueLatencyMs;
+    public long runDurationMs;
+  }
+
+  public String queueName;
+  public long longTaskThresholdMs;
+  public long taskCount;
+  public long longTaskCount;
+  public long maxQueueLatencyMs;
+  public long maxRunDurationMs;
+  /** Time between a runnable becoming due and it starting to run. */
+  public long[] queueLatencyHistogram;
+  /** Time a runnable spent running. */
+  public long[] runDurationHistogram;
+  /** The most recent long tasks, oldest first. */
+  public List<LongTask> recentLongTasks;
+
+  /** Upper bound (exclusive, in ms) of the given histogram bucket, or -1 for the last bucket. */
+  public static long getBucketUpperBoundMs(int bucket) {
+    return bucket >= HISTOGRAM_BUCKET_COUNT - 1 ? -1 : 1L << bucket;
+  }
+
+  /* package */ static int getBucket(long durationMs) {
+    if (durationMs <= 0) {
+      return 0;
+    }
+    return Math.min(HISTOGRAM_BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(durationMs));
+  }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.bridge.queue;
+
+/**
+ * Implemented by the {@link MessageQueueThread}s that record how long their tasks waited and ran,
+ * like {@link MessageQueueThreadImpl} when {@link
+ * com.facebook.react.config.ReactFeatureFlags#enableMessageQueueTaskStats} is set.
+ */
+public interface MessageQueueThreadTaskStatsProvider {
+
+  /**
+   * Returns a snapshot of the queue latency and run duration histograms and of the most recent
+   * long tasks. Can be called from any thread, without a debugger attached.
+   */
+  MessageQueueThreadTaskStats getTaskStats();
+
+  /**
+   * Sets the run duration above which a runnable is reported as a long task. A value of 0 disables
+   * long task detection.
+   */
+  void setLongTaskThresholdMs(long thresholdMs);
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.bridge.queue;
+
+import static com.facebook.systrace.Systrace.TRACE_TAG_REACT_JAVA_BRIDGE;
+
+import androidx.annotation.Nullable;
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
+import com.facebook.systrace.Systrace;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+/**
+ * Collects the data behind {@link MessageQueueThreadTaskStats}. {@link #record} is called on the
+ * queue thread for every message, everything else may be called from any thread.
+ */
+/* package */ class MessageQueueThreadTaskStatsRecorder {
+
+  private static final long DEFAULT_LONG_TASK_THRESHOLD_MS = 100;
+  private static final int MAX_RECENT_LONG_TASKS = 16;
+
+  private final String mQueueName;
+  private long mLongTaskThresholdMs = DEFAULT_LONG_TASK_THRESHOLD_MS;
+  private long mTaskCount;
+  private long mLongTaskCount;
+  private long mMaxQueueLatencyMs;
+  private long mMaxRunDurationMs;
+  private final long[] mQueueLatencyHistogram =
+      new long[MessageQueueThreadTaskStats.HISTOGRAM_BUCKET_COUNT];
+  private final long[] mRunDurationHistogram =
+      new long[MessageQueueThreadTaskStats.HISTOGRAM_BUCKET_COUNT];
+  private final ArrayDeque<MessageQueueThreadTaskStats.LongTask> mRecentLongTasks =
+      new ArrayDeque<>(MAX_RECENT_LONG_TASKS);
+
+  /* package */ MessageQueueThreadTaskStatsRecorder(String queueName) {
+    mQueueName = queueName;
+  }
+
+  /* package */ synchronized void setLongTaskThresholdMs(long thresholdMs) {
+    mLongTaskThresholdMs = thresholdMs;
+  }
+
+  /**
+   * Name of the Systrace section the given runnable is dispatched under when tracing is enabled,
+   * and that long tasks are reported with.
+   */
+  /* package */ String getTraceSectionName(@Nullable Runnable runnable) {
+    return "mqt_" + mQueueName + ": " + getRunnableClassName(runnable);
+  }
+
+  private static String getRunnableClassName(@Nullable Runnable runnable) {
+    return runnable != null ? runnable.getClass().getName() : "android.os.Message";
+  }
+
+  /* package */ void record(
+      @Nullable Runnable runnable, long startTimeMs, long queueLatencyMs, long runDurationMs) {
+    boolean isLongTask;
+    synchronized (this) {
+      mTaskCount++;
+      mQueueLatencyHistogram[MessageQueueThreadTaskStats.getBucket(queueLatencyMs)]++;
+      mRunDurationHistogram[MessageQueueThreadTaskStats.getBucket(runDurationMs)]++;
+      mMaxQueueLatencyMs = Math.max(mMaxQueueLatencyMs, queueLatencyMs);
+      mMaxRunDurationMs = Math.max(mMaxRunDurationMs, runDurationMs);
+      isLongTask = mLongTaskThresholdMs > 0 && runDurationMs >= mLongTaskThresholdMs;
+    }
+    if (!isLongTask) {
+      return;
+    }
+
+    MessageQueueThreadTaskStats.LongTask longTask = new MessageQueueThreadTaskStats.LongTask();
+    longTask.runnableClassName = getRunnableClassName(runnable);
+    longTask.traceSectionName = getTraceSectionName(runnable);
+    longTask.startTimeMs = startTimeMs;
+    longTask.queueLatencyMs = queueLatencyMs;
+    longTask.runDurationMs = runDurationMs;
+    synchronized (this) {
+      mLongTaskCount++;
+      if (mRecentLongTasks.size() == MAX_RECENT_LONG_TASKS) {
+        mRecentLongTasks.removeFirst();
+      }
+      mRecentLongTasks.addLast(longTask);
+    }
+
+    // Mark the end of the task in the trace so it stands out next to its section.
+    Systrace.traceInstant(
+        TRACE_TAG_REACT_JAVA_BRIDGE,
+        "Long task: " + longTask.traceSectionName,
+        Systrace.EventScope.THREAD);
+    FLog.w(
+        ReactConstants.TAG,
+        "Long task on '%s' queue: %s ran for %d ms after waiting %d ms",
+        mQueueName,
+        longTask.runnableClassName,
+        runDurationMs,
+        queueLatencyMs);
+  }
+
+  /* package */ synchronized MessageQueueThreadTaskStats snapshot() {
+    MessageQueueThreadTaskStats stats = new MessageQueueThreadTaskStats();
+    stats.queueName = mQueueName;
+    stats.longTaskThresholdMs = mLongTaskThresholdMs;
+    stats.taskCount = mTaskCount;
+    stats.longTaskCount = mLongTaskCount;
+    stats.maxQueueLatencyMs = mMaxQueueLatencyMs;
+    stats.maxRunDurationMs = mMaxRunDurationMs;
+    stats.queueLatencyHistogram = mQueueLatencyHistogram.clone();
+    stats.runDurationHistogram = mRunDurationHistogram.clone();
+    stats.recentLongTasks = new ArrayList<>(mRecentLongTasks);
+    return stats;
+  }
+
+  /* package */ synchronized void reset() {
+    mTaskCount = 0;
+    mLongTaskCount = 0;
+    mMaxQueueLatencyMs = 0;
+    mMaxRunDurationMs = 0;
+    for (int i = 0; i < MessageQueueThreadTaskStats.HISTOGRAM_BUCKET_COUNT; i++) {
+      mQueueLatencyHistogram[i] = 0;
+      mRunDurationHistogram[i] = 0;
+    }
+    mRecentLongTasks.clear();
+  }
+}
@@ -16,14 +16,17 @@ public class ReactQueueConfigurationImpl implements ReactQueueConfiguration {
   private final MessageQueueThreadImpl mUIQueueThread;
   private final MessageQueueThreadImpl mNativeModulesQueueThread;
   private final MessageQueueThreadImpl mJSQueueThread;
+  private final ExecutionLaneManager mExecutionLaneManager;
 
   private ReactQueueConfigurationImpl(
       MessageQueueThreadImpl uiQueueThread,
       MessageQueueThreadImpl nativeModulesQueueThread,
-      MessageQueueThreadImpl jsQueueThread) {
+      MessageQueueThreadImpl jsQueueThread,
+      ExecutionLaneManager executionLaneManager) {
     mUIQueueThread = uiQueueThread;
     mNativeModulesQueueThread = nativeModulesQueueThread;
     mJSQueueThread = jsQueueThread;
+    mExecutionLaneManager = executionLaneManager;
   }
 
   @Override
@@ -41,6 +44,11 @@ public class ReactQueueConfigurationImpl implements ReactQueueConfiguration {
     return mJSQueueThread;
   }
 
+  /** Owner of the threads used by native modules that declare an {@link ExecutionLane}. */
+  public ExecutionLaneManager getExecutionLaneManager() {
+    return mExecutionLaneManager;
+  }
+
   /**
    * Should be called when the corresponding {@link com.facebook.react.bridge.CatalystInstance} is
    * destroyed so that we shut down the proper queue threads.
@@ -52,6 +60,8 @@ public class ReactQueueConfigurationImpl implements ReactQueueConfiguration {
     if (mJSQueueThread.getLooper() != Looper.getMainLooper()) {
       mJSQueueThread.quitSynchronous();
     }
+    // The lanes are fed by the threads above, only release them once those have drained.
+    mExecutionLaneManager.destroy();
   }
 
   public static ReactQueueConfigurationImpl create(
@@ -74,6 +84,10 @@ public class ReactQueueConfigurationImpl implements ReactQueueConfiguration {
           MessageQueueThreadImpl.create(spec.getNativeModulesQueueThreadSpec(), exceptionHandler);
     }
 
-    return new ReactQueueConfigurationImpl(uiThread, nativeModulesThread, jsThread);
+    ExecutionLaneManager executionLaneManager =
+        new ExecutionLaneManager(spec.getSharedModulePoolSize(), exceptionHandler);
+
+    return new ReactQueueConfigurationImpl(
+        uiThread, nativeModulesThread, jsThread, executionLaneManager);
   }
 }
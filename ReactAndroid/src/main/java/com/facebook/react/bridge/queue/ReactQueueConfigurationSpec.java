@@ -20,15 +20,19 @@ import com.facebook.infer.annotation.Assertions;
 public class ReactQueueConfigurationSpec {
 
   private static final long LEGACY_STACK_SIZE_BYTES = 2000000;
+  private static final int DEFAULT_SHARED_MODULE_POOL_SIZE = 2;
 
   private final MessageQueueThreadSpec mNativeModulesQueueThreadSpec;
   private final MessageQueueThreadSpec mJSQueueThreadSpec;
+  private final int mSharedModulePoolSize;
 
   private ReactQueueConfigurationSpec(
       MessageQueueThreadSpec nativeModulesQueueThreadSpec,
-      MessageQueueThreadSpec jsQueueThreadSpec) {
+      MessageQueueThreadSpec jsQueueThreadSpec,
+      int sharedModulePoolSize) {
     mNativeModulesQueueThreadSpec = nativeModulesQueueThreadSpec;
     mJSQueueThreadSpec = jsQueueThreadSpec;
+    mSharedModulePoolSize = sharedModulePoolSize;
   }
 
   public MessageQueueThreadSpec getNativeModulesQueueThreadSpec() {
@@ -39,6 +43,11 @@ public class ReactQueueConfigurationSpec {
     return mJSQueueThreadSpec;
   }
 
+  /** Number of threads backing {@link ExecutionLane#SHARED_POOL}. */
+  public int getSharedModulePoolSize() {
+    return mSharedModulePoolSize;
+  }
+
   public static Builder builder() {
     return new Builder();
   }
@@ -59,6 +68,7 @@ public class ReactQueueConfigurationSpec {
 
     private @Nullable MessageQueueThreadSpec mNativeModulesQueueSpec;
     private @Nullable MessageQueueThreadSpec mJSQueueSpec;
+    private int mSharedModulePoolSize = DEFAULT_SHARED_MODULE_POOL_SIZE;
 
     public Builder setNativeModulesQueueThreadSpec(MessageQueueThreadSpec spec) {
       Assertions.assertCondition(
@@ -73,10 +83,17 @@ public class ReactQueueConfigurationSpec {
       return this;
     }
 
+    public Builder setSharedModulePoolSize(int poolSize) {
+      Assertions.assertCondition(poolSize > 0, "Shared module pool needs at least one thread!");
+      mSharedModulePoolSize = poolSize;
+      return this;
+    }
+
     public ReactQueueConfigurationSpec build() {
       return new ReactQueueConfigurationSpec(
           Assertions.assertNotNull(mNativeModulesQueueSpec),
-          Assertions.assertNotNull(mJSQueueSpec));
+          Assertions.assertNotNull(mJSQueueSpec),
+          mSharedModulePoolSize);
     }
   }
 }
@@ -19,6 +19,105 @@ public class ReactFeatureFlags {
   /** Whether we should load a specific view manager immediately or when it is accessed by JS */
   public static boolean lazilyLoadViewManagers = false;
 
+  /**
+   * Whether the constants of view managers should be persisted and reused by later launches of the
+   * same app install. Only enable this if view managers export constants that don't depend on the
+   * device state (e.g. locale or screen size).
+   */
+  public static boolean enableViewManagerConstantsCache = false;
+
+  /**
+   * Collect the layout props of a shadow node update and apply them to Yoga in a single JNI call
+   * instead of one call per prop.
+   */
+  public static boolean enableBatchedYogaStyleInputs = false;
+
+  /**
+   * When dispatching layout updates, only visit the children of a node that wasn't laid out again
+   * if they were marked as updated, instead of checking every child for updates.
+   */
+  public static boolean enableLayoutUpdatesSubtreeSkipping = false;
+
+  /**
+   * Send the {@link android.text.Layout} built when measuring a {@code <Text>} node to its view, so
+   * that the view draws it instead of measuring and laying out the same text again.
+   */
+  public static boolean enablePreparedTextLayouts = false;
+
+  /**
+   * Let native animated nodes that only animate opacity and transforms call the typed setters of
+   * the view manager directly, instead of updating the view through a props map every frame.
+   */
+  public static boolean enableNativeAnimatedPropWriters = false;
+
+  /**
+   * Let native animated nodes animate layout props (e.g. width or top) by updating the shadow node
+   * and laying out again on the native modules thread, instead of rejecting them as unsupported.
+   */
+  public static boolean enableNativeAnimatedLayoutProps = false;
+
+  /**
+   * Round the corners of and repeat {@code <Image>} bitmaps when drawing them, instead of copying
+   * each bitmap in a postprocessor, so that every image view showing a URI shares one decoded
+   * bitmap.
+   */
+  public static boolean enableDrawTimeImageShaping = false;
+
+  /**
+   * Decode network images at the size of their view, rounded up to size buckets and reduced when
+   * the decoded images in use exceed {@link com.facebook.react.views.image.ImageDecodeBudget}.
+   * Read when Fresco is initialized, to let it downsample images that aren't JPEGs.
+   */
+  public static boolean enableSizeAwareImageDecoding = false;
+
+  /**
+   * Only load {@code <Image>}s once they are scrolled near the viewport of their scroll view, with
+   * a higher priority for visible ones, and cancel loads of images scrolled away. Also read when
+   * Fresco is initialized, to count requests for {@link
+   * com.facebook.react.modules.fresco.FrescoModule#getImageRequestStats}.
+   */
+  public static boolean enableViewportImagePriorities = false;
+
+  /**
+   * Track the bounds of the nodes of ART surfaces, so that a change only clears and redraws the
+   * part of the surface the changed nodes covered and now cover, instead of the whole surface.
+   */
+  public static boolean enableARTDirtyRegions = false;
+
+  /**
+   * Draw the groups of ART surfaces that didn't change for a few frames into bitmaps, and draw those
+   * bitmaps instead of the groups' shapes until they change. Needs {@link #enableARTDirtyRegions},
+   * which tells how big the bitmaps have to be.
+   */
+  public static boolean enableARTLayerCaching = false;
+
+  /**
+   * Let identical GET and HEAD requests that are in flight at the same time share one network call
+   * in {@link com.facebook.react.modules.network.NetworkingModule}.
+   */
+  public static boolean enableNetworkRequestCoalescing = false;
+
+  /**
+   * Record how long the messages of each {@link
+   * com.facebook.react.bridge.queue.MessageQueueThreadImpl} waited and ran, and report long tasks.
+   * Read when the threads are created.
+   */
+  public static boolean enableMessageQueueTaskStats = false;
+
+  /**
+   * Keep JS timers in a timing wheel instead of a priority queue, and only post the timers frame
+   * callback while a timer is about to be due. Read when the {@link
+   * com.facebook.react.modules.core.JavaTimerManager} is created.
+   */
+  public static boolean enableTimerWheel = false;
+
+  /**
+   * Make {@link com.facebook.react.bridge.Arguments#createMap()} and {@link
+   * com.facebook.react.bridge.Arguments#createArray()} buffer their entries on the Java side and
+   * write them to native memory in a single JNI call when they are passed to native code.
+   */
+  public static boolean useBufferedWritableNativeCollections = false;
+
   /** Reduce the number of Java-JS interops while accessing native arrays */
   public static boolean useArrayNativeAccessor = false;
 
@@ -10,8 +10,10 @@ package com.facebook.react.devsupport;
 import androidx.annotation.Nullable;
 import com.facebook.common.logging.FLog;
 import com.facebook.infer.annotation.Assertions;
+import com.facebook.react.bridge.JSBundleLoader;
 import com.facebook.react.common.DebugServerException;
 import com.facebook.react.common.ReactConstants;
+import com.facebook.react.common.SystemClock;
 import com.facebook.react.devsupport.interfaces.DevBundleDownloadListener;
 import java.io.File;
 import java.io.IOException;
@@ -26,8 +28,10 @@ import okhttp3.Request;
 import okhttp3.Response;
 import okio.Buffer;
 import okio.BufferedSource;
+import okio.ForwardingSource;
 import okio.Okio;
 import okio.Sink;
+import okio.Source;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -37,9 +41,30 @@ public class BundleDownloader {
   // Should be kept in sync with constants in RCTJavaScriptLoader.h
   private static final int FILES_CHANGED_COUNT_NOT_BUILT_BY_BUNDLER = -2;
 
+  private static final String BUNDLE_PATCH_CONTENT_TYPE = "application/x-react-native-bundle-patch";
+
   private final OkHttpClient mClient;
 
   private @Nullable Call mDownloadBundleFromURLCall;
+  private volatile @Nullable BundlePatchStats mLastBundlePatchStats;
+
+  /** Counts the bytes read from a source. */
+  private static class CountingSource extends ForwardingSource {
+    private long mBytesRead;
+
+    CountingSource(Source delegate) {
+      super(delegate);
+    }
+
+    @Override
+    public long read(Buffer sink, long byteCount) throws IOException {
+      long read = super.read(sink, byteCount);
+      if (read > 0) {
+        mBytesRead += read;
+      }
+      return read;
+    }
+  }
 
   public static class BundleInfo {
     private @Nullable String mUrl;
@@ -165,6 +190,103 @@ public class BundleDownloader {
         });
   }
 
+  /**
+   * Downloads a patch against the bundle file and stages the patched bundle in {@link
+   * JSBundleLoader#getStagedBundleFileName}. The patch is applied while it's downloaded and the
+   * result is checked against the hash in the patch, see {@link BundlePatch} for the format. The
+   * staged bundle replaces the bundle file the next time it's loaded with {@link
+   * JSBundleLoader#createStagedFileLoader}.
+   *
+   * <p>The server may answer with a 304 status if the bundle is up to date.
+   */
+  public void downloadBundlePatchFromURL(
+      final DevBundleDownloadListener callback,
+      final File bundleFile,
+      final String patchURL,
+      Request.Builder requestBuilder) {
+    final Request request =
+        requestBuilder.url(patchURL).addHeader("Accept", BUNDLE_PATCH_CONTENT_TYPE).build();
+    mDownloadBundleFromURLCall = Assertions.assertNotNull(mClient.newCall(request));
+    mDownloadBundleFromURLCall.enqueue(
+        new Callback() {
+          @Override
+          public void onFailure(Call call, IOException e) {
+            // ignore callback if call was cancelled
+            if (mDownloadBundleFromURLCall == null || mDownloadBundleFromURLCall.isCanceled()) {
+              mDownloadBundleFromURLCall = null;
+              return;
+            }
+            mDownloadBundleFromURLCall = null;
+            callback.onFailure(e);
+          }
+
+          @Override
+          public void onResponse(Call call, final Response response) throws IOException {
+            // ignore callback if call was cancelled
+            if (mDownloadBundleFromURLCall == null || mDownloadBundleFromURLCall.isCanceled()) {
+              mDownloadBundleFromURLCall = null;
+              return;
+            }
+            mDownloadBundleFromURLCall = null;
+
+            try (Response r = response) {
+              if (r.code() == 304) {
+                callback.onSuccess();
+              } else if (r.code() != 200) {
+                callback.onFailure(
+                    new IOException(
+                        "Bundle patch request failed with response code "
+                            + r.code()
+                            + ", URL: "
+                            + r.request().url()));
+              } else {
+                processBundlePatch(r.body().source(), bundleFile, callback);
+              }
+            }
+          }
+        });
+  }
+
+  /** Returns the sizes and timing of the last bundle patch that was applied, if any. */
+  public @Nullable BundlePatchStats getLastBundlePatchStats() {
+    return mLastBundlePatchStats;
+  }
+
+  private void processBundlePatch(
+      Source body, File bundleFile, DevBundleDownloadListener callback) {
+    long startTime = SystemClock.uptimeMillis();
+    File stagedFile = new File(JSBundleLoader.getStagedBundleFileName(bundleFile.getPath()));
+    File tmpFile = new File(stagedFile.getPath() + ".tmp");
+    CountingSource patch = new CountingSource(body);
+
+    long bundleBytes;
+    try {
+      bundleBytes = BundlePatch.apply(bundleFile, Okio.buffer(patch), tmpFile);
+      if (!tmpFile.renameTo(stagedFile)) {
+        tmpFile.delete();
+        throw new IOException("Couldn't rename " + tmpFile + " to " + stagedFile);
+      }
+    } catch (IOException e) {
+      callback.onFailure(e);
+      return;
+    }
+
+    BundlePatchStats stats = new BundlePatchStats();
+    stats.patchBytes = patch.mBytesRead;
+    stats.bundleBytes = bundleBytes;
+    stats.bytesSaved = Math.max(0, bundleBytes - patch.mBytesRead);
+    stats.applyTimeMs = SystemClock.uptimeMillis() - startTime;
+    mLastBundlePatchStats = stats;
+    FLog.i(
+        TAG,
+        "Staged a %d bytes bundle from a %d bytes patch in %d ms",
+        stats.bundleBytes,
+        stats.patchBytes,
+        stats.applyTimeMs);
+
+    callback.onSuccess();
+  }
+
   private String formatBundleUrl(String bundleURL) {
     return bundleURL;
   }
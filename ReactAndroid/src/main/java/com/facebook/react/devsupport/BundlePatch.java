@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.devsupport;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.HashingSink;
+import okio.Okio;
+
+/**
+ * Applies a binary patch to a JS bundle while the patch is being read, so that neither the patch
+ * nor the resulting bundle has to be held in memory.
+ *
+ * <p>A patch starts with a header:
+ *
+ * <ul>
+ *   <li>the ASCII magic {@code RNBP} and a 4 byte version, currently 1
+ *   <li>the 8 byte size of the bundle the patch applies to
+ *   <li>the 8 byte size and the 32 byte SHA-256 hash of the resulting bundle
+ * </ul>
+ *
+ * <p>It is followed by operations, each starting with a one byte opcode:
+ *
+ * <ul>
+ *   <li>{@link #OP_COPY}, an 8 byte offset and a 4 byte length: copies that range of the base
+ *       bundle
+ *   <li>{@link #OP_INSERT}, a 4 byte length and that many bytes: inserts the bytes
+ *   <li>{@link #OP_END}: ends the patch
+ * </ul>
+ *
+ * <p>All numbers are big endian.
+ */
+/* package */ class BundlePatch {
+
+  private static final int MAGIC = 0x524e4250; // RNBP
+  private static final int VERSION = 1;
+
+  /* package */ static final byte OP_END = 0;
+  /* package */ static final byte OP_COPY = 1;
+  /* package */ static final byte OP_INSERT = 2;
+
+  private static final int COPY_BUFFER_SIZE = 8 * 1024;
+
+  private BundlePatch() {}
+
+  /**
+   * Writes the result of applying the patch to the base bundle into the output file. The output
+   * file is synced to disk before returning, and deleted if the patch can't be applied or the
+   * result doesn't have the expected hash.
+   *
+   * @return the size of the resulting bundle
+   */
+  /* package */ static long apply(File baseFile, BufferedSource patch, File outputFile)
+      throws IOException {
+    boolean applied = false;
+    try {
+      long size = applyOrThrow(baseFile, patch, outputFile);
+      applied = true;
+      return size;
+    } finally {
+      if (!applied) {
+        outputFile.delete();
+      }
+    }
+  }
+
+  private static long applyOrThrow(File baseFile, BufferedSource patch, File outputFile)
+      throws IOException {
+    if (patch.readInt() != MAGIC) {
+      throw new IOException("Not a bundle patch");
+    }
+    int version = patch.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported bundle patch version " + version);
+    }
+    long baseSize = patch.readLong();
+    long targetSize = patch.readLong();
+    ByteString targetHash = patch.readByteString(32);
+    if (baseFile.length() != baseSize) {
+      throw new IOException(
+          "Bundle patch applies to a bundle of " + baseSize + " bytes, not " + baseFile.length());
+    }
+
+    try (RandomAccessFile base = new RandomAccessFile(baseFile, "r");
+        FileOutputStream outputStream = new FileOutputStream(outputFile)) {
+      HashingSink hashingSink = HashingSink.sha256(Okio.sink(outputStream));
+      BufferedSink output = Okio.buffer(hashingSink);
+      byte[] buffer = new byte[COPY_BUFFER_SIZE];
+      long written = 0;
+
+      byte op;
+      while ((op = patch.readByte()) != OP_END) {
+        if (op == OP_COPY) {
+          long offset = patch.readLong();
+          int length = patch.readInt();
+          if (offset < 0 || length < 0 || offset + length > baseSize) {
+            throw new IOException("Bundle patch copies outside of the base bundle");
+          }
+          written += length;
+          checkSize(written, targetSize);
+          base.seek(offset);
+          while (length > 0) {
+            int read = base.read(buffer, 0, Math.min(length, buffer.length));
+            if (read < 0) {
+              throw new IOException("Base bundle changed while applying a patch");
+            }
+            output.write(buffer, 0, read);
+            length -= read;
+          }
+        } else if (op == OP_INSERT) {
+          int length = patch.readInt();
+          if (length < 0) {
+            throw new IOException("Invalid bundle patch insert length " + length);
+          }
+          written += length;
+          checkSize(written, targetSize);
+          patch.readFully(output.buffer(), length);
+          output.emitCompleteSegments();
+        } else {
+          throw new IOException("Invalid bundle patch operation " + op);
+        }
+      }
+
+      output.flush();
+      if (written != targetSize) {
+        throw new IOException("Patched bundle has " + written + " bytes, expected " + targetSize);
+      }
+      if (!hashingSink.hash().equals(targetHash)) {
+        throw new IOException("Patched bundle doesn't have the expected hash");
+      }
+      outputStream.getFD().sync();
+      return written;
+    }
+  }
+
+  private static void checkSize(long written, long targetSize) throws IOException {
+    if (written > targetSize) {
+      throw new IOException("Patched bundle is larger than the expected " + targetSize + " bytes");
+    }
+  }
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.devsupport;
+
+/**
+ * Sizes and timing of a bundle update downloaded as a patch, see {@link
+ * BundleDownloader#getLastBundlePatchStats}.
+ */
+public class BundlePatchStats {
+  /** Number of bytes of the patch that were downloaded. */
+  public long patchBytes;
+  /** Size of the bundle the patch produced. */
+  public long bundleBytes;
+  /** Number of bytes that didn't have to be downloaded thanks to the patch. */
+  public long bytesSaved;
+  /** Time spent downloading and applying the patch, which happen together. */
+  public long applyTimeMs;
+}
@@ -41,6 +41,8 @@ public class StateWrapperImpl implements StateWrapper {
 
   @Override
   public void updateState(@NonNull WritableMap map) {
-    updateStateImpl((NativeMap) map);
+    NativeMap nativeMap = (NativeMap) map;
+    nativeMap.materialize();
+    updateStateImpl(nativeMap);
   }
 }
@@ -46,6 +46,7 @@ public class EventEmitterWrapper {
    */
   public void invoke(@NonNull String eventName, @Nullable WritableMap params) {
     NativeMap payload = params == null ? new WritableNativeMap() : (NativeMap) params;
+    payload.materialize();
     invokeEvent(eventName, payload);
   }
 }
@@ -56,6 +56,7 @@ public class HeadlessJsTaskContext {
   private final Set<Integer> mActiveTasks = new CopyOnWriteArraySet<>();
   private final Map<Integer, HeadlessJsTaskConfig> mActiveTaskConfigs = new ConcurrentHashMap<>();
   private final SparseArray<Runnable> mTaskTimeouts = new SparseArray<>();
+  private final HeadlessJsTaskScheduler mTaskScheduler = new HeadlessJsTaskScheduler(this);
 
   private HeadlessJsTaskContext(ReactContext reactContext) {
     mReactContext = new WeakReference<ReactContext>(reactContext);
@@ -71,9 +72,37 @@ public class HeadlessJsTaskContext {
     mHeadlessJsTaskEventListeners.remove(listener);
   }
 
-  /** Get whether there are any running JS tasks at the moment. */
+  /** Get whether there are any running or queued JS tasks at the moment. */
   public boolean hasActiveTasks() {
-    return mActiveTasks.size() > 0;
+    return mActiveTasks.size() > 0 || mTaskScheduler.hasPendingTasks();
+  }
+
+  /**
+   * Get the scheduler used by {@link #scheduleTask}, to configure its concurrency limits and time
+   * budgets or read its metrics.
+   */
+  public HeadlessJsTaskScheduler getTaskScheduler() {
+    return mTaskScheduler;
+  }
+
+  /**
+   * Schedule a JS task with {@link HeadlessJsTaskScheduler#PRIORITY_NORMAL}. See {@link
+   * #scheduleTask(HeadlessJsTaskConfig, int)}.
+   */
+  public int scheduleTask(final HeadlessJsTaskConfig taskConfig) {
+    return scheduleTask(taskConfig, HeadlessJsTaskScheduler.PRIORITY_NORMAL);
+  }
+
+  /**
+   * Schedule a JS task. Unlike {@link #startTask}, the task is only started once the number of
+   * running tasks with the same key is below the limit configured on {@link #getTaskScheduler()},
+   * and scheduling a task identical to one that is still queued does not start it twice. Listeners
+   * are notified when the task actually starts.
+   *
+   * @return a unique id representing this task instance, or the id of the identical queued task.
+   */
+  public int scheduleTask(final HeadlessJsTaskConfig taskConfig, int priority) {
+    return mTaskScheduler.scheduleTask(taskConfig, priority);
   }
 
   /**
@@ -83,28 +112,23 @@ public class HeadlessJsTaskContext {
    * @return a unique id representing this task instance.
    */
   public synchronized int startTask(final HeadlessJsTaskConfig taskConfig) {
-    final int taskId = mLastTaskId.incrementAndGet();
+    final int taskId = generateTaskId();
     startTask(taskConfig, taskId);
     return taskId;
   }
 
+  /* package */ int generateTaskId() {
+    return mLastTaskId.incrementAndGet();
+  }
+
   /**
    * Start a JS task the provided task id. Handles invoking {@link AppRegistry#startHeadlessTask}
    * and notifying listeners.
    */
-  private synchronized void startTask(final HeadlessJsTaskConfig taskConfig, int taskId) {
+  /* package */ synchronized void startTask(final HeadlessJsTaskConfig taskConfig, int taskId) {
     UiThreadUtil.assertOnUiThread();
-    ReactContext reactContext =
-        Assertions.assertNotNull(
-            mReactContext.get(),
-            "Tried to start a task on a react context that has already been destroyed");
-    if (reactContext.getLifecycleState() == LifecycleState.RESUMED
-        && !taskConfig.isAllowedInForeground()) {
-      throw new IllegalStateException(
-          "Tried to start task "
-              + taskConfig.getTaskKey()
-              + " while in foreground, but this is not allowed.");
-    }
+    assertCanStartTask(taskConfig);
+    ReactContext reactContext = Assertions.assertNotNull(mReactContext.get());
     mActiveTasks.add(taskId);
     mActiveTaskConfigs.put(taskId, new HeadlessJsTaskConfig(taskConfig));
     if (reactContext.hasActiveCatalystInstance()) {
@@ -124,6 +148,27 @@ public class HeadlessJsTaskContext {
     }
   }
 
+  /* package */ void assertCanStartTask(final HeadlessJsTaskConfig taskConfig) {
+    ReactContext reactContext =
+        Assertions.assertNotNull(
+            mReactContext.get(),
+            "Tried to start a task on a react context that has already been destroyed");
+    if (reactContext.getLifecycleState() == LifecycleState.RESUMED
+        && !taskConfig.isAllowedInForeground()) {
+      throw new IllegalStateException(
+          "Tried to start task "
+              + taskConfig.getTaskKey()
+              + " while in foreground, but this is not allowed.");
+    }
+  }
+
+  /* package */ boolean canStartTask(final HeadlessJsTaskConfig taskConfig) {
+    ReactContext reactContext = mReactContext.get();
+    return reactContext != null
+        && (reactContext.getLifecycleState() != LifecycleState.RESUMED
+            || taskConfig.isAllowedInForeground());
+  }
+
   /**
    * Retry a running JS task with a delay. Invokes {@link
    * HeadlessJsTaskContext#startTask(HeadlessJsTaskConfig, int)} as long as the process does not get
@@ -180,13 +225,20 @@ public class HeadlessJsTaskContext {
         new Runnable() {
           @Override
           public void run() {
-            for (HeadlessJsTaskEventListener listener : mHeadlessJsTaskEventListeners) {
-              listener.onHeadlessJsTaskFinish(taskId);
-            }
+            // Let a queued task take the freed slot before listeners check for active tasks.
+            mTaskScheduler.onTaskFinished(taskId);
+            dispatchTaskFinish(taskId);
           }
         });
   }
 
+  /* package */ void dispatchTaskFinish(final int taskId) {
+    UiThreadUtil.assertOnUiThread();
+    for (HeadlessJsTaskEventListener listener : mHeadlessJsTaskEventListeners) {
+      listener.onHeadlessJsTaskFinish(taskId);
+    }
+  }
+
   private void removeTimeout(int taskId) {
     Runnable timeout = mTaskTimeouts.get(taskId);
     if (timeout != null) {
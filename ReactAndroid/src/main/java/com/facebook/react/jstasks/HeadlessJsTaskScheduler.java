@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.jstasks;
+
+import android.os.SystemClock;
+import androidx.annotation.Nullable;
+import com.facebook.common.logging.FLog;
+import com.facebook.react.bridge.ReactSoftException;
+import com.facebook.react.bridge.UiThreadUtil;
+import com.facebook.react.common.ReactConstants;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Admission control for JS tasks started through {@link HeadlessJsTaskContext#scheduleTask}.
+ *
+ * <p>Tasks are queued per task key and started only while the number of running tasks for that
+ * key is below its concurrency limit. Within a key, higher priority tasks start first and tasks of
+ * equal priority start in submission order. Scheduling a task that is identical (same key and
+ * same data) to one that is still pending does not enqueue a second copy; the id of the pending
+ * task is returned instead.
+ *
+ * <p>Every scheduled task runs with a time budget: the timeout of its {@link HeadlessJsTaskConfig},
+ * or {@link #setDefaultTimeout(long)} when the config does not specify one, so a task can never
+ * hold on to a concurrency slot forever.
+ */
+public class HeadlessJsTaskScheduler {
+
+  public static final int PRIORITY_LOW = -1;
+  public static final int PRIORITY_NORMAL = 0;
+  public static final int PRIORITY_HIGH = 1;
+
+  private static final int DEFAULT_MAX_CONCURRENT_TASKS_PER_KEY = 1;
+  private static final long DEFAULT_TIMEOUT_MS = 60 * 1000;
+
+  private static final Comparator<PendingTask> PENDING_TASK_COMPARATOR =
+      new Comparator<PendingTask>() {
+        @Override
+        public int compare(PendingTask lhs, PendingTask rhs) {
+          if (lhs.mPriority != rhs.mPriority) {
+            return lhs.mPriority > rhs.mPriority ? -1 : 1;
+          }
+          return lhs.mSequence < rhs.mSequence ? -1 : (lhs.mSequence == rhs.mSequence ? 0 : 1);
+        }
+      };
+
+  private static class PendingTask {
+    private final int mTaskId;
+    private final HeadlessJsTaskConfig mConfig;
+    private final int mPriority;
+    private final long mSequence;
+    private final long mEnqueueTimeMs;
+
+    private PendingTask(
+        int taskId, HeadlessJsTaskConfig config, int priority, long sequence, long enqueueTimeMs) {
+      mTaskId = taskId;
+      mConfig = config;
+      mPriority = priority;
+      mSequence = sequence;
+      mEnqueueTimeMs = enqueueTimeMs;
+    }
+
+    private boolean isEquivalentTo(HeadlessJsTaskConfig config) {
+      if (!mConfig.getTaskKey().equals(config.getTaskKey())) {
+        return false;
+      }
+      return mConfig.getData() == null
+          ? config.getData() == null
+          : mConfig.getData().equals(config.getData());
+    }
+  }
+
+  private final HeadlessJsTaskContext mTaskContext;
+  private final Map<String, PriorityQueue<PendingTask>> mPendingTasks = new HashMap<>();
+  private final Map<String, Integer> mRunningTaskCounts = new HashMap<>();
+  private final Map<Integer, String> mRunningTaskKeys = new HashMap<>();
+  private final Map<String, Integer> mMaxConcurrentTasks = new HashMap<>();
+
+  private int mDefaultMaxConcurrentTasks = DEFAULT_MAX_CONCURRENT_TASKS_PER_KEY;
+  private long mDefaultTimeoutMs = DEFAULT_TIMEOUT_MS;
+  private long mSequence;
+  private int mPendingTaskCount;
+
+  private long mScheduledTaskCount;
+  private long mStartedTaskCount;
+  private long mCoalescedTaskCount;
+  private long mDroppedTaskCount;
+  private long mTotalQueueTimeMs;
+  private long mMaxQueueTimeMs;
+
+  /* package */ HeadlessJsTaskScheduler(HeadlessJsTaskContext taskContext) {
+    mTaskContext = taskContext;
+  }
+
+  /**
+   * Set how many tasks with the given key may run at the same time. Tasks over the limit are kept
+   * in the queue until a running task with the same key finishes or times out.
+   */
+  public synchronized void setMaxConcurrentTasks(String taskKey, int maxConcurrentTasks) {
+    if (maxConcurrentTasks < 1) {
+      throw new IllegalArgumentException("maxConcurrentTasks must be at least 1");
+    }
+    mMaxConcurrentTasks.put(taskKey, maxConcurrentTasks);
+  }
+
+  /** Set the concurrency limit used for task keys without an explicit limit. */
+  public synchronized void setDefaultMaxConcurrentTasks(int maxConcurrentTasks) {
+    if (maxConcurrentTasks < 1) {
+      throw new IllegalArgumentException("maxConcurrentTasks must be at least 1");
+    }
+    mDefaultMaxConcurrentTasks = maxConcurrentTasks;
+  }
+
+  /**
+   * Set the time budget (in ms) applied to scheduled tasks whose config has no timeout. A value of
+   * 0 lets such tasks run until they finish.
+   */
+  public synchronized void setDefaultTimeout(long timeoutMs) {
+    if (timeoutMs < 0) {
+      throw new IllegalArgumentException("timeoutMs must not be negative");
+    }
+    mDefaultTimeoutMs = timeoutMs;
+  }
+
+  /** Get a snapshot of the scheduler counters. Can be called from any thread. */
+  public synchronized HeadlessJsTaskSchedulerMetrics getMetrics() {
+    return new HeadlessJsTaskSchedulerMetrics(
+        mPendingTaskCount,
+        mRunningTaskKeys.size(),
+        mScheduledTaskCount,
+        mStartedTaskCount,
+        mCoalescedTaskCount,
+        mDroppedTaskCount,
+        mStartedTaskCount > 0 ? mTotalQueueTimeMs / mStartedTaskCount : 0,
+        mMaxQueueTimeMs);
+  }
+
+  /* package */ synchronized boolean hasPendingTasks() {
+    return mPendingTaskCount > 0;
+  }
+
+  /**
+   * Queue a task and start it right away if its key is below its concurrency limit.
+   *
+   * @return the id the task will run with, or the id of an identical pending task.
+   */
+  /* package */ synchronized int scheduleTask(HeadlessJsTaskConfig taskConfig, int priority) {
+    UiThreadUtil.assertOnUiThread();
+    mTaskContext.assertCanStartTask(taskConfig);
+
+    String taskKey = taskConfig.getTaskKey();
+    PriorityQueue<PendingTask> queue = mPendingTasks.get(taskKey);
+    if (queue == null) {
+      queue = new PriorityQueue<>(4, PENDING_TASK_COMPARATOR);
+      mPendingTasks.put(taskKey, queue);
+    }
+
+    PendingTask coalesced = findEquivalentTask(queue, taskConfig);
+    if (coalesced != null) {
+      mCoalescedTaskCount++;
+      if (priority > coalesced.mPriority) {
+        // Keep the original position in the FIFO order but let the task jump ahead of lower
+        // priority work, as the newest request for it asked.
+        queue.remove(coalesced);
+        queue.add(
+            new PendingTask(
+                coalesced.mTaskId,
+                coalesced.mConfig,
+                priority,
+                coalesced.mSequence,
+                coalesced.mEnqueueTimeMs));
+      }
+      return coalesced.mTaskId;
+    }
+
+    HeadlessJsTaskConfig budgetedConfig = taskConfig;
+    if (taskConfig.getTimeout() <= 0 && mDefaultTimeoutMs > 0) {
+      budgetedConfig =
+          new HeadlessJsTaskConfig(
+              taskConfig.getTaskKey(),
+              taskConfig.getData(),
+              mDefaultTimeoutMs,
+              taskConfig.isAllowedInForeground(),
+              taskConfig.getRetryPolicy());
+    }
+
+    int taskId = mTaskContext.generateTaskId();
+    queue.add(
+        new PendingTask(
+            taskId, budgetedConfig, priority, mSequence++, SystemClock.uptimeMillis()));
+    mPendingTaskCount++;
+    mScheduledTaskCount++;
+    drainQueue(taskKey);
+    return taskId;
+  }
+
+  /**
+   * Called on the UI thread once a task has finished or timed out, so that the next pending task
+   * with the same key can take its slot.
+   */
+  /* package */ synchronized void onTaskFinished(int taskId) {
+    String taskKey = mRunningTaskKeys.remove(taskId);
+    if (taskKey == null) {
+      return;
+    }
+    Integer runningCount = mRunningTaskCounts.get(taskKey);
+    if (runningCount == null || runningCount <= 1) {
+      mRunningTaskCounts.remove(taskKey);
+    } else {
+      mRunningTaskCounts.put(taskKey, runningCount - 1);
+    }
+    drainQueue(taskKey);
+  }
+
+  private void drainQueue(String taskKey) {
+    PriorityQueue<PendingTask> queue = mPendingTasks.get(taskKey);
+    if (queue == null) {
+      return;
+    }
+    int maxConcurrentTasks = getMaxConcurrentTasks(taskKey);
+    while (!queue.isEmpty() && getRunningTaskCount(taskKey) < maxConcurrentTasks) {
+      PendingTask task = queue.poll();
+      mPendingTaskCount--;
+      if (!mTaskContext.canStartTask(task.mConfig)) {
+        mDroppedTaskCount++;
+        ReactSoftException.logSoftException(
+            "HeadlessJsTaskScheduler",
+            new IllegalStateException(
+                "Dropped queued task "
+                    + taskKey
+                    + " because the app moved to the foreground and it is not allowed to run"
+                    + " there."));
+        mTaskContext.dispatchTaskFinish(task.mTaskId);
+        continue;
+      }
+
+      long queueTimeMs = SystemClock.uptimeMillis() - task.mEnqueueTimeMs;
+      mTotalQueueTimeMs += queueTimeMs;
+      mMaxQueueTimeMs = Math.max(mMaxQueueTimeMs, queueTimeMs);
+      mStartedTaskCount++;
+      mRunningTaskKeys.put(task.mTaskId, taskKey);
+      mRunningTaskCounts.put(taskKey, getRunningTaskCount(taskKey) + 1);
+      FLog.d(
+          ReactConstants.TAG,
+          "Starting headless task %s (id %d) after %d ms in queue",
+          taskKey,
+          task.mTaskId,
+          queueTimeMs);
+      mTaskContext.startTask(task.mConfig, task.mTaskId);
+    }
+    if (queue.isEmpty()) {
+      mPendingTasks.remove(taskKey);
+    }
+  }
+
+  private int getMaxConcurrentTasks(String taskKey) {
+    Integer maxConcurrentTasks = mMaxConcurrentTasks.get(taskKey);
+    return maxConcurrentTasks != null ? maxConcurrentTasks : mDefaultMaxConcurrentTasks;
+  }
+
+  private int getRunningTaskCount(String taskKey) {
+    Integer runningCount = mRunningTaskCounts.get(taskKey);
+    return runningCount != null ? runningCount : 0;
+  }
+
+  private static @Nullable PendingTask findEquivalentTask(
+      PriorityQueue<PendingTask> queue, HeadlessJsTaskConfig taskConfig) {
+    for (PendingTask task : queue) {
+      if (task.isEquivalentTo(taskConfig)) {
+        return task;
+      }
+    }
+    return null;
+  }
+}
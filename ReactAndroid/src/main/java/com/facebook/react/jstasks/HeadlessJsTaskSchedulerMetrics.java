@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.jstasks;
+
+/** Snapshot of the counters kept by {@link HeadlessJsTaskScheduler}. */
+public class HeadlessJsTaskSchedulerMetrics {
+  private final int mQueuedTasks;
+  private final int mRunningTasks;
+  private final long mScheduledTasks;
+  private final long mStartedTasks;
+  private final long mCoalescedTasks;
+  private final long mDroppedTasks;
+  private final long mAverageQueueTimeMs;
+  private final long mMaxQueueTimeMs;
+
+  /* package */ HeadlessJsTaskSchedulerMetrics(
+      int queuedTasks,
+      int runningTasks,
+      long scheduledTasks,
+      long startedTasks,
+      long coalescedTasks,
+      long droppedTasks,
+      long averageQueueTimeMs,
+      long maxQueueTimeMs) {
+    mQueuedTasks = queuedTasks;
+    mRunningTasks = runningTasks;
+    mScheduledTasks = scheduledTasks;
+    mStartedTasks = startedTasks;
+    mCoalescedTasks = coalescedTasks;
+    mDroppedTasks = droppedTasks;
+    mAverageQueueTimeMs = averageQueueTimeMs;
+    mMaxQueueTimeMs = maxQueueTimeMs;
+  }
+
+  /** Number of tasks waiting for a concurrency slot. */
+  public int getQueuedTasks() {
+    return mQueuedTasks;
+  }
+
+  /** Number of scheduled tasks that are currently running. */
+  public int getRunningTasks() {
+    return mRunningTasks;
+  }
+
+  /** Total number of tasks that were queued, excluding coalesced duplicates. */
+  public long getScheduledTasks() {
+    return mScheduledTasks;
+  }
+
+  /** Total number of scheduled tasks that have been started. */
+  public long getStartedTasks() {
+    return mStartedTasks;
+  }
+
+  /** Total number of schedule calls that were merged into an identical pending task. */
+  public long getCoalescedTasks() {
+    return mCoalescedTasks;
+  }
+
+  /** Total number of queued tasks that could no longer be started when their turn came. */
+  public long getDroppedTasks() {
+    return mDroppedTasks;
+  }
+
+  public long getAverageQueueTimeMs() {
+    return mAverageQueueTimeMs;
+  }
+
+  public long getMaxQueueTimeMs() {
+    return mMaxQueueTimeMs;
+  }
+
+  @Override
+  public String toString() {
+    return "HeadlessJsTaskSchedulerMetrics{"
+        + "queued="
+        + mQueuedTasks
+        + ", running="
+        + mRunningTasks
+        + ", scheduled="
+        + mScheduledTasks
+        + ", started="
+        + mStartedTasks
+        + ", coalesced="
+        + mCoalescedTasks
+        + ", dropped="
+        + mDroppedTasks
+        + ", avgQueueTimeMs="
+        + mAverageQueueTimeMs
+        + ", maxQueueTimeMs="
+        + mMaxQueueTimeMs
+        + '}';
+  }
+}
@@ -24,6 +24,7 @@ import com.facebook.react.common.MapBuilder;
 import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.react.modules.network.NetworkingModule;
 import com.facebook.react.modules.websocket.WebSocketModule;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -223,6 +224,29 @@ public class BlobModule extends NativeBlobModuleSpec {
     return resolve(blob.getString("blobId"), blob.getInt("offset"), blob.getInt("size"));
   }
 
+  /**
+   * Open a stream over a slice of a stored blob without copying it, so that large blobs can be read
+   * in chunks.
+   *
+   * @return the stream, or null if the blob does not exist
+   */
+  public @Nullable InputStream openInputStream(String blobId, int offset, int size) {
+    synchronized (mBlobs) {
+      byte[] data = mBlobs.get(blobId);
+      if (data == null) {
+        return null;
+      }
+      if (size == -1) {
+        size = data.length - offset;
+      }
+      if (offset < 0 || size < 0 || offset + size > data.length) {
+        throw new IndexOutOfBoundsException(
+            "Invalid slice [" + offset + ", " + (offset + size) + ") of blob of size " + data.length);
+      }
+      return new ByteArrayInputStream(data, offset, size);
+    }
+  }
+
   private byte[] getBytesFromUri(Uri contentUri) throws IOException {
     InputStream is = getReactApplicationContext().getContentResolver().openInputStream(contentUri);
 
@@ -7,12 +7,27 @@
 
 package com.facebook.react.modules.blob;
 
+import android.os.AsyncTask;
 import android.util.Base64;
+import androidx.annotation.Nullable;
 import com.facebook.fbreact.specs.NativeFileReaderModuleSpec;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.GuardedAsyncTask;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.module.annotations.ReactModule;
+import com.facebook.react.modules.core.DeviceEventManagerModule.RCTDeviceEventEmitter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 @ReactModule(name = FileReaderModule.NAME)
 public class FileReaderModule extends NativeFileReaderModuleSpec {
@@ -20,6 +35,16 @@ public class FileReaderModule extends NativeFileReaderModuleSpec {
   public static final String NAME = "FileReaderModule";
   private static final String ERROR_INVALID_BLOB = "ERROR_INVALID_BLOB";
 
+  private static final String EVENT_PROGRESS = "fileReaderProgress";
+
+  private static final String FORMAT_TEXT = "text";
+  private static final String FORMAT_DATA_URL = "dataURL";
+
+  /** Bytes read per chunk, a multiple of 3 so base64 chunks can be concatenated. */
+  private static final int DEFAULT_CHUNK_SIZE = 3 * 128 * 1024;
+
+  private final Set<Integer> mAbortedReaders = Collections.synchronizedSet(new HashSet<Integer>());
+
   public FileReaderModule(ReactApplicationContext reactContext) {
     super(reactContext);
   }
@@ -39,26 +64,35 @@ public class FileReaderModule extends NativeFileReaderModuleSpec {
     return null;
   }
 
-  @Override
-  public void readAsText(ReadableMap blob, String encoding, Promise promise) {
-    BlobModule blobModule = getBlobModule("readAsText");
+  private @Nullable InputStream openBlob(String reason, ReadableMap blob, Promise promise) {
+    BlobModule blobModule = getBlobModule(reason);
 
     if (blobModule == null) {
       promise.reject(
           new IllegalStateException("Could not get BlobModule from ReactApplicationContext"));
-      return;
+      return null;
     }
 
-    byte[] bytes =
-        blobModule.resolve(blob.getString("blobId"), blob.getInt("offset"), blob.getInt("size"));
+    InputStream stream =
+        blobModule.openInputStream(
+            blob.getString("blobId"), blob.getInt("offset"), blob.getInt("size"));
 
-    if (bytes == null) {
+    if (stream == null) {
       promise.reject(ERROR_INVALID_BLOB, "The specified blob is invalid");
+    }
+    return stream;
+  }
+
+  @Override
+  public void readAsText(ReadableMap blob, String encoding, Promise promise) {
+    InputStream stream = openBlob("readAsText", blob, promise);
+    if (stream == null) {
       return;
     }
 
     try {
-      promise.resolve(new String(bytes, encoding));
+      promise.resolve(
+          readText(stream, encoding, getSize(blob, stream), DEFAULT_CHUNK_SIZE, null, true));
     } catch (Exception e) {
       promise.reject(e);
     }
@@ -66,38 +100,255 @@ public class FileReaderModule extends NativeFileReaderModuleSpec {
 
   @Override
   public void readAsDataURL(ReadableMap blob, Promise promise) {
-    BlobModule blobModule = getBlobModule("readAsDataURL");
-
-    if (blobModule == null) {
-      promise.reject(
-          new IllegalStateException("Could not get BlobModule from ReactApplicationContext"));
+    InputStream stream = openBlob("readAsDataURL", blob, promise);
+    if (stream == null) {
       return;
     }
 
-    byte[] bytes =
-        blobModule.resolve(blob.getString("blobId"), blob.getInt("offset"), blob.getInt("size"));
+    try {
+      promise.resolve(
+          readDataURL(
+              stream, getType(blob), getSize(blob, stream), DEFAULT_CHUNK_SIZE, null, true));
+    } catch (Exception e) {
+      promise.reject(e);
+    }
+  }
 
-    if (bytes == null) {
-      promise.reject(ERROR_INVALID_BLOB, "The specified blob is invalid");
+  /**
+   * Read a blob in the background, one slice at a time, emitting a {@code fileReaderProgress}
+   * event after every slice.
+   *
+   * @param options a map containing the following keys:
+   *     <ul>
+   *       <li>readerId (mandatory): identifies the read in events and in {@link #abort}
+   *       <li>format (optional): "text" or "dataURL", defaults to "text"
+   *       <li>encoding (optional): the text encoding, defaults to UTF-8
+   *       <li>chunkSize (optional): the number of bytes to read per slice
+   *       <li>emitChunks (optional): if true, every progress event also carries the decoded slice
+   *           in {@code data} and the promise resolves with null instead of the whole result, so
+   *           the result is never built in native memory
+   *     </ul>
+   */
+  @Override
+  public void readChunked(ReadableMap blob, ReadableMap options, Promise promise) {
+    InputStream stream = openBlob("readChunked", blob, promise);
+    if (stream == null) {
       return;
     }
 
-    try {
-      StringBuilder sb = new StringBuilder();
-      sb.append("data:");
+    int readerId = options.getInt("readerId");
+    mAbortedReaders.remove(readerId);
+    new ReadChunkedTask(
+            getReactApplicationContext(),
+            this,
+            stream,
+            blob,
+            readerId,
+            options.hasKey("format") ? options.getString("format") : FORMAT_TEXT,
+            options.hasKey("encoding") ? options.getString("encoding") : "UTF-8",
+            options.hasKey("chunkSize") ? options.getInt("chunkSize") : DEFAULT_CHUNK_SIZE,
+            options.hasKey("emitChunks") && options.getBoolean("emitChunks"),
+            promise)
+        .executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+  }
+
+  /** Stop a {@link #readChunked} read after its current slice. */
+  @Override
+  public void abort(double readerId) {
+    mAbortedReaders.add((int) readerId);
+  }
 
-      if (blob.hasKey("type") && !blob.getString("type").isEmpty()) {
-        sb.append(blob.getString("type"));
-      } else {
-        sb.append("application/octet-stream");
+  private static class ReadChunkedTask extends GuardedAsyncTask<Void, Void> {
+    private final ReactContext mReactContext;
+    private final FileReaderModule mModule;
+    private final InputStream mStream;
+    private final ReadableMap mBlob;
+    private final int mReaderId;
+    private final String mFormat;
+    private final String mEncoding;
+    private final int mChunkSize;
+    private final boolean mEmitChunks;
+    private final Promise mPromise;
+
+    private ReadChunkedTask(
+        ReactContext reactContext,
+        FileReaderModule module,
+        InputStream stream,
+        ReadableMap blob,
+        int readerId,
+        String format,
+        String encoding,
+        int chunkSize,
+        boolean emitChunks,
+        Promise promise) {
+      super(reactContext);
+      mReactContext = reactContext;
+      mModule = module;
+      mStream = stream;
+      mBlob = blob;
+      mReaderId = readerId;
+      mFormat = format;
+      mEncoding = encoding;
+      mChunkSize = chunkSize;
+      mEmitChunks = emitChunks;
+      mPromise = promise;
+    }
+
+    @Override
+    protected void doInBackgroundGuarded(Void... params) {
+      final int total;
+      try {
+        total = getSize(mBlob, mStream);
+      } catch (IOException e) {
+        mModule.mAbortedReaders.remove(mReaderId);
+        mPromise.reject(e);
+        return;
       }
+      ChunkListener listener =
+          new ChunkListener() {
+            @Override
+            public boolean onChunk(String chunk, int loaded) {
+              WritableMap event = Arguments.createMap();
+              event.putInt("readerId", mReaderId);
+              event.putInt("loaded", loaded);
+              event.putInt("total", total);
+              if (mEmitChunks) {
+                event.putString("data", chunk);
+              }
+              mReactContext.getJSModule(RCTDeviceEventEmitter.class).emit(EVENT_PROGRESS, event);
+              return !mModule.mAbortedReaders.contains(mReaderId);
+            }
+          };
 
-      sb.append(";base64,");
-      sb.append(Base64.encodeToString(bytes, Base64.NO_WRAP));
+      try {
+        String result;
+        if (FORMAT_DATA_URL.equals(mFormat)) {
+          result = readDataURL(mStream, getType(mBlob), total, mChunkSize, listener, !mEmitChunks);
+        } else {
+          result = readText(mStream, mEncoding, total, mChunkSize, listener, !mEmitChunks);
+        }
+        mPromise.resolve(result);
+      } catch (Exception e) {
+        mPromise.reject(e);
+      } finally {
+        mModule.mAbortedReaders.remove(mReaderId);
+      }
+    }
+  }
 
-      promise.resolve(sb.toString());
-    } catch (Exception e) {
-      promise.reject(e);
+  private interface ChunkListener {
+    /**
+     * @param chunk the decoded slice
+     * @param loaded the number of bytes of the blob read so far
+     * @return false to stop reading
+     */
+    boolean onChunk(String chunk, int loaded);
+  }
+
+  /**
+   * Get the number of bytes of a blob slice. JS passes a size of -1 for slices that extend to the
+   * end of the blob, for those the in memory stream opened by {@link BlobModule#openInputStream}
+   * knows the resolved length.
+   */
+  private static int getSize(ReadableMap blob, InputStream stream) throws IOException {
+    int size = blob.getInt("size");
+    return size >= 0 ? size : stream.available();
+  }
+
+  private static String getType(ReadableMap blob) {
+    if (blob.hasKey("type") && !blob.getString("type").isEmpty()) {
+      return blob.getString("type");
+    }
+    return "application/octet-stream";
+  }
+
+  /**
+   * Decode a blob as text, handing every decoded slice to {@code listener}.
+   *
+   * @return the whole text, or null if {@code buildResult} is false
+   */
+  private static @Nullable String readText(
+      InputStream stream,
+      String encoding,
+      int size,
+      int chunkSize,
+      @Nullable ChunkListener listener,
+      boolean buildResult)
+      throws IOException {
+    // The reader keeps bytes of a character split across slices until the next read.
+    Reader reader = new InputStreamReader(stream, Charset.forName(encoding));
+    StringBuilder builder = buildResult ? new StringBuilder(size) : null;
+    char[] buffer = new char[Math.max(1, chunkSize)];
+    try {
+      int read;
+      while ((read = reader.read(buffer)) != -1) {
+        if (builder != null) {
+          builder.append(buffer, 0, read);
+        }
+        if (listener != null
+            && !listener.onChunk(new String(buffer, 0, read), size - stream.available())) {
+          break;
+        }
+      }
+    } finally {
+      reader.close();
+    }
+    return builder == null ? null : builder.toString();
+  }
+
+  /**
+   * Encode a blob as a base64 data URL, handing every encoded slice to {@code listener}. The first
+   * slice includes the data URL header.
+   *
+   * @return the whole data URL, or null if {@code buildResult} is false
+   */
+  private static @Nullable String readDataURL(
+      InputStream stream,
+      String type,
+      int size,
+      int chunkSize,
+      @Nullable ChunkListener listener,
+      boolean buildResult)
+      throws IOException {
+    String header = "data:" + type + ";base64,";
+    StringBuilder builder = null;
+    if (buildResult) {
+      builder = new StringBuilder(header.length() + (size + 2) / 3 * 4);
+      builder.append(header);
+    }
+
+    // Only the last slice may have a length that is not a multiple of 3, otherwise the padding
+    // would end up in the middle of the encoded data.
+    byte[] buffer = new byte[Math.max(3, chunkSize - chunkSize % 3)];
+    int loaded = 0;
+    boolean first = true;
+    try {
+      while (true) {
+        int filled = 0;
+        int read;
+        while (filled < buffer.length
+            && (read = stream.read(buffer, filled, buffer.length - filled)) != -1) {
+          filled += read;
+        }
+        if (filled == 0 && !first) {
+          break;
+        }
+        loaded += filled;
+        String encoded = Base64.encodeToString(buffer, 0, filled, Base64.NO_WRAP);
+        if (builder != null) {
+          builder.append(encoded);
+        }
+        if (listener != null && !listener.onChunk(first ? header + encoded : encoded, loaded)) {
+          break;
+        }
+        first = false;
+        if (filled < buffer.length) {
+          break;
+        }
+      }
+    } finally {
+      stream.close();
     }
+    return builder == null ? null : builder.toString();
   }
 }
@@ -17,6 +17,7 @@ import android.media.MediaScannerConnection;
 import android.net.Uri;
 import android.os.AsyncTask;
 import android.os.Environment;
+import android.os.SystemClock;
 import android.provider.MediaStore;
 import android.provider.MediaStore.Images;
 import android.text.TextUtils;
@@ -48,6 +49,8 @@ import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 // TODO #6015104: rename to something less iOSish
 /**
@@ -77,11 +80,42 @@ public class CameraRollManager extends NativeCameraRollManagerSpec {
     MediaStore.MediaColumns.HEIGHT,
     Images.Media.LONGITUDE,
     Images.Media.LATITUDE,
-    MediaStore.MediaColumns.DATA
+    MediaStore.MediaColumns.DATA,
+    Images.Media.DATE_MODIFIED,
+    MediaStore.Video.VideoColumns.DURATION
   };
 
   private static final String SELECTION_BUCKET = Images.Media.BUCKET_DISPLAY_NAME + " = ?";
   private static final String SELECTION_DATE_TAKEN = Images.Media.DATE_TAKEN + " < ?";
+  private static final String SELECTION_DATE_TAKEN_AND_ID =
+      "("
+          + Images.Media.DATE_TAKEN
+          + " < ? OR ("
+          + Images.Media.DATE_TAKEN
+          + " = ? AND "
+          + Images.Media._ID
+          + " < ?))";
+
+  private static final char CURSOR_SEPARATOR = ':';
+
+  /**
+   * Order by id after the date so that the (date, id) cursor is a stable position even when several
+   * items were taken in the same millisecond.
+   */
+  /* package */ static final String SORT_ORDER =
+      Images.Media.DATE_TAKEN + " DESC, " + Images.Media._ID + " DESC";
+
+  /** A prefetched page is not handed out once it is older than this. */
+  private static final long PREFETCHED_PAGE_MAX_AGE_MS = 30000;
+
+  /**
+   * Media queries run one at a time, so that a request for a page that is being prefetched waits
+   * for the prefetch and picks up its result instead of querying the same rows again.
+   */
+  private static final Executor MEDIA_QUERY_EXECUTOR = Executors.newSingleThreadExecutor();
+
+  private static final Object sPrefetchedPageLock = new Object();
+  private static @Nullable PrefetchedPage sPrefetchedPage;
   private static final String SELECTION_MEDIA_SIZE = Images.Media.SIZE + " < ?";
 
   public CameraRollManager(ReactApplicationContext reactContext) {
@@ -244,19 +278,41 @@ public class CameraRollManager extends NativeCameraRollManagerSpec {
             assetType,
             maxSize,
             promise)
-        .executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        .executeOnExecutor(MEDIA_QUERY_EXECUTOR);
+  }
+
+  /**
+   * The page following the last one returned to JS, loaded ahead of time. It is only used by a
+   * request with the same filters whose cursor matches the one the page was loaded for.
+   */
+  private static class PrefetchedPage {
+    private final String mKey;
+    private final WritableMap mResponse;
+    private final @Nullable String mEndCursor;
+    private final long mCreatedAtMs;
+
+    private PrefetchedPage(String key, WritableMap response, @Nullable String endCursor) {
+      mKey = key;
+      mResponse = response;
+      mEndCursor = endCursor;
+      mCreatedAtMs = SystemClock.uptimeMillis();
+    }
   }
 
   private static class GetMediaTask extends GuardedAsyncTask<Void, Void> {
-    private final Context mContext;
+    private final ReactContext mContext;
     private final int mFirst;
     private final @Nullable String mAfter;
     private final @Nullable String mGroupName;
     private final @Nullable ReadableArray mMimeTypes;
-    private final Promise mPromise;
+    private final @Nullable Promise mPromise;
     private final String mAssetType;
     private final @Nullable Integer mMaxSize;
 
+    /**
+     * @param promise the promise to resolve with the page, or null to load the page into the
+     *     prefetch slot instead
+     */
     private GetMediaTask(
         ReactContext context,
         int first,
@@ -265,7 +321,7 @@ public class CameraRollManager extends NativeCameraRollManagerSpec {
         @Nullable ReadableArray mimeTypes,
         String assetType,
         @Nullable Integer maxSize,
-        Promise promise) {
+        @Nullable Promise promise) {
       super(context);
       mContext = context;
       mFirst = first;
@@ -279,11 +335,20 @@ public class CameraRollManager extends NativeCameraRollManagerSpec {
 
     @Override
     protected void doInBackgroundGuarded(Void... params) {
+      String pageKey = getPageKey(mAfter);
+      if (mPromise != null) {
+        PrefetchedPage prefetchedPage = takePrefetchedPage(pageKey);
+        if (prefetchedPage != null) {
+          mPromise.resolve(prefetchedPage.mResponse);
+          prefetchPage(prefetchedPage.mEndCursor);
+          return;
+        }
+      }
+
       StringBuilder selection = new StringBuilder("1");
       List<String> selectionArgs = new ArrayList<>();
       if (!TextUtils.isEmpty(mAfter)) {
-        selection.append(" AND " + SELECTION_DATE_TAKEN);
-        selectionArgs.add(mAfter);
+        appendAfterSelection(mAfter, selection, selectionArgs);
       }
       if (!TextUtils.isEmpty(mGroupName)) {
         selection.append(" AND " + SELECTION_BUCKET);
@@ -320,7 +385,7 @@ public class CameraRollManager extends NativeCameraRollManagerSpec {
                   + ")");
           break;
         default:
-          mPromise.reject(
+          reject(
               ERROR_UNABLE_TO_FILTER,
               "Invalid filter option: '"
                   + mAssetType
@@ -330,7 +395,8 @@ public class CameraRollManager extends NativeCameraRollManagerSpec {
                   + ASSET_TYPE_VIDEOS
                   + "' or '"
                   + ASSET_TYPE_ALL
-                  + "'.");
+                  + "'.",
+              null);
           return;
       }
 
@@ -354,45 +420,138 @@ public class CameraRollManager extends NativeCameraRollManagerSpec {
                 PROJECTION,
                 selection.toString(),
                 selectionArgs.toArray(new String[selectionArgs.size()]),
-                Images.Media.DATE_TAKEN
-                    + " DESC, "
-                    + Images.Media.DATE_MODIFIED
-                    + " DESC LIMIT "
+                SORT_ORDER
+                    + " LIMIT "
                     + (mFirst
                         + 1)); // set LIMIT to first + 1 so that we know how to populate page_info
         if (media == null) {
-          mPromise.reject(ERROR_UNABLE_TO_LOAD, "Could not get media");
+          reject(ERROR_UNABLE_TO_LOAD, "Could not get media", null);
         } else {
+          String endCursor = null;
           try {
-            putEdges(resolver, media, response, mFirst);
-            putPageInfo(media, response, mFirst);
+            putEdges(resolver, media, response, mFirst, MediaDimensionCache.getInstance(mContext));
+            endCursor = putPageInfo(media, response, mFirst);
           } finally {
             media.close();
-            mPromise.resolve(response);
+            onPageLoaded(pageKey, response, endCursor);
           }
         }
       } catch (SecurityException e) {
-        mPromise.reject(
+        reject(
             ERROR_UNABLE_TO_LOAD_PERMISSION,
             "Could not get media: need READ_EXTERNAL_STORAGE permission",
             e);
       }
     }
+
+    private void onPageLoaded(String pageKey, WritableMap response, @Nullable String endCursor) {
+      if (mPromise == null) {
+        synchronized (sPrefetchedPageLock) {
+          sPrefetchedPage = new PrefetchedPage(pageKey, response, endCursor);
+        }
+      } else {
+        mPromise.resolve(response);
+        prefetchPage(endCursor);
+      }
+    }
+
+    private void reject(String code, String message, @Nullable Throwable e) {
+      // A failed prefetch is dropped, the request for that page will query and report it again.
+      if (mPromise != null) {
+        mPromise.reject(code, message, e);
+      }
+    }
+
+    /** Load the page after {@code endCursor} while JS renders the current one. */
+    private void prefetchPage(@Nullable String endCursor) {
+      if (endCursor == null) {
+        return;
+      }
+      new GetMediaTask(
+              mContext, mFirst, endCursor, mGroupName, mMimeTypes, mAssetType, mMaxSize, null)
+          .executeOnExecutor(MEDIA_QUERY_EXECUTOR);
+    }
+
+    private String getPageKey(@Nullable String after) {
+      StringBuilder key =
+          new StringBuilder()
+              .append(mFirst)
+              .append('|')
+              .append(after)
+              .append('|')
+              .append(mGroupName)
+              .append('|')
+              .append(mAssetType)
+              .append('|')
+              .append(mMaxSize);
+      if (mMimeTypes != null) {
+        for (int i = 0; i < mMimeTypes.size(); i++) {
+          key.append('|').append(mMimeTypes.getString(i));
+        }
+      }
+      return key.toString();
+    }
+  }
+
+  private static @Nullable PrefetchedPage takePrefetchedPage(String pageKey) {
+    synchronized (sPrefetchedPageLock) {
+      PrefetchedPage page = sPrefetchedPage;
+      sPrefetchedPage = null;
+      if (page == null
+          || !page.mKey.equals(pageKey)
+          || SystemClock.uptimeMillis() - page.mCreatedAtMs > PREFETCHED_PAGE_MAX_AGE_MS) {
+        return null;
+      }
+      return page;
+    }
   }
 
-  private static void putPageInfo(Cursor media, WritableMap response, int limit) {
+  /**
+   * Restrict a query sorted by {@link #SORT_ORDER} to the items after the position {@code after}.
+   */
+  /* package */ static void appendAfterSelection(
+      String after, StringBuilder selection, List<String> selectionArgs) {
+    int separatorIndex = after.indexOf(CURSOR_SEPARATOR);
+    if (separatorIndex < 0) {
+      // Cursors from older versions only carry the date, and skip any item that shares it.
+      selection.append(" AND " + SELECTION_DATE_TAKEN);
+      selectionArgs.add(after);
+    } else {
+      String dateTaken = after.substring(0, separatorIndex);
+      selection.append(" AND " + SELECTION_DATE_TAKEN_AND_ID);
+      selectionArgs.add(dateTaken);
+      selectionArgs.add(dateTaken);
+      selectionArgs.add(after.substring(separatorIndex + 1));
+    }
+  }
+
+  /** @return the position of the current row of {@code media}, to resume a later query after it */
+  /* package */ static String getCursorPosition(Cursor media) {
+    return media.getLong(media.getColumnIndex(Images.Media.DATE_TAKEN))
+        + String.valueOf(CURSOR_SEPARATOR)
+        + media.getLong(media.getColumnIndex(Images.Media._ID));
+  }
+
+  /** @return the end cursor of the page, or null if it is the last one */
+  private static @Nullable String putPageInfo(Cursor media, WritableMap response, int limit) {
     WritableMap pageInfo = new WritableNativeMap();
+    String endCursor = null;
     pageInfo.putBoolean("has_next_page", limit < media.getCount());
     if (limit < media.getCount()) {
       media.moveToPosition(limit - 1);
-      pageInfo.putString(
-          "end_cursor", media.getString(media.getColumnIndex(Images.Media.DATE_TAKEN)));
+      endCursor = getCursorPosition(media);
+      pageInfo.putString("end_cursor", endCursor);
     }
     response.putMap("page_info", pageInfo);
+    return endCursor;
   }
 
   private static void putEdges(
-      ContentResolver resolver, Cursor media, WritableMap response, int limit) {
+      ContentResolver resolver,
+      Cursor media,
+      WritableMap response,
+      int limit,
+      MediaDimensionCache dimensionCache) {
     WritableArray edges = new WritableNativeArray();
     media.moveToFirst();
     int idIndex = media.getColumnIndex(Images.Media._ID);
@@ -404,13 +563,25 @@ public class CameraRollManager extends NativeCameraRollManagerSpec {
     int longitudeIndex = media.getColumnIndex(Images.Media.LONGITUDE);
     int latitudeIndex = media.getColumnIndex(Images.Media.LATITUDE);
     int dataIndex = media.getColumnIndex(MediaStore.MediaColumns.DATA);
+    int dateModifiedIndex = media.getColumnIndex(Images.Media.DATE_MODIFIED);
+    int durationIndex = media.getColumnIndex(MediaStore.Video.VideoColumns.DURATION);
 
     for (int i = 0; i < limit && !media.isAfterLast(); i++) {
       WritableMap edge = new WritableNativeMap();
       WritableMap node = new WritableNativeMap();
       boolean imageInfoSuccess =
           putImageInfo(
-              resolver, media, node, idIndex, widthIndex, heightIndex, dataIndex, mimeTypeIndex);
+              resolver,
+              media,
+              node,
+              idIndex,
+              widthIndex,
+              heightIndex,
+              dataIndex,
+              mimeTypeIndex,
+              dateModifiedIndex,
+              durationIndex,
+              dimensionCache);
       if (imageInfoSuccess) {
         putBasicNodeInfo(media, node, mimeTypeIndex, groupNameIndex, dateTakenIndex);
         putLocationInfo(media, node, longitudeIndex, latitudeIndex);
@@ -424,6 +595,7 @@ public class CameraRollManager extends NativeCameraRollManagerSpec {
       }
       media.moveToNext();
     }
+    dimensionCache.flush();
     response.putArray("edges", edges);
   }
 
@@ -442,7 +614,10 @@ public class CameraRollManager extends NativeCameraRollManagerSpec {
       int widthIndex,
       int heightIndex,
       int dataIndex,
-      int mimeTypeIndex) {
+      int mimeTypeIndex,
+      int dateModifiedIndex,
+      int durationIndex,
+      MediaDimensionCache dimensionCache) {
     WritableMap image = new WritableNativeMap();
     Uri photoUri = Uri.parse("file://" + media.getString(dataIndex));
     image.putString("uri", photoUri.toString());
@@ -450,8 +625,13 @@ public class CameraRollManager extends NativeCameraRollManagerSpec {
     float height = media.getInt(heightIndex);
 
     String mimeType = media.getString(mimeTypeIndex);
+    boolean isVideo = mimeType != null && mimeType.startsWith("video");
+    long durationMs = media.isNull(durationIndex) ? 0 : media.getLong(durationIndex);
 
-    if (mimeType != null && mimeType.startsWith("video")) {
+    if (isVideo && width > 0 && height > 0 && durationMs > 0) {
+      // MediaStore already has everything we need, avoid opening the file.
+      image.putInt("playableDuration", (int) (durationMs / 1000));
+    } else if (isVideo) {
       try {
         AssetFileDescriptor photoDescriptor = resolver.openAssetFileDescriptor(photoUri, "r");
         MediaMetadataRetriever retriever = new MediaMetadataRetriever();
@@ -488,6 +668,16 @@ public class CameraRollManager extends NativeCameraRollManagerSpec {
       }
     }
 
+    long id = media.getLong(idIndex);
+    long dateModified = media.getLong(dateModifiedIndex);
+    if (width <= 0 || height <= 0) {
+      long cachedDimensions = dimensionCache.get(id, dateModified);
+      if (cachedDimensions != 0) {
+        width = MediaDimensionCache.getWidth(cachedDimensions);
+        height = MediaDimensionCache.getHeight(cachedDimensions);
+      }
+    }
+
     if (width <= 0 || height <= 0) {
       try {
         AssetFileDescriptor photoDescriptor = resolver.openAssetFileDescriptor(photoUri, "r");
@@ -499,6 +689,7 @@ public class CameraRollManager extends NativeCameraRollManagerSpec {
         width = options.outWidth;
         height = options.outHeight;
         photoDescriptor.close();
+        dimensionCache.put(id, dateModified, options.outWidth, options.outHeight);
       } catch (IOException e) {
         FLog.e(ReactConstants.TAG, "Could not get width/height for " + photoUri.toString(), e);
         return false;
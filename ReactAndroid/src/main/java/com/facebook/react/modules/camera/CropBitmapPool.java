@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.camera;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import androidx.annotation.Nullable;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/**
+ * Small pool of mutable bitmaps used as {@code inBitmap} when {@link ImageEditingManager} decodes
+ * crop regions. A region decoder draws into the reused bitmap without resizing it, so bitmaps are
+ * only handed out for an exact width, height and config match. Least recently released bitmaps are
+ * recycled once the pool grows over its byte budget.
+ */
+/* package */ class CropBitmapPool {
+
+  private final int mMaxSizeBytes;
+  private final LinkedList<Bitmap> mBitmaps = new LinkedList<>();
+  private int mSizeBytes;
+
+  /* package */ CropBitmapPool(int maxSizeBytes) {
+    mMaxSizeBytes = maxSizeBytes;
+  }
+
+  /** Take a bitmap of the given size out of the pool, or return null if there is none. */
+  /* package */ synchronized @Nullable Bitmap get(int width, int height, Bitmap.Config config) {
+    Iterator<Bitmap> iterator = mBitmaps.iterator();
+    while (iterator.hasNext()) {
+      Bitmap bitmap = iterator.next();
+      if (bitmap.getWidth() == width
+          && bitmap.getHeight() == height
+          && bitmap.getConfig() == config) {
+        iterator.remove();
+        mSizeBytes -= bitmap.getByteCount();
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return bitmap;
+      }
+    }
+    return null;
+  }
+
+  /** Give a bitmap that is no longer used back to the pool. */
+  /* package */ synchronized void release(Bitmap bitmap) {
+    if (!bitmap.isMutable() || bitmap.isRecycled() || bitmap.getByteCount() > mMaxSizeBytes) {
+      bitmap.recycle();
+      return;
+    }
+    mBitmaps.addLast(bitmap);
+    mSizeBytes += bitmap.getByteCount();
+    while (mSizeBytes > mMaxSizeBytes) {
+      Bitmap evicted = mBitmaps.removeFirst();
+      mSizeBytes -= evicted.getByteCount();
+      evicted.recycle();
+    }
+  }
+
+  /* package */ synchronized void clear() {
+    for (Bitmap bitmap : mBitmaps) {
+      bitmap.recycle();
+    }
+    mBitmaps.clear();
+    mSizeBytes = 0;
+  }
+}
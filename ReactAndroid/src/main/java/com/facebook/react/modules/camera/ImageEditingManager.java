@@ -15,9 +15,11 @@ import android.graphics.BitmapFactory;
 import android.graphics.BitmapRegionDecoder;
 import android.graphics.Matrix;
 import android.graphics.Rect;
+import android.graphics.RectF;
 import android.media.ExifInterface;
 import android.net.Uri;
 import android.os.AsyncTask;
+import android.os.SystemClock;
 import android.provider.MediaStore;
 import android.text.TextUtils;
 import androidx.annotation.Nullable;
@@ -42,6 +44,10 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /** Native module that provides image cropping functionality. */
 @ReactModule(name = ImageEditingManager.NAME)
@@ -56,6 +62,30 @@ public class ImageEditingManager extends NativeImageEditorSpec {
   /** Compress quality of the output file. */
   private static final int COMPRESS_QUALITY = 90;
 
+  /**
+   * Crops decode large bitmaps, so only a couple run at the same time and only a few more may wait
+   * for their turn. Requests over that limit fail right away instead of piling up in memory.
+   */
+  private static final int MAX_CONCURRENT_CROPS = 2;
+
+  private static final int MAX_QUEUED_CROPS = 8;
+
+  private static final ThreadPoolExecutor CROP_EXECUTOR =
+      new ThreadPoolExecutor(
+          MAX_CONCURRENT_CROPS,
+          MAX_CONCURRENT_CROPS,
+          30,
+          TimeUnit.SECONDS,
+          new ArrayBlockingQueue<Runnable>(MAX_QUEUED_CROPS));
+
+  static {
+    CROP_EXECUTOR.allowCoreThreadTimeOut(true);
+  }
+
+  /** Bitmaps decoded for earlier crops, reused when a crop of the same size comes in. */
+  private static final CropBitmapPool BITMAP_POOL =
+      new CropBitmapPool((int) Math.min(16 * 1024 * 1024, Runtime.getRuntime().maxMemory() / 16));
+
   @SuppressLint("InlinedApi")
   private static final String[] EXIF_ATTRIBUTES =
       new String[] {
@@ -98,6 +128,7 @@ public class ImageEditingManager extends NativeImageEditorSpec {
 
   @Override
   public void onCatalystInstanceDestroy() {
+    BITMAP_POOL.clear();
     new CleanTask(getReactApplicationContext()).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
   }
 
@@ -189,7 +220,11 @@ public class ImageEditingManager extends NativeImageEditorSpec {
       cropTask.setTargetSize(
           (int) targetSize.getDouble("width"), (int) targetSize.getDouble("height"));
     }
-    cropTask.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+    try {
+      cropTask.executeOnExecutor(CROP_EXECUTOR);
+    } catch (RejectedExecutionException e) {
+      error.invoke("Too many pending image crops, try again later");
+    }
   }
 
   private static class CropTask extends GuardedAsyncTask<Void, Void> {
@@ -204,6 +239,8 @@ public class ImageEditingManager extends NativeImageEditorSpec {
     int mTargetHeight = 0;
     final Callback mSuccess;
     final Callback mError;
+    /** Largest number of bytes held by decoded bitmaps at any point of this crop. */
+    long mPeakBitmapBytes = 0;
 
     private CropTask(
         ReactContext context,
@@ -262,12 +299,21 @@ public class ImageEditingManager extends NativeImageEditorSpec {
         // If we're downscaling, we can decode the bitmap more efficiently, using less memory
         boolean hasTargetSize = (mTargetWidth > 0) && (mTargetHeight > 0);
 
+        long decodeStartTime = SystemClock.uptimeMillis();
         Bitmap cropped;
         if (hasTargetSize) {
           cropped = cropAndResize(mTargetWidth, mTargetHeight, outOptions);
         } else {
           cropped = crop(outOptions);
         }
+        FLog.d(
+            ReactConstants.TAG,
+            "Cropped %s to %dx%d in %d ms, peak bitmap memory %d bytes",
+            mUri,
+            cropped.getWidth(),
+            cropped.getHeight(),
+            SystemClock.uptimeMillis() - decodeStartTime,
+            mPeakBitmapBytes);
 
         String mimeType = outOptions.outMimeType;
         if (mimeType == null || mimeType.isEmpty()) {
@@ -284,6 +330,8 @@ public class ImageEditingManager extends NativeImageEditorSpec {
             throw new SecurityException(
                 "We couldn't create file in internal cache and external cache is disabled. Did you forget to pass allowExternalStorage=true?");
           }
+        } finally {
+          BITMAP_POOL.release(cropped);
         }
 
         if (mimeType.equals("image/jpeg")) {
@@ -302,17 +350,58 @@ public class ImageEditingManager extends NativeImageEditorSpec {
      * @param outOptions Bitmap options, useful to determine {@code outMimeType}.
      */
     private Bitmap crop(BitmapFactory.Options outOptions) throws IOException {
+      Rect rect = new Rect(mX, mY, mX + mWidth, mY + mHeight);
+      Bitmap bitmap = decodeRegion(rect, outOptions);
+      if (bitmap == null) {
+        throw new IOException("Cannot decode bitmap: " + mUri);
+      }
+      return bitmap;
+    }
+
+    /**
+     * Decode only the given rectangle of the source, reusing a pooled bitmap when possible.
+     * Efficiently crops image without loading full resolution into memory
+     * https://developer.android.com/reference/android/graphics/BitmapRegionDecoder.html
+     *
+     * @return the decoded region, or null if the source format doesn't support region decoding.
+     */
+    private @Nullable Bitmap decodeRegion(Rect rect, BitmapFactory.Options outOptions)
+        throws IOException {
       InputStream inputStream = openBitmapInputStream();
-      // Efficiently crops image without loading full resolution into memory
-      // https://developer.android.com/reference/android/graphics/BitmapRegionDecoder.html
-      BitmapRegionDecoder decoder = BitmapRegionDecoder.newInstance(inputStream, false);
+      BitmapRegionDecoder decoder;
       try {
-        Rect rect = new Rect(mX, mY, mX + mWidth, mY + mHeight);
-        return decoder.decodeRegion(rect, outOptions);
-      } finally {
-        if (inputStream != null) {
-          inputStream.close();
+        decoder = BitmapRegionDecoder.newInstance(inputStream, false);
+      } catch (IOException e) {
+        inputStream.close();
+        return null;
+      }
+      try {
+        outOptions.inMutable = true;
+        // The decoded size of a sampled region is up to the decoder, so only reuse bitmaps when
+        // decoding at full resolution, where it's exactly the size of the rectangle.
+        if (outOptions.inSampleSize <= 1) {
+          outOptions.inBitmap =
+              BITMAP_POOL.get(rect.width(), rect.height(), Bitmap.Config.ARGB_8888);
+        }
+        Bitmap bitmap;
+        try {
+          bitmap = decoder.decodeRegion(rect, outOptions);
+        } catch (IllegalArgumentException e) {
+          if (outOptions.inBitmap == null) {
+            throw e;
+          }
+          // The pooled bitmap can't be used for this source, decode into a new one.
+          BITMAP_POOL.release(outOptions.inBitmap);
+          outOptions.inBitmap = null;
+          bitmap = decoder.decodeRegion(rect, outOptions);
+        }
+        outOptions.inBitmap = null;
+        if (bitmap != null) {
+          mPeakBitmapBytes = Math.max(mPeakBitmapBytes, bitmap.getByteCount());
         }
+        return bitmap;
+      } finally {
+        inputStream.close();
         decoder.recycle();
       }
     }
@@ -327,52 +416,50 @@ public class ImageEditingManager extends NativeImageEditorSpec {
         int targetWidth, int targetHeight, BitmapFactory.Options outOptions) throws IOException {
       Assertions.assertNotNull(outOptions);
 
-      // Loading large bitmaps efficiently:
-      // http://developer.android.com/training/displaying-bitmaps/load-bitmap.html
-
-      // Just decode the dimensions
-      BitmapFactory.Options options = new BitmapFactory.Options();
-      options.inJustDecodeBounds = true;
-      InputStream inputStream = openBitmapInputStream();
-      try {
-        BitmapFactory.decodeStream(inputStream, null, options);
-      } finally {
-        if (inputStream != null) {
-          inputStream.close();
-        }
+      // Where would the crop rect end up within the scaled bitmap?
+      RectF cropRect = getCoverCropRect(mX, mY, mWidth, mHeight, targetWidth, targetHeight);
+      float newX = cropRect.left;
+      float newY = cropRect.top;
+      float newWidth = cropRect.width();
+      float newHeight = cropRect.height();
+      float scale = Math.max(targetWidth / newWidth, targetHeight / newHeight);
+
+      // Decode only every n-th pixel of just the region we need. This can use significantly less
+      // memory than decoding the full-resolution bitmap.
+      outOptions.inSampleSize = getDecodeSampleSize(mWidth, mHeight, targetWidth, targetHeight);
+      Rect region = getDecodeRegion(cropRect);
+      Bitmap bitmap = decodeRegion(region, outOptions);
+      if (bitmap == null) {
+        return cropAndResizeFromFullImage(newX, newY, newWidth, newHeight, scale, outOptions);
       }
 
-      // This uses scaling mode COVER
-
-      // Where would the crop rect end up within the scaled bitmap?
-      float newWidth, newHeight, newX, newY, scale;
-      float cropRectRatio = mWidth / (float) mHeight;
-      float targetRatio = targetWidth / (float) targetHeight;
-      if (cropRectRatio > targetRatio) {
-        // e.g. source is landscape, target is portrait
-        newWidth = mHeight * targetRatio;
-        newHeight = mHeight;
-        newX = mX + (mWidth - newWidth) / 2;
-        newY = mY;
-        scale = targetHeight / (float) mHeight;
-      } else {
-        // e.g. source is landscape, target is portrait
-        newWidth = mWidth;
-        newHeight = mWidth / targetRatio;
-        newX = mX;
-        newY = mY + (mHeight - newHeight) / 2;
-        scale = targetWidth / (float) mWidth;
+      int scaledWidth = Math.max(1, Math.round(newWidth * scale));
+      int scaledHeight = Math.max(1, Math.round(newHeight * scale));
+      Bitmap scaled = Bitmap.createScaledBitmap(bitmap, scaledWidth, scaledHeight, true);
+      if (scaled != bitmap) {
+        mPeakBitmapBytes =
+            Math.max(mPeakBitmapBytes, bitmap.getByteCount() + scaled.getByteCount());
+        BITMAP_POOL.release(bitmap);
       }
+      return scaled;
+    }
 
-      // Decode the bitmap. We have to open the stream again, like in the example linked above.
-      // Is there a way to just continue reading from the stream?
-      outOptions.inSampleSize = getDecodeSampleSize(mWidth, mHeight, targetWidth, targetHeight);
-      options.inJustDecodeBounds = false;
-      inputStream = openBitmapInputStream();
+    /**
+     * Fallback for formats {@link BitmapRegionDecoder} doesn't support: decode the whole (sampled)
+     * image and crop it in memory.
+     */
+    private Bitmap cropAndResizeFromFullImage(
+        float newX,
+        float newY,
+        float newWidth,
+        float newHeight,
+        float scale,
+        BitmapFactory.Options outOptions)
+        throws IOException {
+      InputStream inputStream = openBitmapInputStream();
 
       Bitmap bitmap;
       try {
-        // This can use significantly less memory than decoding the full-resolution bitmap
         bitmap = BitmapFactory.decodeStream(inputStream, null, outOptions);
         if (bitmap == null) {
           throw new IOException("Cannot decode bitmap: " + mUri);
@@ -393,7 +480,10 @@ public class ImageEditingManager extends NativeImageEditorSpec {
       scaleMatrix.setScale(cropScale, cropScale);
       boolean filter = true;
 
-      return Bitmap.createBitmap(bitmap, cropX, cropY, cropWidth, cropHeight, scaleMatrix, filter);
+      Bitmap cropped =
+          Bitmap.createBitmap(bitmap, cropX, cropY, cropWidth, cropHeight, scaleMatrix, filter);
+      mPeakBitmapBytes = Math.max(mPeakBitmapBytes, bitmap.getByteCount() + cropped.getByteCount());
+      return cropped;
     }
   }
 
@@ -504,13 +594,48 @@ public class ImageEditingManager extends NativeImageEditorSpec {
     return File.createTempFile(TEMP_FILE_PREFIX, getFileExtensionForType(mimeType), cacheDir);
   }
 
+  /**
+   * Returns the part of the crop rectangle {@code x, y, width, height} that is kept when it is
+   * scaled to cover {@code targetWidth, targetHeight}: the rectangle is trimmed on both sides of
+   * the dimension that is too long for the target aspect ratio.
+   */
+  /* package */ static RectF getCoverCropRect(
+      int x, int y, int width, int height, int targetWidth, int targetHeight) {
+    float cropRectRatio = width / (float) height;
+    float targetRatio = targetWidth / (float) targetHeight;
+    if (cropRectRatio > targetRatio) {
+      // e.g. source is landscape, target is portrait
+      float newWidth = height * targetRatio;
+      float newX = x + (width - newWidth) / 2;
+      return new RectF(newX, y, newX + newWidth, y + height);
+    } else {
+      // e.g. source is portrait, target is landscape
+      float newHeight = width / targetRatio;
+      float newY = y + (height - newHeight) / 2;
+      return new RectF(x, newY, x + width, newY + newHeight);
+    }
+  }
+
+  /**
+   * Returns the source pixels to decode for a crop rectangle, rounding down like the fallback that
+   * crops the fully decoded image.
+   */
+  /* package */ static Rect getDecodeRegion(RectF cropRect) {
+    return new Rect(
+        (int) Math.floor(cropRect.left),
+        (int) Math.floor(cropRect.top),
+        (int) Math.floor(cropRect.right),
+        (int) Math.floor(cropRect.bottom));
+  }
+
   /**
    * When scaling down the bitmap, decode only every n-th pixel in each dimension. Calculate the
    * largest {@code inSampleSize} value that is a power of 2 and keeps both {@code width, height}
    * larger or equal to {@code targetWidth, targetHeight}. This can significantly reduce memory
    * usage.
    */
-  private static int getDecodeSampleSize(int width, int height, int targetWidth, int targetHeight) {
+  /* package */ static int getDecodeSampleSize(
+      int width, int height, int targetWidth, int targetHeight) {
     int inSampleSize = 1;
     if (height > targetWidth || width > targetHeight) {
       int halfHeight = height / 2;
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.camera;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import androidx.annotation.Nullable;
+import com.facebook.react.common.annotations.VisibleForTesting;
+
+/**
+ * Persistent cache of image dimensions that {@link CameraRollManager} had to probe by decoding the
+ * file header because MediaStore had no width/height for them. Entries are keyed by the MediaStore
+ * id and modification date, so an edited image is probed again.
+ */
+/* package */ class MediaDimensionCache {
+
+  private static final String PREFERENCES_NAME = "com.facebook.react.modules.camera.dimensions";
+  @VisibleForTesting /* package */ static final int MAX_ENTRIES = 4096;
+
+  private static @Nullable MediaDimensionCache sInstance;
+
+  /* package */ static synchronized MediaDimensionCache getInstance(Context context) {
+    if (sInstance == null) {
+      sInstance =
+          new MediaDimensionCache(
+              context
+                  .getApplicationContext()
+                  .getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE));
+    }
+    return sInstance;
+  }
+
+  private final SharedPreferences mPreferences;
+  private @Nullable SharedPreferences.Editor mPendingEdits;
+
+  @VisibleForTesting
+  /* package */ MediaDimensionCache(SharedPreferences preferences) {
+    mPreferences = preferences;
+  }
+
+  /**
+   * @return the cached dimensions packed as {@code width << 32 | height}, or 0 if there are none.
+   */
+  /* package */ long get(long id, long dateModified) {
+    return mPreferences.getLong(getKey(id, dateModified), 0);
+  }
+
+  /** Stage dimensions to be written by the next {@link #flush()}. */
+  /* package */ synchronized void put(long id, long dateModified, int width, int height) {
+    if (width <= 0 || height <= 0) {
+      return;
+    }
+    if (mPendingEdits == null) {
+      mPendingEdits = mPreferences.edit();
+      if (mPreferences.getAll().size() >= MAX_ENTRIES) {
+        // Entries for deleted or edited images are never read again, start over rather than
+        // tracking their age.
+        mPendingEdits.clear();
+      }
+    }
+    mPendingEdits.putLong(getKey(id, dateModified), ((long) width << 32) | height);
+  }
+
+  /** Write staged dimensions to disk asynchronously. */
+  /* package */ synchronized void flush() {
+    if (mPendingEdits != null) {
+      mPendingEdits.apply();
+      mPendingEdits = null;
+    }
+  }
+
+  /* package */ static int getWidth(long packedDimensions) {
+    return (int) (packedDimensions >>> 32);
+  }
+
+  /* package */ static int getHeight(long packedDimensions) {
+    return (int) (packedDimensions & 0xFFFFFFFFL);
+  }
+
+  private static String getKey(long id, long dateModified) {
+    return id + "_" + dateModified;
+  }
+}
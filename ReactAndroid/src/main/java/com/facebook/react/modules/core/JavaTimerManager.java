@@ -7,7 +7,10 @@
 
 package com.facebook.react.modules.core;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.util.SparseArray;
+import androidx.annotation.GuardedBy;
 import androidx.annotation.Nullable;
 import com.facebook.proguard.annotations.DoNotStrip;
 import com.facebook.react.bridge.Arguments;
@@ -15,9 +18,12 @@ import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.common.SystemClock;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.devsupport.interfaces.DevSupportManager;
 import com.facebook.react.jstasks.HeadlessJsTaskContext;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.PriorityQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -25,6 +31,11 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * This class is the native implementation for JS timer execution on Android. It schedules JS timers
  * to be invoked on frame boundaries using {@link ReactChoreographer}.
  *
+ * <p>With {@link ReactFeatureFlags#enableTimerWheel}, timers are kept in a {@link TimerWheel} and
+ * the frame callback is only posted while a timer is about to be due, otherwise a {@link Handler}
+ * posts it again a little before the next timer. Without it, timers are kept in a priority queue
+ * and the frame callback is posted every frame.
+ *
  * <p>This is used by the NativeModule {@link TimingModule}.
  */
 public class JavaTimerManager {
@@ -36,48 +47,51 @@ public class JavaTimerManager {
   // TODO: Lower frame duration on devices that are too slow to run consistently
   // at 60 fps.
   private static final float FRAME_DURATION_MS = 1000.f / 60.f;
-
-  private static class Timer {
-    private final int mCallbackID;
-    private final boolean mRepeat;
-    private final int mInterval;
-    private long mTargetTime;
-
-    private Timer(int callbackID, long initialTargetTime, int duration, boolean repeat) {
-      mCallbackID = callbackID;
-      mTargetTime = initialTargetTime;
-      mInterval = duration;
-      mRepeat = repeat;
-    }
-  }
+  // Timers further away than this are waited for with a Handler instead of frame callbacks
+  private static final long MAX_FRAME_CALLBACK_DELAY_MS = (long) (2 * FRAME_DURATION_MS);
+  private static final long STATS_INTERVAL_MS = 1000;
 
   private class TimerFrameCallback extends ChoreographerCompat.FrameCallback {
 
     // Temporary map for constructing the individual arrays of timers to call
     private @Nullable WritableArray mTimersToCall = null;
 
+    // Temporary list of the timers that expired in this frame
+    private final List<TimerWheel.Timer> mDueTimers = new ArrayList<>();
+
     /** Calls all timers that have expired since the last time this frame callback was called. */
     @Override
     public void doFrame(long frameTimeNanos) {
+      mFrameCallbackPosted = false;
       if (isPaused.get() && !isRunningTasks.get()) {
         return;
       }
 
       long frameTimeMillis = frameTimeNanos / 1000000;
       synchronized (mTimerGuard) {
-        while (!mTimers.isEmpty() && mTimers.peek().mTargetTime < frameTimeMillis) {
-          Timer timer = mTimers.poll();
+        if (mTimerWheel != null) {
+          mTimerWheel.advance(frameTimeMillis - 1, mDueTimers);
+        } else {
+          while (!mTimerQueue.isEmpty() && mTimerQueue.peek().mTargetTime < frameTimeMillis) {
+            mDueTimers.add(mTimerQueue.poll());
+          }
+        }
+        for (int i = 0; i < mDueTimers.size(); i++) {
+          TimerWheel.Timer timer = mDueTimers.get(i);
           if (mTimersToCall == null) {
             mTimersToCall = Arguments.createArray();
           }
           mTimersToCall.pushInt(timer.mCallbackID);
           if (timer.mRepeat) {
             timer.mTargetTime = frameTimeMillis + timer.mInterval;
-            mTimers.add(timer);
+            addTimer(timer);
           } else {
             mTimerIdsToTimers.remove(timer.mCallbackID);
           }
         }
+        mFiredCount += mDueTimers.size();
+        mDueTimers.clear();
+        maybeUpdateStats(frameTimeMillis);
       }
 
       if (mTimersToCall != null) {
@@ -85,7 +99,18 @@ public class JavaTimerManager {
         mTimersToCall = null;
       }
 
-      mReactChoreographer.postFrameCallback(ReactChoreographer.CallbackType.TIMERS_EVENTS, this);
+      scheduleNextFrameCallback(frameTimeMillis);
+    }
+  }
+
+  /** Posts the frame callback when a timer is about to be due, or one was created meanwhile. */
+  private class WakeUpRunnable implements Runnable {
+    @Override
+    public void run() {
+      if (isPaused.get() && !isRunningTasks.get()) {
+        return;
+      }
+      setChoreographerCallback();
     }
   }
 
@@ -156,8 +181,39 @@ public class JavaTimerManager {
   private final DevSupportManager mDevSupportManager;
   private final Object mTimerGuard = new Object();
   private final Object mIdleCallbackGuard = new Object();
-  private final PriorityQueue<Timer> mTimers;
-  private final SparseArray<Timer> mTimerIdsToTimers;
+  private final Handler mHandler = new Handler(Looper.getMainLooper());
+  private final WakeUpRunnable mWakeUpRunnable = new WakeUpRunnable();
+
+  // Exactly one of these holds the timers, depending on ReactFeatureFlags#enableTimerWheel
+  @GuardedBy("mTimerGuard")
+  private final @Nullable TimerWheel mTimerWheel;
+
+  @GuardedBy("mTimerGuard")
+  private final @Nullable PriorityQueue<TimerWheel.Timer> mTimerQueue;
+
+  @GuardedBy("mTimerGuard")
+  private final SparseArray<TimerWheel.Timer> mTimerIdsToTimers;
+
+  // Time up to which no timer needs the frame callback while it isn't posted. Creating a timer due
+  // earlier posts it. Long.MIN_VALUE when it's already posted or timers don't run.
+  @GuardedBy("mTimerGuard")
+  private long mSleepingUntil = Long.MIN_VALUE;
+
+  @GuardedBy("mTimerGuard")
+  private long mCreatedCount;
+
+  @GuardedBy("mTimerGuard")
+  private long mCancelledCount;
+
+  @GuardedBy("mTimerGuard")
+  private long mFiredCount;
+
+  @GuardedBy("mTimerGuard")
+  private long mStatsStartTime;
+
+  @GuardedBy("mTimerGuard")
+  private final JavaTimerStats mStats = new JavaTimerStats();
+
   private final AtomicBoolean isPaused = new AtomicBoolean(true);
   private final AtomicBoolean isRunningTasks = new AtomicBoolean(false);
   private final TimerFrameCallback mTimerFrameCallback = new TimerFrameCallback();
@@ -177,24 +233,32 @@ public class JavaTimerManager {
     mReactChoreographer = reactChoreographer;
     mDevSupportManager = devSupportManager;
 
-    // We store timers sorted by finish time.
-    mTimers =
-        new PriorityQueue<Timer>(
-            11, // Default capacity: for some reason they don't expose a (Comparator) constructor
-            new Comparator<Timer>() {
-              @Override
-              public int compare(Timer lhs, Timer rhs) {
-                long diff = lhs.mTargetTime - rhs.mTargetTime;
-                if (diff == 0) {
-                  return 0;
-                } else if (diff < 0) {
-                  return -1;
-                } else {
-                  return 1;
+    long currentTime = SystemClock.nanoTime() / 1000000;
+    if (ReactFeatureFlags.enableTimerWheel) {
+      mTimerWheel = new TimerWheel(currentTime);
+      mTimerQueue = null;
+    } else {
+      mTimerWheel = null;
+      // We store timers sorted by finish time.
+      mTimerQueue =
+          new PriorityQueue<TimerWheel.Timer>(
+              11, // Default capacity: for some reason they don't expose a (Comparator) constructor
+              new Comparator<TimerWheel.Timer>() {
+                @Override
+                public int compare(TimerWheel.Timer lhs, TimerWheel.Timer rhs) {
+                  long diff = lhs.mTargetTime - rhs.mTargetTime;
+                  if (diff == 0) {
+                    return 0;
+                  } else if (diff < 0) {
+                    return -1;
+                  } else {
+                    return 1;
+                  }
                 }
-              }
-            });
+              });
+    }
     mTimerIdsToTimers = new SparseArray<>();
+    mStatsStartTime = currentTime;
   }
 
   public void onHostPause() {
@@ -263,10 +327,46 @@ public class JavaTimerManager {
   private void clearFrameCallback() {
     HeadlessJsTaskContext headlessJsTaskContext =
         HeadlessJsTaskContext.getInstance(mReactApplicationContext);
-    if (mFrameCallbackPosted && isPaused.get() && !headlessJsTaskContext.hasActiveTasks()) {
-      mReactChoreographer.removeFrameCallback(
-          ReactChoreographer.CallbackType.TIMERS_EVENTS, mTimerFrameCallback);
-      mFrameCallbackPosted = false;
+    if (isPaused.get() && !headlessJsTaskContext.hasActiveTasks()) {
+      if (mFrameCallbackPosted) {
+        mReactChoreographer.removeFrameCallback(
+            ReactChoreographer.CallbackType.TIMERS_EVENTS, mTimerFrameCallback);
+        mFrameCallbackPosted = false;
+      }
+      // Resuming posts the frame callback again, timers created until then don't need to
+      mHandler.removeCallbacks(mWakeUpRunnable);
+      synchronized (mTimerGuard) {
+        mSleepingUntil = Long.MIN_VALUE;
+      }
+    }
+  }
+
+  /**
+   * Keeps the frame callback posted if a timer is due within the next frames, otherwise stops
+   * posting it until a little before the next timer is due, or a timer due earlier is created.
+   * Without the timer wheel, the frame callback is posted every frame.
+   */
+  private void scheduleNextFrameCallback(long frameTimeMillis) {
+    if (mTimerWheel == null) {
+      setChoreographerCallback();
+      return;
+    }
+    mHandler.removeCallbacks(mWakeUpRunnable);
+    long nextDueTime;
+    synchronized (mTimerGuard) {
+      nextDueTime = mTimerWheel.getNextDueTimeLowerBound();
+      if (nextDueTime - frameTimeMillis <= MAX_FRAME_CALLBACK_DELAY_MS) {
+        mSleepingUntil = Long.MIN_VALUE;
+      } else {
+        mSleepingUntil = nextDueTime;
+      }
+    }
+
+    if (nextDueTime - frameTimeMillis <= MAX_FRAME_CALLBACK_DELAY_MS) {
+      setChoreographerCallback();
+    } else if (nextDueTime != Long.MAX_VALUE) {
+      mHandler.postDelayed(
+          mWakeUpRunnable, nextDueTime - frameTimeMillis - MAX_FRAME_CALLBACK_DELAY_MS);
     }
   }
 
@@ -296,11 +396,23 @@ public class JavaTimerManager {
    */
   @DoNotStrip
   public void createTimer(final int callbackID, final long delay, final boolean repeat) {
-    long initialTargetTime = SystemClock.nanoTime() / 1000000 + delay;
-    Timer timer = new Timer(callbackID, initialTargetTime, (int) delay, repeat);
+    long currentTime = SystemClock.nanoTime() / 1000000;
+    long initialTargetTime = currentTime + delay;
+    TimerWheel.Timer timer =
+        new TimerWheel.Timer(callbackID, initialTargetTime, (int) delay, repeat);
+    boolean shouldWakeUp;
     synchronized (mTimerGuard) {
-      mTimers.add(timer);
+      addTimer(timer);
       mTimerIdsToTimers.put(callbackID, timer);
+      mCreatedCount++;
+      maybeUpdateStats(currentTime);
+      shouldWakeUp = initialTargetTime < mSleepingUntil;
+      if (shouldWakeUp) {
+        mSleepingUntil = Long.MIN_VALUE;
+      }
+    }
+    if (shouldWakeUp) {
+      mHandler.post(mWakeUpRunnable);
     }
   }
 
@@ -348,13 +460,62 @@ public class JavaTimerManager {
   @DoNotStrip
   public void deleteTimer(int timerId) {
     synchronized (mTimerGuard) {
-      Timer timer = mTimerIdsToTimers.get(timerId);
+      TimerWheel.Timer timer = mTimerIdsToTimers.get(timerId);
       if (timer == null) {
         return;
       }
       mTimerIdsToTimers.remove(timerId);
-      mTimers.remove(timer);
+      if (mTimerWheel != null) {
+        mTimerWheel.remove(timer);
+      } else {
+        mTimerQueue.remove(timer);
+      }
+      mCancelledCount++;
+      maybeUpdateStats(SystemClock.nanoTime() / 1000000);
+    }
+  }
+
+  /** Get the number of timers created, cancelled and fired, for telemetry. */
+  public JavaTimerStats getTimerStats() {
+    JavaTimerStats stats = new JavaTimerStats();
+    synchronized (mTimerGuard) {
+      maybeUpdateStats(SystemClock.nanoTime() / 1000000);
+      stats.createdPerSecond = mStats.createdPerSecond;
+      stats.cancelledPerSecond = mStats.cancelledPerSecond;
+      stats.firedPerSecond = mStats.firedPerSecond;
+      stats.totalCreated = mStats.totalCreated + mCreatedCount;
+      stats.totalCancelled = mStats.totalCancelled + mCancelledCount;
+      stats.totalFired = mStats.totalFired + mFiredCount;
+      stats.pendingTimers = mTimerWheel != null ? mTimerWheel.size() : mTimerQueue.size();
+    }
+    return stats;
+  }
+
+  @GuardedBy("mTimerGuard")
+  private void addTimer(TimerWheel.Timer timer) {
+    if (mTimerWheel != null) {
+      mTimerWheel.add(timer);
+    } else {
+      mTimerQueue.add(timer);
+    }
+  }
+
+  @GuardedBy("mTimerGuard")
+  private void maybeUpdateStats(long currentTime) {
+    long elapsedTime = currentTime - mStatsStartTime;
+    if (elapsedTime < STATS_INTERVAL_MS) {
+      return;
     }
+    mStats.createdPerSecond = mCreatedCount * 1000 / elapsedTime;
+    mStats.cancelledPerSecond = mCancelledCount * 1000 / elapsedTime;
+    mStats.firedPerSecond = mFiredCount * 1000 / elapsedTime;
+    mStats.totalCreated += mCreatedCount;
+    mStats.totalCancelled += mCancelledCount;
+    mStats.totalFired += mFiredCount;
+    mCreatedCount = 0;
+    mCancelledCount = 0;
+    mFiredCount = 0;
+    mStatsStartTime = currentTime;
   }
 
   @DoNotStrip
@@ -388,18 +549,8 @@ public class JavaTimerManager {
    */
   /* package */ boolean hasActiveTimersInRange(long rangeMs) {
     synchronized (mTimerGuard) {
-      Timer nextTimer = mTimers.peek();
-      if (nextTimer == null) {
-        // Timers queue is empty
-        return false;
-      }
-      if (isTimerInRange(nextTimer, rangeMs)) {
-        // First check the next timer, so we can avoid iterating over the entire queue if it's
-        // already within range.
-        return true;
-      }
-      for (Timer timer : mTimers) {
-        if (isTimerInRange(timer, rangeMs)) {
+      for (int i = 0; i < mTimerIdsToTimers.size(); i++) {
+        if (isTimerInRange(mTimerIdsToTimers.valueAt(i), rangeMs)) {
           return true;
         }
       }
@@ -407,7 +558,7 @@ public class JavaTimerManager {
     return false;
   }
 
-  private static boolean isTimerInRange(Timer timer, long rangeMs) {
+  private static boolean isTimerInRange(TimerWheel.Timer timer, long rangeMs) {
     return !timer.mRepeat && timer.mInterval < rangeMs;
   }
 }
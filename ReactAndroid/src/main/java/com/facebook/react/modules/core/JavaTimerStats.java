@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.core;
+
+/**
+ * Counts of the JS timers handled by {@link JavaTimerManager}, see {@link
+ * JavaTimerManager#getTimerStats}. Rates are measured over the last whole second, or over the
+ * whole time since the previous measure if no timer activity happened in between.
+ */
+public class JavaTimerStats {
+  public long createdPerSecond;
+  public long cancelledPerSecond;
+  public long firedPerSecond;
+  /** Totals since the timer manager was created. */
+  public long totalCreated;
+  public long totalCancelled;
+  public long totalFired;
+  /** Number of timers waiting to fire. */
+  public int pendingTimers;
+}
@@ -13,7 +13,9 @@ import com.facebook.common.logging.FLog;
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.common.ReactConstants;
+import com.facebook.react.common.annotations.VisibleForTesting;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 
 /**
  * A simple wrapper around Choreographer that allows us to control the order certain callbacks are
@@ -51,8 +53,23 @@ public class ReactChoreographer {
     /*package*/ int getOrder() {
       return mOrder;
     }
+
+    /**
+     * Whether callbacks of this type may be run in the next frame instead when the earlier phases
+     * of the current frame used up the frame budget.
+     */
+    /*package*/ boolean isDeferrable() {
+      return this == TIMERS_EVENTS || this == IDLE_EVENT;
+    }
   }
 
+  /** Bound on how many frames in a row a phase can be deferred, so that it can't starve. */
+  private static final int MAX_CONSECUTIVE_DEFERRALS = 2;
+  /** Number of frames per phase the rolling statistics are computed over. */
+  private static final int STATS_WINDOW_SIZE = 120;
+  /** Cached because {@link CallbackType#values()} allocates a new array on every call. */
+  private static final CallbackType[] CALLBACK_TYPES = CallbackType.values();
+
   private static ReactChoreographer sInstance;
 
   public static void initialize() {
@@ -77,15 +94,92 @@ public class ReactChoreographer {
   private int mTotalCallbacks = 0;
   private boolean mHasPostedCallback = false;
 
-  private ReactChoreographer() {
+  @GuardedBy("mCallbackQueuesLock")
+  private long mFrameBudgetNanos = 0;
+
+  // Per phase timing, indexed by CallbackType#getOrder(). Durations of the last frames each phase
+  // ran in are kept in a ring buffer.
+  @GuardedBy("mCallbackQueuesLock")
+  private final long[][] mPhaseDurationsNanos;
+
+  @GuardedBy("mCallbackQueuesLock")
+  private final long[] mPhaseFrames;
+
+  @GuardedBy("mCallbackQueuesLock")
+  private final long[] mPhaseDeferredFrames;
+
+  @GuardedBy("mCallbackQueuesLock")
+  private final int[] mPhaseConsecutiveDeferrals;
+
+  @VisibleForTesting
+  /* package */ ReactChoreographer() {
     mReactChoreographerDispatcher = new ReactChoreographerDispatcher();
-    mCallbackQueues = new ArrayDeque[CallbackType.values().length];
+    int callbackTypes = CALLBACK_TYPES.length;
+    mCallbackQueues = new ArrayDeque[callbackTypes];
     for (int i = 0; i < mCallbackQueues.length; i++) {
       mCallbackQueues[i] = new ArrayDeque<>();
     }
+    mPhaseDurationsNanos = new long[callbackTypes][STATS_WINDOW_SIZE];
+    mPhaseFrames = new long[callbackTypes];
+    mPhaseDeferredFrames = new long[callbackTypes];
+    mPhaseConsecutiveDeferrals = new int[callbackTypes];
     initializeChoreographer(null);
   }
 
+  /**
+   * Set how long after the vsync a frame's callbacks may run before timers and idle callbacks are
+   * deferred to the next frame. Nothing is deferred until a budget is set, e.g. 16666667 for 60
+   * fps.
+   *
+   * @param frameBudgetNanos the budget, or 0 to always run every phase
+   */
+  public void setFrameBudgetNanos(long frameBudgetNanos) {
+    synchronized (mCallbackQueuesLock) {
+      mFrameBudgetNanos = frameBudgetNanos;
+    }
+  }
+
+  /**
+   * Get rolling timing statistics of every callback type, for telemetry. Phases are listed in the
+   * order they run in.
+   */
+  public ReactChoreographerPhaseStats[] getPhaseStats() {
+    ReactChoreographerPhaseStats[] allStats =
+        new ReactChoreographerPhaseStats[CALLBACK_TYPES.length];
+    synchronized (mCallbackQueuesLock) {
+      for (CallbackType callbackType : CALLBACK_TYPES) {
+        int order = callbackType.getOrder();
+        ReactChoreographerPhaseStats stats = new ReactChoreographerPhaseStats();
+        stats.callbackType = callbackType;
+        stats.totalFrames = mPhaseFrames[order];
+        stats.deferredFrames = mPhaseDeferredFrames[order];
+        stats.frames = (int) Math.min(mPhaseFrames[order], STATS_WINDOW_SIZE);
+        if (stats.frames > 0) {
+          long[] durations = Arrays.copyOf(mPhaseDurationsNanos[order], stats.frames);
+          Arrays.sort(durations);
+          long total = 0;
+          for (long duration : durations) {
+            total += duration;
+          }
+          stats.averageNanos = total / stats.frames;
+          stats.p95Nanos = durations[(int) Math.ceil(stats.frames * 0.95) - 1];
+          stats.maxNanos = durations[stats.frames - 1];
+        }
+        allStats[order] = stats;
+      }
+    }
+    return allStats;
+  }
+
+  /** Clear the statistics returned by {@link #getPhaseStats()}. */
+  public void resetPhaseStats() {
+    synchronized (mCallbackQueuesLock) {
+      Arrays.fill(mPhaseFrames, 0);
+      Arrays.fill(mPhaseDeferredFrames, 0);
+      Arrays.fill(mPhaseConsecutiveDeferrals, 0);
+    }
+  }
+
   public void postFrameCallback(
       CallbackType type, ChoreographerCompat.FrameCallback frameCallback) {
     synchronized (mCallbackQueuesLock) {
@@ -166,9 +260,23 @@ public class ReactChoreographer {
     public void doFrame(long frameTimeNanos) {
       synchronized (mCallbackQueuesLock) {
         mHasPostedCallback = false;
+        boolean hasDeferredCallbacks = false;
         for (int i = 0; i < mCallbackQueues.length; i++) {
           ArrayDeque<ChoreographerCompat.FrameCallback> callbackQueue = mCallbackQueues[i];
           int initialLength = callbackQueue.size();
+          if (initialLength == 0) {
+            continue;
+          }
+
+          long phaseStartNanos = System.nanoTime();
+          if (shouldDefer(CALLBACK_TYPES[i], frameTimeNanos, phaseStartNanos)) {
+            mPhaseDeferredFrames[i]++;
+            mPhaseConsecutiveDeferrals[i]++;
+            hasDeferredCallbacks = true;
+            continue;
+          }
+          mPhaseConsecutiveDeferrals[i] = 0;
+
           for (int callback = 0; callback < initialLength; callback++) {
             ChoreographerCompat.FrameCallback frameCallback = callbackQueue.pollFirst();
             if (frameCallback != null) {
@@ -178,9 +286,23 @@ public class ReactChoreographer {
               FLog.e(ReactConstants.TAG, "Tried to execute non-existent frame callback");
             }
           }
+          mPhaseDurationsNanos[i][(int) (mPhaseFrames[i] % STATS_WINDOW_SIZE)] =
+              System.nanoTime() - phaseStartNanos;
+          mPhaseFrames[i]++;
+        }
+        if (hasDeferredCallbacks && !mHasPostedCallback && mChoreographer != null) {
+          // Deferred callbacks stay queued, nothing else would schedule the next frame for them.
+          postFrameCallbackOnChoreographer();
         }
         maybeRemoveFrameCallback();
       }
     }
+
+    private boolean shouldDefer(CallbackType callbackType, long frameTimeNanos, long nowNanos) {
+      return mFrameBudgetNanos > 0
+          && callbackType.isDeferrable()
+          && nowNanos - frameTimeNanos > mFrameBudgetNanos
+          && mPhaseConsecutiveDeferrals[callbackType.getOrder()] < MAX_CONSECUTIVE_DEFERRALS;
+    }
   }
 }
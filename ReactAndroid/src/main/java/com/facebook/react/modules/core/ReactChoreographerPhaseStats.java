@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.core;
+
+/**
+ * Timing of one {@link ReactChoreographer.CallbackType} over the most recent frames in which it had
+ * callbacks to run, see {@link ReactChoreographer#getPhaseStats}.
+ */
+public class ReactChoreographerPhaseStats {
+  public ReactChoreographer.CallbackType callbackType;
+  /** Number of frames in the rolling window. */
+  public int frames;
+  public long averageNanos;
+  public long p95Nanos;
+  public long maxNanos;
+  /** Total number of frames this phase ran in since the choreographer was created. */
+  public long totalFrames;
+  /** Total number of times this phase was pushed to the next frame to stay in the frame budget. */
+  public long deferredFrames;
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.core;
+
+import androidx.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel holding the JS timers of {@link JavaTimerManager}, so that adding and
+ * removing a timer takes constant time however many timers there are.
+ *
+ * <p>The wheel has {@link #LEVEL_COUNT} levels of {@link #SLOT_COUNT} slots. A slot of the first
+ * level holds the timers due in one millisecond, and a slot of every other level spans a whole
+ * rotation of the level below it. When time reaches the start of a slot, its timers are moved down
+ * to the level matching how far away they are now.
+ *
+ * <p>Timers due in the same millisecond are due in the order they were added in, like they were
+ * with the PriorityQueue this replaces: every slot is a first-in first-out list, and timers moved
+ * down from a higher level go before the ones in their new slot, which were added later.
+ *
+ * <p>This class is not thread safe.
+ */
+/* package */ class TimerWheel {
+
+  private static final int SLOT_BITS = 6;
+  private static final int SLOT_COUNT = 1 << SLOT_BITS;
+  private static final int SLOT_MASK = SLOT_COUNT - 1;
+  private static final int LEVEL_COUNT = 6;
+  // Timers further away than this (about two years) are placed as if they were due then
+  private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVEL_COUNT)) - 1;
+  // Timers that were already due when they were placed are kept in one more slot after the levels
+  private static final int DUE_SLOT = LEVEL_COUNT * SLOT_COUNT;
+  private static final int NO_SLOT = -1;
+
+  /* package */ static class Timer {
+    /* package */ final int mCallbackID;
+    /* package */ final boolean mRepeat;
+    /* package */ final int mInterval;
+    /* package */ long mTargetTime;
+
+    private int mSlot = NO_SLOT;
+    private @Nullable Timer mPrevious;
+    private @Nullable Timer mNext;
+
+    /* package */ Timer(int callbackID, long initialTargetTime, int duration, boolean repeat) {
+      mCallbackID = callbackID;
+      mTargetTime = initialTargetTime;
+      mInterval = duration;
+      mRepeat = repeat;
+    }
+  }
+
+  private final @Nullable Timer[] mSlots = new Timer[DUE_SLOT + 1];
+  private final @Nullable Timer[] mSlotTails = new Timer[DUE_SLOT + 1];
+  // Number of timers in each level, the last one being the due slot
+  private final int[] mLevelSizes = new int[LEVEL_COUNT + 1];
+  private int mSize;
+  private long mCurrentTime;
+
+  /* package */ TimerWheel(long currentTime) {
+    mCurrentTime = currentTime;
+  }
+
+  /* package */ int size() {
+    return mSize;
+  }
+
+  /* package */ void add(Timer timer) {
+    if (timer.mSlot != NO_SLOT) {
+      remove(timer);
+    }
+    long delay = timer.mTargetTime - mCurrentTime;
+    linkLast(timer, delay <= 0 ? DUE_SLOT : getSlot(delay));
+  }
+
+  /* package */ void remove(Timer timer) {
+    if (timer.mSlot == NO_SLOT) {
+      return;
+    }
+    if (timer.mPrevious != null) {
+      timer.mPrevious.mNext = timer.mNext;
+    } else {
+      mSlots[timer.mSlot] = timer.mNext;
+    }
+    if (timer.mNext != null) {
+      timer.mNext.mPrevious = timer.mPrevious;
+    } else {
+      mSlotTails[timer.mSlot] = timer.mPrevious;
+    }
+    mLevelSizes[timer.mSlot >> SLOT_BITS]--;
+    mSize--;
+    timer.mSlot = NO_SLOT;
+    timer.mPrevious = null;
+    timer.mNext = null;
+  }
+
+  /**
+   * Moves the wheel to the given time, removing the timers due at or before it.
+   *
+   * @param time The new current time, in ms
+   * @param dueTimers The list the removed timers are added to, in the order they were due in
+   */
+  /* package */ void advance(long time, List<Timer> dueTimers) {
+    removeAll(DUE_SLOT, dueTimers);
+    while (mCurrentTime < time) {
+      // Skip straight to the next slot of the first level that has timers, nothing happens before
+      int emptyLevels = 0;
+      while (emptyLevels < LEVEL_COUNT && mLevelSizes[emptyLevels] == 0) {
+        emptyLevels++;
+      }
+      if (emptyLevels == LEVEL_COUNT) {
+        mCurrentTime = time;
+        return;
+      }
+      int shift = SLOT_BITS * emptyLevels;
+      long nextTime = ((mCurrentTime >> shift) + 1) << shift;
+      if (nextTime > time) {
+        mCurrentTime = time;
+        return;
+      }
+
+      mCurrentTime = nextTime;
+      // Lower levels first: timers of higher levels were added earlier and go in front of them
+      for (int level = 1; level < LEVEL_COUNT; level++) {
+        if ((nextTime & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+          cascade((level << SLOT_BITS) | (int) ((nextTime >> (SLOT_BITS * level)) & SLOT_MASK));
+        }
+      }
+      removeAll((int) (nextTime & SLOT_MASK), dueTimers);
+      removeAll(DUE_SLOT, dueTimers);
+    }
+  }
+
+  /**
+   * Returns a time no later than the time the next timer is due at, or {@link Long#MAX_VALUE} if
+   * there are no timers. Only slots are looked at, so this doesn't depend on the number of timers.
+   */
+  /* package */ long getNextDueTimeLowerBound() {
+    if (mSize == 0) {
+      return Long.MAX_VALUE;
+    }
+    if (mLevelSizes[LEVEL_COUNT] > 0) {
+      return mCurrentTime;
+    }
+    long nextDueTime = Long.MAX_VALUE;
+    for (int level = 0; level < LEVEL_COUNT; level++) {
+      if (mLevelSizes[level] == 0) {
+        continue;
+      }
+      int shift = SLOT_BITS * level;
+      long currentSlotTime = mCurrentTime >> shift;
+      for (int i = 1; i <= SLOT_COUNT; i++) {
+        long slotTime = currentSlotTime + i;
+        if (mSlots[(level << SLOT_BITS) | (int) (slotTime & SLOT_MASK)] != null) {
+          nextDueTime = Math.min(nextDueTime, slotTime << shift);
+          break;
+        }
+      }
+    }
+    return nextDueTime;
+  }
+
+  /** Returns the slot of a timer due in {@code delay} ms, which is at least 0. */
+  private int getSlot(long delay) {
+    delay = Math.min(delay, MAX_DELAY);
+    int level = 0;
+    while (delay >= 1L << (SLOT_BITS * (level + 1))) {
+      level++;
+    }
+    long slotTime = (mCurrentTime + delay) >> (SLOT_BITS * level);
+    return (level << SLOT_BITS) | (int) (slotTime & SLOT_MASK);
+  }
+
+  private void linkLast(Timer timer, int slot) {
+    Timer tail = mSlotTails[slot];
+    timer.mSlot = slot;
+    timer.mPrevious = tail;
+    timer.mNext = null;
+    if (tail != null) {
+      tail.mNext = timer;
+    } else {
+      mSlots[slot] = timer;
+    }
+    mSlotTails[slot] = timer;
+    mLevelSizes[slot >> SLOT_BITS]++;
+    mSize++;
+  }
+
+  private void linkFirst(Timer timer, int slot) {
+    Timer head = mSlots[slot];
+    timer.mSlot = slot;
+    timer.mPrevious = null;
+    timer.mNext = head;
+    if (head != null) {
+      head.mPrevious = timer;
+    } else {
+      mSlotTails[slot] = timer;
+    }
+    mSlots[slot] = timer;
+    mLevelSizes[slot >> SLOT_BITS]++;
+    mSize++;
+  }
+
+  /**
+   * Moves the timers of a slot that time just reached down a level. They were added before the
+   * timers with the same due time in the slots they move to, so they are put in front of them, last
+   * one first to keep their own order. Timers due now go to the first level slot of the current
+   * time, which {@link #advance} empties next, rather than to the due slot.
+   */
+  private void cascade(int slot) {
+    Timer timer = mSlotTails[slot];
+    while (timer != null) {
+      Timer previous = timer.mPrevious;
+      remove(timer);
+      linkFirst(timer, getSlot(Math.max(0, timer.mTargetTime - mCurrentTime)));
+      timer = previous;
+    }
+  }
+
+  private void removeAll(int slot, List<Timer> timers) {
+    Timer timer = mSlots[slot];
+    while (timer != null) {
+      Timer next = timer.mNext;
+      remove(timer);
+      timers.add(timer);
+      timer = next;
+    }
+  }
+}
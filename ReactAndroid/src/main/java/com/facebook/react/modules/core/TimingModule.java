@@ -136,6 +136,11 @@ public final class TimingModule extends NativeTimingSpec
     mJavaTimerManager.onInstanceDestroy();
   }
 
+  /** Get the number of JS timers created, cancelled and fired, for telemetry. */
+  public JavaTimerStats getTimerStats() {
+    return mJavaTimerManager.getTimerStats();
+  }
+
   @VisibleForTesting
   public boolean hasActiveTimersInRange(long rangeMs) {
     return mJavaTimerManager.hasActiveTimersInRange(rangeMs);
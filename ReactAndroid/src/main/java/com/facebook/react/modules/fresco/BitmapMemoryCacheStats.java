@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.fresco;
+
+/**
+ * Occupancy of Fresco's decoded bitmap memory cache, see {@link
+ * FrescoModule#getBitmapMemoryCacheStats}.
+ */
+public class BitmapMemoryCacheStats {
+  /** Number of decoded images in the cache, whether displayed or not. */
+  public int count;
+  /** Size of the decoded images in the cache. */
+  public int sizeInBytes;
+  /** Number of cached images currently referenced, e.g. by an image view. */
+  public int inUseCount;
+  /** Size of the cached images currently referenced. */
+  public int inUseSizeInBytes;
+}
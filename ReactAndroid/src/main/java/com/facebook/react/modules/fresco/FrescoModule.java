@@ -12,13 +12,16 @@ import androidx.annotation.Nullable;
 import com.facebook.common.logging.FLog;
 import com.facebook.drawee.backends.pipeline.Fresco;
 import com.facebook.imagepipeline.backends.okhttp3.OkHttpImagePipelineConfigFactory;
+import com.facebook.imagepipeline.cache.CountingMemoryCache;
 import com.facebook.imagepipeline.core.ImagePipelineConfig;
+import com.facebook.imagepipeline.core.ImagePipelineFactory;
 import com.facebook.imagepipeline.listener.RequestListener;
 import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.common.ReactConstants;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.react.modules.common.ModuleDataCleaner;
 import com.facebook.react.modules.network.CookieJarContainer;
@@ -44,6 +47,9 @@ public class FrescoModule extends ReactContextBaseJavaModule
 
   private static boolean sHasBeenInitialized = false;
 
+  private static final ImageRequestStatsListener sRequestStatsListener =
+      new ImageRequestStatsListener();
+
   /**
    * Create a new Fresco module with a default configuration (or the previously given configuration
    * via {@link #FrescoModule(ReactApplicationContext, boolean, ImagePipelineConfig)}.
@@ -128,6 +134,35 @@ public class FrescoModule extends ReactContextBaseJavaModule
     return sHasBeenInitialized;
   }
 
+  /**
+   * Get the occupancy of the decoded bitmap memory cache, e.g. to compare how many bitmaps a screen
+   * keeps in memory before and after a change.
+   *
+   * @return the current occupancy, or null if Fresco hasn't been initialized
+   */
+  public static @Nullable BitmapMemoryCacheStats getBitmapMemoryCacheStats() {
+    if (!Fresco.hasBeenInitialized()) {
+      return null;
+    }
+    CountingMemoryCache<?, ?> cache =
+        ImagePipelineFactory.getInstance().getBitmapCountingMemoryCache();
+    BitmapMemoryCacheStats stats = new BitmapMemoryCacheStats();
+    stats.count = cache.getCount();
+    stats.sizeInBytes = cache.getSizeInBytes();
+    stats.inUseCount = cache.getInUseCount();
+    stats.inUseSizeInBytes = cache.getInUseSizeInBytes();
+    return stats;
+  }
+
+  /**
+   * Get the counts of image requests, downloads and cancellations. Only kept when {@link
+   * ReactFeatureFlags#enableViewportImagePriorities} is set when Fresco is initialized with the
+   * default configuration.
+   */
+  public static ImageRequestStats getImageRequestStats() {
+    return sRequestStatsListener.getStats();
+  }
+
   private static ImagePipelineConfig getDefaultConfig(ReactContext context) {
     return getDefaultConfigBuilder(context).build();
   }
@@ -141,8 +176,12 @@ public class FrescoModule extends ReactContextBaseJavaModule
   public static ImagePipelineConfig.Builder getDefaultConfigBuilder(ReactContext context) {
     HashSet<RequestListener> requestListeners = new HashSet<>();
     requestListeners.add(new SystraceRequestListener());
+    if (ReactFeatureFlags.enableViewportImagePriorities) {
+      requestListeners.add(sRequestStatsListener);
+    }
 
-    OkHttpClient client = OkHttpClientProvider.createClient();
+    // Image responses are stored in their own HTTP cache, sized independently from API responses
+    OkHttpClient client = OkHttpClientProvider.createImageClient(context);
 
     // make sure to forward cookies for any requests via the okHttpClient
     // so that image requests to endpoints that use cookies still work
@@ -151,8 +190,11 @@ public class FrescoModule extends ReactContextBaseJavaModule
     container.setCookieJar(new JavaNetCookieJar(handler));
 
     return OkHttpImagePipelineConfigFactory.newBuilder(context.getApplicationContext(), client)
-        .setNetworkFetcher(new ReactOkHttpNetworkFetcher(client))
-        .setDownsampleEnabled(false)
+        .setNetworkFetcher(
+            new ReactOkHttpNetworkFetcher(
+                client,
+                ReactFeatureFlags.enableViewportImagePriorities ? sRequestStatsListener : null))
+        .setDownsampleEnabled(ReactFeatureFlags.enableSizeAwareImageDecoding)
         .setRequestListeners(requestListeners);
   }
 
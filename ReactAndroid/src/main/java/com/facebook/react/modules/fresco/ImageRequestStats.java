@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.fresco;
+
+/** Counts of Fresco image requests, see {@link FrescoModule#getImageRequestStats}. */
+public class ImageRequestStats {
+  /** Number of image requests that were submitted and haven't finished or been cancelled. */
+  public int inFlightRequests;
+  /** Number of images being downloaded, i.e. the depth of the network queue. */
+  public int inFlightFetches;
+  /** Highest number of images that were downloaded at the same time. */
+  public int maxInFlightFetches;
+  /** Number of image requests that were cancelled, e.g. because their view was scrolled away. */
+  public long cancelledRequests;
+  /** Number of downloads that were cancelled before they finished. */
+  public long cancelledFetches;
+  /**
+   * Number of bytes downloaded for requests that were cancelled before showing their image,
+   * including the partial downloads of requests cancelled mid-transfer.
+   */
+  public long wastedBytes;
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.fresco;
+
+import androidx.annotation.Nullable;
+import com.facebook.imagepipeline.listener.BaseRequestListener;
+import com.facebook.imagepipeline.producers.NetworkFetchProducer;
+import com.facebook.imagepipeline.request.ImageRequest;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the counts of {@link ImageRequestStats} up to date. The bytes of a download are counted as
+ * they are read, see {@link #onBytesFetched}, so that downloads cancelled mid-transfer count too.
+ */
+/* package */ class ImageRequestStatsListener extends BaseRequestListener {
+
+  // Key of the downloaded size in the extra map of OkHttpNetworkFetcher
+  private static final String IMAGE_SIZE = "image_size";
+
+  private final ImageRequestStats mStats = new ImageRequestStats();
+  private final Map<String, Long> mFetchedBytes = new HashMap<>();
+
+  /* package */ synchronized ImageRequestStats getStats() {
+    ImageRequestStats stats = new ImageRequestStats();
+    stats.inFlightRequests = mStats.inFlightRequests;
+    stats.inFlightFetches = mStats.inFlightFetches;
+    stats.maxInFlightFetches = mStats.maxInFlightFetches;
+    stats.cancelledRequests = mStats.cancelledRequests;
+    stats.cancelledFetches = mStats.cancelledFetches;
+    stats.wastedBytes = mStats.wastedBytes;
+    return stats;
+  }
+
+  @Override
+  public synchronized void onRequestStart(
+      ImageRequest request, Object callerContext, String requestId, boolean isPrefetch) {
+    mStats.inFlightRequests++;
+  }
+
+  @Override
+  public synchronized void onRequestSuccess(
+      ImageRequest request, String requestId, boolean isPrefetch) {
+    mStats.inFlightRequests--;
+    mFetchedBytes.remove(requestId);
+  }
+
+  @Override
+  public synchronized void onRequestFailure(
+      ImageRequest request, String requestId, Throwable throwable, boolean isPrefetch) {
+    mStats.inFlightRequests--;
+    mFetchedBytes.remove(requestId);
+  }
+
+  @Override
+  public synchronized void onRequestCancellation(String requestId) {
+    mStats.inFlightRequests--;
+    mStats.cancelledRequests++;
+    Long fetchedBytes = mFetchedBytes.remove(requestId);
+    if (fetchedBytes != null) {
+      mStats.wastedBytes += fetchedBytes;
+    }
+  }
+
+  /** Called by {@link ReactOkHttpNetworkFetcher} for every read of a response body. */
+  /* package */ synchronized void onBytesFetched(String requestId, long bytes) {
+    // Only count fetches that started and whose request is still in flight
+    Long fetchedBytes = mFetchedBytes.get(requestId);
+    if (fetchedBytes != null) {
+      mFetchedBytes.put(requestId, fetchedBytes + bytes);
+    }
+  }
+
+  @Override
+  public synchronized void onProducerStart(String requestId, String producerName) {
+    if (NetworkFetchProducer.PRODUCER_NAME.equals(producerName)) {
+      mFetchedBytes.put(requestId, 0L);
+      mStats.inFlightFetches++;
+      mStats.maxInFlightFetches = Math.max(mStats.maxInFlightFetches, mStats.inFlightFetches);
+    }
+  }
+
+  @Override
+  public synchronized void onProducerFinishWithSuccess(
+      String requestId, String producerName, @Nullable Map<String, String> extraMap) {
+    if (NetworkFetchProducer.PRODUCER_NAME.equals(producerName)) {
+      mStats.inFlightFetches--;
+      String imageSize = extraMap != null ? extraMap.get(IMAGE_SIZE) : null;
+      if (imageSize != null) {
+        try {
+          mFetchedBytes.put(requestId, Long.parseLong(imageSize));
+        } catch (NumberFormatException e) {
+          // The size is only used for stats
+        }
+      }
+    }
+  }
+
+  @Override
+  public synchronized void onProducerFinishWithFailure(
+      String requestId,
+      String producerName,
+      Throwable throwable,
+      @Nullable Map<String, String> extraMap) {
+    if (NetworkFetchProducer.PRODUCER_NAME.equals(producerName)) {
+      mStats.inFlightFetches--;
+    }
+  }
+
+  @Override
+  public synchronized void onProducerFinishWithCancellation(
+      String requestId, String producerName, @Nullable Map<String, String> extraMap) {
+    if (NetworkFetchProducer.PRODUCER_NAME.equals(producerName)) {
+      mStats.inFlightFetches--;
+      mStats.cancelledFetches++;
+    }
+  }
+
+  @Override
+  public boolean requiresExtraMap(String requestId) {
+    return true;
+  }
+}
@@ -9,10 +9,14 @@ package com.facebook.react.modules.fresco;
 
 import android.net.Uri;
 import android.os.SystemClock;
+import androidx.annotation.Nullable;
 import com.facebook.imagepipeline.backends.okhttp3.OkHttpNetworkFetcher;
 import com.facebook.imagepipeline.producers.NetworkFetcher;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -28,12 +32,23 @@ class ReactOkHttpNetworkFetcher extends OkHttpNetworkFetcher {
 
   private final OkHttpClient mOkHttpClient;
   private final Executor mCancellationExecutor;
+  private final @Nullable ImageRequestStatsListener mStatsListener;
 
   /** @param okHttpClient client to use */
   public ReactOkHttpNetworkFetcher(OkHttpClient okHttpClient) {
+    this(okHttpClient, null);
+  }
+
+  /**
+   * @param okHttpClient client to use
+   * @param statsListener listener to report the bytes read from response bodies to
+   */
+  /* package */ ReactOkHttpNetworkFetcher(
+      OkHttpClient okHttpClient, @Nullable ImageRequestStatsListener statsListener) {
     super(okHttpClient);
     mOkHttpClient = okHttpClient;
     mCancellationExecutor = okHttpClient.dispatcher().executorService();
+    mStatsListener = statsListener;
   }
 
   private Map<String, String> getHeaders(ReadableMap readableMap) {
@@ -65,14 +80,69 @@ class ReactOkHttpNetworkFetcher extends OkHttpNetworkFetcher {
     if (requestHeaders == null) {
       requestHeaders = Collections.emptyMap();
     }
-    final Request request =
-        new Request.Builder()
-            .cacheControl(new CacheControl.Builder().noStore().build())
-            .url(uri.toString())
-            .headers(Headers.of(requestHeaders))
-            .get()
-            .build();
-
-    fetchWithRequest(fetchState, callback, request);
+    Request.Builder requestBuilder =
+        new Request.Builder().url(uri.toString()).headers(Headers.of(requestHeaders)).get();
+    if (mOkHttpClient.cache() == null) {
+      requestBuilder.cacheControl(new CacheControl.Builder().noStore().build());
+    }
+    final Request request = requestBuilder.build();
+
+    fetchWithRequest(
+        fetchState,
+        mStatsListener != null
+            ? new CountingCallback(callback, fetchState.getId(), mStatsListener)
+            : callback,
+        request);
+  }
+
+  /** Reports the bytes read from the response body as they are read. */
+  private static class CountingCallback implements NetworkFetcher.Callback {
+    private final NetworkFetcher.Callback mCallback;
+    private final String mRequestId;
+    private final ImageRequestStatsListener mStatsListener;
+
+    private CountingCallback(
+        NetworkFetcher.Callback callback,
+        String requestId,
+        ImageRequestStatsListener statsListener) {
+      mCallback = callback;
+      mRequestId = requestId;
+      mStatsListener = statsListener;
+    }
+
+    @Override
+    public void onResponse(InputStream response, int responseLength) throws IOException {
+      mCallback.onResponse(
+          new FilterInputStream(response) {
+            @Override
+            public int read() throws IOException {
+              int value = super.read();
+              if (value != -1) {
+                mStatsListener.onBytesFetched(mRequestId, 1);
+              }
+              return value;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int count) throws IOException {
+              int read = super.read(buffer, offset, count);
+              if (read > 0) {
+                mStatsListener.onBytesFetched(mRequestId, read);
+              }
+              return read;
+            }
+          },
+          responseLength);
+    }
+
+    @Override
+    public void onFailure(Throwable throwable) {
+      mCallback.onFailure(throwable);
+    }
+
+    @Override
+    public void onCancellation() {
+      mCallback.onCancellation();
+    }
   }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.network;
+
+import android.os.SystemClock;
+import androidx.annotation.Nullable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Holds requests back from the OkHttp dispatcher so that they start in priority order. At most
+ * {@link #setMaxRequestsInFlight} calls are handed to the dispatcher at once, and low priority
+ * calls may only use part of those slots, so that a burst of low priority traffic can't delay
+ * requests the UI is waiting for.
+ */
+/* package */ class NetworkRequestScheduler {
+
+  public static final int PRIORITY_LOW = 0;
+  public static final int PRIORITY_NORMAL = 1;
+  public static final int PRIORITY_HIGH = 2;
+
+  // Same as the default limit of the OkHttp dispatcher, so only apps that lower it see a change.
+  private static final int DEFAULT_MAX_REQUESTS_IN_FLIGHT = 64;
+  private static final int DEFAULT_MAX_LOW_PRIORITY_REQUESTS_IN_FLIGHT = 4;
+
+  private static class PendingRequest implements Comparable<PendingRequest> {
+    private final OkHttpClient mClient;
+    private final Request mRequest;
+    private final int mPriority;
+    private final Callback mCallback;
+    private final long mSequence;
+    private final long mEnqueueTimeMs;
+
+    private PendingRequest(
+        OkHttpClient client, Request request, int priority, Callback callback, long sequence) {
+      mClient = client;
+      mRequest = request;
+      mPriority = priority;
+      mCallback = callback;
+      mSequence = sequence;
+      mEnqueueTimeMs = SystemClock.uptimeMillis();
+    }
+
+    @Override
+    public int compareTo(PendingRequest other) {
+      if (mPriority != other.mPriority) {
+        return mPriority > other.mPriority ? -1 : 1;
+      }
+      return mSequence < other.mSequence ? -1 : (mSequence == other.mSequence ? 0 : 1);
+    }
+  }
+
+  private final PriorityQueue<PendingRequest> mPendingRequests = new PriorityQueue<>();
+  private int mMaxRequestsInFlight = DEFAULT_MAX_REQUESTS_IN_FLIGHT;
+  private int mMaxLowPriorityRequestsInFlight = DEFAULT_MAX_LOW_PRIORITY_REQUESTS_IN_FLIGHT;
+  private int mRequestsInFlight;
+  private int mLowPriorityRequestsInFlight;
+  private long mSequence;
+
+  private long mStartedRequests;
+  private long mQueuedRequests;
+  private long mTotalQueueTimeMs;
+  private long mMaxQueueTimeMs;
+
+  /**
+   * Parse the priority JS passed along with the request body.
+   *
+   * @param priority "low", "normal" or "high"; anything else is treated as normal
+   */
+  public static int parsePriority(@Nullable String priority) {
+    if ("high".equals(priority)) {
+      return PRIORITY_HIGH;
+    } else if ("low".equals(priority)) {
+      return PRIORITY_LOW;
+    }
+    return PRIORITY_NORMAL;
+  }
+
+  public synchronized void setMaxRequestsInFlight(int maxRequestsInFlight) {
+    mMaxRequestsInFlight = Math.max(1, maxRequestsInFlight);
+    startPendingRequests();
+  }
+
+  public synchronized void setMaxLowPriorityRequestsInFlight(int maxLowPriorityRequestsInFlight) {
+    mMaxLowPriorityRequestsInFlight = Math.max(1, maxLowPriorityRequestsInFlight);
+    startPendingRequests();
+  }
+
+  /**
+   * Start a call for {@code request} on {@code client} as soon as a slot for its priority is free.
+   * The callback is invoked like for {@link Call#enqueue}.
+   */
+  public synchronized void enqueue(
+      OkHttpClient client, Request request, int priority, Callback callback) {
+    PendingRequest pendingRequest =
+        new PendingRequest(client, request, priority, callback, mSequence++);
+    mPendingRequests.add(pendingRequest);
+    startPendingRequests();
+    if (mPendingRequests.contains(pendingRequest)) {
+      mQueuedRequests++;
+    }
+  }
+
+  /**
+   * Drop a request that has not been handed to OkHttp yet.
+   *
+   * @return true if a pending request with this tag was removed
+   */
+  public synchronized boolean cancel(Object tag) {
+    Iterator<PendingRequest> iterator = mPendingRequests.iterator();
+    while (iterator.hasNext()) {
+      if (tag.equals(iterator.next().mRequest.tag())) {
+        iterator.remove();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public synchronized void cancelAll() {
+    mPendingRequests.clear();
+  }
+
+  /** Copy the scheduler counters into {@code stats}. */
+  public synchronized void getStats(NetworkRequestStats stats) {
+    stats.pendingRequests = mPendingRequests.size();
+    stats.requestsInFlight = mRequestsInFlight;
+    stats.startedRequests = mStartedRequests;
+    stats.queuedRequests = mQueuedRequests;
+    stats.averageQueueTimeMs = mQueuedRequests == 0 ? 0 : mTotalQueueTimeMs / mQueuedRequests;
+    stats.maxQueueTimeMs = mMaxQueueTimeMs;
+  }
+
+  private boolean canStart(int priority) {
+    return mRequestsInFlight < mMaxRequestsInFlight
+        && (priority != PRIORITY_LOW
+            || mLowPriorityRequestsInFlight < mMaxLowPriorityRequestsInFlight);
+  }
+
+  private void startPendingRequests() {
+    // The queue is ordered by priority, so if its head can't start nothing behind it can either.
+    while (!mPendingRequests.isEmpty() && canStart(mPendingRequests.peek().mPriority)) {
+      PendingRequest pendingRequest = mPendingRequests.poll();
+      long queueTimeMs = SystemClock.uptimeMillis() - pendingRequest.mEnqueueTimeMs;
+      mTotalQueueTimeMs += queueTimeMs;
+      mMaxQueueTimeMs = Math.max(mMaxQueueTimeMs, queueTimeMs);
+      start(pendingRequest);
+    }
+  }
+
+  private void start(final PendingRequest pendingRequest) {
+    mStartedRequests++;
+    mRequestsInFlight++;
+    if (pendingRequest.mPriority == PRIORITY_LOW) {
+      mLowPriorityRequestsInFlight++;
+    }
+    pendingRequest
+        .mClient
+        .newCall(pendingRequest.mRequest)
+        .enqueue(
+            new Callback() {
+              @Override
+              public void onFailure(Call call, IOException e) {
+                try {
+                  pendingRequest.mCallback.onFailure(call, e);
+                } finally {
+                  onFinished(pendingRequest);
+                }
+              }
+
+              @Override
+              public void onResponse(Call call, Response response) throws IOException {
+                try {
+                  pendingRequest.mCallback.onResponse(call, response);
+                } finally {
+                  onFinished(pendingRequest);
+                }
+              }
+            });
+  }
+
+  private synchronized void onFinished(PendingRequest pendingRequest) {
+    mRequestsInFlight--;
+    if (pendingRequest.mPriority == PRIORITY_LOW) {
+      mLowPriorityRequestsInFlight--;
+    }
+    startPendingRequests();
+  }
+}
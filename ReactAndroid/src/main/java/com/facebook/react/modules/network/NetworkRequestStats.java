@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.network;
+
+/** Snapshot of the request scheduling counters of {@link NetworkingModule}. */
+public class NetworkRequestStats {
+  /** Requests waiting for a free slot before they are handed to OkHttp. */
+  public int pendingRequests;
+  /** Requests handed to OkHttp that have not completed yet. */
+  public int requestsInFlight;
+  /** Network calls started, coalesced requests count once. */
+  public long startedRequests;
+  /** Requests that had to wait in the queue before starting. */
+  public long queuedRequests;
+  public long averageQueueTimeMs;
+  public long maxQueueTimeMs;
+  /** Requests that were served by an identical request already in flight. */
+  public long coalescedRequests;
+}
@@ -9,19 +9,25 @@ package com.facebook.react.modules.network;
 
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.util.Base64;
 import androidx.annotation.Nullable;
 import com.facebook.common.logging.FLog;
 import com.facebook.fbreact.specs.NativeNetworkingAndroidSpec;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.GuardedAsyncTask;
+import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.common.StandardCharsets;
+import com.facebook.react.common.annotations.VisibleForTesting;
 import com.facebook.react.common.network.OkHttpCallUtil;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.react.modules.core.DeviceEventManagerModule.RCTDeviceEventEmitter;
 import java.io.IOException;
@@ -45,6 +51,8 @@ import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
 import okio.ByteString;
 import okio.GzipSource;
 import okio.Okio;
@@ -92,6 +100,7 @@ public final class NetworkingModule extends NativeNetworkingAndroidSpec {
   private static final String REQUEST_BODY_KEY_URI = "uri";
   private static final String REQUEST_BODY_KEY_FORMDATA = "formData";
   private static final String REQUEST_BODY_KEY_BASE64 = "base64";
+  private static final String REQUEST_DATA_KEY_PRIORITY = "priority";
   private static final String USER_AGENT_HEADER_NAME = "user-agent";
   private static final int CHUNK_TIMEOUT_NS = 100 * 1000000; // 100ms
   private static final int MAX_CHUNK_SIZE_BETWEEN_FLUSHES = 8 * 1024; // 8K
@@ -106,6 +115,8 @@ public final class NetworkingModule extends NativeNetworkingAndroidSpec {
   private final List<RequestBodyHandler> mRequestBodyHandlers = new ArrayList<>();
   private final List<UriHandler> mUriHandlers = new ArrayList<>();
   private final List<ResponseHandler> mResponseHandlers = new ArrayList<>();
+  private final NetworkRequestScheduler mRequestScheduler = new NetworkRequestScheduler();
+  private final RequestCoalescer mRequestCoalescer = new RequestCoalescer();
   private boolean mShuttingDown;
 
   /* package */ NetworkingModule(
@@ -226,6 +237,26 @@ public final class NetworkingModule extends NativeNetworkingAndroidSpec {
     mResponseHandlers.remove(handler);
   }
 
+  /**
+   * Limit the number of requests handed to OkHttp at once. Further requests wait in a queue ordered
+   * by the priority JS set on them.
+   */
+  public void setMaxRequestsInFlight(int maxRequestsInFlight) {
+    mRequestScheduler.setMaxRequestsInFlight(maxRequestsInFlight);
+  }
+
+  /** Limit how many of the requests in flight may have low priority. */
+  public void setMaxLowPriorityRequestsInFlight(int maxLowPriorityRequestsInFlight) {
+    mRequestScheduler.setMaxLowPriorityRequestsInFlight(maxLowPriorityRequestsInFlight);
+  }
+
+  public NetworkRequestStats getRequestStats() {
+    NetworkRequestStats stats = new NetworkRequestStats();
+    mRequestScheduler.getStats(stats);
+    stats.coalescedRequests = mRequestCoalescer.getCoalescedRequests();
+    return stats;
+  }
+
   @Override
   public void sendRequest(
       String method,
@@ -447,110 +478,204 @@ public final class NetworkingModule extends NativeNetworkingAndroidSpec {
     requestBuilder.method(
         method, wrapRequestBodyWithProgressEmitter(requestBody, eventEmitter, requestId));
 
-    addRequest(requestId);
-    client
-        .newCall(requestBuilder.build())
-        .enqueue(
-            new Callback() {
-              @Override
-              public void onFailure(Call call, IOException e) {
-                if (mShuttingDown) {
-                  return;
-                }
-                removeRequest(requestId);
-                String errorMessage =
-                    e.getMessage() != null
-                        ? e.getMessage()
-                        : "Error while executing request: " + e.getClass().getSimpleName();
-                ResponseUtil.onRequestError(eventEmitter, requestId, errorMessage, e);
-              }
+    int priority =
+        NetworkRequestScheduler.parsePriority(
+            data != null && data.hasKey(REQUEST_DATA_KEY_PRIORITY)
+                ? data.getString(REQUEST_DATA_KEY_PRIORITY)
+                : null);
+
+    // Identical idempotent requests that are in flight at the same time share one network call.
+    // Progress events are specific to one request, so requests that want them are not shared.
+    final RequestCoalescer.Group group;
+    if (ReactFeatureFlags.enableNetworkRequestCoalescing
+        && requestId != 0
+        && !useIncrementalUpdates
+        && (method.equalsIgnoreCase("GET") || method.equalsIgnoreCase("HEAD"))) {
+      group =
+          mRequestCoalescer.join(
+              getCoalescingKey(method, url, requestHeaders, timeout, withCredentials),
+              requestId,
+              responseType);
+      if (group == null) {
+        return;
+      }
+      requestBuilder.tag(group);
+    } else {
+      group = null;
+      addRequest(requestId);
+    }
+
+    mRequestScheduler.enqueue(
+        client,
+        requestBuilder.build(),
+        priority,
+        new Callback() {
+          @Override
+          public void onFailure(Call call, IOException e) {
+            if (mShuttingDown) {
+              return;
+            }
+            String errorMessage =
+                e.getMessage() != null
+                    ? e.getMessage()
+                    : "Error while executing request: " + e.getClass().getSimpleName();
+            if (group == null) {
+              removeRequest(requestId);
+              ResponseUtil.onRequestError(eventEmitter, requestId, errorMessage, e);
+              return;
+            }
+            for (RequestCoalescer.Waiter waiter : mRequestCoalescer.complete(group)) {
+              ResponseUtil.onRequestError(eventEmitter, waiter.requestId, errorMessage, e);
+            }
+          }
+
+          @Override
+          public void onResponse(Call call, Response response) throws IOException {
+            if (mShuttingDown) {
+              return;
+            }
+            if (group == null) {
+              removeRequest(requestId);
+              onResponseReceived(
+                  eventEmitter, requestId, responseType, useIncrementalUpdates, response, null);
+              return;
+            }
 
-              @Override
-              public void onResponse(Call call, Response response) throws IOException {
-                if (mShuttingDown) {
-                  return;
+            List<RequestCoalescer.Waiter> waiters = mRequestCoalescer.complete(group);
+            if (waiters.isEmpty()) {
+              response.close();
+            } else if (waiters.size() == 1) {
+              RequestCoalescer.Waiter waiter = waiters.get(0);
+              onResponseReceived(
+                  eventEmitter, waiter.requestId, waiter.responseType, false, response, null);
+            } else {
+              // The body can only be read once, buffer it and hand a copy to every request.
+              byte[] bytes;
+              try {
+                ResponseBody responseBody = unzipResponseBody(response);
+                bytes = responseBody != null ? responseBody.bytes() : new byte[0];
+              } catch (IOException e) {
+                for (RequestCoalescer.Waiter waiter : waiters) {
+                  ResponseUtil.onRequestError(eventEmitter, waiter.requestId, e.getMessage(), e);
                 }
-                removeRequest(requestId);
-                // Before we touch the body send headers to JS
-                ResponseUtil.onResponseReceived(
+                return;
+              }
+              MediaType contentType =
+                  response.body() != null ? response.body().contentType() : null;
+              for (RequestCoalescer.Waiter waiter : waiters) {
+                onResponseReceived(
                     eventEmitter,
-                    requestId,
-                    response.code(),
-                    translateHeaders(response.headers()),
-                    response.request().url().toString());
-
-                try {
-                  // OkHttp implements something called transparent gzip, which mean that it will
-                  // automatically add the Accept-Encoding gzip header and handle decoding
-                  // internally.
-                  // The issue is that it won't handle decoding if the user provides a
-                  // Accept-Encoding
-                  // header. This is also undesirable considering that iOS does handle the decoding
-                  // even
-                  // when the header is provided. To make sure this works in all cases, handle gzip
-                  // body
-                  // here also. This works fine since OKHttp will remove the Content-Encoding header
-                  // if
-                  // it used transparent gzip.
-                  // See
-                  // https://github.com/square/okhttp/blob/5b37cda9e00626f43acf354df145fd452c3031f1/okhttp/src/main/java/okhttp3/internal/http/BridgeInterceptor.java#L76-L111
-                  ResponseBody responseBody = response.body();
-                  if ("gzip".equalsIgnoreCase(response.header("Content-Encoding"))
-                      && responseBody != null) {
-                    GzipSource gzipSource = new GzipSource(responseBody.source());
-                    String contentType = response.header("Content-Type");
-                    responseBody =
-                        ResponseBody.create(
-                            contentType != null ? MediaType.parse(contentType) : null,
-                            -1L,
-                            Okio.buffer(gzipSource));
-                  }
-
-                  // Check if a handler is registered
-                  for (ResponseHandler handler : mResponseHandlers) {
-                    if (handler.supports(responseType)) {
-                      WritableMap res = handler.toResponseData(responseBody);
-                      ResponseUtil.onDataReceived(eventEmitter, requestId, res);
-                      ResponseUtil.onRequestSuccess(eventEmitter, requestId);
-                      return;
-                    }
-                  }
-
-                  // If JS wants progress updates during the download, and it requested a text
-                  // response,
-                  // periodically send response data updates to JS.
-                  if (useIncrementalUpdates && responseType.equals("text")) {
-                    readWithProgress(eventEmitter, requestId, responseBody);
-                    ResponseUtil.onRequestSuccess(eventEmitter, requestId);
-                    return;
-                  }
-
-                  // Otherwise send the data in one big chunk, in the format that JS requested.
-                  String responseString = "";
-                  if (responseType.equals("text")) {
-                    try {
-                      responseString = responseBody.string();
-                    } catch (IOException e) {
-                      if (response.request().method().equalsIgnoreCase("HEAD")) {
-                        // The request is an `HEAD` and the body is empty,
-                        // the OkHttp will produce an exception.
-                        // Ignore the exception to not invalidate the request in the
-                        // Javascript layer.
-                        // Introduced to fix issue #7463.
-                      } else {
-                        ResponseUtil.onRequestError(eventEmitter, requestId, e.getMessage(), e);
-                      }
-                    }
-                  } else if (responseType.equals("base64")) {
-                    responseString = Base64.encodeToString(responseBody.bytes(), Base64.NO_WRAP);
-                  }
-                  ResponseUtil.onDataReceived(eventEmitter, requestId, responseString);
-                  ResponseUtil.onRequestSuccess(eventEmitter, requestId);
-                } catch (IOException e) {
-                  ResponseUtil.onRequestError(eventEmitter, requestId, e.getMessage(), e);
-                }
+                    waiter.requestId,
+                    waiter.responseType,
+                    false,
+                    response,
+                    ResponseBody.create(contentType, bytes));
               }
-            });
+            }
+          }
+        });
+  }
+
+  private static String getCoalescingKey(
+      String method, String url, Headers headers, int timeout, boolean withCredentials) {
+    return method.toUpperCase()
+        + ' '
+        + url
+        + '\n'
+        + headers
+        + timeout
+        + ' '
+        + withCredentials;
+  }
+
+  /**
+   * OkHttp implements something called transparent gzip, which mean that it will automatically add
+   * the Accept-Encoding gzip header and handle decoding internally. The issue is that it won't
+   * handle decoding if the user provides a Accept-Encoding header. This is also undesirable
+   * considering that iOS does handle the decoding even when the header is provided. To make sure
+   * this works in all cases, handle gzip body here also. This works fine since OKHttp will remove
+   * the Content-Encoding header if it used transparent gzip. See
+   * https://github.com/square/okhttp/blob/5b37cda9e00626f43acf354df145fd452c3031f1/okhttp/src/main/java/okhttp3/internal/http/BridgeInterceptor.java#L76-L111
+   */
+  private static @Nullable ResponseBody unzipResponseBody(Response response) {
+    ResponseBody responseBody = response.body();
+    if ("gzip".equalsIgnoreCase(response.header("Content-Encoding")) && responseBody != null) {
+      GzipSource gzipSource = new GzipSource(responseBody.source());
+      String contentType = response.header("Content-Type");
+      responseBody =
+          ResponseBody.create(
+              contentType != null ? MediaType.parse(contentType) : null,
+              -1L,
+              Okio.buffer(gzipSource));
+    }
+    return responseBody;
+  }
+
+  /**
+   * Send a response to JS.
+   *
+   * @param body the already unzipped body to send, or null to read it from {@code response}
+   */
+  private void onResponseReceived(
+      RCTDeviceEventEmitter eventEmitter,
+      int requestId,
+      String responseType,
+      boolean useIncrementalUpdates,
+      Response response,
+      @Nullable ResponseBody body) {
+    // Before we touch the body send headers to JS
+    ResponseUtil.onResponseReceived(
+        eventEmitter,
+        requestId,
+        response.code(),
+        translateHeaders(response.headers()),
+        response.request().url().toString());
+
+    try {
+      ResponseBody responseBody = body != null ? body : unzipResponseBody(response);
+
+      // Check if a handler is registered
+      for (ResponseHandler handler : mResponseHandlers) {
+        if (handler.supports(responseType)) {
+          WritableMap res = handler.toResponseData(responseBody);
+          ResponseUtil.onDataReceived(eventEmitter, requestId, res);
+          ResponseUtil.onRequestSuccess(eventEmitter, requestId);
+          return;
+        }
+      }
+
+      // If JS wants progress updates during the download, and it requested a text response,
+      // periodically send response data updates to JS.
+      if (useIncrementalUpdates && responseType.equals("text")) {
+        readWithProgress(eventEmitter, requestId, responseBody);
+        ResponseUtil.onRequestSuccess(eventEmitter, requestId);
+        return;
+      }
+
+      // Otherwise send the data in one big chunk, in the format that JS requested.
+      String responseString = "";
+      if (responseType.equals("text")) {
+        try {
+          responseString = responseBody.string();
+        } catch (IOException e) {
+          if (response.request().method().equalsIgnoreCase("HEAD")) {
+            // The request is an `HEAD` and the body is empty,
+            // the OkHttp will produce an exception.
+            // Ignore the exception to not invalidate the request in the
+            // Javascript layer.
+            // Introduced to fix issue #7463.
+          } else {
+            ResponseUtil.onRequestError(eventEmitter, requestId, e.getMessage(), e);
+          }
+        }
+      } else if (responseType.equals("base64")) {
+        responseString = Base64.encodeToString(responseBody.bytes(), Base64.NO_WRAP);
+      }
+      ResponseUtil.onDataReceived(eventEmitter, requestId, responseString);
+      ResponseUtil.onRequestSuccess(eventEmitter, requestId);
+    } catch (IOException e) {
+      ResponseUtil.onRequestError(eventEmitter, requestId, e.getMessage(), e);
+    }
   }
 
   private RequestBody wrapRequestBodyWithProgressEmitter(
@@ -625,10 +750,14 @@ public final class NetworkingModule extends NativeNetworkingAndroidSpec {
   }
 
   private synchronized void cancelAllRequests() {
+    mRequestScheduler.cancelAll();
     for (Integer requestId : mRequestIds) {
       cancelRequest(requestId);
     }
     mRequestIds.clear();
+    for (RequestCoalescer.Group group : mRequestCoalescer.clear()) {
+      cancelRequest(group);
+    }
   }
 
   private static WritableMap translateHeaders(Headers headers) {
@@ -649,17 +778,24 @@ public final class NetworkingModule extends NativeNetworkingAndroidSpec {
   @Override
   public void abortRequest(double requestIdAsDouble) {
     int requestId = (int) requestIdAsDouble;
-    cancelRequest(requestId);
+    // A request sharing its network call with others only stops listening for the response.
+    Object tag = mRequestCoalescer.leave(requestId);
+    if (tag != null) {
+      cancelRequest(tag);
+    }
     removeRequest(requestId);
   }
 
-  private void cancelRequest(final int requestId) {
+  private void cancelRequest(final Object tag) {
+    if (mRequestScheduler.cancel(tag)) {
+      return;
+    }
     // We have to use AsyncTask since this might trigger a NetworkOnMainThreadException, this is an
     // open issue on OkHttp: https://github.com/square/okhttp/issues/869
     new GuardedAsyncTask<Void, Void>(getReactApplicationContext()) {
       @Override
       protected void doInBackgroundGuarded(Void... params) {
-        OkHttpCallUtil.cancelTag(mClient, Integer.valueOf(requestId));
+        OkHttpCallUtil.cancelTag(mClient, tag);
       }
     }.execute();
   }
@@ -669,6 +805,94 @@ public final class NetworkingModule extends NativeNetworkingAndroidSpec {
     mCookieHandler.clearCookies(callback);
   }
 
+  /**
+   * Fetch a list of URLs into the HTTP cache once the UI thread is idle. The requests run with low
+   * priority and their responses are discarded. Nothing is fetched for a content class that has no
+   * cache.
+   *
+   * @param contentClass the {@link ReactHttpCache} content class to store the responses in
+   */
+  @Override
+  public void prewarmCache(ReadableArray urls, final String contentClass) {
+    final List<String> urlList = new ArrayList<>(urls.size());
+    for (int i = 0; i < urls.size(); i++) {
+      urlList.add(urls.getString(i));
+    }
+    UiThreadUtil.runOnUiThread(
+        new Runnable() {
+          @Override
+          public void run() {
+            Looper.myQueue()
+                .addIdleHandler(
+                    new MessageQueue.IdleHandler() {
+                      @Override
+                      public boolean queueIdle() {
+                        if (!mShuttingDown) {
+                          prewarmCacheInternal(urlList, contentClass);
+                        }
+                        return false;
+                      }
+                    });
+          }
+        });
+  }
+
+  @VisibleForTesting
+  /* package */ void prewarmCacheInternal(List<String> urls, String contentClass) {
+    ReactHttpCache httpCache = ReactHttpCache.getInstance(getReactApplicationContext());
+    if (!httpCache.hasCache(contentClass)) {
+      // The responses would be downloaded and dropped
+      FLog.w(TAG, "Not prewarming the " + contentClass + " content class, it has no cache");
+      return;
+    }
+    OkHttpClient client = httpCache.apply(mClient.newBuilder(), contentClass).build();
+    Callback callback =
+        new Callback() {
+          @Override
+          public void onFailure(Call call, IOException e) {
+            FLog.w(TAG, "Failed to prewarm " + call.request().url(), e);
+          }
+
+          @Override
+          public void onResponse(Call call, Response response) throws IOException {
+            // The cache only commits an entry once its body has been read to the end.
+            try {
+              ResponseBody body = response.body();
+              if (body != null) {
+                BufferedSource source = body.source();
+                Buffer buffer = new Buffer();
+                while (source.read(buffer, MAX_CHUNK_SIZE_BETWEEN_FLUSHES) != -1) {
+                  buffer.clear();
+                }
+              }
+            } finally {
+              response.close();
+            }
+          }
+        };
+    for (String url : urls) {
+      Request request;
+      try {
+        request = new Request.Builder().url(url).build();
+      } catch (IllegalArgumentException e) {
+        FLog.w(TAG, "Invalid url to prewarm: " + url);
+        continue;
+      }
+      mRequestScheduler.enqueue(client, request, NetworkRequestScheduler.PRIORITY_LOW, callback);
+    }
+  }
+
+  /** Resolve with the hit, miss and size counters of every {@link ReactHttpCache} content class. */
+  @Override
+  public void getCacheStats(final Promise promise) {
+    new GuardedAsyncTask<Void, Void>(getReactApplicationContext()) {
+      @Override
+      protected void doInBackgroundGuarded(Void... params) {
+        promise.resolve(ReactHttpCache.getInstance(getReactApplicationContext()).getStats());
+      }
+    }.execute();
+  }
+
   @Override
   public void addListener(String eventName) {}
 
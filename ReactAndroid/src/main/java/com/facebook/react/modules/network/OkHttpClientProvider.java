@@ -59,6 +59,19 @@ public class OkHttpClientProvider {
     return createClientBuilder(context).build();
   }
 
+  /**
+   * Create a client for image requests, counted with the image class of {@link ReactHttpCache}.
+   * The client doesn't cache responses: Fresco stores images in its own disk cache, storing them
+   * in an HTTP cache too would keep every image on disk twice. A client from the user provided
+   * {@link OkHttpClientFactory} is used as is.
+   */
+  public static OkHttpClient createImageClient(Context context) {
+    if (sFactory != null) {
+      return sFactory.createNewNetworkModuleClient();
+    }
+    return createClientBuilder(context, ReactHttpCache.CONTENT_CLASS_IMAGE).cache(null).build();
+  }
+
   public static OkHttpClient.Builder createClientBuilder() {
     // No timeouts by default
     OkHttpClient.Builder client =
@@ -78,8 +91,15 @@ public class OkHttpClientProvider {
   }
 
   public static OkHttpClient.Builder createClientBuilder(Context context) {
-    int cacheSize = 10 * 1024 * 1024; // 10 Mo
-    return createClientBuilder(context, cacheSize);
+    return createClientBuilder(context, ReactHttpCache.CONTENT_CLASS_API);
+  }
+
+  /**
+   * @param contentClass the {@link ReactHttpCache} content class whose cache and byte budget the
+   *     client uses
+   */
+  public static OkHttpClient.Builder createClientBuilder(Context context, String contentClass) {
+    return ReactHttpCache.getInstance(context).apply(createClientBuilder(), contentClass);
   }
 
   public static OkHttpClient.Builder createClientBuilder(Context context, int cacheSize) {
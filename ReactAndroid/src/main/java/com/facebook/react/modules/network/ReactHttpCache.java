@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.network;
+
+import android.content.Context;
+import androidx.annotation.Nullable;
+import com.facebook.common.logging.FLog;
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.common.annotations.VisibleForTesting;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.Cache;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+
+/**
+ * Process wide HTTP disk caches shared by every {@link OkHttpClient} React Native creates. Each
+ * content class (API responses, images) gets its own cache directory and byte budget, so that a
+ * burst of large images can't evict the API responses the app needs to start, and keeps hit, miss
+ * and byte savings counters.
+ *
+ * <p>Images shown by {@code <Image>} are stored in Fresco's disk cache, so the image class has no
+ * budget by default and the client Fresco uses never caches, see {@link
+ * OkHttpClientProvider#createImageClient}. Apps that load images with their own clients can give it
+ * one.
+ *
+ * <p>Budgets have to be set with {@link #setMaxSize} before the first client is created.
+ */
+public class ReactHttpCache {
+
+  public static final String CONTENT_CLASS_API = "api";
+  public static final String CONTENT_CLASS_IMAGE = "image";
+
+  private static final String TAG = "ReactHttpCache";
+  private static final long DEFAULT_API_MAX_SIZE = 10 * 1024 * 1024; // 10 Mo
+  private static final long DEFAULT_IMAGE_MAX_SIZE = 0;
+
+  private static final Map<String, Long> sMaxSizes = new HashMap<>();
+  private static @Nullable ReactHttpCache sInstance;
+
+  static {
+    sMaxSizes.put(CONTENT_CLASS_API, DEFAULT_API_MAX_SIZE);
+    sMaxSizes.put(CONTENT_CLASS_IMAGE, DEFAULT_IMAGE_MAX_SIZE);
+  }
+
+  /**
+   * Set the byte budget of a content class. A budget of 0 disables caching for it.
+   *
+   * @param contentClass {@link #CONTENT_CLASS_API} or {@link #CONTENT_CLASS_IMAGE}
+   */
+  public static synchronized void setMaxSize(String contentClass, long maxSizeBytes) {
+    if (sInstance != null) {
+      FLog.w(TAG, "HTTP caches have already been created, the new size will be ignored");
+      return;
+    }
+    sMaxSizes.put(contentClass, maxSizeBytes);
+  }
+
+  public static synchronized ReactHttpCache getInstance(Context context) {
+    if (sInstance == null) {
+      sInstance = new ReactHttpCache(context.getApplicationContext().getCacheDir(), sMaxSizes);
+    }
+    return sInstance;
+  }
+
+  @VisibleForTesting
+  /* package */ static synchronized void setInstance(@Nullable ReactHttpCache instance) {
+    sInstance = instance;
+  }
+
+  private static class ContentClass {
+    private final @Nullable Cache mCache;
+    private final StatsInterceptor mStatsInterceptor = new StatsInterceptor();
+
+    private ContentClass(@Nullable Cache cache) {
+      mCache = cache;
+    }
+  }
+
+  /** Counts how requests made by a client were served, see {@link Response#cacheResponse()}. */
+  private static class StatsInterceptor implements Interceptor {
+    private final AtomicLong mHits = new AtomicLong();
+    private final AtomicLong mConditionalHits = new AtomicLong();
+    private final AtomicLong mMisses = new AtomicLong();
+    private final AtomicLong mBytesSaved = new AtomicLong();
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+      Response response = chain.proceed(chain.request());
+      Response cacheResponse = response.cacheResponse();
+      Response networkResponse = response.networkResponse();
+      if (cacheResponse != null && networkResponse == null) {
+        mHits.incrementAndGet();
+        mBytesSaved.addAndGet(getContentLength(response));
+      } else if (cacheResponse != null && networkResponse.code() == 304) {
+        // Revalidated, only the headers came over the network.
+        mConditionalHits.incrementAndGet();
+        mBytesSaved.addAndGet(getContentLength(response));
+      } else if (networkResponse != null) {
+        mMisses.incrementAndGet();
+      }
+      return response;
+    }
+
+    private static long getContentLength(Response response) {
+      long contentLength = response.body() != null ? response.body().contentLength() : -1;
+      if (contentLength < 0) {
+        String header = response.header("Content-Length");
+        try {
+          contentLength = header != null ? Long.parseLong(header) : 0;
+        } catch (NumberFormatException e) {
+          contentLength = 0;
+        }
+      }
+      return contentLength;
+    }
+  }
+
+  private final Map<String, ContentClass> mContentClasses = new HashMap<>();
+
+  @VisibleForTesting
+  /* package */ ReactHttpCache(File cacheDir, Map<String, Long> maxSizes) {
+    for (Map.Entry<String, Long> entry : maxSizes.entrySet()) {
+      String contentClass = entry.getKey();
+      // API responses keep the directory used before content classes existed.
+      File directory =
+          new File(
+              cacheDir,
+              CONTENT_CLASS_API.equals(contentClass)
+                  ? "http-cache"
+                  : "http-cache-" + contentClass);
+      mContentClasses.put(
+          contentClass,
+          new ContentClass(entry.getValue() > 0 ? new Cache(directory, entry.getValue()) : null));
+    }
+  }
+
+  /** @return whether responses of a content class are cached */
+  public boolean hasCache(String contentClass) {
+    return getCache(contentClass) != null;
+  }
+
+  /** @return the cache of a content class, or null if caching is disabled for it */
+  public @Nullable Cache getCache(String contentClass) {
+    ContentClass cacheClass = mContentClasses.get(contentClass);
+    return cacheClass != null ? cacheClass.mCache : null;
+  }
+
+  /**
+   * Make a client builder use the cache of a content class and count its cache hits, replacing any
+   * content class it was set up for before.
+   */
+  public OkHttpClient.Builder apply(OkHttpClient.Builder builder, String contentClass) {
+    Iterator<Interceptor> interceptors = builder.interceptors().iterator();
+    while (interceptors.hasNext()) {
+      if (interceptors.next() instanceof StatsInterceptor) {
+        interceptors.remove();
+      }
+    }
+    ContentClass cacheClass = mContentClasses.get(contentClass);
+    if (cacheClass == null) {
+      return builder.cache(null);
+    }
+    return builder.cache(cacheClass.mCache).addInterceptor(cacheClass.mStatsInterceptor);
+  }
+
+  /**
+   * Collect the counters and sizes of every content class. Reading the size of a cache that was
+   * not used yet touches the disk, so don't call this on the UI thread.
+   */
+  public WritableMap getStats() {
+    WritableMap stats = Arguments.createMap();
+    for (Map.Entry<String, ContentClass> entry : mContentClasses.entrySet()) {
+      ContentClass cacheClass = entry.getValue();
+      WritableMap classStats = Arguments.createMap();
+      classStats.putDouble("hits", cacheClass.mStatsInterceptor.mHits.get());
+      classStats.putDouble("conditionalHits", cacheClass.mStatsInterceptor.mConditionalHits.get());
+      classStats.putDouble("misses", cacheClass.mStatsInterceptor.mMisses.get());
+      classStats.putDouble("bytesSaved", cacheClass.mStatsInterceptor.mBytesSaved.get());
+      long size = 0;
+      long maxSize = 0;
+      if (cacheClass.mCache != null) {
+        maxSize = cacheClass.mCache.maxSize();
+        try {
+          size = cacheClass.mCache.size();
+        } catch (IOException e) {
+          FLog.w(TAG, "Could not read the size of the " + entry.getKey() + " cache", e);
+        }
+      }
+      classStats.putDouble("size", size);
+      classStats.putDouble("maxSize", maxSize);
+      stats.putMap(entry.getKey(), classStats);
+    }
+    return stats;
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.network;
+
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks identical idempotent requests that are in flight at the same time, so that only the first
+ * one goes to the network and its response is handed to every request that joined it.
+ */
+/* package */ class RequestCoalescer {
+
+  /** JS request waiting for the response of a shared network call. */
+  /* package */ static class Waiter {
+    /* package */ final int requestId;
+    /* package */ final String responseType;
+
+    private Waiter(int requestId, String responseType) {
+      this.requestId = requestId;
+      this.responseType = responseType;
+    }
+  }
+
+  /** A network call shared by one or more JS requests, also used as the OkHttp request tag. */
+  /* package */ static class Group {
+    private final String mKey;
+    private final List<Waiter> mWaiters = new ArrayList<>();
+    private boolean mCompleted;
+
+    private Group(String key) {
+      mKey = key;
+    }
+  }
+
+  private final Map<String, Group> mGroupsByKey = new HashMap<>();
+  private final Map<Integer, Group> mGroupsByRequestId = new HashMap<>();
+  private long mCoalescedRequests;
+
+  /**
+   * Add a request to the group of in flight requests with the same key.
+   *
+   * @return a new group if the caller has to send the request, or null if an identical request is
+   *     already in flight and will deliver its response to this one
+   */
+  public synchronized @Nullable Group join(String key, int requestId, String responseType) {
+    Group group = mGroupsByKey.get(key);
+    boolean isNew = group == null;
+    if (isNew) {
+      group = new Group(key);
+      mGroupsByKey.put(key, group);
+    } else {
+      mCoalescedRequests++;
+    }
+    group.mWaiters.add(new Waiter(requestId, responseType));
+    mGroupsByRequestId.put(requestId, group);
+    return isNew ? group : null;
+  }
+
+  /**
+   * Mark the network call of a group as done. Requests can no longer join it.
+   *
+   * @return the requests the response has to be delivered to
+   */
+  public synchronized List<Waiter> complete(Group group) {
+    group.mCompleted = true;
+    if (mGroupsByKey.get(group.mKey) == group) {
+      mGroupsByKey.remove(group.mKey);
+    }
+    for (Waiter waiter : group.mWaiters) {
+      mGroupsByRequestId.remove(waiter.requestId);
+    }
+    List<Waiter> waiters = new ArrayList<>(group.mWaiters);
+    group.mWaiters.clear();
+    return waiters;
+  }
+
+  /**
+   * Remove an aborted request from its group.
+   *
+   * @return the tag of the network call to cancel: the request id if the request was not
+   *     coalesced, the group if this was its last request, or null if other requests still wait
+   *     for the shared response
+   */
+  public synchronized @Nullable Object leave(int requestId) {
+    Group group = mGroupsByRequestId.remove(requestId);
+    if (group == null) {
+      return requestId;
+    }
+    for (int i = 0; i < group.mWaiters.size(); i++) {
+      if (group.mWaiters.get(i).requestId == requestId) {
+        group.mWaiters.remove(i);
+        break;
+      }
+    }
+    if (!group.mWaiters.isEmpty()) {
+      return null;
+    }
+    if (!group.mCompleted) {
+      mGroupsByKey.remove(group.mKey);
+    }
+    return group;
+  }
+
+  /** @return the tags of all shared network calls, and forget about them */
+  public synchronized List<Group> clear() {
+    List<Group> groups = new ArrayList<>(mGroupsByKey.values());
+    mGroupsByKey.clear();
+    mGroupsByRequestId.clear();
+    return groups;
+  }
+
+  public synchronized long getCoalescedRequests() {
+    return mCoalescedRequests;
+  }
+}
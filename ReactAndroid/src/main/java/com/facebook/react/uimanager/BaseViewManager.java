@@ -64,6 +64,8 @@ public abstract class BaseViewManager<T extends View, C extends LayoutShadowNode
   private static final String STATE_EXPANDED = "expanded";
   private static final String STATE_MIXED = "mixed";
 
+  private @Nullable Boolean mSupportsTransformMatrix;
+
   @Override
   @ReactProp(
       name = ViewProps.BACKGROUND_COLOR,
@@ -83,6 +85,49 @@ public abstract class BaseViewManager<T extends View, C extends LayoutShadowNode
     }
   }
 
+  /**
+   * Sets the transform of the view from a 4x4 matrix in the format used by {@link
+   * TransformHelper#processTransform}. Native animated nodes use this to update transforms without
+   * going through a props map, see {@link #supportsTransformMatrix}.
+   */
+  public void setTransformMatrix(@NonNull T view, double[] matrix) {
+    applyTransformMatrix(view, matrix);
+  }
+
+  /**
+   * Whether {@link #setTransformMatrix} applies a transform the same way as {@link #setTransform}.
+   * It doesn't when a subclass overrides {@code setTransform} but not {@code setTransformMatrix},
+   * the transform then has to be set with {@code setTransform}.
+   */
+  public boolean supportsTransformMatrix() {
+    if (mSupportsTransformMatrix == null) {
+      try {
+        // Overrides with a more specific view type are found through their bridge methods
+        Class<?> transformClass =
+            getClass()
+                .getMethod("setTransform", View.class, ReadableArray.class)
+                .getDeclaringClass();
+        Class<?> matrixClass =
+            getClass()
+                .getMethod("setTransformMatrix", View.class, double[].class)
+                .getDeclaringClass();
+        mSupportsTransformMatrix = transformClass.isAssignableFrom(matrixClass);
+      } catch (NoSuchMethodException e) {
+        mSupportsTransformMatrix = false;
+      }
+    }
+    return mSupportsTransformMatrix;
+  }
+
+  /**
+   * Ends an update of the view whose properties were set with typed setters, like {@link
+   * #setOpacity} or {@link #setTransformMatrix}, instead of {@link #updateProperties}. This runs
+   * the same {@link #onAfterUpdateTransaction} hook.
+   */
+  public void onAfterTypedPropsUpdate(@NonNull T view) {
+    onAfterUpdateTransaction(view);
+  }
+
   @Override
   @ReactProp(name = ViewProps.OPACITY, defaultFloat = 1.f)
   public void setOpacity(@NonNull T view, float opacity) {
@@ -318,9 +363,13 @@ public abstract class BaseViewManager<T extends View, C extends LayoutShadowNode
   }
 
   private static void setTransformProperty(@NonNull View view, ReadableArray transforms) {
-    sMatrixDecompositionContext.reset();
     TransformHelper.processTransform(transforms, sTransformDecompositionArray);
-    MatrixMathHelper.decomposeMatrix(sTransformDecompositionArray, sMatrixDecompositionContext);
+    applyTransformMatrix(view, sTransformDecompositionArray);
+  }
+
+  private static void applyTransformMatrix(@NonNull View view, double[] matrix) {
+    sMatrixDecompositionContext.reset();
+    MatrixMathHelper.decomposeMatrix(matrix, sMatrixDecompositionContext);
     view.setTranslationX(
         PixelUtil.toPixelFromDIP(
             sanitizeFloatPropertyValue((float) sMatrixDecompositionContext.translation[0])));
@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager;
+
+/**
+ * Listener called when a root view is unregistered from the {@link UIManagerModule}, e.g. to drop
+ * state kept per root view tag.
+ */
+public interface OnRootViewRemovedListener {
+  /** Called on the native modules thread, once the root view is queued for removal. */
+  void onRootViewRemoved(int rootViewTag);
+}
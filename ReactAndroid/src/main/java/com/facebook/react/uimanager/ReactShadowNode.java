@@ -87,6 +87,9 @@ public interface ReactShadowNode<T extends ReactShadowNode> {
 
   boolean hasUnseenUpdates();
 
+  /** @return the number of children that have unseen updates, see {@link #hasUnseenUpdates()} */
+  int getUpdatedChildCount();
+
   void dirty();
 
   boolean isDirty();
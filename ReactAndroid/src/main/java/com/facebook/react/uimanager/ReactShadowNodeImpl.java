@@ -9,6 +9,7 @@ package com.facebook.react.uimanager;
 
 import androidx.annotation.Nullable;
 import com.facebook.infer.annotation.Assertions;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.uimanager.annotations.ReactPropertyHolder;
 import com.facebook.yoga.YogaAlign;
 import com.facebook.yoga.YogaBaselineFunction;
@@ -24,6 +25,7 @@ import com.facebook.yoga.YogaNode;
 import com.facebook.yoga.YogaNodeFactory;
 import com.facebook.yoga.YogaOverflow;
 import com.facebook.yoga.YogaPositionType;
+import com.facebook.yoga.YogaStyleInputs;
 import com.facebook.yoga.YogaValue;
 import com.facebook.yoga.YogaWrap;
 import java.util.ArrayList;
@@ -56,6 +58,13 @@ import java.util.Arrays;
 public class ReactShadowNodeImpl implements ReactShadowNode<ReactShadowNodeImpl> {
 
   private static final YogaConfig sYogaConfig;
+  private static final ThreadLocal<YogaStyleInputsBuffer> sStyleInputsBuffer =
+      new ThreadLocal<YogaStyleInputsBuffer>() {
+        @Override
+        protected YogaStyleInputsBuffer initialValue() {
+          return new YogaStyleInputsBuffer();
+        }
+      };
 
   static {
     sYogaConfig = ReactYogaConfigProvider.get();
@@ -67,6 +76,8 @@ public class ReactShadowNodeImpl implements ReactShadowNode<ReactShadowNodeImpl>
   private @Nullable ThemedReactContext mThemedContext;
   private boolean mShouldNotifyOnLayout;
   private boolean mNodeUpdated = true;
+  // Number of children with unseen updates, kept up to date by markUpdated() and markUpdateSeen()
+  private int mUpdatedChildCount;
   private @Nullable ArrayList<ReactShadowNodeImpl> mChildren;
   private @Nullable ReactShadowNodeImpl mParent;
   private @Nullable ReactShadowNodeImpl mLayoutParent;
@@ -84,6 +95,9 @@ public class ReactShadowNodeImpl implements ReactShadowNode<ReactShadowNodeImpl>
   private final float[] mPadding = new float[Spacing.ALL + 1];
   private final boolean[] mPaddingIsPercent = new boolean[Spacing.ALL + 1];
   private YogaNode mYogaNode;
+  // Set while the props of an update are being applied, see #updateProperties
+  private @Nullable YogaStyleInputsBuffer mStyleInputs;
+  private boolean mPaddingChanged;
   private Integer mWidthMeasureSpec;
   private Integer mHeightMeasureSpec;
 
@@ -154,7 +168,13 @@ public class ReactShadowNodeImpl implements ReactShadowNode<ReactShadowNodeImpl>
 
   @Override
   public final void markUpdateSeen() {
-    mNodeUpdated = false;
+    if (mNodeUpdated) {
+      mNodeUpdated = false;
+      ReactShadowNodeImpl parent = getParent();
+      if (parent != null) {
+        parent.mUpdatedChildCount--;
+      }
+    }
     if (hasNewLayout()) {
       markLayoutSeen();
     }
@@ -168,6 +188,7 @@ public class ReactShadowNodeImpl implements ReactShadowNode<ReactShadowNodeImpl>
     mNodeUpdated = true;
     ReactShadowNodeImpl parent = getParent();
     if (parent != null) {
+      parent.mUpdatedChildCount++;
       parent.markUpdated();
     }
   }
@@ -177,6 +198,11 @@ public class ReactShadowNodeImpl implements ReactShadowNode<ReactShadowNodeImpl>
     return mNodeUpdated;
   }
 
+  @Override
+  public final int getUpdatedChildCount() {
+    return mUpdatedChildCount;
+  }
+
   @Override
   public void dirty() {
     if (!isVirtual()) {
@@ -208,6 +234,9 @@ public class ReactShadowNodeImpl implements ReactShadowNode<ReactShadowNodeImpl>
     }
     mChildren.add(i, child);
     child.mParent = this;
+    if (child.mNodeUpdated) {
+      mUpdatedChildCount++;
+    }
 
     // If a CSS node has measure defined, the layout algorithm will not visit its children. Even
     // more, it asserts that you don't add children to nodes with measure functions.
@@ -240,6 +269,9 @@ public class ReactShadowNodeImpl implements ReactShadowNode<ReactShadowNodeImpl>
     }
     ReactShadowNodeImpl removed = mChildren.remove(i);
     removed.mParent = null;
+    if (removed.mNodeUpdated) {
+      mUpdatedChildCount--;
+    }
 
     if (mYogaNode != null && !isYogaLeafNode()) {
       mYogaNode.removeChildAt(i);
@@ -288,6 +320,7 @@ public class ReactShadowNodeImpl implements ReactShadowNode<ReactShadowNodeImpl>
       toRemove.dispose();
     }
     Assertions.assertNotNull(mChildren).clear();
+    mUpdatedChildCount = 0;
     markUpdated();
 
     mTotalNativeChildren -= decrease;
@@ -317,10 +350,34 @@ public class ReactShadowNodeImpl implements ReactShadowNode<ReactShadowNodeImpl>
 
   @Override
   public final void updateProperties(ReactStylesDiffMap props) {
-    ViewManagerPropertyUpdater.updateProps(this, props);
+    if (mYogaNode == null || !ReactFeatureFlags.enableBatchedYogaStyleInputs) {
+      ViewManagerPropertyUpdater.updateProps(this, props);
+    } else {
+      mStyleInputs = sStyleInputsBuffer.get();
+      try {
+        ViewManagerPropertyUpdater.updateProps(this, props);
+        flushStyleInputs();
+      } finally {
+        // The buffer is shared by the thread, don't leave the inputs of a failed update in it.
+        mStyleInputs.clear();
+        mStyleInputs = null;
+        mPaddingChanged = false;
+      }
+    }
     onAfterUpdateTransaction();
   }
 
+  /** Apply the style changes collected so far, so that the style getters see them. */
+  private void flushStyleInputs() {
+    if (mStyleInputs != null) {
+      if (mPaddingChanged) {
+        mPaddingChanged = false;
+        applyPadding();
+      }
+      mStyleInputs.applyTo(mYogaNode);
+    }
+  }
+
   @Override
   public void onAfterUpdateTransaction() {
     // no-op
@@ -696,177 +753,311 @@ public class ReactShadowNodeImpl implements ReactShadowNode<ReactShadowNodeImpl>
 
   @Override
   public void setLayoutDirection(YogaDirection direction) {
-    mYogaNode.setDirection(direction);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.LAYOUT_DIRECTION, direction.intValue());
+    } else {
+      mYogaNode.setDirection(direction);
+    }
   }
 
   @Override
   public final YogaValue getStyleWidth() {
+    flushStyleInputs();
     return mYogaNode.getWidth();
   }
 
   @Override
   public void setStyleWidth(float widthPx) {
-    mYogaNode.setWidth(widthPx);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.WIDTH, widthPx);
+    } else {
+      mYogaNode.setWidth(widthPx);
+    }
   }
 
   @Override
   public void setStyleWidthPercent(float percent) {
-    mYogaNode.setWidthPercent(percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.WIDTH_PERCENT, percent);
+    } else {
+      mYogaNode.setWidthPercent(percent);
+    }
   }
 
   @Override
   public void setStyleWidthAuto() {
-    mYogaNode.setWidthAuto();
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.WIDTH_AUTO);
+    } else {
+      mYogaNode.setWidthAuto();
+    }
   }
 
   @Override
   public void setStyleMinWidth(float widthPx) {
-    mYogaNode.setMinWidth(widthPx);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.MIN_WIDTH, widthPx);
+    } else {
+      mYogaNode.setMinWidth(widthPx);
+    }
   }
 
   @Override
   public void setStyleMinWidthPercent(float percent) {
-    mYogaNode.setMinWidthPercent(percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.MIN_WIDTH_PERCENT, percent);
+    } else {
+      mYogaNode.setMinWidthPercent(percent);
+    }
   }
 
   @Override
   public void setStyleMaxWidth(float widthPx) {
-    mYogaNode.setMaxWidth(widthPx);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.MAX_WIDTH, widthPx);
+    } else {
+      mYogaNode.setMaxWidth(widthPx);
+    }
   }
 
   @Override
   public void setStyleMaxWidthPercent(float percent) {
-    mYogaNode.setMaxWidthPercent(percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.MAX_WIDTH_PERCENT, percent);
+    } else {
+      mYogaNode.setMaxWidthPercent(percent);
+    }
   }
 
   @Override
   public final YogaValue getStyleHeight() {
+    flushStyleInputs();
     return mYogaNode.getHeight();
   }
 
   @Override
   public void setStyleHeight(float heightPx) {
-    mYogaNode.setHeight(heightPx);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.HEIGHT, heightPx);
+    } else {
+      mYogaNode.setHeight(heightPx);
+    }
   }
 
   @Override
   public void setStyleHeightPercent(float percent) {
-    mYogaNode.setHeightPercent(percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.HEIGHT_PERCENT, percent);
+    } else {
+      mYogaNode.setHeightPercent(percent);
+    }
   }
 
   @Override
   public void setStyleHeightAuto() {
-    mYogaNode.setHeightAuto();
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.HEIGHT_AUTO);
+    } else {
+      mYogaNode.setHeightAuto();
+    }
   }
 
   @Override
   public void setStyleMinHeight(float widthPx) {
-    mYogaNode.setMinHeight(widthPx);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.MIN_HEIGHT, widthPx);
+    } else {
+      mYogaNode.setMinHeight(widthPx);
+    }
   }
 
   @Override
   public void setStyleMinHeightPercent(float percent) {
-    mYogaNode.setMinHeightPercent(percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.MIN_HEIGHT_PERCENT, percent);
+    } else {
+      mYogaNode.setMinHeightPercent(percent);
+    }
   }
 
   @Override
   public void setStyleMaxHeight(float widthPx) {
-    mYogaNode.setMaxHeight(widthPx);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.MAX_HEIGHT, widthPx);
+    } else {
+      mYogaNode.setMaxHeight(widthPx);
+    }
   }
 
   @Override
   public void setStyleMaxHeightPercent(float percent) {
-    mYogaNode.setMaxHeightPercent(percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.MAX_HEIGHT_PERCENT, percent);
+    } else {
+      mYogaNode.setMaxHeightPercent(percent);
+    }
   }
 
   @Override
   public void setFlex(float flex) {
-    mYogaNode.setFlex(flex);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.FLEX, flex);
+    } else {
+      mYogaNode.setFlex(flex);
+    }
   }
 
   @Override
   public void setFlexGrow(float flexGrow) {
-    mYogaNode.setFlexGrow(flexGrow);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.FLEX_GROW, flexGrow);
+    } else {
+      mYogaNode.setFlexGrow(flexGrow);
+    }
   }
 
   @Override
   public void setFlexShrink(float flexShrink) {
-    mYogaNode.setFlexShrink(flexShrink);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.FLEX_SHRINK, flexShrink);
+    } else {
+      mYogaNode.setFlexShrink(flexShrink);
+    }
   }
 
   @Override
   public void setFlexBasis(float flexBasis) {
-    mYogaNode.setFlexBasis(flexBasis);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.FLEX_BASIS, flexBasis);
+    } else {
+      mYogaNode.setFlexBasis(flexBasis);
+    }
   }
 
   @Override
   public void setFlexBasisAuto() {
-    mYogaNode.setFlexBasisAuto();
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.FLEX_BASIS_AUTO);
+    } else {
+      mYogaNode.setFlexBasisAuto();
+    }
   }
 
   @Override
   public void setFlexBasisPercent(float percent) {
-    mYogaNode.setFlexBasisPercent(percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.FLEX_BASIS_PERCENT, percent);
+    } else {
+      mYogaNode.setFlexBasisPercent(percent);
+    }
   }
 
   @Override
   public void setStyleAspectRatio(float aspectRatio) {
-    mYogaNode.setAspectRatio(aspectRatio);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.ASPECT_RATIO, aspectRatio);
+    } else {
+      mYogaNode.setAspectRatio(aspectRatio);
+    }
   }
 
   @Override
   public void setFlexDirection(YogaFlexDirection flexDirection) {
-    mYogaNode.setFlexDirection(flexDirection);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.FLEX_DIRECTION, flexDirection.intValue());
+    } else {
+      mYogaNode.setFlexDirection(flexDirection);
+    }
   }
 
   @Override
   public void setFlexWrap(YogaWrap wrap) {
-    mYogaNode.setWrap(wrap);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.FLEX_WRAP, wrap.intValue());
+    } else {
+      mYogaNode.setWrap(wrap);
+    }
   }
 
   @Override
   public void setAlignSelf(YogaAlign alignSelf) {
-    mYogaNode.setAlignSelf(alignSelf);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.ALIGN_SELF, alignSelf.intValue());
+    } else {
+      mYogaNode.setAlignSelf(alignSelf);
+    }
   }
 
   @Override
   public void setAlignItems(YogaAlign alignItems) {
-    mYogaNode.setAlignItems(alignItems);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.ALIGN_ITEMS, alignItems.intValue());
+    } else {
+      mYogaNode.setAlignItems(alignItems);
+    }
   }
 
   @Override
   public void setAlignContent(YogaAlign alignContent) {
-    mYogaNode.setAlignContent(alignContent);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.ALIGN_CONTENT, alignContent.intValue());
+    } else {
+      mYogaNode.setAlignContent(alignContent);
+    }
   }
 
   @Override
   public void setJustifyContent(YogaJustify justifyContent) {
-    mYogaNode.setJustifyContent(justifyContent);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.JUSTIFY_CONTENT, justifyContent.intValue());
+    } else {
+      mYogaNode.setJustifyContent(justifyContent);
+    }
   }
 
   @Override
   public void setOverflow(YogaOverflow overflow) {
-    mYogaNode.setOverflow(overflow);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.OVERFLOW, overflow.intValue());
+    } else {
+      mYogaNode.setOverflow(overflow);
+    }
   }
 
   @Override
   public void setDisplay(YogaDisplay display) {
-    mYogaNode.setDisplay(display);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.DISPLAY, display.intValue());
+    } else {
+      mYogaNode.setDisplay(display);
+    }
   }
 
   @Override
   public void setMargin(int spacingType, float margin) {
-    mYogaNode.setMargin(YogaEdge.fromInt(spacingType), margin);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.MARGIN, spacingType, margin);
+    } else {
+      mYogaNode.setMargin(YogaEdge.fromInt(spacingType), margin);
+    }
   }
 
   @Override
   public void setMarginPercent(int spacingType, float percent) {
-    mYogaNode.setMarginPercent(YogaEdge.fromInt(spacingType), percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.MARGIN_PERCENT, spacingType, percent);
+    } else {
+      mYogaNode.setMarginPercent(YogaEdge.fromInt(spacingType), percent);
+    }
   }
 
   @Override
   public void setMarginAuto(int spacingType) {
-    mYogaNode.setMarginAuto(YogaEdge.fromInt(spacingType));
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.MARGIN_AUTO, spacingType);
+    } else {
+      mYogaNode.setMarginAuto(YogaEdge.fromInt(spacingType));
+    }
   }
 
   @Override
@@ -876,6 +1067,7 @@ public class ReactShadowNodeImpl implements ReactShadowNode<ReactShadowNodeImpl>
 
   @Override
   public final YogaValue getStylePadding(int spacingType) {
+    flushStyleInputs();
     return mYogaNode.getPadding(YogaEdge.fromInt(spacingType));
   }
 
@@ -900,6 +1092,15 @@ public class ReactShadowNodeImpl implements ReactShadowNode<ReactShadowNodeImpl>
   }
 
   private void updatePadding() {
+    if (mStyleInputs != null) {
+      // Padding of every edge depends on the shorthands, resolve them once per update.
+      mPaddingChanged = true;
+    } else {
+      applyPadding();
+    }
+  }
+
+  private void applyPadding() {
     for (int spacingType = Spacing.LEFT; spacingType <= Spacing.ALL; spacingType++) {
       if (spacingType == Spacing.LEFT
           || spacingType == Spacing.RIGHT
@@ -908,49 +1109,74 @@ public class ReactShadowNodeImpl implements ReactShadowNode<ReactShadowNodeImpl>
         if (YogaConstants.isUndefined(mPadding[spacingType])
             && YogaConstants.isUndefined(mPadding[Spacing.HORIZONTAL])
             && YogaConstants.isUndefined(mPadding[Spacing.ALL])) {
-          mYogaNode.setPadding(YogaEdge.fromInt(spacingType), mDefaultPadding.getRaw(spacingType));
+          setYogaPadding(spacingType, mDefaultPadding.getRaw(spacingType), false);
           continue;
         }
       } else if (spacingType == Spacing.TOP || spacingType == Spacing.BOTTOM) {
         if (YogaConstants.isUndefined(mPadding[spacingType])
             && YogaConstants.isUndefined(mPadding[Spacing.VERTICAL])
             && YogaConstants.isUndefined(mPadding[Spacing.ALL])) {
-          mYogaNode.setPadding(YogaEdge.fromInt(spacingType), mDefaultPadding.getRaw(spacingType));
+          setYogaPadding(spacingType, mDefaultPadding.getRaw(spacingType), false);
           continue;
         }
       } else {
         if (YogaConstants.isUndefined(mPadding[spacingType])) {
-          mYogaNode.setPadding(YogaEdge.fromInt(spacingType), mDefaultPadding.getRaw(spacingType));
+          setYogaPadding(spacingType, mDefaultPadding.getRaw(spacingType), false);
           continue;
         }
       }
 
-      if (mPaddingIsPercent[spacingType]) {
-        mYogaNode.setPaddingPercent(YogaEdge.fromInt(spacingType), mPadding[spacingType]);
-      } else {
-        mYogaNode.setPadding(YogaEdge.fromInt(spacingType), mPadding[spacingType]);
-      }
+      setYogaPadding(spacingType, mPadding[spacingType], mPaddingIsPercent[spacingType]);
+    }
+  }
+
+  private void setYogaPadding(int spacingType, float padding, boolean isPercent) {
+    if (mStyleInputs != null) {
+      mStyleInputs.put(
+          isPercent ? YogaStyleInputs.PADDING_PERCENT : YogaStyleInputs.PADDING,
+          spacingType,
+          padding);
+    } else if (isPercent) {
+      mYogaNode.setPaddingPercent(YogaEdge.fromInt(spacingType), padding);
+    } else {
+      mYogaNode.setPadding(YogaEdge.fromInt(spacingType), padding);
     }
   }
 
   @Override
   public void setBorder(int spacingType, float borderWidth) {
-    mYogaNode.setBorder(YogaEdge.fromInt(spacingType), borderWidth);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.BORDER, spacingType, borderWidth);
+    } else {
+      mYogaNode.setBorder(YogaEdge.fromInt(spacingType), borderWidth);
+    }
   }
 
   @Override
   public void setPosition(int spacingType, float position) {
-    mYogaNode.setPosition(YogaEdge.fromInt(spacingType), position);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.POSITION, spacingType, position);
+    } else {
+      mYogaNode.setPosition(YogaEdge.fromInt(spacingType), position);
+    }
   }
 
   @Override
   public void setPositionPercent(int spacingType, float percent) {
-    mYogaNode.setPositionPercent(YogaEdge.fromInt(spacingType), percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.POSITION_PERCENT, spacingType, percent);
+    } else {
+      mYogaNode.setPositionPercent(YogaEdge.fromInt(spacingType), percent);
+    }
   }
 
   @Override
   public void setPositionType(YogaPositionType positionType) {
-    mYogaNode.setPositionType(positionType);
+    if (mStyleInputs != null) {
+      mStyleInputs.put(YogaStyleInputs.POSITION_TYPE, positionType.intValue());
+    } else {
+      mYogaNode.setPositionType(positionType);
+    }
   }
 
   @Override
@@ -8,6 +8,7 @@
 package com.facebook.react.uimanager;
 
 import android.os.SystemClock;
+import android.util.SparseArray;
 import android.view.View;
 import android.view.View.MeasureSpec;
 import androidx.annotation.Nullable;
@@ -21,6 +22,7 @@ import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.common.ReactConstants;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.modules.i18nmanager.I18nUtil;
 import com.facebook.react.uimanager.debug.NotThreadSafeViewHierarchyUpdateDebugListener;
 import com.facebook.react.uimanager.events.EventDispatcher;
@@ -48,6 +50,9 @@ public class UIImplementation {
   private final int[] mMeasureBuffer = new int[4];
 
   private long mLastCalculateLayoutTime = 0;
+  // Nodes checked for updates and nodes whose updates were dispatched by the current batch
+  private int mLayoutUpdatesVisitedNodeCount;
+  private int mLayoutUpdatesDispatchedNodeCount;
   protected @Nullable LayoutUpdateListener mLayoutUpdateListener;
 
   /** Interface definition for a callback to be invoked when the layout has been updated */
@@ -223,6 +228,39 @@ public class UIImplementation {
     dispatchViewUpdatesIfNeeded();
   }
 
+  /**
+   * Applies layout props animated by the native animated module to their shadow nodes, and
+   * dispatches the resulting layout updates unless a batch is in progress, which will dispatch them
+   * once it completes.
+   */
+  public void updateLayoutPropsFromAnimation(SparseArray<ReadableMap> propsByTag) {
+    Systrace.beginSection(
+        Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "UIImplementation.updateLayoutPropsFromAnimation");
+    long startTime = SystemClock.uptimeMillis();
+    try {
+      for (int i = 0; i < propsByTag.size(); i++) {
+        int tag = propsByTag.keyAt(i);
+        ReactShadowNode cssNode = mShadowNodeRegistry.getNode(tag);
+        if (cssNode == null) {
+          // The view was removed while it was being animated
+          FLog.w(ReactConstants.TAG, "Attempt to animate layout of view with unknown tag: " + tag);
+          continue;
+        }
+        cssNode.updateProperties(new ReactStylesDiffMap(propsByTag.valueAt(i)));
+      }
+
+      dispatchViewUpdatesIfNeeded();
+    } finally {
+      long updateTime = SystemClock.uptimeMillis() - startTime;
+      Systrace.traceCounter(
+          Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+          "UIImplementation.animatedLayoutUpdateTimeMs",
+          (int) updateTime);
+      mOperationsQueue.onAnimatedLayoutUpdateApplied(updateTime);
+      Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
+    }
+  }
+
   public void profileNextBatch() {
     mOperationsQueue.profileNextBatch();
   }
@@ -619,6 +657,8 @@ public class UIImplementation {
   protected void updateViewHierarchy() {
     Systrace.beginSection(
         Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "UIImplementation.updateViewHierarchy");
+    mLayoutUpdatesVisitedNodeCount = 0;
+    mLayoutUpdatesDispatchedNodeCount = 0;
     try {
       for (int i = 0; i < mShadowNodeRegistry.getRootNodeCount(); i++) {
         int tag = mShadowNodeRegistry.getRootTag(i);
@@ -653,6 +693,16 @@ public class UIImplementation {
         }
       }
     } finally {
+      Systrace.traceCounter(
+          Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+          "UIImplementation.layoutUpdatesVisitedNodes",
+          mLayoutUpdatesVisitedNodeCount);
+      Systrace.traceCounter(
+          Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+          "UIImplementation.layoutUpdatesDispatchedNodes",
+          mLayoutUpdatesDispatchedNodeCount);
+      mOperationsQueue.onLayoutUpdatesApplied(
+          mLayoutUpdatesVisitedNodeCount, mLayoutUpdatesDispatchedNodeCount);
       Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
     }
   }
@@ -895,13 +945,34 @@ public class UIImplementation {
   }
 
   protected void applyUpdatesRecursive(ReactShadowNode cssNode, float absoluteX, float absoluteY) {
+    mLayoutUpdatesVisitedNodeCount++;
     if (!cssNode.hasUpdates()) {
       return;
     }
 
     Iterable<? extends ReactShadowNode> cssChildren = cssNode.calculateLayoutOnChildren();
     if (cssChildren != null) {
+      // Yoga only lays out the children of nodes it lays out, so if this node has no new layout its
+      // children don't have one either, and only the children marked as updated need to be visited.
+      // Those are counted, so we can stop as soon as all of them were found. This doesn't hold for
+      // the children of Yoga leaves, which aren't laid out by Yoga as part of this tree.
+      int updatedChildrenLeft =
+          ReactFeatureFlags.enableLayoutUpdatesSubtreeSkipping
+                  && !cssNode.isYogaLeafNode()
+                  && !cssNode.hasNewLayout()
+                  && !cssNode.isDirty()
+              ? cssNode.getUpdatedChildCount()
+              : -1;
       for (ReactShadowNode cssChild : cssChildren) {
+        if (updatedChildrenLeft == 0) {
+          break;
+        }
+        if (updatedChildrenLeft > 0) {
+          if (!cssChild.hasUnseenUpdates()) {
+            continue;
+          }
+          updatedChildrenLeft--;
+        }
         applyUpdatesRecursive(
             cssChild, absoluteX + cssNode.getLayoutX(), absoluteY + cssNode.getLayoutY());
       }
@@ -909,6 +980,7 @@ public class UIImplementation {
 
     int tag = cssNode.getReactTag();
     if (!mShadowNodeRegistry.isRootNode(tag)) {
+      mLayoutUpdatesDispatchedNodeCount++;
       boolean frameDidChange =
           cssNode.dispatchUpdates(
               absoluteX, absoluteY, mOperationsQueue, mNativeViewHierarchyOptimizer);
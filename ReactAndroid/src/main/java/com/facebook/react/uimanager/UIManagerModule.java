@@ -16,7 +16,9 @@ import android.content.ComponentCallbacks2;
 import android.content.Context;
 import android.content.res.Configuration;
 import android.media.AudioManager;
+import android.util.SparseArray;
 import android.view.View;
+import androidx.annotation.GuardedBy;
 import androidx.annotation.Nullable;
 import androidx.collection.ArrayMap;
 import com.facebook.common.logging.FLog;
@@ -26,6 +28,7 @@ import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.Dynamic;
 import com.facebook.react.bridge.GuardedRunnable;
+import com.facebook.react.bridge.JavaOnlyMap;
 import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.OnBatchCompleteListener;
 import com.facebook.react.bridge.ReactApplicationContext;
@@ -40,6 +43,7 @@ import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.common.MapBuilder;
 import com.facebook.react.common.ReactConstants;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.react.uimanager.common.ViewUtil;
 import com.facebook.react.uimanager.debug.NotThreadSafeViewHierarchyUpdateDebugListener;
@@ -47,10 +51,14 @@ import com.facebook.react.uimanager.events.EventDispatcher;
 import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.facebook.systrace.Systrace;
 import com.facebook.systrace.SystraceMessage;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Native module to allow JS to create and update native Views.
@@ -117,11 +125,19 @@ public class UIManagerModule extends ReactContextBaseJavaModule
   private final Map<String, Object> mCustomDirectEvents;
   private final ViewManagerRegistry mViewManagerRegistry;
   private final UIImplementation mUIImplementation;
+  private final @Nullable ViewManagerConstantsDiskCache mConstantsDiskCache;
   private final MemoryTrimCallback mMemoryTrimCallback = new MemoryTrimCallback();
   private final List<UIManagerModuleListener> mListeners = new ArrayList<>();
+  private final List<OnRootViewRemovedListener> mRootViewRemovedListeners =
+      new CopyOnWriteArrayList<>();
   private @Nullable Map<String, WritableMap> mViewManagerConstantsCache;
   private volatile int mViewManagerConstantsCacheSize;
 
+  private final Object mPendingAnimatedLayoutPropsLock = new Object();
+
+  @GuardedBy("mPendingAnimatedLayoutPropsLock")
+  private SparseArray<ReadableMap> mPendingAnimatedLayoutProps = new SparseArray<>();
+
   private int mBatchId = 0;
 
   @SuppressWarnings("deprecated")
@@ -157,6 +173,11 @@ public class UIManagerModule extends ReactContextBaseJavaModule
     super(reactContext);
     DisplayMetricsHolder.initDisplayMetricsIfNotInitialized(reactContext);
     mEventDispatcher = new EventDispatcher(reactContext);
+    mConstantsDiskCache =
+        ReactFeatureFlags.enableViewManagerConstantsCache
+            ? ViewManagerConstantsDiskCache.open(
+                reactContext, viewManagerResolver.getViewManagerNames())
+            : null;
     mModuleConstants = createConstants(viewManagerResolver);
     mCustomDirectEvents = UIManagerModuleConstants.getDirectEventTypeConstants();
     mViewManagerRegistry = new ViewManagerRegistry(viewManagerResolver);
@@ -180,7 +201,12 @@ public class UIManagerModule extends ReactContextBaseJavaModule
     DisplayMetricsHolder.initDisplayMetricsIfNotInitialized(reactContext);
     mEventDispatcher = new EventDispatcher(reactContext);
     mCustomDirectEvents = MapBuilder.newHashMap();
-    mModuleConstants = createConstants(viewManagersList, null, mCustomDirectEvents);
+    mConstantsDiskCache =
+        ReactFeatureFlags.enableViewManagerConstantsCache
+            ? ViewManagerConstantsDiskCache.open(reactContext, getNames(viewManagersList))
+            : null;
+    mModuleConstants =
+        createConstants(viewManagersList, null, mCustomDirectEvents, mConstantsDiskCache);
     mViewManagerRegistry = new ViewManagerRegistry(viewManagersList);
     mUIImplementation =
         uiImplementationProvider.createUIImplementation(
@@ -267,20 +293,29 @@ public class UIManagerModule extends ReactContextBaseJavaModule
   private static Map<String, Object> createConstants(
       List<ViewManager> viewManagers,
       @Nullable Map<String, Object> customBubblingEvents,
-      @Nullable Map<String, Object> customDirectEvents) {
+      @Nullable Map<String, Object> customDirectEvents,
+      @Nullable ViewManagerConstantsDiskCache constantsDiskCache) {
     ReactMarker.logMarker(CREATE_UI_MANAGER_MODULE_CONSTANTS_START);
     SystraceMessage.beginSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "CreateUIManagerConstants")
         .arg("Lazy", false)
         .flush();
     try {
       return UIManagerModuleConstantsHelper.createConstants(
-          viewManagers, customBubblingEvents, customDirectEvents);
+          viewManagers, customBubblingEvents, customDirectEvents, constantsDiskCache);
     } finally {
       Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
       ReactMarker.logMarker(CREATE_UI_MANAGER_MODULE_CONSTANTS_END);
     }
   }
 
+  private static List<String> getNames(List<ViewManager> viewManagers) {
+    List<String> names = new ArrayList<>(viewManagers.size());
+    for (ViewManager viewManager : viewManagers) {
+      names.add(viewManager.getName());
+    }
+    return names;
+  }
+
   /**
    * Helper method to pre-compute the constants for a view manager. This method ensures that we
    * don't block for getting the constants for view managers during TTI
@@ -323,6 +358,14 @@ public class UIManagerModule extends ReactContextBaseJavaModule
   }
 
   private @Nullable WritableMap computeConstantsForViewManager(@Nullable String viewManagerName) {
+    if (viewManagerName != null && mConstantsDiskCache != null) {
+      Map<String, Object> cachedConstants = mConstantsDiskCache.get(viewManagerName);
+      if (cachedConstants != null) {
+        UIManagerModuleConstantsHelper.mergeEventTypes(cachedConstants, null, mCustomDirectEvents);
+        return Arguments.makeNativeMap(cachedConstants);
+      }
+    }
+
     ViewManager targetView =
         viewManagerName != null ? mUIImplementation.resolveViewManager(viewManagerName) : null;
     if (targetView == null) {
@@ -339,6 +382,9 @@ public class UIManagerModule extends ReactContextBaseJavaModule
           UIManagerModuleConstantsHelper.createConstantsForViewManager(
               targetView, null, null, null, mCustomDirectEvents);
       if (viewManagerConstants != null) {
+        if (mConstantsDiskCache != null) {
+          mConstantsDiskCache.put(targetView.getName(), viewManagerConstants);
+        }
         return Arguments.makeNativeMap(viewManagerConstants);
       }
       return null;
@@ -347,6 +393,30 @@ public class UIManagerModule extends ReactContextBaseJavaModule
     }
   }
 
+  /**
+   * Writes the constants of every registered view manager to {@code directory}. Shipping the
+   * content of that directory as the {@link ViewManagerConstantsDiskCache#ASSETS_DIRECTORY} assets
+   * directory of the app (e.g. by running this from an instrumentation test as a build step) spares
+   * even the first launch from computing them. Requires {@link
+   * ReactFeatureFlags#enableViewManagerConstantsCache}.
+   */
+  public void writeViewManagerConstants(File directory) throws IOException {
+    if (mConstantsDiskCache == null) {
+      throw new IllegalStateException("The view manager constants cache is disabled");
+    }
+    Map<String, Map<String, Object>> constants = new HashMap<>();
+    for (String viewManagerName : mConstantsDiskCache.getViewManagerNames()) {
+      ViewManager viewManager = mUIImplementation.resolveViewManager(viewManagerName);
+      if (viewManager != null) {
+        constants.put(
+            viewManagerName,
+            UIManagerModuleConstantsHelper.createConstantsForViewManager(
+                viewManager, null, null, null, null));
+      }
+    }
+    mConstantsDiskCache.writePrebuilt(directory, constants);
+  }
+
   @ReactMethod(isBlockingSynchronousMethod = true)
   public WritableMap getDefaultEventTypes() {
     return Arguments.makeNativeMap(UIManagerModuleConstantsHelper.getDefaultExportableEventTypes());
@@ -429,6 +499,9 @@ public class UIManagerModule extends ReactContextBaseJavaModule
   @ReactMethod
   public void removeRootView(int rootViewTag) {
     mUIImplementation.removeRootView(rootViewTag);
+    for (OnRootViewRemovedListener listener : mRootViewRemovedListeners) {
+      listener.onRootViewRemoved(rootViewTag);
+    }
   }
 
   public void updateNodeSize(int nodeViewTag, int newWidth, int newHeight) {
@@ -458,6 +531,48 @@ public class UIManagerModule extends ReactContextBaseJavaModule
         });
   }
 
+  /**
+   * Updates the layout props of a shadow node from a native driven animation. Updates sent before
+   * the native modules thread gets to apply them are merged, so that layout is computed at most
+   * once for all the frames the native modules thread was late for.
+   */
+  public void updateLayoutPropsFromAnimation(int tag, ReadableMap props) {
+    final ReactApplicationContext reactApplicationContext = getReactApplicationContext();
+
+    reactApplicationContext.assertOnUiQueueThread();
+
+    boolean shouldSchedule;
+    synchronized (mPendingAnimatedLayoutPropsLock) {
+      shouldSchedule = mPendingAnimatedLayoutProps.size() == 0;
+      ReadableMap pendingProps = mPendingAnimatedLayoutProps.get(tag);
+      if (pendingProps == null) {
+        mPendingAnimatedLayoutProps.put(tag, props);
+      } else {
+        JavaOnlyMap mergedProps = new JavaOnlyMap();
+        mergedProps.merge(pendingProps);
+        mergedProps.merge(props);
+        mPendingAnimatedLayoutProps.put(tag, mergedProps);
+      }
+    }
+
+    if (!shouldSchedule) {
+      return;
+    }
+
+    reactApplicationContext.runOnNativeModulesQueueThread(
+        new GuardedRunnable(reactApplicationContext) {
+          @Override
+          public void runGuarded() {
+            SparseArray<ReadableMap> propsByTag;
+            synchronized (mPendingAnimatedLayoutPropsLock) {
+              propsByTag = mPendingAnimatedLayoutProps;
+              mPendingAnimatedLayoutProps = new SparseArray<>();
+            }
+            mUIImplementation.updateLayoutPropsFromAnimation(propsByTag);
+          }
+        });
+  }
+
   @ReactMethod
   public void createView(int tag, String className, int rootViewTag, ReadableMap props) {
     if (DEBUG) {
@@ -863,6 +978,14 @@ public class UIManagerModule extends ReactContextBaseJavaModule
     mListeners.remove(listener);
   }
 
+  public void addOnRootViewRemovedListener(OnRootViewRemovedListener listener) {
+    mRootViewRemovedListeners.add(listener);
+  }
+
+  public void removeOnRootViewRemovedListener(OnRootViewRemovedListener listener) {
+    mRootViewRemovedListeners.remove(listener);
+  }
+
   /**
    * Given a reactTag from a component, find its root node tag, if possible. Otherwise, this will
    * return 0. If the reactTag belongs to a root node, this will return the same reactTag.
@@ -934,4 +1057,12 @@ public class UIManagerModule extends ReactContextBaseJavaModule
         .getNativeViewHierarchyManager()
         .resolveView(tag);
   }
+
+  public ViewManager resolveViewManager(int tag) {
+    UiThreadUtil.assertOnUiThread();
+    return mUIImplementation
+        .getUIViewOperationQueue()
+        .getNativeViewHierarchyManager()
+        .resolveViewManager(tag);
+  }
 }
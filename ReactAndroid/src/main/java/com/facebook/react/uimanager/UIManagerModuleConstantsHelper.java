@@ -10,9 +10,12 @@ package com.facebook.react.uimanager;
 import static com.facebook.systrace.Systrace.TRACE_TAG_REACT_JAVA_BRIDGE;
 
 import androidx.annotation.Nullable;
+import com.facebook.react.bridge.ReactMarker;
+import com.facebook.react.bridge.ReactMarkerConstants;
 import com.facebook.react.common.MapBuilder;
 import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.systrace.SystraceMessage;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -56,12 +59,14 @@ import java.util.Map;
    * addition allowed to expose viewmanager-specific constants that are placed under the key that
    * corresponds to the view manager's name (see {@link ViewManager#getName}). Constants are merged
    * into the map of {@link UIManagerModule} base constants that is stored in {@link
-   * UIManagerModuleConstants}. TODO(6845124): Create a test for this
+   * UIManagerModuleConstants}. Constants of view managers found in {@param diskCache} are read from
+   * it instead of being computed. TODO(6845124): Create a test for this
    */
   /* package */ static Map<String, Object> createConstants(
       List<ViewManager> viewManagers,
       @Nullable Map<String, Object> allBubblingEventTypes,
-      @Nullable Map<String, Object> allDirectEventTypes) {
+      @Nullable Map<String, Object> allDirectEventTypes,
+      @Nullable ViewManagerConstantsDiskCache diskCache) {
     Map<String, Object> constants = UIManagerModuleConstants.getConstants();
 
     // Generic/default event types:
@@ -80,6 +85,7 @@ import java.util.Map;
       allDirectEventTypes.putAll(genericDirectEventTypes);
     }
 
+    List<String> uncachedViewManagerNames = new ArrayList<>();
     for (ViewManager viewManager : viewManagers) {
       final String viewManagerName = viewManager.getName();
 
@@ -90,9 +96,16 @@ import java.util.Map;
           .flush();
 
       try {
-        Map viewManagerConstants =
-            createConstantsForViewManager(
-                viewManager, null, null, allBubblingEventTypes, allDirectEventTypes);
+        Map<String, Object> viewManagerConstants =
+            diskCache != null ? diskCache.get(viewManagerName) : null;
+        if (viewManagerConstants != null) {
+          mergeEventTypes(viewManagerConstants, allBubblingEventTypes, allDirectEventTypes);
+        } else {
+          viewManagerConstants =
+              createConstantsForViewManager(
+                  viewManager, null, null, allBubblingEventTypes, allDirectEventTypes);
+          uncachedViewManagerNames.add(viewManagerName);
+        }
         if (!viewManagerConstants.isEmpty()) {
           constants.put(viewManagerName, viewManagerConstants);
         }
@@ -101,6 +114,20 @@ import java.util.Map;
       }
     }
 
+    if (diskCache != null) {
+      // Event types of a view manager may be merged into by the ones loaded after it, so only cache
+      // constants once all of them are loaded.
+      for (String viewManagerName : uncachedViewManagerNames) {
+        Map<String, Object> viewManagerConstants =
+            (Map<String, Object>) constants.get(viewManagerName);
+        diskCache.put(
+            viewManagerName,
+            viewManagerConstants != null
+                ? viewManagerConstants
+                : MapBuilder.<String, Object>newHashMap());
+      }
+    }
+
     constants.put("genericBubblingEventTypes", genericBubblingEventTypes);
     constants.put("genericDirectEventTypes", genericDirectEventTypes);
     return constants;
@@ -112,6 +139,9 @@ import java.util.Map;
       @Nullable Map defaultDirectEvents,
       @Nullable Map cumulativeBubblingEventTypes,
       @Nullable Map cumulativeDirectEventTypes) {
+    String viewManagerName = viewManager.getName();
+    ReactMarker.logMarker(
+        ReactMarkerConstants.CREATE_VIEW_MANAGER_CONSTANTS_START, viewManagerName);
     Map<String, Object> viewManagerConstants = MapBuilder.newHashMap();
 
     Map viewManagerBubblingEvents = viewManager.getExportedCustomBubblingEventTypeConstants();
@@ -145,9 +175,24 @@ import java.util.Map;
       viewManagerConstants.put("NativeProps", viewManagerNativeProps);
     }
 
+    ReactMarker.logMarker(ReactMarkerConstants.CREATE_VIEW_MANAGER_CONSTANTS_END, viewManagerName);
     return viewManagerConstants;
   }
 
+  /**
+   * Merges the event types of view manager constants read from a {@link
+   * ViewManagerConstantsDiskCache} into the cumulative event types, the same way {@link
+   * #createConstantsForViewManager} does for constants it computes.
+   */
+  /* package */ static void mergeEventTypes(
+      Map<String, Object> viewManagerConstants,
+      @Nullable Map cumulativeBubblingEventTypes,
+      @Nullable Map cumulativeDirectEventTypes) {
+    recursiveMerge(
+        cumulativeBubblingEventTypes, (Map) viewManagerConstants.get(BUBBLING_EVENTS_KEY));
+    recursiveMerge(cumulativeDirectEventTypes, (Map) viewManagerConstants.get(DIRECT_EVENTS_KEY));
+  }
+
   /** Merges {@param source} map into {@param dest} map recursively */
   private static void recursiveMerge(@Nullable Map dest, @Nullable Map source) {
     if (dest == null || source == null || source.isEmpty()) {
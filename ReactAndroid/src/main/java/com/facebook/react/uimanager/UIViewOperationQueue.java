@@ -546,6 +546,10 @@ public class UIViewOperationQueue {
   private long mThreadCpuTime;
   private long mCreateViewCount;
   private long mUpdatePropertiesOperationCount;
+  private long mLayoutUpdatesVisitedNodeCount;
+  private long mLayoutUpdatesDispatchedNodeCount;
+  private long mAnimatedLayoutUpdateCount;
+  private long mAnimatedLayoutUpdateTime;
 
   public UIViewOperationQueue(
       ReactApplicationContext reactContext,
@@ -575,6 +579,10 @@ public class UIViewOperationQueue {
     mProfiledBatchCommitStartTime = 0;
     mCreateViewCount = 0;
     mUpdatePropertiesOperationCount = 0;
+    mLayoutUpdatesVisitedNodeCount = 0;
+    mLayoutUpdatesDispatchedNodeCount = 0;
+    mAnimatedLayoutUpdateCount = 0;
+    mAnimatedLayoutUpdateTime = 0;
   }
 
   public Map<String, Long> getProfiledBatchPerfCounters() {
@@ -590,9 +598,31 @@ public class UIViewOperationQueue {
     perfMap.put("NativeModulesThreadCpuTime", mThreadCpuTime);
     perfMap.put("CreateViewCount", mCreateViewCount);
     perfMap.put("UpdatePropsCount", mUpdatePropertiesOperationCount);
+    perfMap.put("LayoutUpdatesVisitedNodeCount", mLayoutUpdatesVisitedNodeCount);
+    perfMap.put("LayoutUpdatesDispatchedNodeCount", mLayoutUpdatesDispatchedNodeCount);
+    perfMap.put("AnimatedLayoutUpdateCount", mAnimatedLayoutUpdateCount);
+    perfMap.put("AnimatedLayoutUpdateTime", mAnimatedLayoutUpdateTime);
     return perfMap;
   }
 
+  /**
+   * Called once layout updates of a batch were dispatched, with the number of shadow nodes that
+   * were checked for updates and the number of those whose updates were actually dispatched.
+   */
+  /* package */ void onLayoutUpdatesApplied(int visitedNodeCount, int dispatchedNodeCount) {
+    mLayoutUpdatesVisitedNodeCount += visitedNodeCount;
+    mLayoutUpdatesDispatchedNodeCount += dispatchedNodeCount;
+  }
+
+  /**
+   * Called once layout props animated by the native animated module were applied, with the time it
+   * took to apply them and dispatch the resulting layout updates.
+   */
+  /* package */ void onAnimatedLayoutUpdateApplied(long updateTime) {
+    mAnimatedLayoutUpdateCount++;
+    mAnimatedLayoutUpdateTime += updateTime;
+  }
+
   public boolean isEmpty() {
     return mOperations.isEmpty();
   }
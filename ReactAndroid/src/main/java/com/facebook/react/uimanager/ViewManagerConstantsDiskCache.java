@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.res.AssetManager;
+import android.os.AsyncTask;
+import androidx.annotation.Nullable;
+import com.facebook.common.logging.FLog;
+import com.facebook.react.bridge.ReactMarker;
+import com.facebook.react.bridge.ReactMarkerConstants;
+import com.facebook.react.common.ReactConstants;
+import com.facebook.react.common.annotations.VisibleForTesting;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Persists the constants of view managers (see {@link
+ * UIManagerModuleConstantsHelper#createConstantsForViewManager}) so that later launches of the same
+ * build of the app don't have to compute them again. Constants are stored as one JSON file per view
+ * manager and read when JS (or the eager {@link UIManagerModule#getConstants()}) asks for them.
+ *
+ * <p>Entries are only valid for one set of registered view managers in one install of the app: the
+ * cache is cleared whenever the app version, its install time or the view manager names change.
+ * Constants can also be shipped prebuilt in the {@link #ASSETS_DIRECTORY} assets directory, see
+ * {@link UIManagerModule#writeViewManagerConstants}; those are used for view managers that don't
+ * have an entry on disk yet, e.g. on the first launch.
+ */
+/* package */ class ViewManagerConstantsDiskCache {
+
+  /** Assets directory that prebuilt view manager constants are read from. */
+  public static final String ASSETS_DIRECTORY = "ReactViewManagerConstants";
+
+  private static final String CACHE_DIRECTORY = "ReactViewManagerConstants";
+  private static final String KEY_FILE_NAME = "key";
+  private static final String ENTRY_FILE_EXTENSION = ".json";
+  private static final String TEMP_FILE_EXTENSION = ".tmp";
+
+  private final List<String> mViewManagerNames;
+  private final File mDirectory;
+  private final @Nullable AssetManager mPrebuiltAssets;
+  private final Executor mWriteExecutor;
+
+  private ViewManagerConstantsDiskCache(
+      List<String> viewManagerNames,
+      File directory,
+      @Nullable AssetManager prebuiltAssets,
+      Executor writeExecutor) {
+    mViewManagerNames = viewManagerNames;
+    mDirectory = directory;
+    mPrebuiltAssets = prebuiltAssets;
+    mWriteExecutor = writeExecutor;
+  }
+
+  /**
+   * Opens the cache for the given view managers, clearing it if it was written for another version
+   * of the app or another set of view managers.
+   *
+   * @return null if the cache can't be used, in which case constants are computed every time
+   */
+  public static @Nullable ViewManagerConstantsDiskCache open(
+      Context context, Collection<String> viewManagerNames) {
+    return open(context, viewManagerNames, AsyncTask.SERIAL_EXECUTOR);
+  }
+
+  @VisibleForTesting
+  /* package */ static @Nullable ViewManagerConstantsDiskCache open(
+      Context context, Collection<String> viewManagerNames, Executor writeExecutor) {
+    List<String> names = new ArrayList<>(viewManagerNames);
+    Collections.sort(names);
+    String viewManagersKey = createViewManagersKey(names);
+
+    String key;
+    try {
+      PackageInfo packageInfo =
+          context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+      key = packageInfo.versionCode + "/" + packageInfo.lastUpdateTime + "/" + viewManagersKey;
+    } catch (PackageManager.NameNotFoundException e) {
+      FLog.w(ReactConstants.TAG, "Unable to read package info, not caching view manager constants");
+      return null;
+    }
+
+    File directory = new File(context.getCacheDir(), CACHE_DIRECTORY);
+    try {
+      File keyFile = new File(directory, KEY_FILE_NAME);
+      if (!keyFile.exists() || !key.equals(readString(new FileInputStream(keyFile)))) {
+        deleteEntries(directory);
+        if (!directory.exists() && !directory.mkdirs()) {
+          throw new IOException("Unable to create " + directory);
+        }
+        writeString(keyFile, key);
+      }
+    } catch (IOException e) {
+      FLog.w(ReactConstants.TAG, "Unable to open the view manager constants cache", e);
+      return null;
+    }
+
+    AssetManager assets = context.getAssets();
+    boolean hasPrebuiltConstants;
+    try {
+      hasPrebuiltConstants =
+          viewManagersKey.equals(
+              readString(assets.open(ASSETS_DIRECTORY + File.separator + KEY_FILE_NAME)));
+    } catch (IOException e) {
+      // No prebuilt constants were shipped with the app
+      hasPrebuiltConstants = false;
+    }
+
+    return new ViewManagerConstantsDiskCache(
+        Collections.unmodifiableList(names),
+        directory,
+        hasPrebuiltConstants ? assets : null,
+        writeExecutor);
+  }
+
+  /** Sorted names of the view managers this cache was opened for. */
+  public List<String> getViewManagerNames() {
+    return mViewManagerNames;
+  }
+
+  /**
+   * Returns the cached constants of a view manager, either from disk or from the prebuilt assets.
+   *
+   * @return null if the constants of that view manager were never cached
+   */
+  public @Nullable Map<String, Object> get(String viewManagerName) {
+    if (!isCacheable(viewManagerName)) {
+      return null;
+    }
+    ReactMarker.logMarker(
+        ReactMarkerConstants.READ_VIEW_MANAGER_CONSTANTS_CACHE_START, viewManagerName);
+    try {
+      String json = null;
+      File entry = new File(mDirectory, viewManagerName + ENTRY_FILE_EXTENSION);
+      if (entry.exists()) {
+        json = readString(new FileInputStream(entry));
+      } else if (mPrebuiltAssets != null) {
+        json =
+            readString(
+                mPrebuiltAssets.open(
+                    ASSETS_DIRECTORY + File.separator + viewManagerName + ENTRY_FILE_EXTENSION));
+      }
+      return json != null ? toMap(new JSONObject(json)) : null;
+    } catch (IOException | JSONException e) {
+      FLog.w(ReactConstants.TAG, "Unable to read cached constants of " + viewManagerName, e);
+      return null;
+    } finally {
+      ReactMarker.logMarker(
+          ReactMarkerConstants.READ_VIEW_MANAGER_CONSTANTS_CACHE_END, viewManagerName);
+    }
+  }
+
+  /**
+   * Stores the constants of a view manager. They are serialized on the calling thread, since the
+   * maps they are made of are still modified when other view managers are loaded, and written to
+   * disk in the background.
+   */
+  public void put(String viewManagerName, Map<String, Object> constants) {
+    if (!isCacheable(viewManagerName)) {
+      return;
+    }
+    final String json;
+    try {
+      json = toJSONObject(constants).toString();
+    } catch (JSONException e) {
+      // E.g. NaN, or a type that can't be passed to JS either. Compute those constants every time.
+      FLog.w(ReactConstants.TAG, "Unable to cache constants of " + viewManagerName, e);
+      return;
+    }
+    final File entry = new File(mDirectory, viewManagerName + ENTRY_FILE_EXTENSION);
+    mWriteExecutor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            try {
+              writeString(entry, json);
+            } catch (IOException e) {
+              FLog.w(ReactConstants.TAG, "Unable to write " + entry, e);
+            }
+          }
+        });
+  }
+
+  /**
+   * Writes constants in the format of the {@link #ASSETS_DIRECTORY} assets directory.
+   *
+   * @param constants constants of every view manager this cache was opened for, by name
+   */
+  public void writePrebuilt(File directory, Map<String, Map<String, Object>> constants)
+      throws IOException {
+    if (!directory.exists() && !directory.mkdirs()) {
+      throw new IOException("Unable to create " + directory);
+    }
+    for (Map.Entry<String, Map<String, Object>> entry : constants.entrySet()) {
+      if (!isCacheable(entry.getKey())) {
+        continue;
+      }
+      try {
+        writeString(
+            new File(directory, entry.getKey() + ENTRY_FILE_EXTENSION),
+            toJSONObject(entry.getValue()).toString());
+      } catch (JSONException e) {
+        FLog.w(ReactConstants.TAG, "Unable to write constants of " + entry.getKey(), e);
+      }
+    }
+    writeString(new File(directory, KEY_FILE_NAME), createViewManagersKey(mViewManagerNames));
+  }
+
+  private static String createViewManagersKey(List<String> sortedViewManagerNames) {
+    StringBuilder names = new StringBuilder();
+    for (String name : sortedViewManagerNames) {
+      names.append(name).append(',');
+    }
+    return sortedViewManagerNames.size() + "-" + Integer.toHexString(names.toString().hashCode());
+  }
+
+  private static boolean isCacheable(String viewManagerName) {
+    // The name is used as a file name
+    return !viewManagerName.isEmpty()
+        && viewManagerName.indexOf(File.separatorChar) < 0
+        && !viewManagerName.startsWith(".");
+  }
+
+  private static void deleteEntries(File directory) {
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (File file : files) {
+      if (!file.delete()) {
+        FLog.w(ReactConstants.TAG, "Unable to delete " + file);
+      }
+    }
+  }
+
+  private static String readString(InputStream inputStream) throws IOException {
+    try {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = inputStream.read(buffer)) != -1) {
+        outputStream.write(buffer, 0, read);
+      }
+      return outputStream.toString("UTF-8");
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  private static void writeString(File file, String value) throws IOException {
+    // Write to a temporary file first so that a crash doesn't leave a truncated entry behind
+    File tempFile = new File(file.getPath() + TEMP_FILE_EXTENSION);
+    OutputStream outputStream = new FileOutputStream(tempFile);
+    try {
+      outputStream.write(value.getBytes("UTF-8"));
+    } finally {
+      outputStream.close();
+    }
+    if (!tempFile.renameTo(file)) {
+      throw new IOException("Unable to rename " + tempFile + " to " + file);
+    }
+  }
+
+  private static JSONObject toJSONObject(Map<?, ?> map) throws JSONException {
+    JSONObject object = new JSONObject();
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      object.put(String.valueOf(entry.getKey()), toJSONValue(entry.getValue()));
+    }
+    return object;
+  }
+
+  private static Object toJSONValue(@Nullable Object value) throws JSONException {
+    if (value == null) {
+      return JSONObject.NULL;
+    } else if (value instanceof Map) {
+      return toJSONObject((Map<?, ?>) value);
+    } else if (value instanceof Collection) {
+      JSONArray array = new JSONArray();
+      for (Object element : (Collection<?>) value) {
+        array.put(toJSONValue(element));
+      }
+      return array;
+    } else if (value.getClass().isArray()) {
+      JSONArray array = new JSONArray();
+      for (int i = 0, length = Array.getLength(value); i < length; i++) {
+        array.put(toJSONValue(Array.get(value, i)));
+      }
+      return array;
+    } else if (value instanceof String || value instanceof Boolean) {
+      return value;
+    } else if (value instanceof Number) {
+      double number = ((Number) value).doubleValue();
+      if (Double.isNaN(number) || Double.isInfinite(number)) {
+        throw new JSONException("Unsupported number " + number);
+      }
+      return value;
+    }
+    throw new JSONException("Unsupported type " + value.getClass().getName());
+  }
+
+  private static Map<String, Object> toMap(JSONObject object) throws JSONException {
+    Map<String, Object> map = new HashMap<>();
+    Iterator<String> keys = object.keys();
+    while (keys.hasNext()) {
+      String key = keys.next();
+      map.put(key, fromJSONValue(object.get(key)));
+    }
+    return map;
+  }
+
+  private static @Nullable Object fromJSONValue(Object value) throws JSONException {
+    if (value == JSONObject.NULL) {
+      return null;
+    } else if (value instanceof JSONObject) {
+      return toMap((JSONObject) value);
+    } else if (value instanceof JSONArray) {
+      JSONArray array = (JSONArray) value;
+      List<Object> list = new ArrayList<>(array.length());
+      for (int i = 0; i < array.length(); i++) {
+        list.add(fromJSONValue(array.get(i)));
+      }
+      return list;
+    }
+    return value;
+  }
+}
@@ -241,6 +241,11 @@ public class ViewProps {
               PADDING_START,
               PADDING_END));
 
+  /** Whether the prop is only used by the shadow node to compute layout, whatever its value. */
+  public static boolean isLayoutProp(String prop) {
+    return LAYOUT_ONLY_PROPS.contains(prop);
+  }
+
   public static boolean isLayoutOnly(ReadableMap map, String prop) {
     if (LAYOUT_ONLY_PROPS.contains(prop)) {
       return true;
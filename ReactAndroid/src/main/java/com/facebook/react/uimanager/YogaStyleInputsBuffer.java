@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager;
+
+import com.facebook.yoga.YogaNode;
+import com.facebook.yoga.YogaStyleInputs;
+import java.util.Arrays;
+
+/**
+ * Collects the style changes of a shadow node as {@link YogaStyleInputs} opcodes, so that all the
+ * layout props of one update reach Yoga in a single JNI call, see {@link
+ * YogaNode#setStyleInputs}.
+ */
+/* package */ class YogaStyleInputsBuffer {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private float[] mInputs = new float[INITIAL_CAPACITY];
+  private int mSize;
+
+  public void put(short input) {
+    ensureCapacity(1);
+    mInputs[mSize++] = input;
+  }
+
+  public void put(short input, float value) {
+    ensureCapacity(2);
+    mInputs[mSize++] = input;
+    mInputs[mSize++] = value;
+  }
+
+  public void put(short input, int edge, float value) {
+    ensureCapacity(3);
+    mInputs[mSize++] = input;
+    mInputs[mSize++] = edge;
+    mInputs[mSize++] = value;
+  }
+
+  public boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  /** Apply the collected changes to {@code node} and empty the buffer. */
+  public void applyTo(YogaNode node) {
+    if (mSize > 0) {
+      node.setStyleInputs(mInputs, mSize);
+      mSize = 0;
+    }
+  }
+
+  /** Drop the collected changes without applying them. */
+  public void clear() {
+    mSize = 0;
+  }
+
+  private void ensureCapacity(int count) {
+    if (mSize + count > mInputs.length) {
+      mInputs = Arrays.copyOf(mInputs, Math.max(mInputs.length * 2, mSize + count));
+    }
+  }
+}
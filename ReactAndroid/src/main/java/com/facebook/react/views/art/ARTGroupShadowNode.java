@@ -7,19 +7,44 @@
 
 package com.facebook.react.views.art;
 
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Matrix;
 import android.graphics.Paint;
+import android.graphics.Rect;
 import android.graphics.RectF;
 import androidx.annotation.Nullable;
 import com.facebook.react.bridge.JSApplicationIllegalArgumentException;
 import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.config.ReactFeatureFlags;
+import com.facebook.react.uimanager.ReactShadowNodeImpl;
 import com.facebook.react.uimanager.annotations.ReactProp;
 
 /** Shadow node for virtual ARTGroup view */
 public class ARTGroupShadowNode extends ARTVirtualNode {
 
+  /** Number of draws a group has to stay unchanged for before it's drawn into a layer. */
+  private static final int LAYER_MIN_UNCHANGED_DRAWS = 2;
+
   protected @Nullable RectF mClipping;
 
+  // Where the children removed since the last collectDirtyRegion were drawn
+  private final RectF mRemovedChildrenBounds = new RectF();
+  private boolean mIsRemovedChildrenBoundsComplete = true;
+
+  // See drawLayer
+  private @Nullable Bitmap mLayer;
+  private @Nullable ARTSurfaceViewShadowNode mLayerSurface;
+  private int mLayerLeft;
+  private int mLayerTop;
+  private int mUnchangedDraws;
+  private final Matrix mCanvasMatrix = new Matrix();
+  private final Matrix mLastCanvasMatrix = new Matrix();
+  private final Matrix mInverseCanvasMatrix = new Matrix();
+  private float mLastOpacity;
+  private int mLastCanvasWidth;
+  private int mLastCanvasHeight;
+
   public ARTGroupShadowNode() {}
 
   @ReactProp(name = "clipping")
@@ -27,7 +52,7 @@ public class ARTGroupShadowNode extends ARTVirtualNode {
     float[] clippingData = PropHelper.toFloatArray(clippingDims);
     if (clippingData != null) {
       mClipping = createClipping(clippingData);
-      markUpdated();
+      markChanged();
     }
   }
 
@@ -39,24 +64,197 @@ public class ARTGroupShadowNode extends ARTVirtualNode {
   public void draw(Canvas canvas, Paint paint, float opacity) {
     opacity *= mOpacity;
     if (opacity > MIN_OPACITY_FOR_DRAW) {
-      saveAndSetupCanvas(canvas);
-
-      if (mClipping != null) {
-        canvas.clipRect(
-            mClipping.left * mScale,
-            mClipping.top * mScale,
-            mClipping.right * mScale,
-            mClipping.bottom * mScale);
+      if (!ReactFeatureFlags.enableARTLayerCaching || !drawLayer(canvas, opacity)) {
+        drawChildren(canvas, paint, opacity);
+      }
+    }
+  }
+
+  private void drawChildren(Canvas canvas, Paint paint, float opacity) {
+    saveAndSetupCanvas(canvas);
+
+    if (mClipping != null) {
+      canvas.clipRect(
+          mClipping.left * mScale,
+          mClipping.top * mScale,
+          mClipping.right * mScale,
+          mClipping.bottom * mScale);
+    }
+
+    for (int i = 0; i < getChildCount(); i++) {
+      ARTVirtualNode child = (ARTVirtualNode) getChildAt(i);
+      child.draw(canvas, paint, opacity);
+      child.markUpdateSeen();
+    }
+
+    restoreCanvas(canvas);
+  }
+
+  /**
+   * Draws the group from a bitmap once it didn't change for a few draws, so that static parts of a
+   * surface (e.g. the axes and series of a chart) aren't drawn path by path again when another part
+   * changes. Returns false if the group has to be drawn normally.
+   */
+  private boolean drawLayer(Canvas canvas, float opacity) {
+    canvas.getMatrix(mCanvasMatrix);
+    boolean isUnchanged =
+        !hasUnseenUpdates()
+            && mCanvasMatrix.equals(mLastCanvasMatrix)
+            && opacity == mLastOpacity
+            && canvas.getWidth() == mLastCanvasWidth
+            && canvas.getHeight() == mLastCanvasHeight;
+    mLastCanvasMatrix.set(mCanvasMatrix);
+    mLastOpacity = opacity;
+    mLastCanvasWidth = canvas.getWidth();
+    mLastCanvasHeight = canvas.getHeight();
+    if (!isUnchanged) {
+      releaseLayer();
+      mUnchangedDraws = 0;
+      return false;
+    }
+
+    if (mLayer == null
+        && (++mUnchangedDraws < LAYER_MIN_UNCHANGED_DRAWS || !createLayer(canvas, opacity))) {
+      return false;
+    }
+    // The layer can be released on the UI thread when the surface texture is destroyed
+    Bitmap layer = mLayer;
+    if (layer == null) {
+      return false;
+    }
+
+    int saveCount = canvas.save();
+    canvas.concat(mInverseCanvasMatrix);
+    canvas.drawBitmap(layer, mLayerLeft, mLayerTop, null);
+    canvas.restoreToCount(saveCount);
+    return true;
+  }
+
+  /**
+   * Draws the group into a new layer. Only groups that know where they are drawn get one, so that a
+   * layer is never the size of the whole canvas, and only while the layers of the surface fit in its
+   * budget, see {@link ARTSurfaceViewShadowNode#reserveLayerBytes}.
+   */
+  private boolean createLayer(Canvas canvas, float opacity) {
+    ARTSurfaceViewShadowNode surface = getSurface();
+    RectF bounds = new RectF();
+    if (surface == null
+        || !ReactFeatureFlags.enableARTDirtyRegions
+        || !getCanvasBounds(mCanvasMatrix, bounds)
+        || !mCanvasMatrix.invert(mInverseCanvasMatrix)) {
+      return false;
+    }
+    Rect layerRect = new Rect();
+    bounds.roundOut(layerRect);
+    if (!layerRect.intersect(0, 0, canvas.getWidth(), canvas.getHeight())
+        || !surface.reserveLayerBytes(getLayerBytes(layerRect.width(), layerRect.height()))) {
+      return false;
+    }
+
+    mLayer = Bitmap.createBitmap(layerRect.width(), layerRect.height(), Bitmap.Config.ARGB_8888);
+    mLayerSurface = surface;
+    mLayerLeft = layerRect.left;
+    mLayerTop = layerRect.top;
+    Canvas layerCanvas = new Canvas(mLayer);
+    layerCanvas.translate(-layerRect.left, -layerRect.top);
+    layerCanvas.concat(mCanvasMatrix);
+    drawChildren(layerCanvas, new Paint(), opacity);
+    return true;
+  }
+
+  /**
+   * Releases the layers of the group and of the groups in it, e.g. when the surface texture they
+   * were drawn for is destroyed.
+   */
+  /* package */ void releaseLayers() {
+    releaseLayer();
+    mUnchangedDraws = 0;
+    for (int i = 0; i < getChildCount(); i++) {
+      if (getChildAt(i) instanceof ARTGroupShadowNode) {
+        ((ARTGroupShadowNode) getChildAt(i)).releaseLayers();
+      }
+    }
+  }
+
+  private void releaseLayer() {
+    Bitmap layer = mLayer;
+    ARTSurfaceViewShadowNode surface = mLayerSurface;
+    mLayer = null;
+    mLayerSurface = null;
+    if (layer != null && surface != null) {
+      surface.releaseLayerBytes(getLayerBytes(layer.getWidth(), layer.getHeight()));
+    }
+  }
+
+  private static long getLayerBytes(int width, int height) {
+    // ARGB_8888
+    return (long) width * height * 4;
+  }
+
+  private @Nullable ARTSurfaceViewShadowNode getSurface() {
+    ReactShadowNodeImpl node = getParent();
+    while (node != null && !(node instanceof ARTSurfaceViewShadowNode)) {
+      node = node.getParent();
+    }
+    return (ARTSurfaceViewShadowNode) node;
+  }
+
+  @Override
+  protected boolean collectChildrenDirtyRegion(Matrix matrix, RectF dirtyRegion) {
+    boolean isRegionComplete = mIsRemovedChildrenBoundsComplete;
+    dirtyRegion.union(mRemovedChildrenBounds);
+    mRemovedChildrenBounds.setEmpty();
+    mIsRemovedChildrenBoundsComplete = true;
+    for (int i = 0; i < getChildCount(); i++) {
+      ARTVirtualNode child = (ARTVirtualNode) getChildAt(i);
+      if (!child.collectDirtyRegion(matrix, dirtyRegion)) {
+        isRegionComplete = false;
       }
+    }
+    return isRegionComplete;
+  }
 
-      for (int i = 0; i < getChildCount(); i++) {
-        ARTVirtualNode child = (ARTVirtualNode) getChildAt(i);
-        child.draw(canvas, paint, opacity);
-        child.markUpdateSeen();
+  @Override
+  protected boolean computeSurfaceBounds(Matrix matrix, RectF bounds) {
+    bounds.setEmpty();
+    for (int i = 0; i < getChildCount(); i++) {
+      ARTVirtualNode child = (ARTVirtualNode) getChildAt(i);
+      if (!child.addSurfaceBounds(bounds)) {
+        return false;
+      }
+    }
+    if (mClipping != null) {
+      RectF clipping =
+          new RectF(
+              mClipping.left * mScale,
+              mClipping.top * mScale,
+              mClipping.right * mScale,
+              mClipping.bottom * mScale);
+      matrix.mapRect(clipping);
+      if (!bounds.intersect(clipping)) {
+        bounds.setEmpty();
       }
+    }
+    return true;
+  }
 
-      restoreCanvas(canvas);
+  @Override
+  public ReactShadowNodeImpl removeChildAt(int i) {
+    ReactShadowNodeImpl removed = super.removeChildAt(i);
+    // Added children are drawn because they are new, removed ones have to be cleared
+    if (!((ARTVirtualNode) removed).addSurfaceBounds(mRemovedChildrenBounds)) {
+      mIsRemovedChildrenBoundsComplete = false;
+    }
+    if (removed instanceof ARTGroupShadowNode) {
+      ((ARTGroupShadowNode) removed).releaseLayers();
     }
+    return removed;
+  }
+
+  @Override
+  public void dispose() {
+    super.dispose();
+    releaseLayer();
   }
 
   /**
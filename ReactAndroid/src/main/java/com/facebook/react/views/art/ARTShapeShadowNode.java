@@ -11,6 +11,7 @@ import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.DashPathEffect;
 import android.graphics.LinearGradient;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Path;
 import android.graphics.RectF;
@@ -20,6 +21,7 @@ import com.facebook.common.logging.FLog;
 import com.facebook.react.bridge.JSApplicationIllegalArgumentException;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.common.ReactConstants;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.uimanager.annotations.ReactProp;
 
 /** Shadow node for virtual ARTShape view */
@@ -54,49 +56,58 @@ public class ARTShapeShadowNode extends ARTVirtualNode {
   private int mStrokeCap = CAP_ROUND;
   private int mStrokeJoin = JOIN_ROUND;
 
+  // Bounds of the path including its stroke, in the coordinates of the node
+  private final RectF mLocalBounds = new RectF();
+  private boolean mIsLocalBoundsValid;
+
   public ARTShapeShadowNode() {}
 
   @ReactProp(name = "d")
   public void setShapePath(@Nullable ReadableArray shapePath) {
     float[] pathData = PropHelper.toFloatArray(shapePath);
     mPath = createPath(pathData);
-    markUpdated();
+    mIsLocalBoundsValid = false;
+    markChanged();
   }
 
   @ReactProp(name = "stroke")
   public void setStroke(@Nullable ReadableArray strokeColors) {
     mStrokeColor = PropHelper.toFloatArray(strokeColors);
-    markUpdated();
+    mIsLocalBoundsValid = false;
+    markChanged();
   }
 
   @ReactProp(name = "strokeDash")
   public void setStrokeDash(@Nullable ReadableArray strokeDash) {
     mStrokeDash = PropHelper.toFloatArray(strokeDash);
-    markUpdated();
+    markChanged();
   }
 
   @ReactProp(name = "fill")
   public void setFill(@Nullable ReadableArray fillColors) {
     mBrushData = PropHelper.toFloatArray(fillColors);
-    markUpdated();
+    markChanged();
   }
 
   @ReactProp(name = "strokeWidth", defaultFloat = 1f)
   public void setStrokeWidth(float strokeWidth) {
     mStrokeWidth = strokeWidth;
-    markUpdated();
+    mIsLocalBoundsValid = false;
+    markChanged();
   }
 
   @ReactProp(name = "strokeCap", defaultInt = CAP_ROUND)
   public void setStrokeCap(int strokeCap) {
     mStrokeCap = strokeCap;
-    markUpdated();
+    mIsLocalBoundsValid = false;
+    markChanged();
   }
 
   @ReactProp(name = "strokeJoin", defaultInt = JOIN_ROUND)
   public void setStrokeJoin(int strokeJoin) {
     mStrokeJoin = strokeJoin;
-    markUpdated();
+    mIsLocalBoundsValid = false;
+    markChanged();
   }
 
   @Override
@@ -107,17 +118,44 @@ public class ARTShapeShadowNode extends ARTVirtualNode {
       if (mPath == null) {
         throw new JSApplicationIllegalArgumentException("Shapes should have a valid path (d) prop");
       }
-      if (setupFillPaint(paint, opacity)) {
-        canvas.drawPath(mPath, paint);
-      }
-      if (setupStrokePaint(paint, opacity)) {
-        canvas.drawPath(mPath, paint);
+      // Only the dirty region of the surface is drawn, skip shapes outside of it
+      if (!ReactFeatureFlags.enableARTDirtyRegions
+          || !canvas.quickReject(getLocalBounds(), Canvas.EdgeType.AA)) {
+        if (setupFillPaint(paint, opacity)) {
+          canvas.drawPath(mPath, paint);
+        }
+        if (setupStrokePaint(paint, opacity)) {
+          canvas.drawPath(mPath, paint);
+        }
       }
       restoreCanvas(canvas);
     }
     markUpdateSeen();
   }
 
+  @Override
+  protected boolean computeSurfaceBounds(Matrix matrix, RectF bounds) {
+    matrix.mapRect(bounds, getLocalBounds());
+    return true;
+  }
+
+  private RectF getLocalBounds() {
+    if (!mIsLocalBoundsValid) {
+      mIsLocalBoundsValid = true;
+      if (mPath == null) {
+        mLocalBounds.setEmpty();
+        return mLocalBounds;
+      }
+      mPath.computeBounds(mLocalBounds, true);
+      // Miter joins can stick out by twice the stroke width with the default miter limit of 4, the
+      // extra pixel covers anti-aliasing
+      float strokeOutset =
+          mStrokeColor != null ? mStrokeWidth * mScale * (mStrokeJoin == JOIN_MITER ? 2 : 1) : 0;
+      mLocalBounds.inset(-strokeOutset - 1, -strokeOutset - 1);
+    }
+    return mLocalBounds;
+  }
+
   /**
    * Sets up {@link #mPaint} according to the props set on a shadow view. Returns {@code true} if
    * the stroke should be drawn, {@code false} if not.
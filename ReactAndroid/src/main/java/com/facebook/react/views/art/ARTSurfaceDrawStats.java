@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.art;
+
+/** Frame counts and times of an ART surface, see {@link ARTSurfaceViewShadowNode#getDrawStats}. */
+public class ARTSurfaceDrawStats {
+  /** Number of frames drawn. */
+  public long frameCount;
+  /** Number of frames that only redrew part of the surface. */
+  public long partialFrameCount;
+  /** Number of updates that didn't change what the surface shows, and didn't draw a frame. */
+  public long skippedFrameCount;
+  /** Sum of the areas redrawn by the frames. */
+  public long redrawnPixels;
+  /** Sum of the areas of the surface when the frames were drawn. */
+  public long surfacePixels;
+  /** Time spent drawing the last frame, including posting it. */
+  public long lastDrawTimeNs;
+  /** Longest time spent drawing a frame. */
+  public long maxDrawTimeNs;
+  /** Time spent drawing all frames. */
+  public long totalDrawTimeNs;
+}
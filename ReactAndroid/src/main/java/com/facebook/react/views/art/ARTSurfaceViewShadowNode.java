@@ -9,8 +9,11 @@ package com.facebook.react.views.art;
 
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.RectF;
 import android.graphics.SurfaceTexture;
 import android.os.Build;
 import android.view.Surface;
@@ -19,12 +22,16 @@ import androidx.annotation.Nullable;
 import com.facebook.common.logging.FLog;
 import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.common.ReactConstants;
+import com.facebook.react.common.annotations.VisibleForTesting;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.uimanager.LayoutShadowNode;
 import com.facebook.react.uimanager.ReactShadowNode;
+import com.facebook.react.uimanager.ReactShadowNodeImpl;
 import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.UIViewOperationQueue;
 import com.facebook.react.uimanager.ViewProps;
 import com.facebook.react.uimanager.annotations.ReactProp;
+import com.facebook.systrace.Systrace;
 
 /** Shadow node for ART virtual tree root - ARTSurfaceView */
 public class ARTSurfaceViewShadowNode extends LayoutShadowNode
@@ -34,9 +41,24 @@ public class ARTSurfaceViewShadowNode extends LayoutShadowNode
 
   private @Nullable Integer mBackgroundColor;
 
+  // See getDirtyRect
+  private final Matrix mSurfaceMatrix = new Matrix();
+  private final RectF mDirtyRegion = new RectF();
+  private final Rect mDirtyRect = new Rect();
+  private final RectF mRemovedChildrenBounds = new RectF();
+  private boolean mIsRemovedChildrenBoundsComplete = true;
+  private boolean mNeedsFullRedraw = true;
+
+  private final ARTSurfaceDrawStats mDrawStats = new ARTSurfaceDrawStats();
+
+  // Memory taken by the layers of the groups of the surface, see reserveLayerBytes
+  private long mLayerBytes;
+  private long mMaxLayerBytes;
+
   @ReactProp(name = ViewProps.BACKGROUND_COLOR, customType = "Color")
   public void setBackgroundColor(Integer color) {
     mBackgroundColor = color;
+    mNeedsFullRedraw = true;
     markUpdated();
   }
 
@@ -63,8 +85,25 @@ public class ARTSurfaceViewShadowNode extends LayoutShadowNode
       return;
     }
 
+    Systrace.beginSection(Systrace.TRACE_TAG_REACT_VIEW, "ARTSurfaceViewShadowNode.drawOutput");
+    long startTime = System.nanoTime();
     try {
-      Canvas canvas = mSurface.lockCanvas(null);
+      Rect dirtyRect = getDirtyRect();
+      if (dirtyRect != null && dirtyRect.isEmpty()) {
+        // Nothing that is drawn changed, don't post an identical frame
+        for (int i = 0; i < getChildCount(); i++) {
+          markChildUpdated(getChildAt(i), markAsUpdated);
+        }
+        mDrawStats.skippedFrameCount++;
+        return;
+      }
+
+      // Only the dirty rect is cleared and drawn, the surface keeps the rest of the last frame. It
+      // may grow the dirty rect, e.g. to the whole surface if it can't keep the last frame.
+      Canvas canvas = mSurface.lockCanvas(dirtyRect);
+      synchronized (this) {
+        mMaxLayerBytes = (long) canvas.getWidth() * canvas.getHeight() * 4;
+      }
       canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
       if (mBackgroundColor != null) {
         canvas.drawColor(mBackgroundColor);
@@ -74,20 +113,135 @@ public class ARTSurfaceViewShadowNode extends LayoutShadowNode
       for (int i = 0; i < getChildCount(); i++) {
         ARTVirtualNode child = (ARTVirtualNode) getChildAt(i);
         child.draw(canvas, paint, 1f);
-        if (markAsUpdated) {
-          child.markUpdated();
-        } else {
-          child.markUpdateSeen();
-        }
+        markChildUpdated(child, markAsUpdated);
       }
 
       if (mSurface == null) {
         return;
       }
       mSurface.unlockCanvasAndPost(canvas);
+      recordFrame(canvas, dirtyRect, System.nanoTime() - startTime);
     } catch (IllegalArgumentException | IllegalStateException e) {
       FLog.e(ReactConstants.TAG, e.getClass().getSimpleName() + " in Surface.unlockCanvasAndPost");
+      mNeedsFullRedraw = true;
+    } finally {
+      Systrace.endSection(Systrace.TRACE_TAG_REACT_VIEW);
+    }
+  }
+
+  private static void markChildUpdated(ReactShadowNode child, boolean markAsUpdated) {
+    if (markAsUpdated) {
+      child.markUpdated();
+    } else {
+      child.markUpdateSeen();
+    }
+  }
+
+  /**
+   * Returns the part of the surface that changed since the last frame, or null if the whole surface
+   * has to be drawn.
+   */
+  @VisibleForTesting
+  /* package */ @Nullable Rect getDirtyRect() {
+    if (!ReactFeatureFlags.enableARTDirtyRegions) {
+      return null;
+    }
+    boolean isRegionComplete = !mNeedsFullRedraw && mIsRemovedChildrenBoundsComplete;
+    mNeedsFullRedraw = false;
+    mIsRemovedChildrenBoundsComplete = true;
+    mDirtyRegion.set(mRemovedChildrenBounds);
+    mRemovedChildrenBounds.setEmpty();
+    // Bounds are updated for all nodes, even if the whole surface is drawn anyway
+    for (int i = 0; i < getChildCount(); i++) {
+      ARTVirtualNode child = (ARTVirtualNode) getChildAt(i);
+      if (!child.collectDirtyRegion(mSurfaceMatrix, mDirtyRegion)) {
+        isRegionComplete = false;
+      }
+    }
+    if (!isRegionComplete) {
+      return null;
+    }
+    mDirtyRegion.roundOut(mDirtyRect);
+    return mDirtyRect;
+  }
+
+  /**
+   * Reserves the memory of a group layer. All the layers of the surface together take at most as
+   * much memory as the surface itself, other groups are drawn normally.
+   *
+   * @return false if the layer doesn't fit in the budget and shouldn't be created
+   */
+  /* package */ synchronized boolean reserveLayerBytes(long bytes) {
+    if (mLayerBytes + bytes > mMaxLayerBytes) {
+      return false;
     }
+    mLayerBytes += bytes;
+    return true;
+  }
+
+  /** Returns the memory of a layer reserved with {@link #reserveLayerBytes}. */
+  /* package */ synchronized void releaseLayerBytes(long bytes) {
+    mLayerBytes = Math.max(0, mLayerBytes - bytes);
+  }
+
+  private void releaseLayers() {
+    for (int i = 0; i < getChildCount(); i++) {
+      if (getChildAt(i) instanceof ARTGroupShadowNode) {
+        ((ARTGroupShadowNode) getChildAt(i)).releaseLayers();
+      }
+    }
+  }
+
+  private void recordFrame(Canvas canvas, @Nullable Rect dirtyRect, long drawTimeNs) {
+    long surfacePixels = (long) canvas.getWidth() * canvas.getHeight();
+    long redrawnPixels = surfacePixels;
+    if (dirtyRect != null) {
+      Rect redrawnRect = new Rect(dirtyRect);
+      if (redrawnRect.intersect(0, 0, canvas.getWidth(), canvas.getHeight())) {
+        redrawnPixels = (long) redrawnRect.width() * redrawnRect.height();
+      } else {
+        redrawnPixels = 0;
+      }
+      if (redrawnPixels < surfacePixels) {
+        mDrawStats.partialFrameCount++;
+      }
+    }
+    mDrawStats.frameCount++;
+    mDrawStats.redrawnPixels += redrawnPixels;
+    mDrawStats.surfacePixels += surfacePixels;
+    mDrawStats.lastDrawTimeNs = drawTimeNs;
+    mDrawStats.maxDrawTimeNs = Math.max(mDrawStats.maxDrawTimeNs, drawTimeNs);
+    mDrawStats.totalDrawTimeNs += drawTimeNs;
+    Systrace.traceCounter(
+        Systrace.TRACE_TAG_REACT_VIEW,
+        "ARTSurfaceViewShadowNode.redrawnPercent",
+        surfacePixels > 0 ? (int) (redrawnPixels * 100 / surfacePixels) : 0);
+  }
+
+  /** Returns the frame counts and times of this surface since it was created. */
+  public ARTSurfaceDrawStats getDrawStats() {
+    ARTSurfaceDrawStats stats = new ARTSurfaceDrawStats();
+    stats.frameCount = mDrawStats.frameCount;
+    stats.partialFrameCount = mDrawStats.partialFrameCount;
+    stats.skippedFrameCount = mDrawStats.skippedFrameCount;
+    stats.redrawnPixels = mDrawStats.redrawnPixels;
+    stats.surfacePixels = mDrawStats.surfacePixels;
+    stats.lastDrawTimeNs = mDrawStats.lastDrawTimeNs;
+    stats.maxDrawTimeNs = mDrawStats.maxDrawTimeNs;
+    stats.totalDrawTimeNs = mDrawStats.totalDrawTimeNs;
+    return stats;
+  }
+
+  @Override
+  public ReactShadowNodeImpl removeChildAt(int i) {
+    ReactShadowNodeImpl removed = super.removeChildAt(i);
+    if (!((ARTVirtualNode) removed).addSurfaceBounds(mRemovedChildrenBounds)) {
+      mIsRemovedChildrenBoundsComplete = false;
+    }
+    if (removed instanceof ARTGroupShadowNode) {
+      ((ARTGroupShadowNode) removed).releaseLayers();
+    }
+    return removed;
   }
 
   public void setupSurfaceTextureListener(ARTSurfaceView surfaceView) {
@@ -95,6 +249,7 @@ public class ARTSurfaceViewShadowNode extends LayoutShadowNode
     surfaceView.setSurfaceTextureListener(this);
     if (surface != null && mSurface == null) {
       mSurface = new Surface(surface);
+      mNeedsFullRedraw = true;
       drawOutput(true);
     }
   }
@@ -118,6 +273,7 @@ public class ARTSurfaceViewShadowNode extends LayoutShadowNode
   @Override
   public void dispose() {
     super.dispose();
+    releaseLayers();
     if (Build.VERSION.SDK_INT > Build.VERSION_CODES.N) {
       getThemedContext().removeLifecycleEventListener(this);
     }
@@ -125,6 +281,7 @@ public class ARTSurfaceViewShadowNode extends LayoutShadowNode
 
   @Override
   public void onHostResume() {
+    mNeedsFullRedraw = true;
     drawOutput(false);
   }
 
@@ -137,6 +294,7 @@ public class ARTSurfaceViewShadowNode extends LayoutShadowNode
   @Override
   public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
     mSurface = new Surface(surface);
+    mNeedsFullRedraw = true;
     drawOutput(false);
   }
 
@@ -144,11 +302,15 @@ public class ARTSurfaceViewShadowNode extends LayoutShadowNode
   public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
     mSurface.release();
     mSurface = null;
+    // The layers are drawn again for the next surface texture, if there's one
+    releaseLayers();
     return true;
   }
 
   @Override
-  public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {}
+  public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
+    mNeedsFullRedraw = true;
+  }
 
   @Override
   public void onSurfaceTextureUpdated(SurfaceTexture surface) {}
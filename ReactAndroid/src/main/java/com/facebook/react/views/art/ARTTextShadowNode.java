@@ -8,7 +8,9 @@
 package com.facebook.react.views.art;
 
 import android.graphics.Canvas;
+import android.graphics.Matrix;
 import android.graphics.Paint;
+import android.graphics.RectF;
 import android.graphics.Typeface;
 import android.text.TextUtils;
 import androidx.annotation.Nullable;
@@ -41,11 +43,20 @@ public class ARTTextShadowNode extends ARTShapeShadowNode {
   @ReactProp(name = "frame")
   public void setFrame(@Nullable ReadableMap frame) {
     mFrame = frame;
+    markChanged();
   }
 
   @ReactProp(name = "alignment", defaultInt = TEXT_ALIGNMENT_LEFT)
   public void setAlignment(int alignment) {
     mTextAlignment = alignment;
+    markChanged();
+  }
+
+  @Override
+  protected boolean computeSurfaceBounds(Matrix matrix, RectF bounds) {
+    // Measuring the text isn't worth it, text is redrawn with the whole surface
+    bounds.setEmpty();
+    return false;
   }
 
   @Override
@@ -10,6 +10,7 @@ package com.facebook.react.views.art;
 import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.Paint;
+import android.graphics.RectF;
 import androidx.annotation.Nullable;
 import com.facebook.react.bridge.JSApplicationIllegalArgumentException;
 import com.facebook.react.bridge.ReadableArray;
@@ -33,6 +34,12 @@ public abstract class ARTVirtualNode extends ReactShadowNodeImpl {
 
   protected final float mScale;
 
+  // Where the node was drawn last, in the coordinates of the surface, see collectDirtyRegion
+  private final Matrix mSurfaceMatrix = new Matrix();
+  private final RectF mSurfaceBounds = new RectF();
+  private boolean mHasSurfaceBounds = true;
+  private boolean mHasChanged = true;
+
   public ARTVirtualNode() {
     mScale = DisplayMetricsHolder.getWindowDisplayMetrics().density;
   }
@@ -70,10 +77,105 @@ public abstract class ARTVirtualNode extends ReactShadowNodeImpl {
     canvas.restore();
   }
 
+  /**
+   * Marks that the node needs to be drawn again, because a prop that changes how it looks changed.
+   * Unlike {@link #markUpdated}, which is also called for the ancestors of the node, this makes the
+   * area covered by the node before and after the change be redrawn.
+   */
+  protected final void markChanged() {
+    mHasChanged = true;
+    markUpdated();
+  }
+
+  /**
+   * Updates where the node and its children are drawn on the surface, and adds the area that has to
+   * be redrawn because of the nodes that changed to the dirty region.
+   *
+   * @param parentMatrix the transform from the coordinates of the parent to those of the surface
+   * @param dirtyRegion the region to add the area that has to be redrawn to
+   * @return false if a node that changed can't tell where it's drawn, in which case the whole
+   *     surface has to be redrawn
+   */
+  /* package */ boolean collectDirtyRegion(Matrix parentMatrix, RectF dirtyRegion) {
+    mSurfaceMatrix.set(parentMatrix);
+    if (mMatrix != null) {
+      mSurfaceMatrix.preConcat(mMatrix);
+    }
+    boolean hasChanged = mHasChanged;
+    mHasChanged = false;
+    boolean isRegionComplete = true;
+    // Clear where the node was drawn, a node that wasn't drawn yet has empty bounds
+    if (hasChanged && !addSurfaceBounds(dirtyRegion)) {
+      isRegionComplete = false;
+    }
+    if (!collectChildrenDirtyRegion(mSurfaceMatrix, dirtyRegion)) {
+      isRegionComplete = false;
+    }
+    mHasSurfaceBounds = computeSurfaceBounds(mSurfaceMatrix, mSurfaceBounds);
+    // And draw where it's drawn now
+    if (hasChanged && !addSurfaceBounds(dirtyRegion)) {
+      isRegionComplete = false;
+    }
+    return isRegionComplete;
+  }
+
+  /**
+   * Adds the bounds computed by the last {@link #collectDirtyRegion} to the dirty region, e.g.
+   * when the node is removed. Returns false if the node doesn't know where it's drawn.
+   */
+  /* package */ boolean addSurfaceBounds(RectF dirtyRegion) {
+    if (!mHasSurfaceBounds) {
+      return false;
+    }
+    dirtyRegion.union(mSurfaceBounds);
+    return true;
+  }
+
+  /**
+   * Maps the bounds computed by the last {@link #collectDirtyRegion} to the device coordinates of a
+   * canvas, which doesn't have to be the surface's. Returns false if the node doesn't know where
+   * it's drawn.
+   *
+   * @param canvasMatrix the matrix of the canvas, set up to draw the parent of the node
+   */
+  /* package */ boolean getCanvasBounds(Matrix canvasMatrix, RectF bounds) {
+    Matrix surfaceToCanvas = new Matrix();
+    if (!mHasSurfaceBounds || !mSurfaceMatrix.invert(surfaceToCanvas)) {
+      return false;
+    }
+    if (mMatrix != null) {
+      surfaceToCanvas.postConcat(mMatrix);
+    }
+    surfaceToCanvas.postConcat(canvasMatrix);
+    surfaceToCanvas.mapRect(bounds, mSurfaceBounds);
+    return true;
+  }
+
+  /**
+   * Collects the dirty region of the children of the node, see {@link #collectDirtyRegion}.
+   *
+   * @param matrix the transform from the coordinates of this node to those of the surface
+   */
+  protected boolean collectChildrenDirtyRegion(Matrix matrix, RectF dirtyRegion) {
+    return true;
+  }
+
+  /**
+   * Computes the bounds of what the node draws, in the coordinates of the surface. Nodes that can't
+   * tell, which is the default, return false and are redrawn with the whole surface.
+   *
+   * @param matrix the transform from the coordinates of this node to those of the surface
+   * @param bounds the rect to set to the bounds
+   */
+  protected boolean computeSurfaceBounds(Matrix matrix, RectF bounds) {
+    bounds.setEmpty();
+    return false;
+  }
+
   @ReactProp(name = "opacity", defaultFloat = 1f)
   public void setOpacity(float opacity) {
     mOpacity = opacity;
-    markUpdated();
+    markChanged();
   }
 
   @ReactProp(name = "transform")
@@ -88,7 +190,7 @@ public abstract class ARTVirtualNode extends ReactShadowNodeImpl {
     } else {
       mMatrix = null;
     }
-    markUpdated();
+    markChanged();
   }
 
   protected void setupMatrix() {
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.image;
+
+import android.util.SparseArray;
+import androidx.annotation.Nullable;
+import com.facebook.imagepipeline.common.ResizeOptions;
+import com.facebook.react.modules.fresco.BitmapMemoryCacheStats;
+import com.facebook.react.modules.fresco.FrescoModule;
+
+/**
+ * Decides the size images are decoded at when they are resized to their view, and keeps track of
+ * how that compares to the size they are displayed at.
+ *
+ * <p>Sizes are rounded up to buckets, so that views of slightly different sizes share decoded
+ * bitmaps. When the decoded bitmaps in use exceed {@link #setMaxDecodedBytes the budget}, newly
+ * requested images are decoded at a proportionally smaller size.
+ */
+public class ImageDecodeBudget {
+
+  /** Images are never decoded smaller than this fraction of their view's size. */
+  private static final float MIN_PRESSURE_SCALE = 0.25f;
+
+  private static long sMaxDecodedBytes = Runtime.getRuntime().maxMemory() / 8;
+
+  private static final SparseArray<ImagePixelStats> sPixelStats = new SparseArray<>();
+
+  private ImageDecodeBudget() {}
+
+  /**
+   * Sets how many bytes the decoded bitmaps in use may take before images are decoded smaller than
+   * their view. Defaults to an eighth of the maximum heap size.
+   */
+  public static synchronized void setMaxDecodedBytes(long maxDecodedBytes) {
+    sMaxDecodedBytes = maxDecodedBytes;
+  }
+
+  public static synchronized long getMaxDecodedBytes() {
+    return sMaxDecodedBytes;
+  }
+
+  /**
+   * Returns the pixel counts of the images shown by the given root view since it started or since
+   * {@link #clearPixelStats} was called for it, or null if it didn't show any. The counts of a root
+   * view are dropped once it's removed.
+   */
+  public static synchronized @Nullable ImagePixelStats getPixelStats(int rootViewTag) {
+    ImagePixelStats stats = sPixelStats.get(rootViewTag);
+    if (stats == null) {
+      return null;
+    }
+    ImagePixelStats copy = new ImagePixelStats();
+    copy.imageCount = stats.imageCount;
+    copy.decodedPixels = stats.decodedPixels;
+    copy.displayedPixels = stats.displayedPixels;
+    return copy;
+  }
+
+  /** Drops the pixel counts of the given root view. Called when the root view is removed. */
+  public static synchronized void clearPixelStats(int rootViewTag) {
+    sPixelStats.remove(rootViewTag);
+  }
+
+  /* package */ static synchronized void recordImage(
+      int rootViewTag, int decodedWidth, int decodedHeight, int viewWidth, int viewHeight) {
+    ImagePixelStats stats = sPixelStats.get(rootViewTag);
+    if (stats == null) {
+      stats = new ImagePixelStats();
+      sPixelStats.put(rootViewTag, stats);
+    }
+    stats.imageCount++;
+    stats.decodedPixels += (long) decodedWidth * decodedHeight;
+    stats.displayedPixels += (long) viewWidth * viewHeight;
+  }
+
+  /** Returns the size to decode an image shown in a view of the given size at. */
+  /* package */ static ResizeOptions getResizeOptions(int viewWidth, int viewHeight) {
+    float scale = getPressureScale();
+    return new ResizeOptions(
+        getBucketSize(Math.max(1, (int) (viewWidth * scale))),
+        getBucketSize(Math.max(1, (int) (viewHeight * scale))));
+  }
+
+  /**
+   * Rounds a size up to the next power of two, or one and a half times a power of two, so that a
+   * bucket is less than one and a half times the size asked for.
+   */
+  /* package */ static int getBucketSize(int size) {
+    int powerOfTwo = Integer.highestOneBit(size);
+    if (powerOfTwo == size) {
+      return size;
+    }
+    int oneAndAHalf = powerOfTwo + (powerOfTwo >> 1);
+    return size <= oneAndAHalf ? oneAndAHalf : powerOfTwo << 1;
+  }
+
+  private static float getPressureScale() {
+    BitmapMemoryCacheStats cacheStats = FrescoModule.getBitmapMemoryCacheStats();
+    long maxDecodedBytes = getMaxDecodedBytes();
+    if (cacheStats == null || cacheStats.inUseSizeInBytes <= maxDecodedBytes) {
+      return 1f;
+    }
+    // Decoded bytes grow with the square of the size
+    float scale = (float) Math.sqrt((double) maxDecodedBytes / cacheStats.inUseSizeInBytes);
+    return Math.max(scale, MIN_PRESSURE_SCALE);
+  }
+}
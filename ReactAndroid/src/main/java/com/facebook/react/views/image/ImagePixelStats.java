@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.image;
+
+/**
+ * How many pixels the images of a screen were decoded with, compared to how many pixels they are
+ * displayed on, see {@link ImageDecodeBudget#getPixelStats}.
+ */
+public class ImagePixelStats {
+  /** Number of images set on the screen's image views. */
+  public int imageCount;
+  /** Sum of the decoded width times height of the images. */
+  public long decodedPixels;
+  /** Sum of the width times height of the views showing the images. */
+  public long displayedPixels;
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.image;
+
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.widget.HorizontalScrollView;
+import android.widget.ScrollView;
+import androidx.annotation.Nullable;
+
+/** Tells where a view is relative to the viewport of the nearest scroll view containing it. */
+/* package */ class ImageViewport {
+
+  /** The view is at least partly inside the viewport, or isn't in a scroll view. */
+  /* package */ static final int VISIBLE = 0;
+  /** The view is less than a viewport away from being visible. */
+  /* package */ static final int NEAR = 1;
+  /** The view is further away. */
+  /* package */ static final int FAR = 2;
+
+  private static final Rect sViewRect = new Rect();
+
+  private ImageViewport() {}
+
+  /** Returns {@link #VISIBLE}, {@link #NEAR} or {@link #FAR}. Must be called on the UI thread. */
+  /* package */ static int getZone(View view) {
+    ViewGroup scrollView = findScrollView(view);
+    if (scrollView == null) {
+      return VISIBLE;
+    }
+
+    sViewRect.set(0, 0, view.getWidth(), view.getHeight());
+    scrollView.offsetDescendantRectToMyCoords(view, sViewRect);
+
+    int viewportLeft = scrollView.getScrollX();
+    int viewportTop = scrollView.getScrollY();
+    int viewportWidth = scrollView.getWidth();
+    int viewportHeight = scrollView.getHeight();
+    int horizontalGap =
+        Math.max(viewportLeft - sViewRect.right, sViewRect.left - (viewportLeft + viewportWidth));
+    int verticalGap =
+        Math.max(viewportTop - sViewRect.bottom, sViewRect.top - (viewportTop + viewportHeight));
+
+    if (horizontalGap < 0 && verticalGap < 0) {
+      return VISIBLE;
+    }
+    if (horizontalGap <= viewportWidth && verticalGap <= viewportHeight) {
+      return NEAR;
+    }
+    return FAR;
+  }
+
+  private static @Nullable ViewGroup findScrollView(View view) {
+    ViewParent parent = view.getParent();
+    while (parent instanceof ViewGroup) {
+      if (parent instanceof ScrollView || parent instanceof HorizontalScrollView) {
+        return (ViewGroup) parent;
+      }
+      parent = parent.getParent();
+    }
+    return null;
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.image;
+
+import androidx.annotation.Nullable;
+import com.facebook.imagepipeline.common.Priority;
+
+/**
+ * Decides when an image view defers, starts or cancels the load of its image, depending on the
+ * {@link ImageViewport} zone of the view.
+ */
+/* package */ class ImageViewportLoadState {
+
+  /* package */ static final int ACTION_NONE = 0;
+  /** The view should build its request now. */
+  /* package */ static final int ACTION_LOAD = 1;
+  /** The view should release its controller, which cancels its request. */
+  /* package */ static final int ACTION_CANCEL = 2;
+
+  private boolean mIsLoading;
+  private boolean mIsWaitingForViewport;
+
+  /**
+   * Called when the view is about to build its request.
+   *
+   * @param zone the zone of the view, {@link ImageViewport#FAR} if it isn't placed yet
+   * @return the priority of the request, or null if the request should wait until the view gets
+   *     near the viewport
+   */
+  /* package */ @Nullable Priority onLoadRequested(int zone) {
+    mIsWaitingForViewport = zone == ImageViewport.FAR;
+    if (mIsWaitingForViewport) {
+      return null;
+    }
+    return zone == ImageViewport.VISIBLE ? Priority.HIGH : Priority.MEDIUM;
+  }
+
+  /** Called when the request of the view was submitted. */
+  /* package */ void onLoadStarted() {
+    mIsLoading = true;
+  }
+
+  /** Called when the request finished, failed or was released. */
+  /* package */ void onLoadFinished() {
+    mIsLoading = false;
+  }
+
+  /**
+   * Called when the view may have moved relative to the viewport, after a scroll or a layout.
+   *
+   * @return {@link #ACTION_NONE}, {@link #ACTION_LOAD} or {@link #ACTION_CANCEL}
+   */
+  /* package */ int onViewportChanged(int zone) {
+    if (mIsWaitingForViewport) {
+      return zone != ImageViewport.FAR ? ACTION_LOAD : ACTION_NONE;
+    }
+    if (mIsLoading && zone == ImageViewport.FAR) {
+      // A new request is built once the view is back near the viewport
+      mIsLoading = false;
+      mIsWaitingForViewport = true;
+      return ACTION_CANCEL;
+    }
+    return ACTION_NONE;
+  }
+
+  /* package */ boolean isWaitingForViewport() {
+    return mIsWaitingForViewport;
+  }
+
+  /** Scrolls can start a deferred load or cancel a running one. */
+  /* package */ boolean shouldObserveScroll() {
+    return mIsWaitingForViewport || mIsLoading;
+  }
+
+  /**
+   * Layouts of other views, e.g. content inserted above the view, can move a deferred view into the
+   * viewport without laying it out again.
+   */
+  /* package */ boolean shouldObserveLayout() {
+    return mIsWaitingForViewport;
+  }
+}
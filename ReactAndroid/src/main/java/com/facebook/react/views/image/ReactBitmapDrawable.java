@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.image;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.drawable.Drawable;
+import androidx.annotation.Nullable;
+import com.facebook.drawee.drawable.DrawableUtils;
+import com.facebook.drawee.drawable.TransformAwareDrawable;
+import com.facebook.drawee.drawable.TransformCallback;
+
+/**
+ * Draws a decoded bitmap with rounded corners and, optionally, repeated to fill the view, without
+ * copying it. Rounding is done in the coordinates of the drawee hierarchy's root, so the radii are
+ * those of the view and the corners follow the part of the view the image actually covers, e.g.
+ * the letterboxed rect of a 'contain' image.
+ */
+/* package */ class ReactBitmapDrawable extends Drawable implements TransformAwareDrawable {
+
+  private final Bitmap mBitmap;
+  private final BitmapShader mShader;
+  private final Paint mPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+  private final Paint mBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private final float[] mRadii = new float[8];
+  private final float[] mBorderRadii = new float[8];
+  private final boolean mIsTiled;
+  private final int mBorderColor;
+  private final float mBorderWidth;
+
+  private final Matrix mParentTransform = new Matrix();
+  private final Matrix mPrevParentTransform = new Matrix();
+  private final Matrix mInverseParentTransform = new Matrix();
+  private final Matrix mShaderMatrix = new Matrix();
+  private final RectF mRootBounds = new RectF();
+  private final RectF mPrevRootBounds = new RectF();
+  private final RectF mBitmapRect = new RectF();
+  private final RectF mBoundsRect = new RectF();
+  private final RectF mDrawRect = new RectF();
+  private final RectF mBorderRect = new RectF();
+  private final Path mPath = new Path();
+  private final Path mBorderPath = new Path();
+
+  private @Nullable TransformCallback mTransformCallback;
+  private boolean mIsPathDirty = true;
+  private boolean mIsInvertible;
+
+  /**
+   * @param cornerRadii the top left, top right, bottom right and bottom left radii, in pixels of
+   *     the view
+   * @param tileMode how the bitmap fills the view outside of its bounds, {@link
+   *     Shader.TileMode#CLAMP} to draw it once
+   */
+  /* package */ ReactBitmapDrawable(
+      Bitmap bitmap,
+      float[] cornerRadii,
+      Shader.TileMode tileMode,
+      int borderColor,
+      float borderWidth) {
+    mBitmap = bitmap;
+    mShader = new BitmapShader(bitmap, tileMode, tileMode);
+    mPaint.setShader(mShader);
+    mIsTiled = tileMode != Shader.TileMode.CLAMP;
+    for (int i = 0; i < 4; i++) {
+      mRadii[i * 2] = mRadii[i * 2 + 1] = cornerRadii[i];
+      mBorderRadii[i * 2] = mBorderRadii[i * 2 + 1] = Math.max(cornerRadii[i] - borderWidth / 2, 0);
+    }
+    mBorderColor = borderColor;
+    mBorderWidth = borderWidth;
+    mBorderPaint.setStyle(Paint.Style.STROKE);
+    mBorderPaint.setStrokeWidth(borderWidth);
+    mBorderPaint.setColor(borderColor);
+    mBitmapRect.set(0, 0, bitmap.getWidth(), bitmap.getHeight());
+  }
+
+  @Override
+  public void setTransformCallback(@Nullable TransformCallback transformCallback) {
+    mTransformCallback = transformCallback;
+  }
+
+  @Override
+  public void draw(Canvas canvas) {
+    updatePath();
+    if (!mIsInvertible) {
+      return;
+    }
+    int saveCount = canvas.save();
+    canvas.concat(mInverseParentTransform);
+    canvas.drawPath(mPath, mPaint);
+    if (mBorderWidth > 0) {
+      canvas.drawPath(mBorderPath, mBorderPaint);
+    }
+    canvas.restoreToCount(saveCount);
+  }
+
+  /** Returns the rect the bitmap is drawn into, in the coordinates of the hierarchy's root. */
+  /* package */ RectF getDrawRect() {
+    updatePath();
+    return mDrawRect;
+  }
+
+  private void updatePath() {
+    if (mTransformCallback != null) {
+      mTransformCallback.getTransform(mParentTransform);
+      mTransformCallback.getRootBounds(mRootBounds);
+    } else {
+      mParentTransform.reset();
+      mRootBounds.set(getBounds());
+    }
+    if (!mIsPathDirty
+        && mParentTransform.equals(mPrevParentTransform)
+        && mRootBounds.equals(mPrevRootBounds)) {
+      return;
+    }
+    mIsPathDirty = false;
+    mPrevParentTransform.set(mParentTransform);
+    mPrevRootBounds.set(mRootBounds);
+    mIsInvertible = mParentTransform.invert(mInverseParentTransform);
+
+    mBoundsRect.set(getBounds());
+    mShaderMatrix.setRectToRect(mBitmapRect, mBoundsRect, Matrix.ScaleToFit.FILL);
+    mShaderMatrix.postConcat(mParentTransform);
+    mShader.setLocalMatrix(mShaderMatrix);
+
+    if (mIsTiled) {
+      mDrawRect.set(mRootBounds);
+    } else {
+      mParentTransform.mapRect(mDrawRect, mBoundsRect);
+      if (!mDrawRect.intersect(mRootBounds)) {
+        mDrawRect.setEmpty();
+      }
+    }
+    mPath.reset();
+    mPath.addRoundRect(mDrawRect, mRadii, Path.Direction.CW);
+
+    if (mBorderWidth > 0) {
+      mBorderRect.set(mRootBounds);
+      mBorderRect.inset(mBorderWidth / 2, mBorderWidth / 2);
+      mBorderPath.reset();
+      mBorderPath.addRoundRect(mBorderRect, mBorderRadii, Path.Direction.CW);
+    }
+  }
+
+  @Override
+  protected void onBoundsChange(Rect bounds) {
+    super.onBoundsChange(bounds);
+    mIsPathDirty = true;
+  }
+
+  @Override
+  public int getIntrinsicWidth() {
+    return mBitmap.getWidth();
+  }
+
+  @Override
+  public int getIntrinsicHeight() {
+    return mBitmap.getHeight();
+  }
+
+  @Override
+  public void setAlpha(int alpha) {
+    if (alpha != mPaint.getAlpha()) {
+      mPaint.setAlpha(alpha);
+      mBorderPaint.setColor(DrawableUtils.multiplyColorAlpha(mBorderColor, alpha));
+      invalidateSelf();
+    }
+  }
+
+  @Override
+  public int getAlpha() {
+    return mPaint.getAlpha();
+  }
+
+  @Override
+  public void setColorFilter(@Nullable ColorFilter colorFilter) {
+    mPaint.setColorFilter(colorFilter);
+    invalidateSelf();
+  }
+
+  @Override
+  public int getOpacity() {
+    return PixelFormat.TRANSLUCENT;
+  }
+}
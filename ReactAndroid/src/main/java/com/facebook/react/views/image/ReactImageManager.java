@@ -16,10 +16,13 @@ import com.facebook.react.bridge.JSApplicationIllegalArgumentException;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.common.MapBuilder;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.module.annotations.ReactModule;
+import com.facebook.react.uimanager.OnRootViewRemovedListener;
 import com.facebook.react.uimanager.PixelUtil;
 import com.facebook.react.uimanager.SimpleViewManager;
 import com.facebook.react.uimanager.ThemedReactContext;
+import com.facebook.react.uimanager.UIManagerModule;
 import com.facebook.react.uimanager.ViewProps;
 import com.facebook.react.uimanager.annotations.ReactProp;
 import com.facebook.react.uimanager.annotations.ReactPropGroup;
@@ -40,6 +43,15 @@ public class ReactImageManager extends SimpleViewManager<ReactImageView> {
   private @Nullable GlobalImageLoadListener mGlobalImageLoadListener;
   private final @Nullable Object mCallerContext;
   private final @Nullable ReactCallerContextFactory mCallerContextFactory;
+  private boolean mIsClearingPixelStats;
+
+  private static final OnRootViewRemovedListener CLEAR_PIXEL_STATS_LISTENER =
+      new OnRootViewRemovedListener() {
+        @Override
+        public void onRootViewRemoved(int rootViewTag) {
+          ImageDecodeBudget.clearPixelStats(rootViewTag);
+        }
+      };
 
   /**
    * @deprecated use {@link ReactImageManager#ReactImageManager(AbstractDraweeControllerBuilder,
@@ -105,6 +117,16 @@ public class ReactImageManager extends SimpleViewManager<ReactImageView> {
 
   @Override
   public ReactImageView createViewInstance(ThemedReactContext context) {
+    if (ReactFeatureFlags.enableSizeAwareImageDecoding
+        && !mIsClearingPixelStats
+        && context.hasActiveCatalystInstance()) {
+      // The pixel stats of a root view are kept until it's removed
+      UIManagerModule uiManager = context.getNativeModule(UIManagerModule.class);
+      if (uiManager != null) {
+        uiManager.addOnRootViewRemovedListener(CLEAR_PIXEL_STATS_LISTENER);
+        mIsClearingPixelStats = true;
+      }
+    }
     Object callerContext =
         mCallerContextFactory != null
             ? mCallerContextFactory.getOrCreateCallerContext(context)
@@ -20,16 +20,23 @@ import android.graphics.RectF;
 import android.graphics.Shader;
 import android.graphics.drawable.Animatable;
 import android.graphics.drawable.Drawable;
+import android.media.ExifInterface;
 import android.net.Uri;
+import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.Toast;
 import androidx.annotation.Nullable;
+import androidx.core.view.ViewCompat;
 import com.facebook.common.references.CloseableReference;
+import com.facebook.common.internal.ImmutableList;
 import com.facebook.common.util.UriUtil;
+import com.facebook.drawee.backends.pipeline.PipelineDraweeControllerBuilder;
 import com.facebook.drawee.controller.AbstractDraweeControllerBuilder;
 import com.facebook.drawee.controller.BaseControllerListener;
 import com.facebook.drawee.controller.ControllerListener;
 import com.facebook.drawee.controller.ForwardingControllerListener;
 import com.facebook.drawee.drawable.AutoRotateDrawable;
+import com.facebook.drawee.drawable.OrientedDrawable;
 import com.facebook.drawee.drawable.RoundedColorDrawable;
 import com.facebook.drawee.drawable.ScalingUtils;
 import com.facebook.drawee.generic.GenericDraweeHierarchy;
@@ -37,7 +44,12 @@ import com.facebook.drawee.generic.GenericDraweeHierarchyBuilder;
 import com.facebook.drawee.generic.RoundingParams;
 import com.facebook.drawee.view.GenericDraweeView;
 import com.facebook.imagepipeline.bitmaps.PlatformBitmapFactory;
+import com.facebook.imagepipeline.common.Priority;
 import com.facebook.imagepipeline.common.ResizeOptions;
+import com.facebook.imagepipeline.drawable.DrawableFactory;
+import com.facebook.imagepipeline.image.CloseableImage;
+import com.facebook.imagepipeline.image.CloseableStaticBitmap;
+import com.facebook.imagepipeline.image.EncodedImage;
 import com.facebook.imagepipeline.image.ImageInfo;
 import com.facebook.imagepipeline.postprocessors.IterativeBoxBlurPostProcessor;
 import com.facebook.imagepipeline.request.BasePostprocessor;
@@ -48,9 +60,12 @@ import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.common.build.ReactBuildConfig;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.modules.fresco.ReactNetworkImageRequest;
 import com.facebook.react.uimanager.FloatUtil;
 import com.facebook.react.uimanager.PixelUtil;
+import com.facebook.react.uimanager.RootView;
+import com.facebook.react.uimanager.RootViewUtil;
 import com.facebook.react.uimanager.UIManagerHelper;
 import com.facebook.react.uimanager.events.EventDispatcher;
 import com.facebook.react.views.imagehelper.ImageSource;
@@ -85,6 +100,11 @@ public class ReactImageView extends GenericDraweeView {
    * So for the other modes, we use a postprocessor.
    * Because the postprocessor uses a modified bitmap, that would just get cropped in
    * 'cover' mode, so we fall back to Fresco's normal implementation.
+   *
+   * With ReactFeatureFlags.enableDrawTimeImageShaping, the other modes and repeated images are
+   * instead drawn by a ReactBitmapDrawable, which rounds and tiles the shared decoded bitmap while
+   * drawing it. The postprocessors are then only used for pipelines we can't give a
+   * DrawableFactory to.
    */
   private static final Matrix sMatrix = new Matrix();
   private static final Matrix sInverse = new Matrix();
@@ -174,6 +194,44 @@ public class ReactImageView extends GenericDraweeView {
     }
   }
 
+  /**
+   * Draws static bitmaps with a ReactBitmapDrawable, using the radii, border and tile mode of this
+   * view when the image is set.
+   */
+  private class ShapingDrawableFactory implements DrawableFactory {
+    @Override
+    public boolean supportsImageType(CloseableImage image) {
+      return image instanceof CloseableStaticBitmap;
+    }
+
+    @Override
+    public @Nullable Drawable createDrawable(CloseableImage image) {
+      CloseableStaticBitmap staticBitmap = (CloseableStaticBitmap) image;
+      cornerRadii(sComputedCornerRadii);
+      // With an overlay color, Fresco draws the border around the whole hierarchy
+      boolean drawBorder = mOverlayColor == Color.TRANSPARENT;
+      Drawable drawable =
+          new ReactBitmapDrawable(
+              staticBitmap.getUnderlyingBitmap(),
+              sComputedCornerRadii,
+              mTileMode,
+              mBorderColor,
+              drawBorder ? mBorderWidth : 0);
+
+      int rotationAngle = staticBitmap.getRotationAngle();
+      int exifOrientation = staticBitmap.getExifOrientation();
+      boolean isRotated =
+          rotationAngle != 0 && rotationAngle != EncodedImage.UNKNOWN_ROTATION_ANGLE;
+      boolean isExifTransformed =
+          exifOrientation != ExifInterface.ORIENTATION_NORMAL
+              && exifOrientation != ExifInterface.ORIENTATION_UNDEFINED;
+      if (isRotated || isExifTransformed) {
+        return new OrientedDrawable(drawable, rotationAngle, exifOrientation);
+      }
+      return drawable;
+    }
+  }
+
   private final List<ImageSource> mSources;
 
   private @Nullable ImageSource mImageSource;
@@ -193,9 +251,19 @@ public class ReactImageView extends GenericDraweeView {
   private final AbstractDraweeControllerBuilder mDraweeControllerBuilder;
   private final RoundedCornerPostprocessor mRoundedCornerPostprocessor;
   private final TilePostprocessor mTilePostprocessor;
+  private final ShapingDrawableFactory mShapingDrawableFactory;
   private @Nullable IterativeBoxBlurPostProcessor mIterativeBoxBlurPostProcessor;
   private @Nullable ControllerListener mControllerListener;
   private @Nullable ControllerListener mControllerForTesting;
+  private final ControllerListener mPixelStatsListener;
+  private @Nullable ResizeOptions mResizeOptions;
+  private final ControllerListener mLoadStateListener;
+  private final ViewTreeObserver.OnScrollChangedListener mScrollChangedListener;
+  private final ViewTreeObserver.OnGlobalLayoutListener mGlobalLayoutListener;
+  private final ImageViewportLoadState mViewportLoadState = new ImageViewportLoadState();
+  private boolean mIsObservingScroll;
+  private boolean mIsObservingLayout;
+  private boolean mHasBeenLaidOut;
   private @Nullable GlobalImageLoadListener mGlobalImageLoadListener;
   private final @Nullable Object mCallerContext;
   private int mFadeDurationMs = -1;
@@ -219,6 +287,64 @@ public class ReactImageView extends GenericDraweeView {
     mDraweeControllerBuilder = draweeControllerBuilder;
     mRoundedCornerPostprocessor = new RoundedCornerPostprocessor();
     mTilePostprocessor = new TilePostprocessor();
+    mShapingDrawableFactory = new ShapingDrawableFactory();
+    mPixelStatsListener =
+        new BaseControllerListener<ImageInfo>() {
+          @Override
+          public void onFinalImageSet(
+              String id, @Nullable ImageInfo imageInfo, @Nullable Animatable animatable) {
+            RootView rootView = RootViewUtil.getRootView(ReactImageView.this);
+            if (imageInfo != null && rootView != null) {
+              ImageDecodeBudget.recordImage(
+                  ((View) rootView).getId(),
+                  imageInfo.getWidth(),
+                  imageInfo.getHeight(),
+                  getWidth(),
+                  getHeight());
+            }
+          }
+        };
+    mLoadStateListener =
+        new BaseControllerListener<ImageInfo>() {
+          @Override
+          public void onSubmit(String id, Object callerContext) {
+            mViewportLoadState.onLoadStarted();
+            updateViewportObservers();
+          }
+
+          @Override
+          public void onFinalImageSet(
+              String id, @Nullable ImageInfo imageInfo, @Nullable Animatable animatable) {
+            mViewportLoadState.onLoadFinished();
+            updateViewportObservers();
+          }
+
+          @Override
+          public void onFailure(String id, Throwable throwable) {
+            mViewportLoadState.onLoadFinished();
+            updateViewportObservers();
+          }
+
+          @Override
+          public void onRelease(String id) {
+            mViewportLoadState.onLoadFinished();
+            updateViewportObservers();
+          }
+        };
+    mScrollChangedListener =
+        new ViewTreeObserver.OnScrollChangedListener() {
+          @Override
+          public void onScrollChanged() {
+            onViewportChanged();
+          }
+        };
+    mGlobalLayoutListener =
+        new ViewTreeObserver.OnGlobalLayoutListener() {
+          @Override
+          public void onGlobalLayout() {
+            onViewportChanged();
+          }
+        };
     mGlobalImageLoadListener = globalImageLoadListener;
     mCallerContext = callerContext;
     mSources = new LinkedList<>();
@@ -437,11 +563,26 @@ public class ReactImageView extends GenericDraweeView {
       return;
     }
 
-    if (isTiled() && (getWidth() <= 0 || getHeight() <= 0)) {
+    boolean shapeAtDrawTime = canShapeAtDrawTime();
+    if (isTiled() && !shapeAtDrawTime && (getWidth() <= 0 || getHeight() <= 0)) {
       // If need to tile and the size is not yet set, wait until the layout pass provides one
       return;
     }
 
+    Priority priority = Priority.HIGH;
+    if (ReactFeatureFlags.enableViewportImagePriorities) {
+      // Wait until the view is placed in its scroll view, and then until it gets near the viewport
+      int zone =
+          ViewCompat.isAttachedToWindow(this) && mHasBeenLaidOut
+              ? ImageViewport.getZone(this)
+              : ImageViewport.FAR;
+      priority = mViewportLoadState.onLoadRequested(zone);
+      updateViewportObservers();
+      if (priority == null) {
+        return;
+      }
+    }
+
     GenericDraweeHierarchy hierarchy = getHierarchy();
     hierarchy.setActualImageScaleType(mScaleType);
 
@@ -460,6 +601,14 @@ public class ReactImageView extends GenericDraweeView {
     RoundingParams roundingParams = hierarchy.getRoundingParams();
 
     cornerRadii(sComputedCornerRadii);
+    boolean hasCornerRadii =
+        !FloatUtil.floatsEqual(sComputedCornerRadii[0], 0f)
+            || !FloatUtil.floatsEqual(sComputedCornerRadii[1], 0f)
+            || !FloatUtil.floatsEqual(sComputedCornerRadii[2], 0f)
+            || !FloatUtil.floatsEqual(sComputedCornerRadii[3], 0f);
+    // In 'cover' mode Fresco rounds the bitmap itself, as long as it doesn't have to be repeated
+    boolean useShapingDrawable =
+        shapeAtDrawTime && ((usePostprocessorScaling && hasCornerRadii) || isTiled());
 
     roundingParams.setCornersRadii(
         sComputedCornerRadii[0],
@@ -473,7 +622,7 @@ public class ReactImageView extends GenericDraweeView {
       hierarchy.setBackgroundImage(mBackgroundImageDrawable);
     }
 
-    if (usePostprocessorScaling) {
+    if (usePostprocessorScaling || useShapingDrawable) {
       roundingParams.setCornersRadius(0);
     }
 
@@ -491,23 +640,25 @@ public class ReactImageView extends GenericDraweeView {
             : mImageSource.isResource() ? 0 : REMOTE_IMAGE_FADE_DURATION_MS);
 
     List<Postprocessor> postprocessors = new LinkedList<>();
-    if (usePostprocessorScaling) {
+    if (usePostprocessorScaling && !shapeAtDrawTime) {
       postprocessors.add(mRoundedCornerPostprocessor);
     }
     if (mIterativeBoxBlurPostProcessor != null) {
       postprocessors.add(mIterativeBoxBlurPostProcessor);
     }
-    if (isTiled()) {
+    if (isTiled() && !shapeAtDrawTime) {
       postprocessors.add(mTilePostprocessor);
     }
     Postprocessor postprocessor = MultiPostprocessor.from(postprocessors);
 
-    ResizeOptions resizeOptions = doResize ? new ResizeOptions(getWidth(), getHeight()) : null;
+    ResizeOptions resizeOptions = doResize ? getResizeOptions(getWidth(), getHeight()) : null;
+    mResizeOptions = resizeOptions;
 
     ImageRequestBuilder imageRequestBuilder =
         ImageRequestBuilder.newBuilderWithSource(mImageSource.getUri())
             .setPostprocessor(postprocessor)
             .setResizeOptions(resizeOptions)
+            .setRequestPriority(priority)
             .setAutoRotateEnabled(true)
             .setProgressiveRenderingEnabled(mProgressiveRenderingEnabled);
 
@@ -532,21 +683,48 @@ public class ReactImageView extends GenericDraweeView {
           ImageRequestBuilder.newBuilderWithSource(mCachedImageSource.getUri())
               .setPostprocessor(postprocessor)
               .setResizeOptions(resizeOptions)
+              .setRequestPriority(priority)
               .setAutoRotateEnabled(true)
               .setProgressiveRenderingEnabled(mProgressiveRenderingEnabled)
               .build();
       mDraweeControllerBuilder.setLowResImageRequest(cachedImageRequest);
     }
 
+    ControllerListener controllerListener = null;
     if (mControllerListener != null && mControllerForTesting != null) {
       ForwardingControllerListener combinedListener = new ForwardingControllerListener();
       combinedListener.addListener(mControllerListener);
       combinedListener.addListener(mControllerForTesting);
-      mDraweeControllerBuilder.setControllerListener(combinedListener);
+      controllerListener = combinedListener;
     } else if (mControllerForTesting != null) {
-      mDraweeControllerBuilder.setControllerListener(mControllerForTesting);
+      controllerListener = mControllerForTesting;
     } else if (mControllerListener != null) {
-      mDraweeControllerBuilder.setControllerListener(mControllerListener);
+      controllerListener = mControllerListener;
+    }
+    if (ReactFeatureFlags.enableSizeAwareImageDecoding
+        || ReactFeatureFlags.enableViewportImagePriorities) {
+      ForwardingControllerListener combinedListener = new ForwardingControllerListener();
+      if (ReactFeatureFlags.enableSizeAwareImageDecoding) {
+        combinedListener.addListener(mPixelStatsListener);
+      }
+      if (ReactFeatureFlags.enableViewportImagePriorities) {
+        combinedListener.addListener(mLoadStateListener);
+      }
+      if (controllerListener != null) {
+        combinedListener.addListener(controllerListener);
+      }
+      controllerListener = combinedListener;
+    }
+    if (controllerListener != null) {
+      mDraweeControllerBuilder.setControllerListener(controllerListener);
+    }
+
+    if (shapeAtDrawTime) {
+      ((PipelineDraweeControllerBuilder) mDraweeControllerBuilder)
+          .setCustomDrawableFactories(
+              useShapingDrawable
+                  ? ImmutableList.<DrawableFactory>of(mShapingDrawableFactory)
+                  : null);
     }
 
     setController(mDraweeControllerBuilder.build());
@@ -555,6 +733,11 @@ public class ReactImageView extends GenericDraweeView {
     // Reset again so the DraweeControllerBuilder clears all it's references. Otherwise, this causes
     // a memory leak.
     mDraweeControllerBuilder.reset();
+    if (shapeAtDrawTime) {
+      // reset() doesn't clear the drawable factories, which reference this view
+      ((PipelineDraweeControllerBuilder) mDraweeControllerBuilder)
+          .setCustomDrawableFactories((ImmutableList<DrawableFactory>) null);
+    }
   }
 
   // VisibleForTesting
@@ -568,11 +751,47 @@ public class ReactImageView extends GenericDraweeView {
   protected void onSizeChanged(int w, int h, int oldw, int oldh) {
     super.onSizeChanged(w, h, oldw, oldh);
     if (w > 0 && h > 0) {
-      mIsDirty = mIsDirty || hasMultipleSources() || isTiled();
+      mIsDirty =
+          mIsDirty
+              || hasMultipleSources()
+              || (isTiled() && !canShapeAtDrawTime())
+              || resizeOptionsChanged(w, h);
       maybeUpdateView();
     }
   }
 
+  @Override
+  protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+    super.onLayout(changed, left, top, right, bottom);
+    mHasBeenLaidOut = true;
+    if (mViewportLoadState.isWaitingForViewport()) {
+      maybeUpdateView();
+    }
+  }
+
+  @Override
+  protected void onAttachedToWindow() {
+    super.onAttachedToWindow();
+    if (mViewportLoadState.isWaitingForViewport()) {
+      maybeUpdateView();
+    } else {
+      updateViewportObservers();
+    }
+  }
+
+  @Override
+  protected void onDetachedFromWindow() {
+    if (mIsObservingScroll) {
+      getViewTreeObserver().removeOnScrollChangedListener(mScrollChangedListener);
+      mIsObservingScroll = false;
+    }
+    if (mIsObservingLayout) {
+      getViewTreeObserver().removeOnGlobalLayoutListener(mGlobalLayoutListener);
+      mIsObservingLayout = false;
+    }
+    super.onDetachedFromWindow();
+  }
+
   /** ReactImageViews only render a single image. */
   @Override
   public boolean hasOverlappingRendering() {
@@ -587,6 +806,56 @@ public class ReactImageView extends GenericDraweeView {
     return mTileMode != Shader.TileMode.CLAMP;
   }
 
+  /**
+   * Starts loading an image that was waiting for its view to get near the viewport, or cancels the
+   * load of an image whose view was scrolled away before it was shown.
+   */
+  private void onViewportChanged() {
+    switch (mViewportLoadState.onViewportChanged(ImageViewport.getZone(this))) {
+      case ImageViewportLoadState.ACTION_LOAD:
+        maybeUpdateView();
+        break;
+      case ImageViewportLoadState.ACTION_CANCEL:
+        // Releasing the controller cancels its request
+        mIsDirty = true;
+        setController(null);
+        updateViewportObservers();
+        break;
+    }
+  }
+
+  /**
+   * Only listen to scrolls and layouts while they can start or cancel the load of the image, see
+   * {@link ImageViewportLoadState}.
+   */
+  private void updateViewportObservers() {
+    boolean canObserve =
+        ReactFeatureFlags.enableViewportImagePriorities && ViewCompat.isAttachedToWindow(this);
+    boolean shouldObserveScroll = canObserve && mViewportLoadState.shouldObserveScroll();
+    if (shouldObserveScroll != mIsObservingScroll) {
+      mIsObservingScroll = shouldObserveScroll;
+      if (shouldObserveScroll) {
+        getViewTreeObserver().addOnScrollChangedListener(mScrollChangedListener);
+      } else {
+        getViewTreeObserver().removeOnScrollChangedListener(mScrollChangedListener);
+      }
+    }
+    boolean shouldObserveLayout = canObserve && mViewportLoadState.shouldObserveLayout();
+    if (shouldObserveLayout != mIsObservingLayout) {
+      mIsObservingLayout = shouldObserveLayout;
+      if (shouldObserveLayout) {
+        getViewTreeObserver().addOnGlobalLayoutListener(mGlobalLayoutListener);
+      } else {
+        getViewTreeObserver().removeOnGlobalLayoutListener(mGlobalLayoutListener);
+      }
+    }
+  }
+
+  private boolean canShapeAtDrawTime() {
+    return ReactFeatureFlags.enableDrawTimeImageShaping
+        && mDraweeControllerBuilder instanceof PipelineDraweeControllerBuilder;
+  }
+
   private void setSourceImage() {
     mImageSource = null;
     if (mSources.isEmpty()) {
@@ -606,10 +875,13 @@ public class ReactImageView extends GenericDraweeView {
   private boolean shouldResize(ImageSource imageSource) {
     // Resizing is inferior to scaling. See http://frescolib.org/docs/resizing-rotating.html#_
     // We resize here only for images likely to be from the device's camera, where the app developer
-    // has no control over the original size
+    // has no control over the original size, and for network images when they are decoded at the
+    // size of their view
     if (mResizeMethod == ImageResizeMethod.AUTO) {
       return UriUtil.isLocalContentUri(imageSource.getUri())
-          || UriUtil.isLocalFileUri(imageSource.getUri());
+          || UriUtil.isLocalFileUri(imageSource.getUri())
+          || (ReactFeatureFlags.enableSizeAwareImageDecoding
+              && UriUtil.isNetworkUri(imageSource.getUri()));
     } else if (mResizeMethod == ImageResizeMethod.RESIZE) {
       return true;
     } else {
@@ -617,6 +889,20 @@ public class ReactImageView extends GenericDraweeView {
     }
   }
 
+  private ResizeOptions getResizeOptions(int width, int height) {
+    if (ReactFeatureFlags.enableSizeAwareImageDecoding && mResizeMethod == ImageResizeMethod.AUTO) {
+      return ImageDecodeBudget.getResizeOptions(width, height);
+    }
+    return new ResizeOptions(width, height);
+  }
+
+  /** Whether the image was resized to a size it wouldn't be resized to at the given view size. */
+  private boolean resizeOptionsChanged(int width, int height) {
+    return ReactFeatureFlags.enableSizeAwareImageDecoding
+        && mResizeOptions != null
+        && !mResizeOptions.equals(getResizeOptions(width, height));
+  }
+
   private void warnImageSource(String uri) {
     if (ReactBuildConfig.DEBUG) {
       Toast.makeText(
@@ -24,6 +24,7 @@ import com.facebook.react.bridge.ReactNoCrashSoftException;
 import com.facebook.react.bridge.ReactSoftException;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.uimanager.NativeViewHierarchyOptimizer;
 import com.facebook.react.uimanager.PixelUtil;
 import com.facebook.react.uimanager.ReactShadowNode;
@@ -56,6 +57,11 @@ public class ReactTextShadowNode extends ReactBaseTextShadowNode {
 
   private @Nullable Spannable mPreparedSpannableText;
 
+  // Paint and result of the last measurement when layouts are sent to the view, see
+  // ReactFeatureFlags.enablePreparedTextLayouts
+  private @Nullable TextPaint mTextPaint;
+  private @Nullable Layout mMeasuredLayout;
+
   private boolean mShouldNotifyOnTextLayout;
 
   private final YogaMeasureFunction mTextMeasureFunction =
@@ -108,7 +114,7 @@ public class ReactTextShadowNode extends ReactBaseTextShadowNode {
             ThemedReactContext themedReactContext = getThemedContext();
             WritableArray lines =
                 FontMetricsUtil.getFontMetrics(
-                    text, layout, sTextPaintInstance, themedReactContext);
+                    text, layout, layout.getPaint(), themedReactContext);
             WritableMap event = Arguments.createMap();
             event.putArray("lines", lines);
             if (themedReactContext.hasActiveCatalystInstance()) {
@@ -122,6 +128,10 @@ public class ReactTextShadowNode extends ReactBaseTextShadowNode {
             }
           }
 
+          if (ReactFeatureFlags.enablePreparedTextLayouts) {
+            mMeasuredLayout = layout;
+          }
+
           if (mNumberOfLines != UNSET && mNumberOfLines < layout.getLineCount()) {
             return YogaMeasureOutput.make(
                 layout.getWidth(), layout.getLineBottom(mNumberOfLines - 1));
@@ -148,7 +158,7 @@ public class ReactTextShadowNode extends ReactBaseTextShadowNode {
 
   private Layout measureSpannedText(Spannable text, float width, YogaMeasureMode widthMode) {
     // TODO(5578671): Handle text direction (see View#getTextDirectionHeuristic)
-    TextPaint textPaint = sTextPaintInstance;
+    TextPaint textPaint = getTextPaint();
     textPaint.setTextSize(mTextAttributes.getEffectiveFontSize());
     Layout layout;
     BoringLayout.Metrics boring = BoringLayout.isBoring(text, textPaint);
@@ -229,6 +239,47 @@ public class ReactTextShadowNode extends ReactBaseTextShadowNode {
     return layout;
   }
 
+  private TextPaint getTextPaint() {
+    if (!ReactFeatureFlags.enablePreparedTextLayouts) {
+      return sTextPaintInstance;
+    }
+    // A layout draws with the paint it was built with, so the layouts that can be sent to the view
+    // can't share one paint with other nodes.
+    if (mTextPaint == null) {
+      mTextPaint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+    }
+    return mTextPaint;
+  }
+
+  /**
+   * Returns the layout built by the last measurement if the view can draw it without laying the
+   * text out again, i.e. if it was built for the width the view ends up with. Ellipsized text
+   * isn't supported since measured layouts are never ellipsized.
+   */
+  private @Nullable Layout getPreparedLayout() {
+    Layout layout = mMeasuredLayout;
+    if (layout == null || mNumberOfLines != UNSET) {
+      return null;
+    }
+    float contentWidth =
+        getLayoutWidth() - getPadding(Spacing.START) - getPadding(Spacing.END);
+    if (Math.abs(layout.getWidth() - contentWidth) <= 1) {
+      return layout;
+    }
+    // Left aligned text is drawn the same way in a wider view
+    if (layout.getWidth() > contentWidth
+        || layout.getAlignment() != Layout.Alignment.ALIGN_NORMAL
+        || mJustificationMode != Layout.JUSTIFICATION_MODE_NONE) {
+      return null;
+    }
+    for (int i = 0; i < layout.getLineCount(); i++) {
+      if (layout.getParagraphDirection(i) != Layout.DIR_LEFT_TO_RIGHT) {
+        return null;
+      }
+    }
+    return layout;
+  }
+
   // Return text alignment according to LTR or RTL style
   private int getTextAlign() {
     int textAlign = mTextAlign;
@@ -244,6 +295,7 @@ public class ReactTextShadowNode extends ReactBaseTextShadowNode {
 
   @Override
   public void onBeforeLayout(NativeViewHierarchyOptimizer nativeViewHierarchyOptimizer) {
+    mMeasuredLayout = null;
     mPreparedSpannableText =
         spannedFromShadowNode(
             this,
@@ -290,6 +342,13 @@ public class ReactTextShadowNode extends ReactBaseTextShadowNode {
               getTextAlign(),
               mTextBreakStrategy,
               mJustificationMode);
+      Layout preparedLayout = getPreparedLayout();
+      if (preparedLayout != null) {
+        reactTextUpdate.setPreparedLayout(preparedLayout);
+        // The view draws with the paint of that layout from now on
+        mTextPaint = null;
+        mMeasuredLayout = null;
+      }
       uiViewOperationQueue.enqueueUpdateExtraData(getReactTag(), reactTextUpdate);
     }
   }
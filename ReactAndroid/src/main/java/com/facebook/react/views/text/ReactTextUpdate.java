@@ -35,6 +35,8 @@ public class ReactTextUpdate {
 
   public @Nullable ReadableMap mAttributedString = null;
 
+  private @Nullable Layout mPreparedLayout;
+
   /**
    * @deprecated Use a non-deprecated constructor for ReactTextUpdate instead. This one remains
    *     because it's being used by a unit test that isn't currently open source.
@@ -160,6 +162,18 @@ public class ReactTextUpdate {
     return mText;
   }
 
+  /**
+   * The layout of the text built when measuring it, if it can be drawn as is by the view. See
+   * {@link com.facebook.react.config.ReactFeatureFlags#enablePreparedTextLayouts}.
+   */
+  public @Nullable Layout getPreparedLayout() {
+    return mPreparedLayout;
+  }
+
+  /* package */ void setPreparedLayout(@Nullable Layout preparedLayout) {
+    mPreparedLayout = preparedLayout;
+  }
+
   public int getJsEventCounter() {
     return mJsEventCounter;
   }
@@ -10,11 +10,13 @@ package com.facebook.react.views.text;
 import static com.facebook.react.views.text.TextAttributeProps.UNSET;
 
 import android.content.Context;
+import android.graphics.Canvas;
 import android.graphics.drawable.Drawable;
 import android.os.Build;
 import android.text.Layout;
 import android.text.Spannable;
 import android.text.Spanned;
+import android.text.TextPaint;
 import android.text.TextUtils;
 import android.text.method.LinkMovementMethod;
 import android.text.util.Linkify;
@@ -59,6 +61,8 @@ public class ReactTextView extends AppCompatTextView implements ReactCompoundVie
 
   private ReactViewBackgroundManager mReactBackgroundManager;
   private Spannable mSpanned;
+  // Layout built by the shadow node when measuring the text, drawn instead of TextView's own layout
+  private @Nullable Layout mPreparedLayout;
 
   public ReactTextView(Context context) {
     super(context);
@@ -121,7 +125,7 @@ public class ReactTextView extends AppCompatTextView implements ReactCompoundVie
     UIManagerModule uiManager = reactContext.getNativeModule(UIManagerModule.class);
 
     Spanned text = (Spanned) getText();
-    Layout layout = getLayout();
+    Layout layout = getTextLayout();
     TextInlineViewPlaceholderSpan[] placeholders =
         text.getSpans(0, text.length(), TextInlineViewPlaceholderSpan.class);
     ArrayList inlineViewInfoArray =
@@ -261,8 +265,72 @@ public class ReactTextView extends AppCompatTextView implements ReactCompoundVie
     }
   }
 
+  @Override
+  protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+    if (getPreparedLayout() != null
+        && MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.EXACTLY
+        && MeasureSpec.getMode(heightMeasureSpec) == MeasureSpec.EXACTLY) {
+      // The text was already measured and laid out by the shadow node
+      setMeasuredDimension(
+          MeasureSpec.getSize(widthMeasureSpec), MeasureSpec.getSize(heightMeasureSpec));
+      return;
+    }
+    super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+  }
+
+  @Override
+  protected void onDraw(Canvas canvas) {
+    Layout layout = getPreparedLayout();
+    if (layout == null) {
+      super.onDraw(canvas);
+      return;
+    }
+
+    TextPaint paint = layout.getPaint();
+    paint.setColor(getCurrentTextColor());
+    paint.drawableState = getDrawableState();
+
+    int left = getPaddingLeft();
+    int top = getPaddingTop();
+    int right = getWidth() - getPaddingRight();
+    int bottom = getHeight() - getPaddingBottom();
+    int verticalOffset = 0;
+    int boxHeight = bottom - top;
+    if (layout.getHeight() < boxHeight) {
+      switch (getGravity() & Gravity.VERTICAL_GRAVITY_MASK) {
+        case Gravity.BOTTOM:
+          verticalOffset = boxHeight - layout.getHeight();
+          break;
+        case Gravity.CENTER_VERTICAL:
+          verticalOffset = (boxHeight - layout.getHeight()) / 2;
+          break;
+      }
+    }
+
+    canvas.save();
+    canvas.clipRect(left, top, right, bottom);
+    canvas.translate(left, top + verticalOffset);
+    layout.draw(canvas);
+    canvas.restore();
+  }
+
+  /**
+   * Returns the layout sent by the shadow node if it can be drawn as is. Selectable text and links
+   * need the layout of the TextView itself.
+   */
+  private @Nullable Layout getPreparedLayout() {
+    return mPreparedLayout != null && getMovementMethod() == null ? mPreparedLayout : null;
+  }
+
+  /** Returns the layout the text is drawn with. */
+  private @Nullable Layout getTextLayout() {
+    Layout preparedLayout = getPreparedLayout();
+    return preparedLayout != null ? preparedLayout : getLayout();
+  }
+
   public void setText(ReactTextUpdate update) {
     mContainsImages = update.containsImages();
+    mPreparedLayout = mLinkifyMaskType > 0 ? null : update.getPreparedLayout();
     // Android's TextView crashes when it tries to relayout if LayoutParams are
     // null; explicitly set the LayoutParams to prevent this crash. See:
     // https://github.com/facebook/react-native/pull/7011
@@ -323,7 +391,7 @@ public class ReactTextView extends AppCompatTextView implements ReactCompoundVie
     int x = (int) touchX;
     int y = (int) touchY;
 
-    Layout layout = getLayout();
+    Layout layout = getTextLayout();
     if (layout == null) {
       // If the layout is null, the view hasn't been properly laid out yet. Therefore, we can't find
       // the exact text tag that has been touched, and the correct tag to return is the default one.
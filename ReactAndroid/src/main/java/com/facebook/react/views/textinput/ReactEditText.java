@@ -105,6 +105,7 @@ public class ReactEditText extends AppCompatEditText {
   protected @Nullable JavaOnlyMap mAttributedString = null;
   protected @Nullable StateWrapper mStateWrapper = null;
   protected boolean mDisableTextDiffing = false;
+  private boolean mSendTextChangeDeltas = false;
 
   protected boolean mIsSettingTextFromState = false;
 
@@ -285,6 +286,18 @@ public class ReactEditText extends AppCompatEditText {
     mContentSizeWatcher = contentSizeWatcher;
   }
 
+  /**
+   * Sets whether text change events carry only the replaced range and the inserted text, instead of
+   * the whole text of the input.
+   */
+  public void setSendTextChangeDeltas(boolean sendTextChangeDeltas) {
+    mSendTextChangeDeltas = sendTextChangeDeltas;
+  }
+
+  /* package */ boolean shouldSendTextChangeDeltas() {
+    return mSendTextChangeDeltas;
+  }
+
   public void setMostRecentEventCount(int mostRecentEventCount) {
     mMostRecentEventCount = mostRecentEventCount;
   }
@@ -478,6 +491,28 @@ public class ReactEditText extends AppCompatEditText {
     mIsSettingTextFromState = false;
   }
 
+  /**
+   * Replaces the text between start and end with the text received from JS, for inputs that send
+   * text change deltas. Like {@link #maybeSetText}, this is skipped if JS hasn't seen all the
+   * changes made natively yet, and it fails silently for out of bounds ranges.
+   */
+  public void maybeReplaceTextFromJS(int eventCounter, int start, int end, String text) {
+    mMostRecentEventCount = eventCounter;
+    if (!canUpdateWithEventCount(mMostRecentEventCount)) {
+      return;
+    }
+
+    if (start < 0 || end < start || end > length()) {
+      return;
+    }
+
+    mIsSettingTextFromJS = true;
+    mDisableTextDiffing = true;
+    getText().replace(start, end, text);
+    mDisableTextDiffing = false;
+    mIsSettingTextFromJS = false;
+  }
+
   public boolean canUpdateWithEventCount(int eventCounter) {
     return eventCounter >= mNativeEventCount;
   }
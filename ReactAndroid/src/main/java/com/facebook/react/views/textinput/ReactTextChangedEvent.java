@@ -7,6 +7,7 @@
 
 package com.facebook.react.views.textinput;
 
+import androidx.annotation.Nullable;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.events.Event;
@@ -15,12 +16,18 @@ import com.facebook.react.uimanager.events.RCTEventEmitter;
 /**
  * Event emitted by EditText native view when text changes. VisibleForTesting from {@link
  * TextInputEventsTestCase}.
+ *
+ * <p>For inputs that send text change deltas, the event carries the replaced range and the inserted
+ * text instead of the whole text.
  */
 public class ReactTextChangedEvent extends Event<ReactTextChangedEvent> {
 
   public static final String EVENT_NAME = "topChange";
 
-  private String mText;
+  private @Nullable String mText;
+  private @Nullable String mInsertedText;
+  private int mRangeStart;
+  private int mRangeEnd;
   private int mEventCount;
 
   public ReactTextChangedEvent(int viewId, String text, int eventCount) {
@@ -29,11 +36,26 @@ public class ReactTextChangedEvent extends Event<ReactTextChangedEvent> {
     mEventCount = eventCount;
   }
 
+  public ReactTextChangedEvent(
+      int viewId, int rangeStart, int rangeEnd, String insertedText, int eventCount) {
+    super(viewId);
+    mRangeStart = rangeStart;
+    mRangeEnd = rangeEnd;
+    mInsertedText = insertedText;
+    mEventCount = eventCount;
+  }
+
   @Override
   public String getEventName() {
     return EVENT_NAME;
   }
 
+  @Override
+  public boolean canCoalesce() {
+    // Deltas only make sense applied in order, so none of them can be dropped.
+    return mText != null;
+  }
+
   @Override
   public void dispatch(RCTEventEmitter rctEventEmitter) {
     rctEventEmitter.receiveEvent(getViewTag(), getEventName(), serializeEventData());
@@ -41,7 +63,15 @@ public class ReactTextChangedEvent extends Event<ReactTextChangedEvent> {
 
   private WritableMap serializeEventData() {
     WritableMap eventData = Arguments.createMap();
-    eventData.putString("text", mText);
+    if (mText != null) {
+      eventData.putString("text", mText);
+    } else {
+      WritableMap range = Arguments.createMap();
+      range.putInt("start", mRangeStart);
+      range.putInt("end", mRangeEnd);
+      eventData.putMap("range", range);
+      eventData.putString("insertedText", mInsertedText);
+    }
     eventData.putInt("eventCount", mEventCount);
     eventData.putInt("target", getViewTag());
     return eventData;
@@ -7,6 +7,7 @@
 
 package com.facebook.react.views.textinput;
 
+import androidx.annotation.Nullable;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.events.Event;
@@ -21,12 +22,12 @@ public class ReactTextInputEvent extends Event<ReactTextInputEvent> {
   public static final String EVENT_NAME = "topTextInput";
 
   private String mText;
-  private String mPreviousText;
+  private @Nullable String mPreviousText;
   private int mRangeStart;
   private int mRangeEnd;
 
   public ReactTextInputEvent(
-      int viewId, String text, String previousText, int rangeStart, int rangeEnd) {
+      int viewId, String text, @Nullable String previousText, int rangeStart, int rangeEnd) {
     super(viewId);
     mText = text;
     mPreviousText = previousText;
@@ -57,7 +58,10 @@ public class ReactTextInputEvent extends Event<ReactTextInputEvent> {
     range.putDouble("end", mRangeEnd);
 
     eventData.putString("text", mText);
-    eventData.putString("previousText", mPreviousText);
+    // Left out for inputs that send text change deltas, as JS already has the replaced text
+    if (mPreviousText != null) {
+      eventData.putString("previousText", mPreviousText);
+    }
     eventData.putMap("range", range);
 
     eventData.putInt("target", getViewTag());
@@ -89,6 +89,7 @@ public class ReactTextInputManager extends BaseViewManager<ReactEditText, Layout
   private static final int BLUR_TEXT_INPUT = 2;
   private static final int SET_MOST_RECENT_EVENT_COUNT = 3;
   private static final int SET_TEXT_AND_SELECTION = 4;
+  private static final int REPLACE_TEXT_RANGE = 5;
 
   private static final int INPUT_TYPE_KEYBOARD_NUMBER_PAD = InputType.TYPE_CLASS_NUMBER;
   private static final int INPUT_TYPE_KEYBOARD_DECIMAL_PAD =
@@ -210,6 +211,9 @@ public class ReactTextInputManager extends BaseViewManager<ReactEditText, Layout
       case SET_TEXT_AND_SELECTION:
         this.receiveCommand(reactEditText, "setTextAndSelection", args);
         break;
+      case REPLACE_TEXT_RANGE:
+        this.receiveCommand(reactEditText, "replaceTextRange", args);
+        break;
     }
   }
 
@@ -248,6 +252,17 @@ public class ReactTextInputManager extends BaseViewManager<ReactEditText, Layout
           reactEditText.maybeSetSelection(mostRecentEventCount, start, end);
         }
         break;
+      case "replaceTextRange":
+        // Arguments: mostRecentEventCount, start, end, text, selectionStart, selectionEnd
+        int eventCount = args.getInt(0);
+        reactEditText.setMostRecentEventCount(eventCount);
+
+        if (eventCount != UNSET) {
+          reactEditText.maybeReplaceTextFromJS(
+              eventCount, args.getInt(1), args.getInt(2), args.getString(3));
+          reactEditText.maybeSetSelection(eventCount, args.getInt(4), args.getInt(5));
+        }
+        break;
     }
   }
 
@@ -467,6 +482,11 @@ public class ReactTextInputManager extends BaseViewManager<ReactEditText, Layout
     }
   }
 
+  @ReactProp(name = "textChangeDeltas", defaultBoolean = false)
+  public void setTextChangeDeltas(ReactEditText view, boolean textChangeDeltas) {
+    view.setSendTextChangeDeltas(textChangeDeltas);
+  }
+
   @ReactProp(name = "mostRecentEventCount", defaultInt = 0)
   public void setMostRecentEventCount(ReactEditText view, int mostRecentEventCount) {
     view.setMostRecentEventCount(mostRecentEventCount);
@@ -872,8 +892,9 @@ public class ReactTextInputManager extends BaseViewManager<ReactEditText, Layout
 
     @Override
     public void beforeTextChanged(CharSequence s, int start, int count, int after) {
-      // Incoming charSequence gets mutated before onTextChanged() is invoked
-      mPreviousText = s.toString();
+      // Incoming charSequence gets mutated before onTextChanged() is invoked. Only the replaced
+      // range is kept, so that large documents are not copied on every keystroke.
+      mPreviousText = s.subSequence(start, start + count).toString();
     }
 
     @Override
@@ -889,13 +910,18 @@ public class ReactTextInputManager extends BaseViewManager<ReactEditText, Layout
       }
 
       Assertions.assertNotNull(mPreviousText);
-      String newText = s.toString().substring(start, start + count);
-      String oldText = mPreviousText.substring(start, start + before);
+      String newText = s.subSequence(start, start + count).toString();
+      String oldText = mPreviousText;
       // Don't send same text changes
       if (count == before && newText.equals(oldText)) {
         return;
       }
 
+      // The range of the change in the old text. The Fabric fragment update below moves start and
+      // before along the fragments an edit spans, so it must be captured first.
+      final int changeStart = start;
+      final int changeEnd = start + before;
+
       // Fabric: update representation of AttributedString
       JavaOnlyMap attributedString = mEditText.mAttributedString;
       if (attributedString != null && attributedString.hasKey("fragments")) {
@@ -984,12 +1010,26 @@ public class ReactTextInputManager extends BaseViewManager<ReactEditText, Layout
 
       // The event that contains the event counter and updates it must be sent first.
       // TODO: t7936714 merge these events
+      if (mEditText.shouldSendTextChangeDeltas()) {
+        mEventDispatcher.dispatchEvent(
+            new ReactTextChangedEvent(
+                mEditText.getId(),
+                changeStart,
+                changeEnd,
+                newText,
+                mEditText.incrementAndGetEventCounter()));
+
+        mEventDispatcher.dispatchEvent(
+            new ReactTextInputEvent(mEditText.getId(), newText, null, changeStart, changeEnd));
+        return;
+      }
+
       mEventDispatcher.dispatchEvent(
           new ReactTextChangedEvent(
               mEditText.getId(), s.toString(), mEditText.incrementAndGetEventCounter()));
 
       mEventDispatcher.dispatchEvent(
-          new ReactTextInputEvent(mEditText.getId(), newText, oldText, start, start + before));
+          new ReactTextInputEvent(mEditText.getId(), newText, oldText, changeStart, changeEnd));
     }
 
     @Override
@@ -0,0 +1,523 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.view;
+
+import android.graphics.DashPathEffect;
+import android.graphics.Path;
+import android.graphics.PathEffect;
+import android.graphics.PointF;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.util.LruCache;
+import android.util.SparseArray;
+import java.util.Arrays;
+
+/**
+ * Process wide cache of the rounded border geometry computed by {@link
+ * ReactViewBackgroundDrawable}. Views with the same size, border radii, border widths and border
+ * style share a single immutable {@link BorderGeometry}, so a list of identically styled rows only
+ * pays for path computation once.
+ *
+ * <p>The cache is meant to be used from the UI thread only. The paths handed out must never be
+ * mutated by the caller.
+ */
+public class BorderGeometryCache {
+
+  private static final int MAX_CACHED_GEOMETRIES = 64;
+  private static final int MAX_CACHED_PATH_EFFECTS = 32;
+
+  private static final BorderGeometryCache sInstance = new BorderGeometryCache();
+
+  public static BorderGeometryCache getInstance() {
+    return sInstance;
+  }
+
+  private final LruCache<Key, BorderGeometry> mGeometries =
+      new LruCache<>(MAX_CACHED_GEOMETRIES);
+  private final SparseArray<PathEffect> mDashPathEffects = new SparseArray<>();
+
+  private long mHitCount;
+  private long mMissCount;
+  private long mPathEffectHitCount;
+  private long mPathEffectMissCount;
+
+  private BorderGeometryCache() {}
+
+  /**
+   * Get the geometry for a rounded background/border, computing it only if no drawable with the
+   * same parameters asked for it recently.
+   *
+   * @param borderInsets direction aware border widths
+   * @param extraRadiusForOutline radius added to each corner of the outline and center paths
+   * @param cornerRadii direction aware corner radii in top-left, top-right, bottom-right,
+   *     bottom-left order
+   */
+  /* package */ BorderGeometry obtain(
+      Rect bounds,
+      RectF borderInsets,
+      float fullBorderWidth,
+      float extraRadiusForOutline,
+      float[] cornerRadii) {
+    Key key =
+        new Key(
+            new float[] {
+              bounds.left,
+              bounds.top,
+              bounds.right,
+              bounds.bottom,
+              borderInsets.left,
+              borderInsets.top,
+              borderInsets.right,
+              borderInsets.bottom,
+              fullBorderWidth,
+              extraRadiusForOutline,
+              cornerRadii[0],
+              cornerRadii[1],
+              cornerRadii[2],
+              cornerRadii[3],
+            });
+    BorderGeometry geometry = mGeometries.get(key);
+    if (geometry != null) {
+      mHitCount++;
+      return geometry;
+    }
+    mMissCount++;
+    geometry =
+        new BorderGeometry(
+            bounds, borderInsets, fullBorderWidth, extraRadiusForOutline, cornerRadii);
+    mGeometries.put(key, geometry);
+    return geometry;
+  }
+
+  /**
+   * Get a shared dash effect whose on and off intervals are both {@code interval} pixels long.
+   * Path effects are immutable, so all borders with the same style and width can use one instance.
+   */
+  /* package */ PathEffect obtainDashPathEffect(float interval) {
+    int key = Float.floatToIntBits(interval);
+    PathEffect pathEffect = mDashPathEffects.get(key);
+    if (pathEffect != null) {
+      mPathEffectHitCount++;
+      return pathEffect;
+    }
+    mPathEffectMissCount++;
+    if (mDashPathEffects.size() >= MAX_CACHED_PATH_EFFECTS) {
+      mDashPathEffects.clear();
+    }
+    pathEffect = new DashPathEffect(new float[] {interval, interval, interval, interval}, 0);
+    mDashPathEffects.put(key, pathEffect);
+    return pathEffect;
+  }
+
+  /** Drop all cached geometry, e.g. in response to memory pressure. */
+  public void clear() {
+    mGeometries.evictAll();
+    mDashPathEffects.clear();
+  }
+
+  /** Number of lookups that reused previously computed geometry. */
+  public long getHitCount() {
+    return mHitCount;
+  }
+
+  /** Number of lookups that had to compute new geometry. */
+  public long getMissCount() {
+    return mMissCount;
+  }
+
+  public long getEvictionCount() {
+    return mGeometries.evictionCount();
+  }
+
+  public long getPathEffectHitCount() {
+    return mPathEffectHitCount;
+  }
+
+  public long getPathEffectMissCount() {
+    return mPathEffectMissCount;
+  }
+
+  private static class Key {
+    private final float[] mValues;
+    private final int mHashCode;
+
+    private Key(float[] values) {
+      mValues = values;
+      mHashCode = Arrays.hashCode(values);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key other = (Key) o;
+      return mHashCode == other.mHashCode && Arrays.equals(mValues, other.mValues);
+    }
+
+    @Override
+    public int hashCode() {
+      return mHashCode;
+    }
+  }
+
+  /** Immutable set of paths and points used to draw one rounded background/border. */
+  /* package */ static class BorderGeometry {
+    /* package */ final Path innerClipPath = new Path();
+    /* package */ final Path outerClipPath = new Path();
+    /* package */ final Path outlinePath = new Path();
+    /* package */ final Path centerDrawPath = new Path();
+    /* package */ final RectF outerClipRect = new RectF();
+    /* package */ final PointF innerTopLeftCorner = new PointF();
+    /* package */ final PointF innerTopRightCorner = new PointF();
+    /* package */ final PointF innerBottomRightCorner = new PointF();
+    /* package */ final PointF innerBottomLeftCorner = new PointF();
+
+    private BorderGeometry(
+        Rect bounds,
+        RectF borderWidth,
+        float fullBorderWidth,
+        float extraRadiusForOutline,
+        float[] cornerRadii) {
+      final float topLeftRadius = cornerRadii[0];
+      final float topRightRadius = cornerRadii[1];
+      final float bottomRightRadius = cornerRadii[2];
+      final float bottomLeftRadius = cornerRadii[3];
+
+      final RectF innerClipRect = new RectF(bounds);
+      final RectF outlineRect = new RectF(bounds);
+      final RectF centerDrawRect = new RectF(bounds);
+      outerClipRect.set(bounds);
+
+      if (fullBorderWidth > 0) {
+        centerDrawRect.inset(fullBorderWidth * 0.5f, fullBorderWidth * 0.5f);
+      }
+
+      innerClipRect.top += borderWidth.top;
+      innerClipRect.bottom -= borderWidth.bottom;
+      innerClipRect.left += borderWidth.left;
+      innerClipRect.right -= borderWidth.right;
+
+      final float innerTopLeftRadiusX = Math.max(topLeftRadius - borderWidth.left, 0);
+      final float innerTopLeftRadiusY = Math.max(topLeftRadius - borderWidth.top, 0);
+      final float innerTopRightRadiusX = Math.max(topRightRadius - borderWidth.right, 0);
+      final float innerTopRightRadiusY = Math.max(topRightRadius - borderWidth.top, 0);
+      final float innerBottomRightRadiusX = Math.max(bottomRightRadius - borderWidth.right, 0);
+      final float innerBottomRightRadiusY = Math.max(bottomRightRadius - borderWidth.bottom, 0);
+      final float innerBottomLeftRadiusX = Math.max(bottomLeftRadius - borderWidth.left, 0);
+      final float innerBottomLeftRadiusY = Math.max(bottomLeftRadius - borderWidth.bottom, 0);
+
+      innerClipPath.addRoundRect(
+          innerClipRect,
+          new float[] {
+            innerTopLeftRadiusX,
+            innerTopLeftRadiusY,
+            innerTopRightRadiusX,
+            innerTopRightRadiusY,
+            innerBottomRightRadiusX,
+            innerBottomRightRadiusY,
+            innerBottomLeftRadiusX,
+            innerBottomLeftRadiusY,
+          },
+          Path.Direction.CW);
+
+      outerClipPath.addRoundRect(
+          outerClipRect,
+          new float[] {
+            topLeftRadius,
+            topLeftRadius,
+            topRightRadius,
+            topRightRadius,
+            bottomRightRadius,
+            bottomRightRadius,
+            bottomLeftRadius,
+            bottomLeftRadius
+          },
+          Path.Direction.CW);
+
+      outlinePath.addRoundRect(
+          outlineRect,
+          new float[] {
+            topLeftRadius + extraRadiusForOutline,
+            topLeftRadius + extraRadiusForOutline,
+            topRightRadius + extraRadiusForOutline,
+            topRightRadius + extraRadiusForOutline,
+            bottomRightRadius + extraRadiusForOutline,
+            bottomRightRadius + extraRadiusForOutline,
+            bottomLeftRadius + extraRadiusForOutline,
+            bottomLeftRadius + extraRadiusForOutline
+          },
+          Path.Direction.CW);
+
+      centerDrawPath.addRoundRect(
+          centerDrawRect,
+          new float[] {
+            innerTopLeftRadiusX + (topLeftRadius > 0 ? extraRadiusForOutline : 0),
+            innerTopLeftRadiusY + (topLeftRadius > 0 ? extraRadiusForOutline : 0),
+            innerTopRightRadiusX + (topRightRadius > 0 ? extraRadiusForOutline : 0),
+            innerTopRightRadiusY + (topRightRadius > 0 ? extraRadiusForOutline : 0),
+            innerBottomRightRadiusX + (bottomRightRadius > 0 ? extraRadiusForOutline : 0),
+            innerBottomRightRadiusY + (bottomRightRadius > 0 ? extraRadiusForOutline : 0),
+            innerBottomLeftRadiusX + (bottomLeftRadius > 0 ? extraRadiusForOutline : 0),
+            innerBottomLeftRadiusY + (bottomLeftRadius > 0 ? extraRadiusForOutline : 0)
+          },
+          Path.Direction.CW);
+
+      /**
+       * Rounded Multi-Colored Border Algorithm:
+       *
+       * <p>Let O (for outer) = (top, left, bottom, right) be the rectangle that represents the size
+       * and position of a view V. Since the box-sizing of all React Native views is border-box,
+       * any border of V will render inside O.
+       *
+       * <p>Let BorderWidth = (borderTop, borderLeft, borderBottom, borderRight).
+       *
+       * <p>Let I (for inner) = O - BorderWidth.
+       *
+       * <p>Then, remembering that O and I are rectangles and that I is inside O, O - I gives us
+       * the border of V. Therefore, we can use canvas.clipPath to draw V's border.
+       *
+       * <p>canvas.clipPath(O, Region.OP.INTERSECT);
+       *
+       * <p>canvas.clipPath(I, Region.OP.DIFFERENCE);
+       *
+       * <p>canvas.drawRect(O, paint);
+       *
+       * <p>This lets us draw non-rounded single-color borders.
+       *
+       * <p>To extend this algorithm to rounded single-color borders, we:
+       *
+       * <p>1. Curve the corners of O by the (border radii of V) using Path#addRoundRect.
+       *
+       * <p>2. Curve the corners of I by (border radii of V - border widths of V) using
+       * Path#addRoundRect.
+       *
+       * <p>Let O' = curve(O, border radii of V).
+       *
+       * <p>Let I' = curve(I, border radii of V - border widths of V)
+       *
+       * <p>The rationale behind this decision is the (first sentence of the) following section in
+       * the CSS Backgrounds and Borders Module Level 3:
+       * https://www.w3.org/TR/css3-background/#the-border-radius.
+       *
+       * <p>After both O and I have been curved, we can execute the following lines once again to
+       * render curved single-color borders:
+       *
+       * <p>canvas.clipPath(O, Region.OP.INTERSECT);
+       *
+       * <p>canvas.clipPath(I, Region.OP.DIFFERENCE);
+       *
+       * <p>canvas.drawRect(O, paint);
+       *
+       * <p>To extend this algorithm to rendering multi-colored rounded borders, we render each
+       * side of the border as its own quadrilateral. Suppose that we were handling the case where
+       * all the border radii are 0. Then, the four quadrilaterals would be:
+       *
+       * <p>Left: (O.left, O.top), (I.left, I.top), (I.left, I.bottom), (O.left, O.bottom)
+       *
+       * <p>Top: (O.left, O.top), (I.left, I.top), (I.right, I.top), (O.right, O.top)
+       *
+       * <p>Right: (O.right, O.top), (I.right, I.top), (I.right, I.bottom), (O.right, O.bottom)
+       *
+       * <p>Bottom: (O.right, O.bottom), (I.right, I.bottom), (I.left, I.bottom), (O.left,
+       * O.bottom)
+       *
+       * <p>Now, lets consider what happens when we render a rounded border (radii != 0). For the
+       * sake of simplicity, let's focus on the top edge of the Left border:
+       *
+       * <p>Let borderTopLeftRadius = 5. Let borderLeftWidth = 1. Let borderTopWidth = 2.
+       *
+       * <p>We know that O is curved by the ellipse E_O (a = 5, b = 5). We know that I is curved by
+       * the ellipse E_I (a = 5 - 1, b = 5 - 2).
+       *
+       * <p>Since we have clipping, it should be safe to set the top-left point of the Left
+       * quadrilateral's top edge to (O.left, O.top).
+       *
+       * <p>But, what should the top-right point be?
+       *
+       * <p>The fact that the border is curved shouldn't change the slope (nor the position) of the
+       * line connecting the top-left and top-right points of the Left quadrilateral's top edge.
+       * Therefore, The top-right point should lie somewhere on the line L = (1 - a) * (O.left,
+       * O.top) + a * (I.left, I.top).
+       *
+       * <p>a != 0, because then the top-left and top-right points would be the same and
+       * borderLeftWidth = 1. a != 1, because then the top-right point would not touch an edge of
+       * the ellipse E_I. We want the top-right point to touch an edge of the inner ellipse because
+       * the border curves with E_I on the top-left corner of V.
+       *
+       * <p>Therefore, it must be the case that a > 1. Two natural locations of the top-right point
+       * exist: 1. The first intersection of L with E_I. 2. The second intersection of L with E_I.
+       *
+       * <p>We choose the top-right point of the top edge of the Left quadrilateral to be an
+       * arbitrary intersection of L with E_I.
+       */
+
+      /** Compute innerTopLeftCorner */
+      innerTopLeftCorner.x = innerClipRect.left;
+      innerTopLeftCorner.y = innerClipRect.top;
+
+      getEllipseIntersectionWithLine(
+          // Ellipse Bounds
+          innerClipRect.left,
+          innerClipRect.top,
+          innerClipRect.left + 2 * innerTopLeftRadiusX,
+          innerClipRect.top + 2 * innerTopLeftRadiusY,
+
+          // Line Start
+          outerClipRect.left,
+          outerClipRect.top,
+
+          // Line End
+          innerClipRect.left,
+          innerClipRect.top,
+
+          // Result
+          innerTopLeftCorner);
+
+      /** Compute innerBottomLeftCorner */
+      innerBottomLeftCorner.x = innerClipRect.left;
+      innerBottomLeftCorner.y = innerClipRect.bottom;
+
+      getEllipseIntersectionWithLine(
+          // Ellipse Bounds
+          innerClipRect.left,
+          innerClipRect.bottom - 2 * innerBottomLeftRadiusY,
+          innerClipRect.left + 2 * innerBottomLeftRadiusX,
+          innerClipRect.bottom,
+
+          // Line Start
+          outerClipRect.left,
+          outerClipRect.bottom,
+
+          // Line End
+          innerClipRect.left,
+          innerClipRect.bottom,
+
+          // Result
+          innerBottomLeftCorner);
+
+      /** Compute innerTopRightCorner */
+      innerTopRightCorner.x = innerClipRect.right;
+      innerTopRightCorner.y = innerClipRect.top;
+
+      getEllipseIntersectionWithLine(
+          // Ellipse Bounds
+          innerClipRect.right - 2 * innerTopRightRadiusX,
+          innerClipRect.top,
+          innerClipRect.right,
+          innerClipRect.top + 2 * innerTopRightRadiusY,
+
+          // Line Start
+          outerClipRect.right,
+          outerClipRect.top,
+
+          // Line End
+          innerClipRect.right,
+          innerClipRect.top,
+
+          // Result
+          innerTopRightCorner);
+
+      /** Compute innerBottomRightCorner */
+      innerBottomRightCorner.x = innerClipRect.right;
+      innerBottomRightCorner.y = innerClipRect.bottom;
+
+      getEllipseIntersectionWithLine(
+          // Ellipse Bounds
+          innerClipRect.right - 2 * innerBottomRightRadiusX,
+          innerClipRect.bottom - 2 * innerBottomRightRadiusY,
+          innerClipRect.right,
+          innerClipRect.bottom,
+
+          // Line Start
+          outerClipRect.right,
+          outerClipRect.bottom,
+
+          // Line End
+          innerClipRect.right,
+          innerClipRect.bottom,
+
+          // Result
+          innerBottomRightCorner);
+    }
+  }
+
+  private static void getEllipseIntersectionWithLine(
+      double ellipseBoundsLeft,
+      double ellipseBoundsTop,
+      double ellipseBoundsRight,
+      double ellipseBoundsBottom,
+      double lineStartX,
+      double lineStartY,
+      double lineEndX,
+      double lineEndY,
+      PointF result) {
+    final double ellipseCenterX = (ellipseBoundsLeft + ellipseBoundsRight) / 2;
+    final double ellipseCenterY = (ellipseBoundsTop + ellipseBoundsBottom) / 2;
+
+    /**
+     * Step 1:
+     *
+     * <p>Translate the line so that the ellipse is at the origin.
+     *
+     * <p>Why? It makes the math easier by changing the ellipse equation from ((x -
+     * ellipseCenterX)/a)^2 + ((y - ellipseCenterY)/b)^2 = 1 to (x/a)^2 + (y/b)^2 = 1.
+     */
+    lineStartX -= ellipseCenterX;
+    lineStartY -= ellipseCenterY;
+    lineEndX -= ellipseCenterX;
+    lineEndY -= ellipseCenterY;
+
+    /**
+     * Step 2:
+     *
+     * <p>Ellipse equation: (x/a)^2 + (y/b)^2 = 1 Line equation: y = mx + c
+     */
+    final double a = Math.abs(ellipseBoundsRight - ellipseBoundsLeft) / 2;
+    final double b = Math.abs(ellipseBoundsBottom - ellipseBoundsTop) / 2;
+    final double m = (lineEndY - lineStartY) / (lineEndX - lineStartX);
+    final double c = lineStartY - m * lineStartX; // Just a point on the line
+
+    /**
+     * Step 3:
+     *
+     * <p>Substitute the Line equation into the Ellipse equation. Solve for x. Eventually, you'll
+     * have to use the quadratic formula.
+     *
+     * <p>Quadratic formula: Ax^2 + Bx + C = 0
+     */
+    final double A = (b * b + a * a * m * m);
+    final double B = 2 * a * a * c * m;
+    final double C = (a * a * (c * c - b * b));
+
+    /**
+     * Step 4:
+     *
+     * <p>Apply Quadratic formula. D = determinant / 2A
+     */
+    final double D = Math.sqrt(-C / A + Math.pow(B / (2 * A), 2));
+    final double x2 = -B / (2 * A) - D;
+    final double y2 = m * x2 + c;
+
+    /**
+     * Step 5:
+     *
+     * <p>Undo the space transformation in Step 5.
+     */
+    final double x = x2 + ellipseCenterX;
+    final double y = y2 + ellipseCenterY;
+
+    if (!Double.isNaN(x) && !Double.isNaN(y)) {
+      result.x = (float) x;
+      result.y = (float) y;
+    }
+  }
+}
@@ -11,7 +11,6 @@ import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.ColorFilter;
-import android.graphics.DashPathEffect;
 import android.graphics.Outline;
 import android.graphics.Paint;
 import android.graphics.Path;
@@ -38,10 +37,10 @@ import java.util.Locale;
  * (setter for each of those properties).
  *
  * <p>The implementation tries to allocate as few objects as possible depending on which properties
- * are set. E.g. for views with rounded background/borders we allocate {@code
- * mInnerClipPathForBorderRadius} and {@code mInnerClipTempRectForBorderRadius}. In case when view
- * have a rectangular borders we allocate {@code mBorderWidthResult} and similar. When only
- * background color is set we won't allocate any extra/unnecessary objects.
+ * are set. E.g. for views with rounded background/borders we look up the border paths in {@link
+ * BorderGeometryCache}, which shares them between all drawables with the same size and border
+ * style. In case when view have a rectangular borders we allocate {@code mBorderWidthResult} and
+ * similar. When only background color is set we won't allocate any extra/unnecessary objects.
  */
 public class ReactViewBackgroundDrawable extends Drawable {
 
@@ -64,12 +63,10 @@ public class ReactViewBackgroundDrawable extends Drawable {
           return null;
 
         case DASHED:
-          return new DashPathEffect(
-              new float[] {borderWidth * 3, borderWidth * 3, borderWidth * 3, borderWidth * 3}, 0);
+          return BorderGeometryCache.getInstance().obtainDashPathEffect(borderWidth * 3);
 
         case DOTTED:
-          return new DashPathEffect(
-              new float[] {borderWidth, borderWidth, borderWidth, borderWidth}, 0);
+          return BorderGeometryCache.getInstance().obtainDashPathEffect(borderWidth);
 
         default:
           return null;
@@ -83,17 +80,16 @@ public class ReactViewBackgroundDrawable extends Drawable {
   private @Nullable Spacing mBorderAlpha;
   private @Nullable BorderStyle mBorderStyle;
 
-  /* Used for rounded border and rounded background */
+  /* Used for rounded border and rounded background, shared through BorderGeometryCache */
   private @Nullable PathEffect mPathEffectForBorderStyle;
+  private @Nullable BorderStyle mPathEffectBorderStyle;
+  private float mPathEffectBorderWidth = YogaConstants.UNDEFINED;
   private @Nullable Path mInnerClipPathForBorderRadius;
   private @Nullable Path mOuterClipPathForBorderRadius;
   private @Nullable Path mPathForBorderRadiusOutline;
   private @Nullable Path mPathForBorder;
   private @Nullable Path mCenterDrawPath;
-  private @Nullable RectF mInnerClipTempRectForBorderRadius;
   private @Nullable RectF mOuterClipTempRectForBorderRadius;
-  private @Nullable RectF mTempRectForBorderRadiusOutline;
-  private @Nullable RectF mTempRectForCenterDrawPath;
   private @Nullable PointF mInnerTopLeftCorner;
   private @Nullable PointF mInnerTopRightCorner;
   private @Nullable PointF mInnerBottomRightCorner;
@@ -484,60 +480,8 @@ public class ReactViewBackgroundDrawable extends Drawable {
 
     mNeedUpdatePathForBorderRadius = false;
 
-    if (mInnerClipPathForBorderRadius == null) {
-      mInnerClipPathForBorderRadius = new Path();
-    }
-
-    if (mOuterClipPathForBorderRadius == null) {
-      mOuterClipPathForBorderRadius = new Path();
-    }
-
-    if (mPathForBorderRadiusOutline == null) {
-      mPathForBorderRadiusOutline = new Path();
-    }
-
-    if (mCenterDrawPath == null) {
-      mCenterDrawPath = new Path();
-    }
-
-    if (mInnerClipTempRectForBorderRadius == null) {
-      mInnerClipTempRectForBorderRadius = new RectF();
-    }
-
-    if (mOuterClipTempRectForBorderRadius == null) {
-      mOuterClipTempRectForBorderRadius = new RectF();
-    }
-
-    if (mTempRectForBorderRadiusOutline == null) {
-      mTempRectForBorderRadiusOutline = new RectF();
-    }
-
-    if (mTempRectForCenterDrawPath == null) {
-      mTempRectForCenterDrawPath = new RectF();
-    }
-
-    mInnerClipPathForBorderRadius.reset();
-    mOuterClipPathForBorderRadius.reset();
-    mPathForBorderRadiusOutline.reset();
-    mCenterDrawPath.reset();
-
-    mInnerClipTempRectForBorderRadius.set(getBounds());
-    mOuterClipTempRectForBorderRadius.set(getBounds());
-    mTempRectForBorderRadiusOutline.set(getBounds());
-    mTempRectForCenterDrawPath.set(getBounds());
-
-    float fullBorderWidth = getFullBorderWidth();
-    if (fullBorderWidth > 0) {
-      mTempRectForCenterDrawPath.inset(fullBorderWidth * 0.5f, fullBorderWidth * 0.5f);
-    }
-
     final RectF borderWidth = getDirectionAwareBorderInsets();
 
-    mInnerClipTempRectForBorderRadius.top += borderWidth.top;
-    mInnerClipTempRectForBorderRadius.bottom -= borderWidth.bottom;
-    mInnerClipTempRectForBorderRadius.left += borderWidth.left;
-    mInnerClipTempRectForBorderRadius.right -= borderWidth.right;
-
     final float borderRadius = getFullBorderRadius();
     float topLeftRadius = getBorderRadiusOrDefaultTo(borderRadius, BorderRadiusLocation.TOP_LEFT);
     float topRightRadius = getBorderRadiusOrDefaultTo(borderRadius, BorderRadiusLocation.TOP_RIGHT);
@@ -603,338 +547,30 @@ public class ReactViewBackgroundDrawable extends Drawable {
       }
     }
 
-    final float innerTopLeftRadiusX = Math.max(topLeftRadius - borderWidth.left, 0);
-    final float innerTopLeftRadiusY = Math.max(topLeftRadius - borderWidth.top, 0);
-    final float innerTopRightRadiusX = Math.max(topRightRadius - borderWidth.right, 0);
-    final float innerTopRightRadiusY = Math.max(topRightRadius - borderWidth.top, 0);
-    final float innerBottomRightRadiusX = Math.max(bottomRightRadius - borderWidth.right, 0);
-    final float innerBottomRightRadiusY = Math.max(bottomRightRadius - borderWidth.bottom, 0);
-    final float innerBottomLeftRadiusX = Math.max(bottomLeftRadius - borderWidth.left, 0);
-    final float innerBottomLeftRadiusY = Math.max(bottomLeftRadius - borderWidth.bottom, 0);
-
-    mInnerClipPathForBorderRadius.addRoundRect(
-        mInnerClipTempRectForBorderRadius,
-        new float[] {
-          innerTopLeftRadiusX,
-          innerTopLeftRadiusY,
-          innerTopRightRadiusX,
-          innerTopRightRadiusY,
-          innerBottomRightRadiusX,
-          innerBottomRightRadiusY,
-          innerBottomLeftRadiusX,
-          innerBottomLeftRadiusY,
-        },
-        Path.Direction.CW);
-
-    mOuterClipPathForBorderRadius.addRoundRect(
-        mOuterClipTempRectForBorderRadius,
-        new float[] {
-          topLeftRadius,
-          topLeftRadius,
-          topRightRadius,
-          topRightRadius,
-          bottomRightRadius,
-          bottomRightRadius,
-          bottomLeftRadius,
-          bottomLeftRadius
-        },
-        Path.Direction.CW);
-
     float extraRadiusForOutline = 0;
 
     if (mBorderWidth != null) {
       extraRadiusForOutline = mBorderWidth.get(Spacing.ALL) / 2f;
     }
 
-    mPathForBorderRadiusOutline.addRoundRect(
-        mTempRectForBorderRadiusOutline,
-        new float[] {
-          topLeftRadius + extraRadiusForOutline,
-          topLeftRadius + extraRadiusForOutline,
-          topRightRadius + extraRadiusForOutline,
-          topRightRadius + extraRadiusForOutline,
-          bottomRightRadius + extraRadiusForOutline,
-          bottomRightRadius + extraRadiusForOutline,
-          bottomLeftRadius + extraRadiusForOutline,
-          bottomLeftRadius + extraRadiusForOutline
-        },
-        Path.Direction.CW);
-
-    mCenterDrawPath.addRoundRect(
-        mTempRectForCenterDrawPath,
-        new float[] {
-          innerTopLeftRadiusX + (topLeftRadius > 0 ? extraRadiusForOutline : 0),
-          innerTopLeftRadiusY + (topLeftRadius > 0 ? extraRadiusForOutline : 0),
-          innerTopRightRadiusX + (topRightRadius > 0 ? extraRadiusForOutline : 0),
-          innerTopRightRadiusY + (topRightRadius > 0 ? extraRadiusForOutline : 0),
-          innerBottomRightRadiusX + (bottomRightRadius > 0 ? extraRadiusForOutline : 0),
-          innerBottomRightRadiusY + (bottomRightRadius > 0 ? extraRadiusForOutline : 0),
-          innerBottomLeftRadiusX + (bottomLeftRadius > 0 ? extraRadiusForOutline : 0),
-          innerBottomLeftRadiusY + (bottomLeftRadius > 0 ? extraRadiusForOutline : 0)
-        },
-        Path.Direction.CW);
-
-    /**
-     * Rounded Multi-Colored Border Algorithm:
-     *
-     * <p>Let O (for outer) = (top, left, bottom, right) be the rectangle that represents the size
-     * and position of a view V. Since the box-sizing of all React Native views is border-box, any
-     * border of V will render inside O.
-     *
-     * <p>Let BorderWidth = (borderTop, borderLeft, borderBottom, borderRight).
-     *
-     * <p>Let I (for inner) = O - BorderWidth.
-     *
-     * <p>Then, remembering that O and I are rectangles and that I is inside O, O - I gives us the
-     * border of V. Therefore, we can use canvas.clipPath to draw V's border.
-     *
-     * <p>canvas.clipPath(O, Region.OP.INTERSECT);
-     *
-     * <p>canvas.clipPath(I, Region.OP.DIFFERENCE);
-     *
-     * <p>canvas.drawRect(O, paint);
-     *
-     * <p>This lets us draw non-rounded single-color borders.
-     *
-     * <p>To extend this algorithm to rounded single-color borders, we:
-     *
-     * <p>1. Curve the corners of O by the (border radii of V) using Path#addRoundRect.
-     *
-     * <p>2. Curve the corners of I by (border radii of V - border widths of V) using
-     * Path#addRoundRect.
-     *
-     * <p>Let O' = curve(O, border radii of V).
-     *
-     * <p>Let I' = curve(I, border radii of V - border widths of V)
-     *
-     * <p>The rationale behind this decision is the (first sentence of the) following section in the
-     * CSS Backgrounds and Borders Module Level 3:
-     * https://www.w3.org/TR/css3-background/#the-border-radius.
-     *
-     * <p>After both O and I have been curved, we can execute the following lines once again to
-     * render curved single-color borders:
-     *
-     * <p>canvas.clipPath(O, Region.OP.INTERSECT);
-     *
-     * <p>canvas.clipPath(I, Region.OP.DIFFERENCE);
-     *
-     * <p>canvas.drawRect(O, paint);
-     *
-     * <p>To extend this algorithm to rendering multi-colored rounded borders, we render each side
-     * of the border as its own quadrilateral. Suppose that we were handling the case where all the
-     * border radii are 0. Then, the four quadrilaterals would be:
-     *
-     * <p>Left: (O.left, O.top), (I.left, I.top), (I.left, I.bottom), (O.left, O.bottom)
-     *
-     * <p>Top: (O.left, O.top), (I.left, I.top), (I.right, I.top), (O.right, O.top)
-     *
-     * <p>Right: (O.right, O.top), (I.right, I.top), (I.right, I.bottom), (O.right, O.bottom)
-     *
-     * <p>Bottom: (O.right, O.bottom), (I.right, I.bottom), (I.left, I.bottom), (O.left, O.bottom)
-     *
-     * <p>Now, lets consider what happens when we render a rounded border (radii != 0). For the sake
-     * of simplicity, let's focus on the top edge of the Left border:
-     *
-     * <p>Let borderTopLeftRadius = 5. Let borderLeftWidth = 1. Let borderTopWidth = 2.
-     *
-     * <p>We know that O is curved by the ellipse E_O (a = 5, b = 5). We know that I is curved by
-     * the ellipse E_I (a = 5 - 1, b = 5 - 2).
-     *
-     * <p>Since we have clipping, it should be safe to set the top-left point of the Left
-     * quadrilateral's top edge to (O.left, O.top).
-     *
-     * <p>But, what should the top-right point be?
-     *
-     * <p>The fact that the border is curved shouldn't change the slope (nor the position) of the
-     * line connecting the top-left and top-right points of the Left quadrilateral's top edge.
-     * Therefore, The top-right point should lie somewhere on the line L = (1 - a) * (O.left, O.top)
-     * + a * (I.left, I.top).
-     *
-     * <p>a != 0, because then the top-left and top-right points would be the same and
-     * borderLeftWidth = 1. a != 1, because then the top-right point would not touch an edge of the
-     * ellipse E_I. We want the top-right point to touch an edge of the inner ellipse because the
-     * border curves with E_I on the top-left corner of V.
-     *
-     * <p>Therefore, it must be the case that a > 1. Two natural locations of the top-right point
-     * exist: 1. The first intersection of L with E_I. 2. The second intersection of L with E_I.
-     *
-     * <p>We choose the top-right point of the top edge of the Left quadrilateral to be an arbitrary
-     * intersection of L with E_I.
-     */
-    if (mInnerTopLeftCorner == null) {
-      mInnerTopLeftCorner = new PointF();
-    }
-
-    /** Compute mInnerTopLeftCorner */
-    mInnerTopLeftCorner.x = mInnerClipTempRectForBorderRadius.left;
-    mInnerTopLeftCorner.y = mInnerClipTempRectForBorderRadius.top;
-
-    getEllipseIntersectionWithLine(
-        // Ellipse Bounds
-        mInnerClipTempRectForBorderRadius.left,
-        mInnerClipTempRectForBorderRadius.top,
-        mInnerClipTempRectForBorderRadius.left + 2 * innerTopLeftRadiusX,
-        mInnerClipTempRectForBorderRadius.top + 2 * innerTopLeftRadiusY,
-
-        // Line Start
-        mOuterClipTempRectForBorderRadius.left,
-        mOuterClipTempRectForBorderRadius.top,
-
-        // Line End
-        mInnerClipTempRectForBorderRadius.left,
-        mInnerClipTempRectForBorderRadius.top,
+    final BorderGeometryCache.BorderGeometry geometry =
+        BorderGeometryCache.getInstance()
+            .obtain(
+                getBounds(),
+                borderWidth,
+                getFullBorderWidth(),
+                extraRadiusForOutline,
+                new float[] {topLeftRadius, topRightRadius, bottomRightRadius, bottomLeftRadius});
 
-        // Result
-        mInnerTopLeftCorner);
-
-    /** Compute mInnerBottomLeftCorner */
-    if (mInnerBottomLeftCorner == null) {
-      mInnerBottomLeftCorner = new PointF();
-    }
-
-    mInnerBottomLeftCorner.x = mInnerClipTempRectForBorderRadius.left;
-    mInnerBottomLeftCorner.y = mInnerClipTempRectForBorderRadius.bottom;
-
-    getEllipseIntersectionWithLine(
-        // Ellipse Bounds
-        mInnerClipTempRectForBorderRadius.left,
-        mInnerClipTempRectForBorderRadius.bottom - 2 * innerBottomLeftRadiusY,
-        mInnerClipTempRectForBorderRadius.left + 2 * innerBottomLeftRadiusX,
-        mInnerClipTempRectForBorderRadius.bottom,
-
-        // Line Start
-        mOuterClipTempRectForBorderRadius.left,
-        mOuterClipTempRectForBorderRadius.bottom,
-
-        // Line End
-        mInnerClipTempRectForBorderRadius.left,
-        mInnerClipTempRectForBorderRadius.bottom,
-
-        // Result
-        mInnerBottomLeftCorner);
-
-    /** Compute mInnerTopRightCorner */
-    if (mInnerTopRightCorner == null) {
-      mInnerTopRightCorner = new PointF();
-    }
-
-    mInnerTopRightCorner.x = mInnerClipTempRectForBorderRadius.right;
-    mInnerTopRightCorner.y = mInnerClipTempRectForBorderRadius.top;
-
-    getEllipseIntersectionWithLine(
-        // Ellipse Bounds
-        mInnerClipTempRectForBorderRadius.right - 2 * innerTopRightRadiusX,
-        mInnerClipTempRectForBorderRadius.top,
-        mInnerClipTempRectForBorderRadius.right,
-        mInnerClipTempRectForBorderRadius.top + 2 * innerTopRightRadiusY,
-
-        // Line Start
-        mOuterClipTempRectForBorderRadius.right,
-        mOuterClipTempRectForBorderRadius.top,
-
-        // Line End
-        mInnerClipTempRectForBorderRadius.right,
-        mInnerClipTempRectForBorderRadius.top,
-
-        // Result
-        mInnerTopRightCorner);
-
-    /** Compute mInnerBottomRightCorner */
-    if (mInnerBottomRightCorner == null) {
-      mInnerBottomRightCorner = new PointF();
-    }
-
-    mInnerBottomRightCorner.x = mInnerClipTempRectForBorderRadius.right;
-    mInnerBottomRightCorner.y = mInnerClipTempRectForBorderRadius.bottom;
-
-    getEllipseIntersectionWithLine(
-        // Ellipse Bounds
-        mInnerClipTempRectForBorderRadius.right - 2 * innerBottomRightRadiusX,
-        mInnerClipTempRectForBorderRadius.bottom - 2 * innerBottomRightRadiusY,
-        mInnerClipTempRectForBorderRadius.right,
-        mInnerClipTempRectForBorderRadius.bottom,
-
-        // Line Start
-        mOuterClipTempRectForBorderRadius.right,
-        mOuterClipTempRectForBorderRadius.bottom,
-
-        // Line End
-        mInnerClipTempRectForBorderRadius.right,
-        mInnerClipTempRectForBorderRadius.bottom,
-
-        // Result
-        mInnerBottomRightCorner);
-  }
-
-  private static void getEllipseIntersectionWithLine(
-      double ellipseBoundsLeft,
-      double ellipseBoundsTop,
-      double ellipseBoundsRight,
-      double ellipseBoundsBottom,
-      double lineStartX,
-      double lineStartY,
-      double lineEndX,
-      double lineEndY,
-      PointF result) {
-    final double ellipseCenterX = (ellipseBoundsLeft + ellipseBoundsRight) / 2;
-    final double ellipseCenterY = (ellipseBoundsTop + ellipseBoundsBottom) / 2;
-
-    /**
-     * Step 1:
-     *
-     * <p>Translate the line so that the ellipse is at the origin.
-     *
-     * <p>Why? It makes the math easier by changing the ellipse equation from ((x -
-     * ellipseCenterX)/a)^2 + ((y - ellipseCenterY)/b)^2 = 1 to (x/a)^2 + (y/b)^2 = 1.
-     */
-    lineStartX -= ellipseCenterX;
-    lineStartY -= ellipseCenterY;
-    lineEndX -= ellipseCenterX;
-    lineEndY -= ellipseCenterY;
-
-    /**
-     * Step 2:
-     *
-     * <p>Ellipse equation: (x/a)^2 + (y/b)^2 = 1 Line equation: y = mx + c
-     */
-    final double a = Math.abs(ellipseBoundsRight - ellipseBoundsLeft) / 2;
-    final double b = Math.abs(ellipseBoundsBottom - ellipseBoundsTop) / 2;
-    final double m = (lineEndY - lineStartY) / (lineEndX - lineStartX);
-    final double c = lineStartY - m * lineStartX; // Just a point on the line
-
-    /**
-     * Step 3:
-     *
-     * <p>Substitute the Line equation into the Ellipse equation. Solve for x. Eventually, you'll
-     * have to use the quadratic formula.
-     *
-     * <p>Quadratic formula: Ax^2 + Bx + C = 0
-     */
-    final double A = (b * b + a * a * m * m);
-    final double B = 2 * a * a * c * m;
-    final double C = (a * a * (c * c - b * b));
-
-    /**
-     * Step 4:
-     *
-     * <p>Apply Quadratic formula. D = determinant / 2A
-     */
-    final double D = Math.sqrt(-C / A + Math.pow(B / (2 * A), 2));
-    final double x2 = -B / (2 * A) - D;
-    final double y2 = m * x2 + c;
-
-    /**
-     * Step 5:
-     *
-     * <p>Undo the space transformation in Step 5.
-     */
-    final double x = x2 + ellipseCenterX;
-    final double y = y2 + ellipseCenterY;
-
-    if (!Double.isNaN(x) && !Double.isNaN(y)) {
-      result.x = (float) x;
-      result.y = (float) y;
-    }
+    mInnerClipPathForBorderRadius = geometry.innerClipPath;
+    mOuterClipPathForBorderRadius = geometry.outerClipPath;
+    mPathForBorderRadiusOutline = geometry.outlinePath;
+    mCenterDrawPath = geometry.centerDrawPath;
+    mOuterClipTempRectForBorderRadius = geometry.outerClipRect;
+    mInnerTopLeftCorner = geometry.innerTopLeftCorner;
+    mInnerTopRightCorner = geometry.innerTopRightCorner;
+    mInnerBottomRightCorner = geometry.innerBottomRightCorner;
+    mInnerBottomLeftCorner = geometry.innerBottomLeftCorner;
   }
 
   public float getBorderWidthOrDefaultTo(final float defaultValue, final int spacingType) {
@@ -953,8 +589,15 @@ public class ReactViewBackgroundDrawable extends Drawable {
 
   /** Set type of border */
   private void updatePathEffect() {
+    final float fullBorderWidth = getFullBorderWidth();
+    if (mPathEffectBorderStyle == mBorderStyle
+        && FloatUtil.floatsEqual(mPathEffectBorderWidth, fullBorderWidth)) {
+      return;
+    }
+    mPathEffectBorderStyle = mBorderStyle;
+    mPathEffectBorderWidth = fullBorderWidth;
     mPathEffectForBorderStyle =
-        mBorderStyle != null ? BorderStyle.getPathEffect(mBorderStyle, getFullBorderWidth()) : null;
+        mBorderStyle != null ? BorderStyle.getPathEffect(mBorderStyle, fullBorderWidth) : null;
 
     mPaint.setPathEffect(mPathEffectForBorderStyle);
   }
@@ -273,6 +273,12 @@ public class ReactViewManager extends ReactClippingViewManager<ReactViewGroup> {
     view.setBackfaceVisibilityDependantOpacity();
   }
 
+  @Override
+  public void setTransformMatrix(@NonNull ReactViewGroup view, double[] matrix) {
+    super.setTransformMatrix(view, matrix);
+    view.setBackfaceVisibilityDependantOpacity();
+  }
+
   @Override
   public String getName() {
     return REACT_CLASS;
@@ -178,6 +178,148 @@ public abstract class YogaNode {
 
   public abstract void setMaxHeightPercent(float percent);
 
+  /**
+   * Apply a batch of style changes at once.
+   *
+   * <p>This implementation replays the inputs through the individual setters. Subclasses that can
+   * apply them natively should override it.
+   *
+   * @param styleInputs a sequence of {@link YogaStyleInputs} opcodes, each followed by its
+   *     arguments: the edge first for edge properties, then the value (enums as their {@code
+   *     intValue()}, booleans as 0 or 1). Auto opcodes have no value.
+   * @param size the number of floats of {@code styleInputs} to read
+   */
+  public void setStyleInputs(float[] styleInputs, int size) {
+    int i = 0;
+    while (i < size) {
+      short input = (short) styleInputs[i++];
+      switch (input) {
+        case YogaStyleInputs.LAYOUT_DIRECTION:
+          setDirection(YogaDirection.fromInt((int) styleInputs[i++]));
+          break;
+        case YogaStyleInputs.FLEX_DIRECTION:
+          setFlexDirection(YogaFlexDirection.fromInt((int) styleInputs[i++]));
+          break;
+        case YogaStyleInputs.FLEX:
+          setFlex(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.FLEX_GROW:
+          setFlexGrow(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.FLEX_SHRINK:
+          setFlexShrink(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.FLEX_BASIS:
+          setFlexBasis(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.FLEX_BASIS_PERCENT:
+          setFlexBasisPercent(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.FLEX_BASIS_AUTO:
+          setFlexBasisAuto();
+          break;
+        case YogaStyleInputs.FLEX_WRAP:
+          setWrap(YogaWrap.fromInt((int) styleInputs[i++]));
+          break;
+        case YogaStyleInputs.WIDTH:
+          setWidth(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.WIDTH_PERCENT:
+          setWidthPercent(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.WIDTH_AUTO:
+          setWidthAuto();
+          break;
+        case YogaStyleInputs.MIN_WIDTH:
+          setMinWidth(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.MIN_WIDTH_PERCENT:
+          setMinWidthPercent(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.MAX_WIDTH:
+          setMaxWidth(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.MAX_WIDTH_PERCENT:
+          setMaxWidthPercent(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.HEIGHT:
+          setHeight(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.HEIGHT_PERCENT:
+          setHeightPercent(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.HEIGHT_AUTO:
+          setHeightAuto();
+          break;
+        case YogaStyleInputs.MIN_HEIGHT:
+          setMinHeight(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.MIN_HEIGHT_PERCENT:
+          setMinHeightPercent(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.MAX_HEIGHT:
+          setMaxHeight(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.MAX_HEIGHT_PERCENT:
+          setMaxHeightPercent(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.JUSTIFY_CONTENT:
+          setJustifyContent(YogaJustify.fromInt((int) styleInputs[i++]));
+          break;
+        case YogaStyleInputs.ALIGN_ITEMS:
+          setAlignItems(YogaAlign.fromInt((int) styleInputs[i++]));
+          break;
+        case YogaStyleInputs.ALIGN_SELF:
+          setAlignSelf(YogaAlign.fromInt((int) styleInputs[i++]));
+          break;
+        case YogaStyleInputs.ALIGN_CONTENT:
+          setAlignContent(YogaAlign.fromInt((int) styleInputs[i++]));
+          break;
+        case YogaStyleInputs.POSITION_TYPE:
+          setPositionType(YogaPositionType.fromInt((int) styleInputs[i++]));
+          break;
+        case YogaStyleInputs.ASPECT_RATIO:
+          setAspectRatio(styleInputs[i++]);
+          break;
+        case YogaStyleInputs.OVERFLOW:
+          setOverflow(YogaOverflow.fromInt((int) styleInputs[i++]));
+          break;
+        case YogaStyleInputs.DISPLAY:
+          setDisplay(YogaDisplay.fromInt((int) styleInputs[i++]));
+          break;
+        case YogaStyleInputs.MARGIN:
+          setMargin(YogaEdge.fromInt((int) styleInputs[i++]), styleInputs[i++]);
+          break;
+        case YogaStyleInputs.MARGIN_PERCENT:
+          setMarginPercent(YogaEdge.fromInt((int) styleInputs[i++]), styleInputs[i++]);
+          break;
+        case YogaStyleInputs.MARGIN_AUTO:
+          setMarginAuto(YogaEdge.fromInt((int) styleInputs[i++]));
+          break;
+        case YogaStyleInputs.PADDING:
+          setPadding(YogaEdge.fromInt((int) styleInputs[i++]), styleInputs[i++]);
+          break;
+        case YogaStyleInputs.PADDING_PERCENT:
+          setPaddingPercent(YogaEdge.fromInt((int) styleInputs[i++]), styleInputs[i++]);
+          break;
+        case YogaStyleInputs.BORDER:
+          setBorder(YogaEdge.fromInt((int) styleInputs[i++]), styleInputs[i++]);
+          break;
+        case YogaStyleInputs.POSITION:
+          setPosition(YogaEdge.fromInt((int) styleInputs[i++]), styleInputs[i++]);
+          break;
+        case YogaStyleInputs.POSITION_PERCENT:
+          setPositionPercent(YogaEdge.fromInt((int) styleInputs[i++]), styleInputs[i++]);
+          break;
+        case YogaStyleInputs.IS_REFERENCE_BASELINE:
+          setIsReferenceBaseline(styleInputs[i++] == 1);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown style input: " + input);
+      }
+    }
+  }
+
   public abstract float getAspectRatio();
 
   public abstract void setAspectRatio(float aspectRatio);
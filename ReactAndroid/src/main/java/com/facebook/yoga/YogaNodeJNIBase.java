@@ -391,6 +391,11 @@ public abstract class YogaNodeJNIBase extends YogaNode implements Cloneable {
     YogaNative.jni_YGNodeStyleSetPositionPercentJNI(mNativePointer, edge.intValue(), percent);
   }
 
+  @Override
+  public void setStyleInputs(float[] styleInputs, int size) {
+    YogaNative.jni_YGNodeSetStyleInputsJNI(mNativePointer, styleInputs, size);
+  }
+
   public YogaValue getWidth() {
     return valueFromLong(YogaNative.jni_YGNodeStyleGetWidthJNI(mNativePointer));
   }
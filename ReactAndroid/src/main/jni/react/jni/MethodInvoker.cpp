@@ -268,6 +268,18 @@ MethodCallResult MethodInvoker::invoke(
     return folly::dynamic(static_cast<RESULT_TYPE>(result->ACTIONS()));     \
   }
 
+#define NATIVE_COLLECTION_CASE(JNI_CLASS)                               \
+  {                                                                     \
+    auto jobject = env->CallObjectMethodA(module.get(), method_, args); \
+    throwPendingJniExceptionAsCppException();                           \
+    if (!jobject) {                                                     \
+      return folly::dynamic(nullptr);                                   \
+    }                                                                   \
+    auto result =                                                       \
+        adopt_local(static_cast<JNI_CLASS::jhybridobject>(jobject));    \
+    return JNI_CLASS::materializeAndConsume(result);                    \
+  }
+
   char returnType = signature_.at(0);
   switch (returnType) {
     case 'v':
@@ -295,9 +307,9 @@ MethodCallResult MethodInvoker::invoke(
     case 'S':
       OBJECT_CASE(JString, toStdString)
     case 'M':
-      OBJECT_CASE(WritableNativeMap, cthis()->consume)
+      NATIVE_COLLECTION_CASE(NativeMap)
     case 'A':
-      OBJECT_CASE(WritableNativeArray, cthis()->consume)
+      NATIVE_COLLECTION_CASE(NativeArray)
 
     default:
       LOG(FATAL) << "Unknown return type: " << returnType;
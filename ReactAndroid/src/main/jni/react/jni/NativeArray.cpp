@@ -42,6 +42,14 @@ folly::dynamic NativeArray::consume() {
   return std::move(array_);
 }
 
+folly::dynamic NativeArray::materializeAndConsume(
+    alias_ref<jhybridobject> array) {
+  static const auto materialize =
+      javaClassStatic()->getMethod<void()>("materialize");
+  materialize(array);
+  return array->cthis()->consume();
+}
+
 void NativeArray::throwIfConsumed() {
   exceptions::throwIfObjectAlreadyConsumed(this, "Array already consumed");
 }
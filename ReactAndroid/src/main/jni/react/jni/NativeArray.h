@@ -24,6 +24,11 @@ class NativeArray : public jni::HybridClass<NativeArray> {
 
   RN_EXPORT folly::dynamic consume();
 
+  // Consumes an array returned by Java code, after writing the entries it may
+  // still buffer on the Java side (see BufferedWritableNativeArray).
+  RN_EXPORT static folly::dynamic materializeAndConsume(
+      jni::alias_ref<jhybridobject> array);
+
   // Whether this array has been added to another array or map and no longer
   // has a valid array value.
   bool isConsumed;
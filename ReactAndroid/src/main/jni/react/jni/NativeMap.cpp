@@ -31,6 +31,14 @@ folly::dynamic NativeMap::consume() {
   return std::move(map_);
 }
 
+folly::dynamic NativeMap::materializeAndConsume(
+    alias_ref<jhybridobject> map) {
+  static const auto materialize =
+      javaClassStatic()->getMethod<void()>("materialize");
+  materialize(map);
+  return map->cthis()->consume();
+}
+
 void NativeMap::throwIfConsumed() {
   exceptions::throwIfObjectAlreadyConsumed(this, "Map already consumed");
 }
@@ -24,6 +24,11 @@ class NativeMap : public jni::HybridClass<NativeMap> {
 
   RN_EXPORT folly::dynamic consume();
 
+  // Consumes a map returned by Java code, after writing the entries it may
+  // still buffer on the Java side (see BufferedWritableNativeMap).
+  RN_EXPORT static folly::dynamic materializeAndConsume(
+      jni::alias_ref<jhybridobject> map);
+
   // Whether this map has been added to another array or map and no longer
   // has a valid map value.
   bool isConsumed;
@@ -7,6 +7,7 @@
 
 #include "WritableNativeArray.h"
 
+#include "WritableNativeBuffer.h"
 #include "WritableNativeMap.h"
 
 using namespace facebook::jni;
@@ -69,6 +70,16 @@ void WritableNativeArray::pushNativeMap(WritableNativeMap *map) {
   array_.push_back(map->consume());
 }
 
+void WritableNativeArray::pushBuffered(
+    alias_ref<JArrayByte> types,
+    jint typeCount,
+    alias_ref<JArrayDouble> numbers,
+    alias_ref<JArrayClass<jobject>> objects) {
+  throwIfConsumed();
+  WritableNativeBufferReader(types, typeCount, numbers, objects)
+      .readArrayEntries(array_);
+}
+
 void WritableNativeArray::registerNatives() {
   registerHybrid({
       makeNativeMethod("initHybrid", WritableNativeArray::initHybrid),
@@ -79,6 +90,7 @@ void WritableNativeArray::registerNatives() {
       makeNativeMethod("pushString", WritableNativeArray::pushString),
       makeNativeMethod("pushNativeArray", WritableNativeArray::pushNativeArray),
       makeNativeMethod("pushNativeMap", WritableNativeArray::pushNativeMap),
+      makeNativeMethod("pushBuffered", WritableNativeArray::pushBuffered),
   });
 }
 
@@ -38,6 +38,11 @@ struct WritableNativeArray
   void pushString(jstring value);
   void pushNativeArray(WritableNativeArray *otherArray);
   void pushNativeMap(WritableNativeMap *map);
+  void pushBuffered(
+      jni::alias_ref<jni::JArrayByte> types,
+      jint typeCount,
+      jni::alias_ref<jni::JArrayDouble> numbers,
+      jni::alias_ref<jni::JArrayClass<jobject>> objects);
 
   static void registerNatives();
 };
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+#include "WritableNativeBuffer.h"
+
+#include <folly/Conv.h>
+
+#include "WritableNativeArray.h"
+#include "WritableNativeMap.h"
+
+using namespace facebook::jni;
+
+namespace facebook {
+namespace react {
+
+namespace {
+
+// Type tags of WritableNativeBuffer.java
+enum BufferType : jbyte {
+  kNull = 0,
+  kBoolean = 1,
+  kDouble = 2,
+  kInt = 3,
+  kString = 4,
+  kMapStart = 5,
+  kArrayStart = 6,
+  kEnd = 7,
+  kNativeMap = 8,
+  kNativeArray = 9,
+};
+
+} // namespace
+
+WritableNativeBufferReader::WritableNativeBufferReader(
+    alias_ref<JArrayByte> types,
+    jint typeCount,
+    alias_ref<JArrayDouble> numbers,
+    alias_ref<JArrayClass<jobject>> objects)
+    : types_(types->getRegion(0, typeCount)),
+      typeCount_(typeCount),
+      numbers_(numbers->getRegion(0, numbers->size())),
+      objects_(objects) {}
+
+void WritableNativeBufferReader::readMapEntries(folly::dynamic &map) {
+  while (typeIndex_ < typeCount_) {
+    jbyte type = types_[typeIndex_++];
+    if (type == kEnd) {
+      return;
+    }
+    std::string key = readString();
+    map[std::move(key)] = readValue(type);
+  }
+}
+
+void WritableNativeBufferReader::readArrayEntries(folly::dynamic &array) {
+  while (typeIndex_ < typeCount_) {
+    jbyte type = types_[typeIndex_++];
+    if (type == kEnd) {
+      return;
+    }
+    array.push_back(readValue(type));
+  }
+}
+
+folly::dynamic WritableNativeBufferReader::readValue(jbyte type) {
+  switch (type) {
+    case kNull:
+      return nullptr;
+    case kBoolean:
+      return numbers_[numberIndex_++] != 0;
+    case kDouble:
+      return numbers_[numberIndex_++];
+    case kInt:
+      return static_cast<int>(numbers_[numberIndex_++]);
+    case kString:
+      return readString();
+    case kMapStart: {
+      folly::dynamic map = folly::dynamic::object();
+      readMapEntries(map);
+      return map;
+    }
+    case kArrayStart: {
+      folly::dynamic array = folly::dynamic::array();
+      readArrayEntries(array);
+      return array;
+    }
+    case kNativeMap: {
+      auto map = static_ref_cast<WritableNativeMap::jhybridobject>(
+          objects_->getElement(objectIndex_++));
+      return map->cthis()->consume();
+    }
+    case kNativeArray: {
+      auto array = static_ref_cast<WritableNativeArray::jhybridobject>(
+          objects_->getElement(objectIndex_++));
+      return array->cthis()->consume();
+    }
+    default:
+      throw std::runtime_error(
+          "Unknown WritableNativeBuffer type " + folly::to<std::string>(type));
+  }
+}
+
+std::string WritableNativeBufferReader::readString() {
+  return static_ref_cast<JString>(objects_->getElement(objectIndex_++))
+      ->toStdString();
+}
+
+} // namespace react
+} // namespace facebook
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+#pragma once
+
+#include <memory>
+#include <string>
+
+#include <fbjni/fbjni.h>
+#include <folly/dynamic.h>
+
+namespace facebook {
+namespace react {
+
+// Reads the entries a Java WritableNativeBuffer collected for a
+// BufferedWritableNativeMap or BufferedWritableNativeArray. The layout needs to
+// be kept in sync with WritableNativeBuffer.java.
+class WritableNativeBufferReader {
+ public:
+  WritableNativeBufferReader(
+      jni::alias_ref<jni::JArrayByte> types,
+      jint typeCount,
+      jni::alias_ref<jni::JArrayDouble> numbers,
+      jni::alias_ref<jni::JArrayClass<jobject>> objects);
+
+  // Adds the entries of the buffer to an object.
+  void readMapEntries(folly::dynamic &map);
+
+  // Appends the entries of the buffer to an array.
+  void readArrayEntries(folly::dynamic &array);
+
+ private:
+  folly::dynamic readValue(jbyte type);
+  std::string readString();
+
+  std::unique_ptr<jbyte[]> types_;
+  size_t typeCount_;
+  size_t typeIndex_ = 0;
+  std::unique_ptr<jdouble[]> numbers_;
+  size_t numberIndex_ = 0;
+  jni::alias_ref<jni::JArrayClass<jobject>> objects_;
+  size_t objectIndex_ = 0;
+};
+
+} // namespace react
+} // namespace facebook
@@ -7,6 +7,8 @@
 
 #include "WritableNativeMap.h"
 
+#include "WritableNativeBuffer.h"
+
 using namespace facebook::jni;
 
 namespace facebook {
@@ -86,6 +88,16 @@ void WritableNativeMap::mergeNativeMap(ReadableNativeMap *other) {
   }
 }
 
+void WritableNativeMap::putBuffered(
+    alias_ref<JArrayByte> types,
+    jint typeCount,
+    alias_ref<JArrayDouble> numbers,
+    alias_ref<JArrayClass<jobject>> objects) {
+  throwIfConsumed();
+  WritableNativeBufferReader(types, typeCount, numbers, objects)
+      .readMapEntries(map_);
+}
+
 void WritableNativeMap::registerNatives() {
   registerHybrid({
       makeNativeMethod("putNull", WritableNativeMap::putNull),
@@ -96,6 +108,7 @@ void WritableNativeMap::registerNatives() {
       makeNativeMethod("putNativeArray", WritableNativeMap::putNativeArray),
       makeNativeMethod("putNativeMap", WritableNativeMap::putNativeMap),
       makeNativeMethod("mergeNativeMap", WritableNativeMap::mergeNativeMap),
+      makeNativeMethod("putBuffered", WritableNativeMap::putBuffered),
       makeNativeMethod("initHybrid", WritableNativeMap::initHybrid),
   });
 }
@@ -40,6 +40,11 @@ struct WritableNativeMap
   void putNativeArray(std::string key, WritableNativeArray *val);
   void putNativeMap(std::string key, WritableNativeMap *val);
   void mergeNativeMap(ReadableNativeMap *other);
+  void putBuffered(
+      jni::alias_ref<jni::JArrayByte> types,
+      jint typeCount,
+      jni::alias_ref<jni::JArrayDouble> numbers,
+      jni::alias_ref<jni::JArrayClass<jobject>> objects);
 
   static void registerNatives();
 
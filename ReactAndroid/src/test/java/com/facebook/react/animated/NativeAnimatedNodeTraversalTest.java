@@ -13,17 +13,22 @@ import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
+import android.view.View;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.JavaOnlyArray;
 import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.common.MapBuilder;
+import com.facebook.react.config.ReactFeatureFlags;
+import com.facebook.react.uimanager.BaseViewManager;
 import com.facebook.react.uimanager.UIManagerModule;
 import com.facebook.react.uimanager.events.Event;
 import com.facebook.react.uimanager.events.EventDispatcher;
@@ -852,6 +857,181 @@ public class NativeAnimatedNodeTraversalTest {
     verifyNoMoreInteractions(mUIManagerMock);
   }
 
+  private void createInterpolatedViewProp(
+      int viewTag, String propName, JavaOnlyArray outputRange, boolean inStyle) {
+    mNativeAnimatedNodesManager.createAnimatedNode(
+        1, JavaOnlyMap.of("type", "value", "value", 0d, "offset", 0d));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+        2,
+        JavaOnlyMap.of(
+            "type",
+            "interpolation",
+            "inputRange",
+            JavaOnlyArray.of(0d, 1d),
+            "outputRange",
+            outputRange,
+            "extrapolateLeft",
+            "clamp",
+            "extrapolateRight",
+            "clamp"));
+    mNativeAnimatedNodesManager.connectAnimatedNodes(1, 2);
+    if (inStyle) {
+      mNativeAnimatedNodesManager.createAnimatedNode(
+          3, JavaOnlyMap.of("type", "style", "style", JavaOnlyMap.of(propName, 2)));
+      mNativeAnimatedNodesManager.connectAnimatedNodes(2, 3);
+      mNativeAnimatedNodesManager.createAnimatedNode(
+          4, JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of("style", 3)));
+      mNativeAnimatedNodesManager.connectAnimatedNodes(3, 4);
+    } else {
+      mNativeAnimatedNodesManager.createAnimatedNode(
+          4, JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of(propName, 2)));
+      mNativeAnimatedNodesManager.connectAnimatedNodes(2, 4);
+    }
+    mNativeAnimatedNodesManager.connectAnimatedNodeToView(4, viewTag);
+  }
+
+  @Test
+  public void testInterpolationNodeWithColorOutput() {
+    createInterpolatedViewProp(
+        50,
+        "backgroundColor",
+        JavaOnlyArray.of("rgba(0, 100, 200, 0)", "rgba(50, 150, 250, 0.5)"),
+        true);
+
+    ArgumentCaptor<ReadableMap> stylesCaptor = ArgumentCaptor.forClass(ReadableMap.class);
+
+    mNativeAnimatedNodesManager.setAnimatedNodeValue(1, 0.5d);
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    verify(mUIManagerMock).synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
+    assertThat(stylesCaptor.getValue().getInt("backgroundColor")).isEqualTo(0x40197DE1);
+
+    reset(mUIManagerMock);
+    mNativeAnimatedNodesManager.setAnimatedNodeValue(1, 1d);
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    verify(mUIManagerMock).synchronouslyUpdateViewOnUIThread(eq(50), stylesCaptor.capture());
+    assertThat(stylesCaptor.getValue().getInt("backgroundColor")).isEqualTo(0x803296FA);
+  }
+
+  @Test
+  public void testInterpolationNodeWithSuffixedOutput() {
+    createInterpolatedViewProp(50, "rotation", JavaOnlyArray.of("0deg", "90deg"), false);
+
+    ArgumentCaptor<ReadableMap> propsCaptor = ArgumentCaptor.forClass(ReadableMap.class);
+
+    mNativeAnimatedNodesManager.setAnimatedNodeValue(1, 0.5d);
+    mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+    verify(mUIManagerMock).synchronouslyUpdateViewOnUIThread(eq(50), propsCaptor.capture());
+    assertThat(propsCaptor.getValue().getString("rotation")).isEqualTo("45.0deg");
+  }
+
+  @Test
+  public void testPropWritersUpdateViewWithoutPropsMap() {
+    ReactFeatureFlags.enableNativeAnimatedPropWriters = true;
+    try {
+      View view = mock(View.class);
+      BaseViewManager viewManager = mock(BaseViewManager.class);
+      PowerMockito.when(viewManager.supportsTransformMatrix()).thenReturn(true);
+      createOpacityAndTransformProps(view, viewManager);
+
+      mNativeAnimatedNodesManager.setAnimatedNodeValue(1, 0.5d);
+      mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+
+      ArgumentCaptor<double[]> matrixCaptor = ArgumentCaptor.forClass(double[].class);
+      verify(viewManager).setOpacity(view, 0.5f);
+      verify(viewManager).setTransformMatrix(eq(view), matrixCaptor.capture());
+      assertThat(matrixCaptor.getValue()[12]).isEqualTo(0.5d);
+      verify(viewManager).onAfterTypedPropsUpdate(view);
+      verify(mUIManagerMock, never())
+          .synchronouslyUpdateViewOnUIThread(anyInt(), any(ReadableMap.class));
+    } finally {
+      ReactFeatureFlags.enableNativeAnimatedPropWriters = false;
+    }
+  }
+
+  @Test
+  public void testPropWritersUseOverriddenSetTransform() {
+    ReactFeatureFlags.enableNativeAnimatedPropWriters = true;
+    try {
+      View view = mock(View.class);
+      BaseViewManager viewManager = mock(BaseViewManager.class);
+      PowerMockito.when(viewManager.supportsTransformMatrix()).thenReturn(false);
+      createOpacityAndTransformProps(view, viewManager);
+
+      mNativeAnimatedNodesManager.setAnimatedNodeValue(1, 0.5d);
+      mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+
+      ArgumentCaptor<ReadableArray> transformCaptor = ArgumentCaptor.forClass(ReadableArray.class);
+      verify(viewManager).setTransform(eq(view), transformCaptor.capture());
+      assertThat(transformCaptor.getValue().getMap(0).getDouble("translateX")).isEqualTo(0.5d);
+      verify(viewManager, never()).setTransformMatrix(any(View.class), any(double[].class));
+      verify(viewManager).onAfterTypedPropsUpdate(view);
+      verify(mUIManagerMock, never())
+          .synchronouslyUpdateViewOnUIThread(anyInt(), any(ReadableMap.class));
+    } finally {
+      ReactFeatureFlags.enableNativeAnimatedPropWriters = false;
+    }
+  }
+
+  /**
+   * Connects view 1000 to a props node whose style animates the opacity and translateX of the view
+   * with value node 1.
+   */
+  private void createOpacityAndTransformProps(View view, BaseViewManager viewManager) {
+    PowerMockito.when(mUIManagerMock.resolveView(1000)).thenReturn(view);
+    PowerMockito.when(mUIManagerMock.resolveViewManager(1000)).thenReturn(viewManager);
+
+    mNativeAnimatedNodesManager.createAnimatedNode(
+        1, JavaOnlyMap.of("type", "value", "value", 0d, "offset", 0d));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+        2,
+        JavaOnlyMap.of(
+            "type",
+            "transform",
+            "transforms",
+            JavaOnlyArray.of(
+                JavaOnlyMap.of("type", "animated", "property", "translateX", "nodeTag", 1))));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+        3, JavaOnlyMap.of("type", "style", "style", JavaOnlyMap.of("opacity", 1, "transform", 2)));
+    mNativeAnimatedNodesManager.createAnimatedNode(
+        4, JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of("style", 3)));
+    mNativeAnimatedNodesManager.connectAnimatedNodes(1, 2);
+    mNativeAnimatedNodesManager.connectAnimatedNodes(1, 3);
+    mNativeAnimatedNodesManager.connectAnimatedNodes(2, 3);
+    mNativeAnimatedNodesManager.connectAnimatedNodes(3, 4);
+    mNativeAnimatedNodesManager.connectAnimatedNodeToView(4, 1000);
+  }
+
+  @Test
+  public void testLayoutPropsAreSentToShadowNode() {
+    ReactFeatureFlags.enableNativeAnimatedLayoutProps = true;
+    try {
+      mNativeAnimatedNodesManager.createAnimatedNode(
+          1, JavaOnlyMap.of("type", "value", "value", 0d, "offset", 0d));
+      mNativeAnimatedNodesManager.createAnimatedNode(
+          2, JavaOnlyMap.of("type", "style", "style", JavaOnlyMap.of("width", 1, "opacity", 1)));
+      mNativeAnimatedNodesManager.createAnimatedNode(
+          3, JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of("style", 2)));
+      mNativeAnimatedNodesManager.connectAnimatedNodes(1, 2);
+      mNativeAnimatedNodesManager.connectAnimatedNodes(2, 3);
+      mNativeAnimatedNodesManager.connectAnimatedNodeToView(3, 1000);
+
+      mNativeAnimatedNodesManager.setAnimatedNodeValue(1, 50d);
+      mNativeAnimatedNodesManager.runUpdates(nextFrameTime());
+
+      ArgumentCaptor<ReadableMap> layoutPropsCaptor = ArgumentCaptor.forClass(ReadableMap.class);
+      verify(mUIManagerMock).updateLayoutPropsFromAnimation(eq(1000), layoutPropsCaptor.capture());
+      assertThat(layoutPropsCaptor.getValue().getDouble("width")).isEqualTo(50d);
+      assertThat(layoutPropsCaptor.getValue().hasKey("opacity")).isFalse();
+
+      ArgumentCaptor<ReadableMap> viewPropsCaptor = ArgumentCaptor.forClass(ReadableMap.class);
+      verify(mUIManagerMock).synchronouslyUpdateViewOnUIThread(eq(1000), viewPropsCaptor.capture());
+      assertThat(viewPropsCaptor.getValue().getDouble("opacity")).isEqualTo(50d);
+      assertThat(viewPropsCaptor.getValue().hasKey("width")).isFalse();
+    } finally {
+      ReactFeatureFlags.enableNativeAnimatedLayoutProps = false;
+    }
+  }
+
   private Event createScrollEvent(final int tag, final double value) {
     return new Event(tag) {
       @Override
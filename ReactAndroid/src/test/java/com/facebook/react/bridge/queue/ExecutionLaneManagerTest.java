@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.bridge.queue;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link ExecutionLaneManager}. */
+@RunWith(RobolectricTestRunner.class)
+public class ExecutionLaneManagerTest {
+
+  private static final long TIMEOUT_S = 5;
+
+  private ExecutionLaneManager mExecutionLaneManager;
+
+  @Before
+  public void setUp() {
+    mExecutionLaneManager =
+        new ExecutionLaneManager(
+            2,
+            new QueueThreadExceptionHandler() {
+              @Override
+              public void handleException(Exception e) {
+                throw new RuntimeException(e);
+              }
+            });
+  }
+
+  @After
+  public void tearDown() {
+    mExecutionLaneManager.destroy();
+  }
+
+  @Test
+  public void testDefaultLaneRunsInline() {
+    assertThat(mExecutionLaneManager.createModuleExecutor(ExecutionLane.DEFAULT)).isNull();
+    assertThat(mExecutionLaneManager.getStats()).isEmpty();
+  }
+
+  @Test
+  public void testCallsAreRoutedToTheirLane() throws InterruptedException {
+    Executor first = mExecutionLaneManager.createModuleExecutor(ExecutionLane.dedicated("io"));
+    Executor second = mExecutionLaneManager.createModuleExecutor(ExecutionLane.dedicated("io"));
+    Executor pooled = mExecutionLaneManager.createModuleExecutor(ExecutionLane.SHARED_POOL);
+
+    CountDownLatch done = new CountDownLatch(3);
+    first.execute(countDown(done));
+    second.execute(countDown(done));
+    pooled.execute(countDown(done));
+    assertThat(done.await(TIMEOUT_S, TimeUnit.SECONDS)).isTrue();
+
+    Map<String, ExecutionLaneStats> stats = statsByLane();
+    assertThat(stats.keySet()).containsOnly("io", ExecutionLane.SHARED_POOL.getName());
+    assertThat(stats.get("io").queueDepth).isEqualTo(0);
+  }
+
+  @Test
+  public void testCallsOfAModuleRunSeriallyInOrder() throws InterruptedException {
+    Executor executor = mExecutionLaneManager.createModuleExecutor(ExecutionLane.SHARED_POOL);
+    final int calls = 50;
+    final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicBoolean overlapped = new AtomicBoolean();
+    final CountDownLatch done = new CountDownLatch(calls);
+
+    for (int i = 0; i < calls; i++) {
+      final int call = i;
+      executor.execute(
+          new Runnable() {
+            @Override
+            public void run() {
+              if (running.incrementAndGet() > 1) {
+                overlapped.set(true);
+              }
+              order.add(call);
+              Thread.yield();
+              running.decrementAndGet();
+              done.countDown();
+            }
+          });
+    }
+
+    assertThat(done.await(TIMEOUT_S, TimeUnit.SECONDS)).isTrue();
+    assertThat(overlapped.get()).isFalse();
+    for (int i = 0; i < calls; i++) {
+      assertThat(order.get(i)).isEqualTo(i);
+    }
+  }
+
+  @Test
+  public void testModulesOnTheSharedPoolRunConcurrently() throws InterruptedException {
+    Executor first = mExecutionLaneManager.createModuleExecutor(ExecutionLane.SHARED_POOL);
+    Executor second = mExecutionLaneManager.createModuleExecutor(ExecutionLane.SHARED_POOL);
+    final CountDownLatch secondStarted = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(1);
+
+    first.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            try {
+              // Only returns if the second module isn't queued behind the first one.
+              if (secondStarted.await(TIMEOUT_S, TimeUnit.SECONDS)) {
+                done.countDown();
+              }
+            } catch (InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+          }
+        });
+    second.execute(countDown(secondStarted));
+
+    assertThat(done.await(TIMEOUT_S, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void testStopDropsQueuedCalls() throws InterruptedException {
+    Executor executor = mExecutionLaneManager.createModuleExecutor(ExecutionLane.SHARED_POOL);
+    final CountDownLatch firstStarted = new CountDownLatch(1);
+    final CountDownLatch releaseFirst = new CountDownLatch(1);
+    final AtomicBoolean secondRan = new AtomicBoolean();
+
+    executor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            firstStarted.countDown();
+            try {
+              releaseFirst.await(TIMEOUT_S, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+          }
+        });
+    executor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            secondRan.set(true);
+          }
+        });
+    assertThat(firstStarted.await(TIMEOUT_S, TimeUnit.SECONDS)).isTrue();
+
+    Thread stopper =
+        new Thread(
+            new Runnable() {
+              @Override
+              public void run() {
+                mExecutionLaneManager.stop();
+              }
+            });
+    stopper.start();
+    // stop() waits for the running call, let it block before releasing that call.
+    while (stopper.getState() != Thread.State.TIMED_WAITING && stopper.isAlive()) {
+      Thread.yield();
+    }
+    releaseFirst.countDown();
+    stopper.join(TimeUnit.SECONDS.toMillis(TIMEOUT_S));
+
+    assertThat(stopper.isAlive()).isFalse();
+    mExecutionLaneManager.destroy();
+    assertThat(secondRan.get()).isFalse();
+  }
+
+  @Test
+  public void testCallsAfterDestroyAreDropped() {
+    Executor before = mExecutionLaneManager.createModuleExecutor(ExecutionLane.SHARED_POOL);
+    mExecutionLaneManager.destroy();
+    Executor after = mExecutionLaneManager.createModuleExecutor(ExecutionLane.SHARED_POOL);
+    Executor dedicated = mExecutionLaneManager.createModuleExecutor(ExecutionLane.dedicated("io"));
+
+    final AtomicBoolean ran = new AtomicBoolean();
+    Runnable call =
+        new Runnable() {
+          @Override
+          public void run() {
+            ran.set(true);
+          }
+        };
+    before.execute(call);
+    after.execute(call);
+    dedicated.execute(call);
+
+    assertThat(ran.get()).isFalse();
+  }
+
+  private Map<String, ExecutionLaneStats> statsByLane() {
+    Map<String, ExecutionLaneStats> stats = new HashMap<>();
+    for (ExecutionLaneStats laneStats : mExecutionLaneManager.getStats()) {
+      stats.put(laneStats.laneName, laneStats);
+    }
+    return stats;
+  }
+
+  private static Runnable countDown(final CountDownLatch latch) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        latch.countDown();
+      }
+    };
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.bridge.queue;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link MessageQueueThreadTaskStatsRecorder}. */
+@RunWith(RobolectricTestRunner.class)
+public class MessageQueueThreadTaskStatsRecorderTest {
+
+  private MessageQueueThreadTaskStatsRecorder mRecorder;
+
+  @Before
+  public void setUp() {
+    mRecorder = new MessageQueueThreadTaskStatsRecorder("js");
+  }
+
+  @Test
+  public void testBuckets() {
+    assertThat(MessageQueueThreadTaskStats.getBucket(-3)).isEqualTo(0);
+    assertThat(MessageQueueThreadTaskStats.getBucket(0)).isEqualTo(0);
+    assertThat(MessageQueueThreadTaskStats.getBucket(1)).isEqualTo(1);
+    assertThat(MessageQueueThreadTaskStats.getBucket(3)).isEqualTo(2);
+    assertThat(MessageQueueThreadTaskStats.getBucket(100)).isEqualTo(7);
+    assertThat(MessageQueueThreadTaskStats.getBucket(Long.MAX_VALUE))
+        .isEqualTo(MessageQueueThreadTaskStats.HISTOGRAM_BUCKET_COUNT - 1);
+    assertThat(MessageQueueThreadTaskStats.getBucketUpperBoundMs(7)).isEqualTo(128);
+    assertThat(
+            MessageQueueThreadTaskStats.getBucketUpperBoundMs(
+                MessageQueueThreadTaskStats.HISTOGRAM_BUCKET_COUNT - 1))
+        .isEqualTo(-1);
+  }
+
+  @Test
+  public void testTasksAreCountedInHistograms() {
+    mRecorder.record(new TestRunnable(), 1000, 0, 3);
+    mRecorder.record(new TestRunnable(), 1010, 20, 3);
+    mRecorder.record(null, 1050, 5, 0);
+
+    MessageQueueThreadTaskStats stats = mRecorder.snapshot();
+    assertThat(stats.queueName).isEqualTo("js");
+    assertThat(stats.taskCount).isEqualTo(3);
+    assertThat(stats.longTaskCount).isEqualTo(0);
+    assertThat(stats.maxQueueLatencyMs).isEqualTo(20);
+    assertThat(stats.maxRunDurationMs).isEqualTo(3);
+    assertThat(stats.queueLatencyHistogram[0]).isEqualTo(1);
+    assertThat(stats.queueLatencyHistogram[3]).isEqualTo(1);
+    assertThat(stats.queueLatencyHistogram[5]).isEqualTo(1);
+    assertThat(stats.runDurationHistogram[0]).isEqualTo(1);
+    assertThat(stats.runDurationHistogram[2]).isEqualTo(2);
+    assertThat(stats.recentLongTasks).isEmpty();
+  }
+
+  @Test
+  public void testLongTasksAreReported() {
+    mRecorder.record(new TestRunnable(), 1000, 4, 99);
+    mRecorder.record(new TestRunnable(), 2000, 8, 100);
+
+    MessageQueueThreadTaskStats stats = mRecorder.snapshot();
+    assertThat(stats.longTaskThresholdMs).isEqualTo(100);
+    assertThat(stats.longTaskCount).isEqualTo(1);
+    assertThat(stats.recentLongTasks).hasSize(1);
+    MessageQueueThreadTaskStats.LongTask longTask = stats.recentLongTasks.get(0);
+    assertThat(longTask.runnableClassName).isEqualTo(TestRunnable.class.getName());
+    assertThat(longTask.traceSectionName)
+        .isEqualTo("mqt_js: " + TestRunnable.class.getName());
+    assertThat(longTask.startTimeMs).isEqualTo(2000);
+    assertThat(longTask.queueLatencyMs).isEqualTo(8);
+    assertThat(longTask.runDurationMs).isEqualTo(100);
+  }
+
+  @Test
+  public void testLongTaskThreshold() {
+    mRecorder.setLongTaskThresholdMs(10);
+    mRecorder.record(new TestRunnable(), 1000, 0, 10);
+    assertThat(mRecorder.snapshot().longTaskCount).isEqualTo(1);
+
+    // 0 disables long task detection
+    mRecorder.setLongTaskThresholdMs(0);
+    mRecorder.record(new TestRunnable(), 2000, 0, 5000);
+    MessageQueueThreadTaskStats stats = mRecorder.snapshot();
+    assertThat(stats.longTaskCount).isEqualTo(1);
+    assertThat(stats.taskCount).isEqualTo(2);
+  }
+
+  @Test
+  public void testOnlyTheMostRecentLongTasksAreKept() {
+    for (int i = 0; i < 20; i++) {
+      mRecorder.record(new TestRunnable(), i, 0, 200);
+    }
+
+    MessageQueueThreadTaskStats stats = mRecorder.snapshot();
+    assertThat(stats.longTaskCount).isEqualTo(20);
+    assertThat(stats.recentLongTasks).hasSize(16);
+    assertThat(stats.recentLongTasks.get(0).startTimeMs).isEqualTo(4);
+    assertThat(stats.recentLongTasks.get(15).startTimeMs).isEqualTo(19);
+  }
+
+  @Test
+  public void testSnapshotIsNotUpdatedByLaterTasks() {
+    mRecorder.record(new TestRunnable(), 1000, 0, 200);
+    MessageQueueThreadTaskStats stats = mRecorder.snapshot();
+
+    mRecorder.record(new TestRunnable(), 2000, 0, 200);
+
+    assertThat(stats.taskCount).isEqualTo(1);
+    assertThat(stats.runDurationHistogram[8]).isEqualTo(1);
+    assertThat(stats.recentLongTasks).hasSize(1);
+  }
+
+  @Test
+  public void testReset() {
+    mRecorder.setLongTaskThresholdMs(50);
+    mRecorder.record(new TestRunnable(), 1000, 30, 200);
+    mRecorder.reset();
+
+    MessageQueueThreadTaskStats stats = mRecorder.snapshot();
+    assertThat(stats.taskCount).isEqualTo(0);
+    assertThat(stats.longTaskCount).isEqualTo(0);
+    assertThat(stats.maxQueueLatencyMs).isEqualTo(0);
+    assertThat(stats.maxRunDurationMs).isEqualTo(0);
+    assertThat(stats.queueLatencyHistogram)
+        .isEqualTo(new long[MessageQueueThreadTaskStats.HISTOGRAM_BUCKET_COUNT]);
+    assertThat(stats.runDurationHistogram)
+        .isEqualTo(new long[MessageQueueThreadTaskStats.HISTOGRAM_BUCKET_COUNT]);
+    assertThat(stats.recentLongTasks).isEmpty();
+    // The threshold is a setting, not a counter
+    assertThat(stats.longTaskThresholdMs).isEqualTo(50);
+  }
+
+  private static class TestRunnable implements Runnable {
+    @Override
+    public void run() {}
+  }
+}
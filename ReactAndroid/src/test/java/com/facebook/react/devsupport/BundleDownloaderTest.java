@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.devsupport;
+
+import static com.facebook.react.devsupport.BundlePatchTest.BASE_BUNDLE;
+import static com.facebook.react.devsupport.BundlePatchTest.TARGET_BUNDLE;
+import static com.facebook.react.devsupport.BundlePatchTest.createPatch;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.facebook.react.bridge.JSBundleLoader;
+import com.facebook.react.bridge.JSBundleLoaderDelegate;
+import com.facebook.react.devsupport.interfaces.DevBundleDownloadListener;
+import java.io.File;
+import java.io.IOException;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Okio;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link BundleDownloader#downloadBundlePatchFromURL}. */
+@RunWith(RobolectricTestRunner.class)
+public class BundleDownloaderTest {
+
+  private static final String PATCH_URL = "http://localhost:8081/index.bundle.patch";
+
+  @Rule public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+  private OkHttpClient mClient;
+  private Call mCall;
+  private DevBundleDownloadListener mListener;
+  private BundleDownloader mBundleDownloader;
+  private File mBundleFile;
+  private File mStagedFile;
+  private File mTmpFile;
+
+  @Before
+  public void setUp() throws IOException {
+    mClient = mock(OkHttpClient.class);
+    mCall = mock(Call.class);
+    when(mClient.newCall(any(Request.class))).thenReturn(mCall);
+    mListener = mock(DevBundleDownloadListener.class);
+    mBundleDownloader = new BundleDownloader(mClient);
+
+    mBundleFile = mTemporaryFolder.newFile("index.android.bundle");
+    Okio.buffer(Okio.sink(mBundleFile)).writeUtf8(BASE_BUNDLE).close();
+    mStagedFile = new File(JSBundleLoader.getStagedBundleFileName(mBundleFile.getPath()));
+    mTmpFile = new File(mStagedFile.getPath() + ".tmp");
+  }
+
+  @Test
+  public void testPatchIsRequested() throws IOException {
+    downloadPatch(304, new Buffer());
+
+    ArgumentCaptor<Request> request = ArgumentCaptor.forClass(Request.class);
+    verify(mClient).newCall(request.capture());
+    assertThat(request.getValue().url().toString()).isEqualTo(PATCH_URL);
+    assertThat(request.getValue().header("Accept"))
+        .isEqualTo("application/x-react-native-bundle-patch");
+  }
+
+  @Test
+  public void testNotModifiedKeepsBundle() throws IOException {
+    downloadPatch(304, new Buffer());
+
+    verify(mListener).onSuccess();
+    assertThat(mStagedFile.exists()).isFalse();
+    assertThat(mTmpFile.exists()).isFalse();
+    assertThat(readFile(mBundleFile)).isEqualTo(BASE_BUNDLE);
+    assertThat(mBundleDownloader.getLastBundlePatchStats()).isNull();
+  }
+
+  @Test
+  public void testPatchedBundleIsStaged() throws IOException {
+    Buffer patch = createPatch(ByteString.encodeUtf8(TARGET_BUNDLE).sha256());
+    long patchBytes = patch.size();
+
+    downloadPatch(200, patch);
+
+    verify(mListener).onSuccess();
+    // The patched bundle is moved from the temporary file to the staged file, and the running
+    // bundle is left alone until the next load
+    assertThat(mTmpFile.exists()).isFalse();
+    assertThat(readFile(mStagedFile)).isEqualTo(TARGET_BUNDLE);
+    assertThat(readFile(mBundleFile)).isEqualTo(BASE_BUNDLE);
+
+    BundlePatchStats stats = mBundleDownloader.getLastBundlePatchStats();
+    assertThat(stats).isNotNull();
+    assertThat(stats.patchBytes).isEqualTo(patchBytes);
+    assertThat(stats.bundleBytes).isEqualTo(TARGET_BUNDLE.length());
+  }
+
+  @Test
+  public void testStagedBundleReplacesBundleOnLoad() throws IOException {
+    downloadPatch(200, createPatch(ByteString.encodeUtf8(TARGET_BUNDLE).sha256()));
+    JSBundleLoaderDelegate delegate = mock(JSBundleLoaderDelegate.class);
+
+    JSBundleLoader.createStagedFileLoader(mBundleFile.getPath(), "assets://bundle", false)
+        .loadScript(delegate);
+
+    verify(delegate).loadScriptFromFile(mBundleFile.getPath(), "assets://bundle", false);
+    assertThat(mStagedFile.exists()).isFalse();
+    assertThat(readFile(mBundleFile)).isEqualTo(TARGET_BUNDLE);
+  }
+
+  @Test
+  public void testPatchWithWrongHashKeepsBundle() throws IOException {
+    downloadPatch(200, createPatch(ByteString.encodeUtf8(BASE_BUNDLE).sha256()));
+
+    verify(mListener).onFailure(any(IOException.class));
+    verify(mListener, never()).onSuccess();
+    assertThat(mTmpFile.exists()).isFalse();
+    assertThat(mStagedFile.exists()).isFalse();
+    assertThat(mBundleDownloader.getLastBundlePatchStats()).isNull();
+
+    // Nothing was staged, so the next load keeps the old bundle
+    JSBundleLoader.createStagedFileLoader(mBundleFile.getPath(), "assets://bundle", false)
+        .loadScript(mock(JSBundleLoaderDelegate.class));
+    assertThat(readFile(mBundleFile)).isEqualTo(BASE_BUNDLE);
+  }
+
+  /** Requests a patch and answers the request with the given status and body. */
+  private void downloadPatch(int code, Buffer body) throws IOException {
+    mBundleDownloader.downloadBundlePatchFromURL(
+        mListener, mBundleFile, PATCH_URL, new Request.Builder());
+
+    ArgumentCaptor<Callback> callback = ArgumentCaptor.forClass(Callback.class);
+    verify(mCall).enqueue(callback.capture());
+    Response response =
+        new Response.Builder()
+            .request(new Request.Builder().url(PATCH_URL).build())
+            .protocol(Protocol.HTTP_1_1)
+            .code(code)
+            .message("")
+            .body(
+                ResponseBody.create(
+                    MediaType.parse("application/x-react-native-bundle-patch"),
+                    body.readByteArray()))
+            .build();
+    callback.getValue().onResponse(mCall, response);
+  }
+
+  private static String readFile(File file) throws IOException {
+    try (BufferedSource source = Okio.buffer(Okio.source(file))) {
+      return source.readUtf8();
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.devsupport;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+import java.io.File;
+import java.io.IOException;
+import okio.Buffer;
+import okio.ByteString;
+import okio.Okio;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class BundlePatchTest {
+
+  /* package */ static final String BASE_BUNDLE = "var a = 1;\nvar b = 2;\n";
+  /* package */ static final String TARGET_BUNDLE = "var a = 1;\nvar c = 3;\nvar b = 2;\n";
+
+  @Rule public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+  private File mBaseFile;
+  private File mOutputFile;
+
+  @Before
+  public void setUp() throws IOException {
+    mBaseFile = mTemporaryFolder.newFile("index.android.bundle");
+    Okio.buffer(Okio.sink(mBaseFile)).writeUtf8(BASE_BUNDLE).close();
+    mOutputFile = new File(mTemporaryFolder.getRoot(), "index.android.bundle.staged");
+  }
+
+  @Test
+  public void testPatchIsApplied() throws IOException {
+    Buffer patch = createPatch(ByteString.encodeUtf8(TARGET_BUNDLE).sha256());
+
+    long size = BundlePatch.apply(mBaseFile, patch, mOutputFile);
+
+    assertThat(size).isEqualTo(TARGET_BUNDLE.length());
+    assertThat(Okio.buffer(Okio.source(mOutputFile)).readUtf8()).isEqualTo(TARGET_BUNDLE);
+  }
+
+  @Test
+  public void testPatchWithWrongHashIsRejected() throws IOException {
+    Buffer patch = createPatch(ByteString.encodeUtf8(BASE_BUNDLE).sha256());
+
+    try {
+      BundlePatch.apply(mBaseFile, patch, mOutputFile);
+      fail("Expected the patch to be rejected");
+    } catch (IOException e) {
+      assertThat(mOutputFile.exists()).isFalse();
+    }
+  }
+
+  @Test
+  public void testPatchForAnotherBundleIsRejected() throws IOException {
+    Okio.buffer(Okio.sink(mBaseFile)).writeUtf8(TARGET_BUNDLE).close();
+    Buffer patch = createPatch(ByteString.encodeUtf8(TARGET_BUNDLE).sha256());
+
+    try {
+      BundlePatch.apply(mBaseFile, patch, mOutputFile);
+      fail("Expected the patch to be rejected");
+    } catch (IOException e) {
+      assertThat(mOutputFile.exists()).isFalse();
+    }
+  }
+
+  /** Creates a patch inserting "var c = 3;\n" after the first line of the base bundle. */
+  /* package */ static Buffer createPatch(ByteString targetHash) {
+    String insertion = "var c = 3;\n";
+    Buffer patch = new Buffer();
+    patch.writeUtf8("RNBP").writeInt(1);
+    patch.writeLong(BASE_BUNDLE.length());
+    patch.writeLong(TARGET_BUNDLE.length()).write(targetHash);
+    patch.writeByte(BundlePatch.OP_COPY).writeLong(0).writeInt(11);
+    patch.writeByte(BundlePatch.OP_INSERT).writeInt(insertion.length()).writeUtf8(insertion);
+    patch.writeByte(BundlePatch.OP_COPY).writeLong(11).writeInt(BASE_BUNDLE.length() - 11);
+    patch.writeByte(BundlePatch.OP_END);
+    return patch;
+  }
+}
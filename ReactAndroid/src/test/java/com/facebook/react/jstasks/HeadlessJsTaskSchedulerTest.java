@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.jstasks;
+
+import static com.facebook.react.jstasks.HeadlessJsTaskScheduler.PRIORITY_HIGH;
+import static com.facebook.react.jstasks.HeadlessJsTaskScheduler.PRIORITY_LOW;
+import static com.facebook.react.jstasks.HeadlessJsTaskScheduler.PRIORITY_NORMAL;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.os.SystemClock;
+import com.facebook.react.bridge.JavaOnlyMap;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link HeadlessJsTaskScheduler}. */
+@RunWith(RobolectricTestRunner.class)
+public class HeadlessJsTaskSchedulerTest {
+
+  private HeadlessJsTaskContext mTaskContext;
+  private HeadlessJsTaskScheduler mScheduler;
+  private int mLastTaskId;
+
+  @Before
+  public void setUp() {
+    mTaskContext = mock(HeadlessJsTaskContext.class);
+    when(mTaskContext.generateTaskId())
+        .thenAnswer(
+            new Answer<Integer>() {
+              @Override
+              public Integer answer(InvocationOnMock invocation) {
+                return ++mLastTaskId;
+              }
+            });
+    when(mTaskContext.canStartTask(any(HeadlessJsTaskConfig.class))).thenReturn(true);
+    mScheduler = new HeadlessJsTaskScheduler(mTaskContext);
+  }
+
+  @Test
+  public void testTasksOverTheConcurrencyLimitOfTheirKeyAreQueued() {
+    int first = schedule("sync", 1, PRIORITY_NORMAL);
+    int second = schedule("sync", 2, PRIORITY_NORMAL);
+    int other = schedule("upload", 1, PRIORITY_NORMAL);
+
+    assertThat(getStartedTaskIds()).containsExactly(first, other);
+    HeadlessJsTaskSchedulerMetrics metrics = mScheduler.getMetrics();
+    assertThat(metrics.getRunningTasks()).isEqualTo(2);
+    assertThat(metrics.getQueuedTasks()).isEqualTo(1);
+    assertThat(mScheduler.hasPendingTasks()).isTrue();
+
+    mScheduler.onTaskFinished(first);
+
+    assertThat(getStartedTaskIds()).containsExactly(first, other, second);
+    assertThat(mScheduler.hasPendingTasks()).isFalse();
+    // Finishing a task twice, or one the scheduler didn't start, doesn't free another slot
+    mScheduler.onTaskFinished(first);
+    mScheduler.onTaskFinished(42);
+    assertThat(mScheduler.getMetrics().getRunningTasks()).isEqualTo(2);
+  }
+
+  @Test
+  public void testConcurrencyLimitCanBeRaisedPerKey() {
+    mScheduler.setMaxConcurrentTasks("sync", 2);
+
+    schedule("sync", 1, PRIORITY_NORMAL);
+    schedule("sync", 2, PRIORITY_NORMAL);
+    schedule("sync", 3, PRIORITY_NORMAL);
+    schedule("upload", 1, PRIORITY_NORMAL);
+    schedule("upload", 2, PRIORITY_NORMAL);
+
+    assertThat(getStartedTaskIds()).hasSize(3);
+    assertThat(mScheduler.getMetrics().getQueuedTasks()).isEqualTo(2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testConcurrencyLimitMustAllowATask() {
+    mScheduler.setMaxConcurrentTasks("sync", 0);
+  }
+
+  @Test
+  public void testHigherPriorityTasksStartFirst() {
+    int running = schedule("sync", 0, PRIORITY_NORMAL);
+    int low = schedule("sync", 1, PRIORITY_LOW);
+    int normal = schedule("sync", 2, PRIORITY_NORMAL);
+    int high = schedule("sync", 3, PRIORITY_HIGH);
+    int secondNormal = schedule("sync", 4, PRIORITY_NORMAL);
+
+    mScheduler.onTaskFinished(running);
+    mScheduler.onTaskFinished(high);
+    mScheduler.onTaskFinished(normal);
+    mScheduler.onTaskFinished(secondNormal);
+
+    assertThat(getStartedTaskIds()).containsExactly(running, high, normal, secondNormal, low);
+  }
+
+  @Test
+  public void testIdenticalPendingTasksAreCoalesced() {
+    int running = schedule("sync", 0, PRIORITY_NORMAL);
+    int pending = schedule("sync", 1, PRIORITY_NORMAL);
+
+    assertThat(schedule("sync", 1, PRIORITY_NORMAL)).isEqualTo(pending);
+    // A running task isn't pending anymore, scheduling it again queues a new task
+    assertThat(schedule("sync", 0, PRIORITY_NORMAL)).isNotEqualTo(running);
+
+    HeadlessJsTaskSchedulerMetrics metrics = mScheduler.getMetrics();
+    assertThat(metrics.getScheduledTasks()).isEqualTo(3);
+    assertThat(metrics.getCoalescedTasks()).isEqualTo(1);
+    assertThat(metrics.getQueuedTasks()).isEqualTo(2);
+  }
+
+  @Test
+  public void testCoalescedTaskTakesTheHigherPriority() {
+    int running = schedule("sync", 0, PRIORITY_NORMAL);
+    int normal = schedule("sync", 1, PRIORITY_NORMAL);
+    int low = schedule("sync", 2, PRIORITY_LOW);
+
+    assertThat(schedule("sync", 2, PRIORITY_HIGH)).isEqualTo(low);
+    mScheduler.onTaskFinished(running);
+
+    assertThat(getStartedTaskIds()).containsExactly(running, low);
+    mScheduler.onTaskFinished(low);
+    assertThat(getStartedTaskIds()).containsExactly(running, low, normal);
+  }
+
+  @Test
+  public void testTasksWithoutTimeoutGetTheDefaultOne() {
+    schedule("sync", 0, PRIORITY_NORMAL);
+    mScheduler.scheduleTask(
+        new HeadlessJsTaskConfig("upload", JavaOnlyMap.of("id", 0), 500),
+        PRIORITY_NORMAL);
+    mScheduler.setDefaultTimeout(0);
+    schedule("fetch", 0, PRIORITY_NORMAL);
+
+    List<HeadlessJsTaskConfig> configs = getStartedTaskConfigs();
+    assertThat(configs.get(0).getTimeout()).isEqualTo(60 * 1000);
+    assertThat(configs.get(1).getTimeout()).isEqualTo(500);
+    assertThat(configs.get(2).getTimeout()).isEqualTo(0);
+  }
+
+  @Test
+  public void testQueuedTaskThatCanNoLongerStartIsDropped() {
+    int running = schedule("sync", 0, PRIORITY_NORMAL);
+    int dropped = schedule("sync", 1, PRIORITY_NORMAL);
+    int next = schedule("sync", 2, PRIORITY_NORMAL);
+    // The app moved to the foreground, where only the last task is allowed
+    when(mTaskContext.canStartTask(any(HeadlessJsTaskConfig.class))).thenReturn(false, true);
+
+    mScheduler.onTaskFinished(running);
+
+    verify(mTaskContext).dispatchTaskFinish(dropped);
+    verify(mTaskContext, never()).startTask(any(HeadlessJsTaskConfig.class), eq(dropped));
+    assertThat(getStartedTaskIds()).containsExactly(running, next);
+    assertThat(mScheduler.getMetrics().getDroppedTasks()).isEqualTo(1);
+  }
+
+  @Test
+  public void testQueueTimeIsMeasured() {
+    int running = schedule("sync", 0, PRIORITY_NORMAL);
+    schedule("sync", 1, PRIORITY_NORMAL);
+    SystemClock.sleep(100);
+
+    mScheduler.onTaskFinished(running);
+
+    HeadlessJsTaskSchedulerMetrics metrics = mScheduler.getMetrics();
+    assertThat(metrics.getStartedTasks()).isEqualTo(2);
+    assertThat(metrics.getMaxQueueTimeMs()).isEqualTo(100);
+    assertThat(metrics.getAverageQueueTimeMs()).isEqualTo(50);
+  }
+
+  private int schedule(String taskKey, int id, int priority) {
+    return mScheduler.scheduleTask(createConfig(taskKey, id), priority);
+  }
+
+  private static HeadlessJsTaskConfig createConfig(String taskKey, int id) {
+    return new HeadlessJsTaskConfig(taskKey, JavaOnlyMap.of("id", id));
+  }
+
+  private List<Integer> getStartedTaskIds() {
+    ArgumentCaptor<Integer> taskIds = ArgumentCaptor.forClass(Integer.class);
+    verify(mTaskContext, times(getStartCount()))
+        .startTask(any(HeadlessJsTaskConfig.class), taskIds.capture());
+    return taskIds.getAllValues();
+  }
+
+  private List<HeadlessJsTaskConfig> getStartedTaskConfigs() {
+    ArgumentCaptor<HeadlessJsTaskConfig> configs =
+        ArgumentCaptor.forClass(HeadlessJsTaskConfig.class);
+    verify(mTaskContext, times(getStartCount())).startTask(configs.capture(), anyInt());
+    return configs.getAllValues();
+  }
+
+  private int getStartCount() {
+    return (int) mScheduler.getMetrics().getStartedTasks();
+  }
+}
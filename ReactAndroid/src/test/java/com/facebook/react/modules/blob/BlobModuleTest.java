@@ -8,6 +8,7 @@
 package com.facebook.react.modules.blob;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
@@ -16,6 +17,7 @@ import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.JavaOnlyArray;
 import com.facebook.react.bridge.JavaOnlyMap;
 import com.facebook.react.bridge.ReactTestHelper;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.Arrays;
@@ -79,6 +81,18 @@ public class BlobModuleTest {
     assertArrayEquals(expectedRange, mBlobModule.resolve(mBlobId, 30, mBytes.length - 30));
   }
 
+  @Test
+  public void testOpenInputStream() throws Exception {
+    InputStream stream = mBlobModule.openInputStream(mBlobId, 30, 50);
+    assertNotNull(stream);
+    byte[] read = new byte[mBytes.length];
+    int length = stream.read(read);
+
+    assertEquals(50, length);
+    assertArrayEquals(Arrays.copyOfRange(mBytes, 30, 80), Arrays.copyOfRange(read, 0, length));
+    assertNull(mBlobModule.openInputStream(UUID.randomUUID().toString(), 0, -1));
+  }
+
   @Test
   public void testResolveUri() {
     Uri uri =
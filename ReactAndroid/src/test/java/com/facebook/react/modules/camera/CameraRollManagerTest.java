@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.camera;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.provider.MediaStore.Images;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/**
+ * Pages through an in-memory table with the selection and sort order {@link CameraRollManager}
+ * passes to MediaStore, to check that the (date, id) cursor is a stable position.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CameraRollManagerTest {
+
+  private static final String TABLE = "media";
+  private static final int PAGE_SIZE = 3;
+
+  private SQLiteDatabase mDatabase;
+
+  @Before
+  public void setUp() {
+    mDatabase = SQLiteDatabase.create(null);
+    mDatabase.execSQL(
+        "CREATE TABLE "
+            + TABLE
+            + " ("
+            + Images.Media._ID
+            + " INTEGER PRIMARY KEY, "
+            + Images.Media.DATE_TAKEN
+            + " INTEGER)");
+  }
+
+  @After
+  public void tearDown() {
+    mDatabase.close();
+  }
+
+  @Test
+  public void testPagesDoNotSkipItemsTakenAtTheSameTime() {
+    for (long id = 1; id <= 7; id++) {
+      insert(id, 1000);
+    }
+
+    List<Long> ids = new ArrayList<>();
+    String after = null;
+    do {
+      after = loadPage(after, ids);
+    } while (after != null);
+
+    assertThat(ids).containsExactly(7L, 6L, 5L, 4L, 3L, 2L, 1L);
+  }
+
+  @Test
+  public void testInsertedItemsDoNotShiftLaterPages() {
+    insert(1, 1000);
+    insert(2, 2000);
+    insert(3, 2000);
+    insert(4, 3000);
+    insert(5, 4000);
+    insert(6, 5000);
+
+    List<Long> ids = new ArrayList<>();
+    String after = loadPage(null, ids);
+    assertThat(after).isEqualTo("3000:4");
+
+    // A new photo and one with an older date taken (e.g. imported) show up between pages
+    insert(7, 6000);
+    insert(8, 2000);
+    do {
+      after = loadPage(after, ids);
+    } while (after != null);
+
+    assertThat(ids).containsExactly(6L, 5L, 4L, 8L, 3L, 2L, 1L);
+  }
+
+  @Test
+  public void testDeletedItemsDoNotShiftLaterPages() {
+    for (long id = 1; id <= 6; id++) {
+      insert(id, id * 1000);
+    }
+
+    List<Long> ids = new ArrayList<>();
+    String after = loadPage(null, ids);
+    mDatabase.delete(TABLE, Images.Media._ID + " IN (5, 6)", null);
+    after = loadPage(after, ids);
+
+    assertThat(after).isNull();
+    assertThat(ids).containsExactly(6L, 5L, 4L, 3L, 2L, 1L);
+  }
+
+  @Test
+  public void testLegacyCursorResumesAfterItsDate() {
+    insert(1, 1000);
+    insert(2, 2000);
+    insert(3, 2000);
+    insert(4, 3000);
+
+    List<Long> ids = new ArrayList<>();
+    loadPage("3000", ids);
+
+    assertThat(ids).containsExactly(3L, 2L, 1L);
+  }
+
+  private void insert(long id, long dateTaken) {
+    ContentValues values = new ContentValues();
+    values.put(Images.Media._ID, id);
+    values.put(Images.Media.DATE_TAKEN, dateTaken);
+    mDatabase.insert(TABLE, null, values);
+  }
+
+  /**
+   * Appends the ids of the page after {@code after} to {@code ids}, the way {@link
+   * CameraRollManager#getPhotos} queries it.
+   *
+   * @return the end cursor of the page, or null if it is the last one
+   */
+  private @Nullable String loadPage(@Nullable String after, List<Long> ids) {
+    StringBuilder selection = new StringBuilder("1");
+    List<String> selectionArgs = new ArrayList<>();
+    if (after != null) {
+      CameraRollManager.appendAfterSelection(after, selection, selectionArgs);
+    }
+    Cursor media =
+        mDatabase.query(
+            TABLE,
+            new String[] {Images.Media._ID, Images.Media.DATE_TAKEN},
+            selection.toString(),
+            selectionArgs.toArray(new String[selectionArgs.size()]),
+            null,
+            null,
+            CameraRollManager.SORT_ORDER,
+            String.valueOf(PAGE_SIZE + 1));
+    try {
+      int idIndex = media.getColumnIndex(Images.Media._ID);
+      for (int i = 0; i < PAGE_SIZE && media.moveToPosition(i); i++) {
+        ids.add(media.getLong(idIndex));
+      }
+      if (media.getCount() <= PAGE_SIZE) {
+        return null;
+      }
+      media.moveToPosition(PAGE_SIZE - 1);
+      return CameraRollManager.getCursorPosition(media);
+    } finally {
+      media.close();
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.camera;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import android.graphics.Bitmap;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class CropBitmapPoolTest {
+
+  private static final int SIZE = 10;
+
+  private int mBitmapBytes;
+  private CropBitmapPool mPool;
+
+  @Before
+  public void setUp() {
+    mBitmapBytes = createBitmap(SIZE, SIZE).getByteCount();
+    mPool = new CropBitmapPool(2 * mBitmapBytes);
+  }
+
+  @Test
+  public void testReusesBitmapOfExactSize() {
+    Bitmap bitmap = createBitmap(SIZE, SIZE);
+    mPool.release(bitmap);
+
+    assertThat(mPool.get(SIZE, SIZE + 1, Bitmap.Config.ARGB_8888)).isNull();
+    assertThat(mPool.get(SIZE, SIZE, Bitmap.Config.RGB_565)).isNull();
+    assertThat(mPool.get(SIZE, SIZE, Bitmap.Config.ARGB_8888)).isSameAs(bitmap);
+    assertThat(mPool.get(SIZE, SIZE, Bitmap.Config.ARGB_8888)).isNull();
+    assertThat(bitmap.isRecycled()).isFalse();
+  }
+
+  @Test
+  public void testEvictsOldestBitmapOverBudget() {
+    Bitmap first = createBitmap(SIZE, SIZE);
+    Bitmap second = createBitmap(SIZE, SIZE);
+    Bitmap third = createBitmap(SIZE, SIZE);
+    mPool.release(first);
+    mPool.release(second);
+    mPool.release(third);
+
+    assertThat(first.isRecycled()).isTrue();
+    assertThat(mPool.get(SIZE, SIZE, Bitmap.Config.ARGB_8888)).isSameAs(second);
+    assertThat(mPool.get(SIZE, SIZE, Bitmap.Config.ARGB_8888)).isSameAs(third);
+    assertThat(mPool.get(SIZE, SIZE, Bitmap.Config.ARGB_8888)).isNull();
+  }
+
+  @Test
+  public void testTakenBitmapsLeaveRoomInBudget() {
+    Bitmap first = createBitmap(SIZE, SIZE);
+    Bitmap second = createBitmap(SIZE, SIZE);
+    mPool.release(first);
+    mPool.release(second);
+    assertThat(mPool.get(SIZE, SIZE, Bitmap.Config.ARGB_8888)).isSameAs(first);
+
+    mPool.release(createBitmap(SIZE, SIZE));
+    assertThat(second.isRecycled()).isFalse();
+  }
+
+  @Test
+  public void testRecyclesBitmapLargerThanBudget() {
+    Bitmap bitmap = createBitmap(SIZE * 2, SIZE * 2);
+    mPool.release(bitmap);
+
+    assertThat(bitmap.isRecycled()).isTrue();
+    assertThat(mPool.get(SIZE * 2, SIZE * 2, Bitmap.Config.ARGB_8888)).isNull();
+  }
+
+  @Test
+  public void testClearRecyclesPooledBitmaps() {
+    Bitmap bitmap = createBitmap(SIZE, SIZE);
+    mPool.release(bitmap);
+    mPool.clear();
+
+    assertThat(bitmap.isRecycled()).isTrue();
+    assertThat(mPool.get(SIZE, SIZE, Bitmap.Config.ARGB_8888)).isNull();
+
+    // The whole budget is available again
+    Bitmap first = createBitmap(SIZE, SIZE);
+    mPool.release(first);
+    mPool.release(createBitmap(SIZE, SIZE));
+    assertThat(first.isRecycled()).isFalse();
+  }
+
+  private static Bitmap createBitmap(int width, int height) {
+    return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.camera;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import android.graphics.Rect;
+import android.graphics.RectF;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for the region {@link ImageEditingManager} decodes when it crops and resizes an image. */
+@RunWith(RobolectricTestRunner.class)
+public class ImageEditingManagerTest {
+
+  @Test
+  public void testCoverCropTrimsWideRectHorizontally() {
+    RectF crop = ImageEditingManager.getCoverCropRect(0, 0, 400, 200, 100, 100);
+
+    assertThat(crop).isEqualTo(new RectF(100, 0, 300, 200));
+  }
+
+  @Test
+  public void testCoverCropTrimsTallRectVertically() {
+    RectF crop = ImageEditingManager.getCoverCropRect(20, 10, 100, 300, 200, 100);
+
+    assertThat(crop).isEqualTo(new RectF(20, 135, 120, 185));
+  }
+
+  @Test
+  public void testCoverCropKeepsRectWithTargetAspectRatio() {
+    RectF crop = ImageEditingManager.getCoverCropRect(5, 7, 300, 150, 100, 50);
+
+    assertThat(crop).isEqualTo(new RectF(5, 7, 305, 157));
+  }
+
+  @Test
+  public void testDecodeRegionStaysWithinCropRect() {
+    RectF crop = ImageEditingManager.getCoverCropRect(0, 0, 101, 50, 100, 100);
+    Rect region = ImageEditingManager.getDecodeRegion(crop);
+
+    assertThat(crop).isEqualTo(new RectF(25.5f, 0, 75.5f, 50));
+    assertThat(region).isEqualTo(new Rect(25, 0, 75, 50));
+    assertThat(region.left).isGreaterThanOrEqualTo(0);
+    assertThat(region.right).isLessThanOrEqualTo(101);
+  }
+
+  @Test
+  public void testDecodeSampleSize() {
+    // Every sampled dimension stays at least as large as the target
+    assertThat(ImageEditingManager.getDecodeSampleSize(4000, 3000, 500, 375)).isEqualTo(8);
+    assertThat(ImageEditingManager.getDecodeSampleSize(4000, 3000, 501, 375)).isEqualTo(4);
+    assertThat(ImageEditingManager.getDecodeSampleSize(4000, 3000, 4000, 3000)).isEqualTo(1);
+    assertThat(ImageEditingManager.getDecodeSampleSize(100, 100, 200, 200)).isEqualTo(1);
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.camera;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(RobolectricTestRunner.class)
+public class MediaDimensionCacheTest {
+
+  private SharedPreferences mPreferences;
+  private MediaDimensionCache mCache;
+
+  @Before
+  public void setUp() {
+    mPreferences =
+        RuntimeEnvironment.application.getSharedPreferences(
+            "MediaDimensionCacheTest", Context.MODE_PRIVATE);
+    mCache = new MediaDimensionCache(mPreferences);
+  }
+
+  @Test
+  public void testHitAfterFlush() {
+    assertThat(mCache.get(1, 100)).isEqualTo(0);
+
+    mCache.put(1, 100, 4032, 3024);
+    mCache.flush();
+
+    long dimensions = mCache.get(1, 100);
+    assertThat(MediaDimensionCache.getWidth(dimensions)).isEqualTo(4032);
+    assertThat(MediaDimensionCache.getHeight(dimensions)).isEqualTo(3024);
+    // Survives the cache instance, e.g. an app restart
+    assertThat(new MediaDimensionCache(mPreferences).get(1, 100)).isEqualTo(dimensions);
+  }
+
+  @Test
+  public void testEditedOrOtherImageMisses() {
+    mCache.put(1, 100, 640, 480);
+    mCache.flush();
+
+    assertThat(mCache.get(1, 101)).isEqualTo(0);
+    assertThat(mCache.get(2, 100)).isEqualTo(0);
+  }
+
+  @Test
+  public void testInvalidDimensionsAreNotCached() {
+    mCache.put(1, 100, 0, 480);
+    mCache.put(2, 100, 640, -1);
+    mCache.flush();
+
+    assertThat(mCache.get(1, 100)).isEqualTo(0);
+    assertThat(mCache.get(2, 100)).isEqualTo(0);
+    assertThat(mPreferences.getAll()).isEmpty();
+  }
+
+  @Test
+  public void testStartsOverWhenFull() {
+    for (int id = 0; id < MediaDimensionCache.MAX_ENTRIES; id++) {
+      mCache.put(id, 100, 640, 480);
+    }
+    mCache.flush();
+    assertThat(mPreferences.getAll()).hasSize(MediaDimensionCache.MAX_ENTRIES);
+
+    mCache.put(MediaDimensionCache.MAX_ENTRIES, 100, 800, 600);
+    mCache.flush();
+
+    assertThat(mPreferences.getAll()).hasSize(1);
+    assertThat(mCache.get(0, 100)).isEqualTo(0);
+    assertThat(MediaDimensionCache.getWidth(mCache.get(MediaDimensionCache.MAX_ENTRIES, 100)))
+        .isEqualTo(800);
+  }
+}
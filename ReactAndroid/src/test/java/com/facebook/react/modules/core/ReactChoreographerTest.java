@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.core;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.facebook.react.modules.core.ReactChoreographer.CallbackType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+/** Tests for the phase timing and the frame budget of {@link ReactChoreographer}. */
+@PrepareForTest({ChoreographerCompat.class})
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "androidx.*", "android.*"})
+@RunWith(RobolectricTestRunner.class)
+public class ReactChoreographerTest {
+
+  private static final long LATE_FRAME_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final long FRAME_BUDGET_NANOS = 16666667;
+  private static final long SLOW_CALLBACK_MS = 5;
+
+  @Rule public PowerMockRule rule = new PowerMockRule();
+
+  private ChoreographerCompat mChoreographerMock;
+  private ReactChoreographer mReactChoreographer;
+  private List<CallbackType> mRanCallbacks;
+  private ChoreographerCompat.FrameCallback mDispatcher;
+
+  @Before
+  public void setUp() {
+    mChoreographerMock = mock(ChoreographerCompat.class);
+    PowerMockito.mockStatic(ChoreographerCompat.class);
+    when(ChoreographerCompat.getInstance()).thenReturn(mChoreographerMock);
+
+    mReactChoreographer = new ReactChoreographer();
+    ShadowLooper.runUiThreadTasks();
+    mRanCallbacks = new ArrayList<>();
+  }
+
+  @Test
+  public void testPhasesRunInOrder() {
+    post(CallbackType.IDLE_EVENT);
+    post(CallbackType.DISPATCH_UI);
+    post(CallbackType.TIMERS_EVENTS);
+    post(CallbackType.PERF_MARKERS);
+
+    doFrame(System.nanoTime());
+
+    assertThat(mRanCallbacks)
+        .containsExactly(
+            CallbackType.PERF_MARKERS,
+            CallbackType.DISPATCH_UI,
+            CallbackType.TIMERS_EVENTS,
+            CallbackType.IDLE_EVENT);
+  }
+
+  @Test
+  public void testPhaseStatsTimeEveryFrameWithCallbacks() {
+    for (int frame = 0; frame < 3; frame++) {
+      postSlow(CallbackType.DISPATCH_UI);
+      doFrame(System.nanoTime());
+    }
+    // Frames without callbacks of a phase are not counted for it
+    post(CallbackType.TIMERS_EVENTS);
+    doFrame(System.nanoTime());
+
+    ReactChoreographerPhaseStats dispatchUi = getStats(CallbackType.DISPATCH_UI);
+    assertThat(dispatchUi.callbackType).isEqualTo(CallbackType.DISPATCH_UI);
+    assertThat(dispatchUi.frames).isEqualTo(3);
+    assertThat(dispatchUi.totalFrames).isEqualTo(3);
+    assertThat(dispatchUi.deferredFrames).isEqualTo(0);
+    assertThat(dispatchUi.averageNanos)
+        .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(SLOW_CALLBACK_MS));
+    assertThat(dispatchUi.p95Nanos).isGreaterThanOrEqualTo(dispatchUi.averageNanos);
+    assertThat(dispatchUi.maxNanos).isEqualTo(dispatchUi.p95Nanos);
+
+    assertThat(getStats(CallbackType.TIMERS_EVENTS).frames).isEqualTo(1);
+    assertThat(getStats(CallbackType.IDLE_EVENT).frames).isEqualTo(0);
+    assertThat(getStats(CallbackType.IDLE_EVENT).maxNanos).isEqualTo(0);
+
+    mReactChoreographer.resetPhaseStats();
+    assertThat(getStats(CallbackType.DISPATCH_UI).frames).isEqualTo(0);
+    assertThat(getStats(CallbackType.DISPATCH_UI).totalFrames).isEqualTo(0);
+  }
+
+  @Test
+  public void testTimersAndIdleAreDeferredPastFrameBudget() {
+    mReactChoreographer.setFrameBudgetNanos(FRAME_BUDGET_NANOS);
+    post(CallbackType.DISPATCH_UI);
+    post(CallbackType.NATIVE_ANIMATED_MODULE);
+    post(CallbackType.TIMERS_EVENTS);
+    post(CallbackType.IDLE_EVENT);
+    reset(mChoreographerMock);
+
+    doFrame(System.nanoTime() - LATE_FRAME_NANOS);
+
+    assertThat(mRanCallbacks)
+        .containsExactly(CallbackType.DISPATCH_UI, CallbackType.NATIVE_ANIMATED_MODULE);
+    assertThat(getStats(CallbackType.TIMERS_EVENTS).deferredFrames).isEqualTo(1);
+    assertThat(getStats(CallbackType.IDLE_EVENT).deferredFrames).isEqualTo(1);
+    // Nothing else would schedule the frame the deferred callbacks run in
+    verify(mChoreographerMock).postFrameCallback(any(ChoreographerCompat.FrameCallback.class));
+
+    doFrame(System.nanoTime());
+    assertThat(mRanCallbacks).contains(CallbackType.TIMERS_EVENTS, CallbackType.IDLE_EVENT);
+    assertThat(getStats(CallbackType.TIMERS_EVENTS).totalFrames).isEqualTo(1);
+  }
+
+  @Test
+  public void testDeferralIsBounded() {
+    mReactChoreographer.setFrameBudgetNanos(FRAME_BUDGET_NANOS);
+    post(CallbackType.TIMERS_EVENTS);
+
+    doFrame(System.nanoTime() - LATE_FRAME_NANOS);
+    doFrame(System.nanoTime() - LATE_FRAME_NANOS);
+    assertThat(mRanCallbacks).isEmpty();
+
+    doFrame(System.nanoTime() - LATE_FRAME_NANOS);
+    assertThat(mRanCallbacks).containsExactly(CallbackType.TIMERS_EVENTS);
+    assertThat(getStats(CallbackType.TIMERS_EVENTS).deferredFrames).isEqualTo(2);
+  }
+
+  @Test
+  public void testCallbacksRunInTimeAreNotDeferred() {
+    mReactChoreographer.setFrameBudgetNanos(LATE_FRAME_NANOS);
+    post(CallbackType.TIMERS_EVENTS);
+
+    doFrame(System.nanoTime());
+
+    assertThat(mRanCallbacks).containsExactly(CallbackType.TIMERS_EVENTS);
+    assertThat(getStats(CallbackType.TIMERS_EVENTS).deferredFrames).isEqualTo(0);
+  }
+
+  @Test
+  public void testResetClearsConsecutiveDeferrals() {
+    mReactChoreographer.setFrameBudgetNanos(FRAME_BUDGET_NANOS);
+    post(CallbackType.TIMERS_EVENTS);
+    doFrame(System.nanoTime() - LATE_FRAME_NANOS);
+
+    mReactChoreographer.resetPhaseStats();
+    doFrame(System.nanoTime() - LATE_FRAME_NANOS);
+    // Without the reset, the callback would have run in this frame
+    doFrame(System.nanoTime() - LATE_FRAME_NANOS);
+    assertThat(mRanCallbacks).isEmpty();
+    assertThat(getStats(CallbackType.TIMERS_EVENTS).deferredFrames).isEqualTo(2);
+
+    doFrame(System.nanoTime() - LATE_FRAME_NANOS);
+    assertThat(mRanCallbacks).containsExactly(CallbackType.TIMERS_EVENTS);
+  }
+
+  @Test
+  public void testNothingIsDeferredByDefault() {
+    post(CallbackType.TIMERS_EVENTS);
+    post(CallbackType.IDLE_EVENT);
+    reset(mChoreographerMock);
+
+    doFrame(System.nanoTime() - LATE_FRAME_NANOS);
+
+    assertThat(mRanCallbacks).containsExactly(CallbackType.TIMERS_EVENTS, CallbackType.IDLE_EVENT);
+    verify(mChoreographerMock, never())
+        .postFrameCallback(any(ChoreographerCompat.FrameCallback.class));
+  }
+
+  @Test
+  public void testZeroBudgetDisablesDeferral() {
+    mReactChoreographer.setFrameBudgetNanos(FRAME_BUDGET_NANOS);
+    mReactChoreographer.setFrameBudgetNanos(0);
+    post(CallbackType.TIMERS_EVENTS);
+    post(CallbackType.IDLE_EVENT);
+    reset(mChoreographerMock);
+
+    doFrame(System.nanoTime() - LATE_FRAME_NANOS);
+
+    assertThat(mRanCallbacks).containsExactly(CallbackType.TIMERS_EVENTS, CallbackType.IDLE_EVENT);
+    verify(mChoreographerMock, never())
+        .postFrameCallback(any(ChoreographerCompat.FrameCallback.class));
+  }
+
+  private void post(final CallbackType type) {
+    post(
+        type,
+        new ChoreographerCompat.FrameCallback() {
+          @Override
+          public void doFrame(long frameTimeNanos) {
+            mRanCallbacks.add(type);
+          }
+        });
+  }
+
+  private void postSlow(final CallbackType type) {
+    post(
+        type,
+        new ChoreographerCompat.FrameCallback() {
+          @Override
+          public void doFrame(long frameTimeNanos) {
+            try {
+              Thread.sleep(SLOW_CALLBACK_MS);
+            } catch (InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+            mRanCallbacks.add(type);
+          }
+        });
+  }
+
+  private void post(CallbackType type, ChoreographerCompat.FrameCallback callback) {
+    mReactChoreographer.postFrameCallback(type, callback);
+    if (mDispatcher == null) {
+      ArgumentCaptor<ChoreographerCompat.FrameCallback> dispatcher =
+          ArgumentCaptor.forClass(ChoreographerCompat.FrameCallback.class);
+      verify(mChoreographerMock).postFrameCallback(dispatcher.capture());
+      mDispatcher = dispatcher.getValue();
+    }
+  }
+
+  /** Runs a frame the way the platform choreographer would run the posted dispatcher. */
+  private void doFrame(long frameTimeNanos) {
+    mDispatcher.doFrame(frameTimeNanos);
+  }
+
+  private ReactChoreographerPhaseStats getStats(CallbackType type) {
+    return mReactChoreographer.getPhaseStats()[type.getOrder()];
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.core;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link TimerWheel}. */
+@RunWith(RobolectricTestRunner.class)
+public class TimerWheelTest {
+
+  private static final long START_TIME = 1000;
+
+  private TimerWheel mTimerWheel;
+
+  @Before
+  public void setUp() {
+    mTimerWheel = new TimerWheel(START_TIME);
+  }
+
+  @Test
+  public void testTimersAreDueInOrder() {
+    TimerWheel.Timer far = addTimer(1, 100000);
+    TimerWheel.Timer near = addTimer(2, 10);
+    TimerWheel.Timer middle = addTimer(3, 5000);
+
+    assertThat(advance(9)).isEmpty();
+    assertThat(advance(10)).containsExactly(near);
+    assertThat(advance(100000)).containsExactly(middle, far);
+    assertThat(mTimerWheel.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void testTimersDueInSameMillisecondAreDueInCreationOrder() {
+    TimerWheel.Timer first = addTimer(1, 10);
+    TimerWheel.Timer second = addTimer(2, 10);
+    TimerWheel.Timer third = addTimer(3, 10);
+
+    assertThat(advance(10)).containsExactly(first, second, third);
+  }
+
+  @Test
+  public void testExpiredTimersAreDueInCreationOrder() {
+    TimerWheel.Timer first = addTimer(1, 0);
+    TimerWheel.Timer second = addTimer(2, -5);
+
+    assertThat(advance(0)).containsExactly(first, second);
+  }
+
+  @Test
+  public void testTimersDueInSameMillisecondKeepCreationOrderAfterCascade() {
+    // Placed on the second level, then moved down to the first one
+    TimerWheel.Timer first = addTimer(1, 100);
+    TimerWheel.Timer second = addTimer(2, 100);
+    TimerWheel.Timer third = addTimer(3, 100);
+
+    assertThat(advance(100)).containsExactly(first, second, third);
+  }
+
+  @Test
+  public void testCascadedTimersAreDueBeforeLaterTimersOfSameMillisecond() {
+    TimerWheel.Timer first = addTimer(1, 100);
+    TimerWheel.Timer second = addTimer(2, 100);
+    TimerWheel.Timer third = addTimer(3, 5000);
+    assertThat(advance(50)).isEmpty();
+
+    // Now close enough to be placed on the first level right away
+    TimerWheel.Timer fourth = addTimer(4, 100);
+    assertThat(advance(100)).containsExactly(first, second, fourth);
+
+    // Moved down two levels
+    TimerWheel.Timer fifth = addTimer(5, 5000);
+    assertThat(advance(5000)).containsExactly(third, fifth);
+  }
+
+  @Test
+  public void testTimerDueAtCascadeIsDueBeforeLaterTimers() {
+    // 1088 is the start of a second level slot, the timer is due when it's moved down
+    TimerWheel.Timer first = addTimer(1, 88);
+    assertThat(advance(50)).isEmpty();
+    TimerWheel.Timer second = addTimer(2, 88);
+
+    assertThat(advance(88)).containsExactly(first, second);
+  }
+
+  @Test
+  public void testRemovedTimersAreNotDue() {
+    TimerWheel.Timer removed = addTimer(1, 300);
+    TimerWheel.Timer kept = addTimer(2, 300);
+
+    mTimerWheel.remove(removed);
+    mTimerWheel.remove(removed);
+
+    assertThat(mTimerWheel.size()).isEqualTo(1);
+    assertThat(advance(300)).containsExactly(kept);
+  }
+
+  @Test
+  public void testExpiredTimersAreDueOnNextAdvance() {
+    TimerWheel.Timer timer = addTimer(1, -5);
+
+    assertThat(advance(0)).containsExactly(timer);
+  }
+
+  @Test
+  public void testNextDueTimeLowerBound() {
+    assertThat(mTimerWheel.getNextDueTimeLowerBound()).isEqualTo(Long.MAX_VALUE);
+
+    addTimer(1, 70000);
+    long lowerBound = mTimerWheel.getNextDueTimeLowerBound();
+    assertThat(lowerBound).isGreaterThan(START_TIME);
+    assertThat(lowerBound).isLessThanOrEqualTo(START_TIME + 70000);
+
+    addTimer(2, 20);
+    assertThat(mTimerWheel.getNextDueTimeLowerBound()).isEqualTo(START_TIME + 20);
+  }
+
+  private TimerWheel.Timer addTimer(int callbackID, long delay) {
+    TimerWheel.Timer timer = new TimerWheel.Timer(callbackID, START_TIME + delay, 0, false);
+    mTimerWheel.add(timer);
+    return timer;
+  }
+
+  private List<TimerWheel.Timer> advance(long elapsedTime) {
+    List<TimerWheel.Timer> dueTimers = new ArrayList<>();
+    mTimerWheel.advance(START_TIME + elapsedTime, dueTimers);
+    return dueTimers;
+  }
+}
@@ -25,6 +25,7 @@ import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.common.StandardCharsets;
 import com.facebook.react.common.network.OkHttpCallUtil;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.modules.core.DeviceEventManagerModule.RCTDeviceEventEmitter;
 import java.io.InputStream;
 import java.util.Arrays;
@@ -544,6 +545,81 @@ public class NetworkingModuleTest {
     assertThat(bodyRequestBody.get(1).contentLength()).isEqualTo("imageUri".getBytes().length);
   }
 
+  @Test
+  public void testIdenticalGetRequestsShareOneCall() throws Exception {
+    boolean enableNetworkRequestCoalescing = ReactFeatureFlags.enableNetworkRequestCoalescing;
+    ReactFeatureFlags.enableNetworkRequestCoalescing = true;
+    try {
+      sendGetRequests();
+    } finally {
+      ReactFeatureFlags.enableNetworkRequestCoalescing = enableNetworkRequestCoalescing;
+    }
+
+    verify(mHttpClient, times(2)).newCall(any(Request.class));
+    assertThat(mNetworkingModule.getRequestStats().coalescedRequests).isEqualTo(1);
+  }
+
+  @Test
+  public void testIdenticalGetRequestsAreNotSharedByDefault() throws Exception {
+    sendGetRequests();
+
+    verify(mHttpClient, times(3)).newCall(any(Request.class));
+    assertThat(mNetworkingModule.getRequestStats().coalescedRequests).isEqualTo(0);
+  }
+
+  private void sendGetRequests() {
+    for (int requestId = 1; requestId <= 2; requestId++) {
+      mNetworkingModule.sendRequest(
+          "GET",
+          "http://somedomain/foo",
+          requestId,
+          JavaOnlyArray.of(),
+          null,
+          /* responseType */ "text",
+          /* useIncrementalUpdates*/ false,
+          /* timeout */ 0,
+          /* withCredentials */ false);
+    }
+    mNetworkingModule.sendRequest(
+        "GET",
+        "http://somedomain/bar",
+        3,
+        JavaOnlyArray.of(),
+        null,
+        /* responseType */ "text",
+        /* useIncrementalUpdates*/ false,
+        /* timeout */ 0,
+        /* withCredentials */ false);
+  }
+
+  @Test
+  public void testPrewarmCacheFetchesValidUrlsOfCachedClasses() throws Exception {
+    ReactHttpCache httpCache = mock(ReactHttpCache.class);
+    when(httpCache.hasCache(ReactHttpCache.CONTENT_CLASS_API)).thenReturn(true);
+    OkHttpClient.Builder clientBuilder = mock(OkHttpClient.Builder.class);
+    when(clientBuilder.build()).thenReturn(mHttpClient);
+    when(httpCache.apply(any(OkHttpClient.Builder.class), eq(ReactHttpCache.CONTENT_CLASS_API)))
+        .thenReturn(clientBuilder);
+    ReactHttpCache.setInstance(httpCache);
+    try {
+      mNetworkingModule.prewarmCacheInternal(
+          Arrays.asList("http://somedomain/foo", "not a url", "http://somedomain/bar"),
+          ReactHttpCache.CONTENT_CLASS_API);
+      // Nothing would keep the responses
+      mNetworkingModule.prewarmCacheInternal(
+          Arrays.asList("http://somedomain/baz"), ReactHttpCache.CONTENT_CLASS_IMAGE);
+    } finally {
+      ReactHttpCache.setInstance(null);
+    }
+
+    ArgumentCaptor<Request> argumentCaptor = ArgumentCaptor.forClass(Request.class);
+    verify(mHttpClient, times(2)).newCall(argumentCaptor.capture());
+    assertThat(argumentCaptor.getAllValues().get(0).url().toString())
+        .isEqualTo("http://somedomain/foo");
+    assertThat(argumentCaptor.getAllValues().get(1).url().toString())
+        .isEqualTo("http://somedomain/bar");
+  }
+
   @Test
   public void testCancelAllCallsOnCatalystInstanceDestroy() throws Exception {
     PowerMockito.mockStatic(OkHttpCallUtil.class);
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.network;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+/** Tests for {@link ReactHttpCache}. */
+@PrepareForTest({Arguments.class})
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "androidx.*", "android.*"})
+public class ReactHttpCacheTest {
+
+  private static final Request REQUEST = new Request.Builder().url("http://somedomain/foo").build();
+
+  @Rule public PowerMockRule rule = new PowerMockRule();
+  @Rule public TemporaryFolder mCacheDir = new TemporaryFolder();
+
+  private ReactHttpCache mHttpCache;
+
+  @Before
+  public void setUp() {
+    PowerMockito.mockStatic(Arguments.class);
+    when(Arguments.createMap())
+        .thenAnswer(
+            new Answer<WritableMap>() {
+              @Override
+              public WritableMap answer(InvocationOnMock invocation) {
+                return new JavaOnlyMap();
+              }
+            });
+
+    Map<String, Long> maxSizes = new HashMap<>();
+    maxSizes.put(ReactHttpCache.CONTENT_CLASS_API, 1024L * 1024);
+    maxSizes.put(ReactHttpCache.CONTENT_CLASS_IMAGE, 0L);
+    mHttpCache = new ReactHttpCache(mCacheDir.getRoot(), maxSizes);
+  }
+
+  @After
+  public void tearDown() {
+    ReactHttpCache.setInstance(null);
+  }
+
+  @Test
+  public void testContentClassesUseTheirOwnCache() {
+    assertThat(mHttpCache.hasCache(ReactHttpCache.CONTENT_CLASS_API)).isTrue();
+    assertThat(mHttpCache.hasCache(ReactHttpCache.CONTENT_CLASS_IMAGE)).isFalse();
+    assertThat(mHttpCache.hasCache("unknown")).isFalse();
+
+    OkHttpClient.Builder builder =
+        mHttpCache.apply(new OkHttpClient.Builder(), ReactHttpCache.CONTENT_CLASS_API);
+    assertThat(builder.build().cache())
+        .isSameAs(mHttpCache.getCache(ReactHttpCache.CONTENT_CLASS_API));
+    assertThat(builder.interceptors()).hasSize(1);
+
+    // Switching a builder to another class replaces its cache and its counters
+    builder = mHttpCache.apply(builder, ReactHttpCache.CONTENT_CLASS_IMAGE);
+    assertThat(builder.build().cache()).isNull();
+    assertThat(builder.interceptors()).hasSize(1);
+  }
+
+  @Test
+  public void testImageClientDoesNotCache() {
+    Map<String, Long> maxSizes = new HashMap<>();
+    maxSizes.put(ReactHttpCache.CONTENT_CLASS_IMAGE, 1024L * 1024);
+    ReactHttpCache.setInstance(new ReactHttpCache(mCacheDir.getRoot(), maxSizes));
+
+    // Fresco keeps images in its own disk cache
+    assertThat(OkHttpClientProvider.createImageClient(RuntimeEnvironment.application).cache())
+        .isNull();
+    assertThat(
+            OkHttpClientProvider.createClientBuilder(
+                    RuntimeEnvironment.application, ReactHttpCache.CONTENT_CLASS_IMAGE)
+                .build()
+                .cache())
+        .isNotNull();
+  }
+
+  @Test
+  public void testStatsCountHitsAndMisses() throws IOException {
+    Interceptor interceptor =
+        mHttpCache
+            .apply(new OkHttpClient.Builder(), ReactHttpCache.CONTENT_CLASS_API)
+            .interceptors()
+            .get(0);
+    Response cacheResponse = createResponse(200).header("Content-Length", "100").build();
+    Response notModified = createResponse(304).build();
+
+    // Served from the cache
+    intercept(interceptor, createResponse(200).cacheResponse(cacheResponse).body(body(10)));
+    // Revalidated, the body comes from the cache
+    intercept(
+        interceptor,
+        createResponse(200)
+            .cacheResponse(cacheResponse)
+            .networkResponse(notModified)
+            .body(body(20)));
+    // Downloaded
+    intercept(interceptor, createResponse(200).networkResponse(createResponse(200).build()));
+
+    ReadableMap stats = mHttpCache.getStats().getMap(ReactHttpCache.CONTENT_CLASS_API);
+    assertThat(stats.getDouble("hits")).isEqualTo(1);
+    assertThat(stats.getDouble("conditionalHits")).isEqualTo(1);
+    assertThat(stats.getDouble("misses")).isEqualTo(1);
+    assertThat(stats.getDouble("bytesSaved")).isEqualTo(30);
+    assertThat(stats.getDouble("maxSize")).isEqualTo(1024 * 1024);
+
+    ReadableMap imageStats = mHttpCache.getStats().getMap(ReactHttpCache.CONTENT_CLASS_IMAGE);
+    assertThat(imageStats.getDouble("hits")).isEqualTo(0);
+    assertThat(imageStats.getDouble("maxSize")).isEqualTo(0);
+  }
+
+  private static void intercept(Interceptor interceptor, Response.Builder response)
+      throws IOException {
+    Interceptor.Chain chain = mock(Interceptor.Chain.class);
+    when(chain.request()).thenReturn(REQUEST);
+    when(chain.proceed(REQUEST)).thenReturn(response.build());
+    interceptor.intercept(chain);
+  }
+
+  private static Response.Builder createResponse(int code) {
+    return new Response.Builder()
+        .request(REQUEST)
+        .protocol(Protocol.HTTP_1_1)
+        .code(code)
+        .message(code == 304 ? "Not Modified" : "OK");
+  }
+
+  private static ResponseBody body(int length) {
+    return ResponseBody.create(MediaType.parse("text/plain"), new byte[length]);
+  }
+}
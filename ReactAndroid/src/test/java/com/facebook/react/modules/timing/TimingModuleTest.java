@@ -15,9 +15,11 @@ import com.facebook.react.bridge.CatalystInstance;
 import com.facebook.react.bridge.JavaOnlyArray;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.common.SystemClock;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.devsupport.interfaces.DevSupportManager;
 import com.facebook.react.modules.core.ChoreographerCompat;
 import com.facebook.react.modules.core.JSTimers;
+import com.facebook.react.modules.core.JavaTimerStats;
 import com.facebook.react.modules.core.ReactChoreographer;
 import com.facebook.react.modules.core.TimingModule;
 import org.junit.Before;
@@ -268,6 +270,48 @@ public class TimingModuleTest {
     assertThat(mTimingModule.hasActiveTimersInRange(200)).isTrue(); // In range
   }
 
+  @Test
+  public void testFarTimerKeepsFrameCallbacks() {
+    mTimingModule.onHostResume();
+    mTimingModule.createTimer(41, 10000, 0, false);
+
+    stepChoreographerFrame();
+    verifyNoMoreInteractions(mJSTimersMock);
+    assertThat(mPostFrameCallbackHandler.getAndResetFrameCallback()).isNotNull();
+  }
+
+  @Test
+  public void testFarTimerStopsFrameCallbacksWithTimerWheel() {
+    ReactFeatureFlags.enableTimerWheel = true;
+    try {
+      // The flag is read when the timer manager is created
+      prepareModules();
+      mTimingModule.onHostResume();
+      mTimingModule.createTimer(41, 10000, 0, false);
+
+      stepChoreographerFrame();
+      verifyNoMoreInteractions(mJSTimersMock);
+      assertThat(mPostFrameCallbackHandler.getAndResetFrameCallback()).isNull();
+    } finally {
+      ReactFeatureFlags.enableTimerWheel = false;
+    }
+  }
+
+  @Test
+  public void testTimerStats() {
+    mTimingModule.onHostResume();
+    mTimingModule.createTimer(41, 1, 0, false);
+    mTimingModule.createTimer(42, 1, 0, false);
+    mTimingModule.deleteTimer(42);
+
+    stepChoreographerFrame();
+    JavaTimerStats stats = mTimingModule.getTimerStats();
+    assertThat(stats.totalCreated).isEqualTo(2);
+    assertThat(stats.totalCancelled).isEqualTo(1);
+    assertThat(stats.totalFired).isEqualTo(1);
+    assertThat(stats.pendingTimers).isEqualTo(0);
+  }
+
   private static class PostFrameIdleCallbackHandler implements Answer<Void> {
 
     private ChoreographerCompat.FrameCallback mFrameCallback;
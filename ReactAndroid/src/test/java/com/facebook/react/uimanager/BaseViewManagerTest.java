@@ -9,7 +9,11 @@ package com.facebook.react.uimanager;
 
 import static org.fest.assertions.api.Assertions.assertThat;
 
+import android.view.View;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import com.facebook.react.R;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.uimanager.ReactAccessibilityDelegate.AccessibilityRole;
 import com.facebook.react.views.view.ReactViewGroup;
 import com.facebook.react.views.view.ReactViewManager;
@@ -44,4 +48,45 @@ public class BaseViewManagerTest {
     mViewManager.setAccessibilityRole(mView, "image");
     assertThat(mView.getTag(R.id.accessibility_role)).isEqualTo(AccessibilityRole.IMAGE);
   }
+
+  @Test
+  public void testSupportsTransformMatrix() {
+    // Overrides both setTransform and setTransformMatrix
+    assertThat(mViewManager.supportsTransformMatrix()).isTrue();
+    assertThat(new ReactViewManager() {}.supportsTransformMatrix()).isTrue();
+    assertThat(new TestViewManager().supportsTransformMatrix()).isTrue();
+  }
+
+  @Test
+  public void testCustomSetTransformDoesNotSupportTransformMatrix() {
+    BaseViewManager viewManager =
+        new TestViewManager() {
+          @Override
+          public void setTransform(@NonNull View view, @Nullable ReadableArray matrix) {
+            super.setTransform(view, matrix);
+          }
+        };
+    assertThat(viewManager.supportsTransformMatrix()).isFalse();
+
+    BaseViewManager reactViewManager =
+        new ReactViewManager() {
+          @Override
+          public void setTransform(@NonNull ReactViewGroup view, @Nullable ReadableArray matrix) {
+            super.setTransform(view, matrix);
+          }
+        };
+    assertThat(reactViewManager.supportsTransformMatrix()).isFalse();
+  }
+
+  private static class TestViewManager extends SimpleViewManager<View> {
+    @Override
+    public @NonNull String getName() {
+      return "TestView";
+    }
+
+    @Override
+    protected @NonNull View createViewInstance(@NonNull ThemedReactContext reactContext) {
+      return new View(reactContext);
+    }
+  }
 }
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.config.ReactFeatureFlags;
+import com.facebook.yoga.YogaConfig;
+import com.facebook.yoga.YogaEdge;
+import com.facebook.yoga.YogaNode;
+import com.facebook.yoga.YogaNodeFactory;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+/**
+ * Checks that the layout props of a shadow node update that are batched into {@link
+ * com.facebook.yoga.YogaStyleInputs} leave Yoga with the same style as the individual setters.
+ */
+@PrepareForTest({ReactYogaConfigProvider.class, YogaNodeFactory.class})
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "androidx.*", "android.*"})
+@RunWith(RobolectricTestRunner.class)
+public class ReactShadowNodeStyleInputsTest {
+
+  @Rule public PowerMockRule rule = new PowerMockRule();
+
+  private final Map<ReactShadowNode, StyleRecorder> mStyleRecorders = new HashMap<>();
+  private StyleRecorder mLastStyleRecorder;
+  private boolean mEnableBatchedYogaStyleInputs;
+  private ThemedReactContext mThemedContext;
+
+  @Before
+  public void setUp() {
+    PowerMockito.mockStatic(ReactYogaConfigProvider.class);
+    when(ReactYogaConfigProvider.get()).thenReturn(mock(YogaConfig.class));
+    PowerMockito.mockStatic(YogaNodeFactory.class);
+    when(YogaNodeFactory.create(any(YogaConfig.class)))
+        .thenAnswer(
+            new Answer<YogaNode>() {
+              @Override
+              public YogaNode answer(InvocationOnMock invocation) {
+                mLastStyleRecorder = new StyleRecorder();
+                return mock(YogaNode.class, mLastStyleRecorder);
+              }
+            });
+
+    ReactApplicationContext reactContext =
+        new ReactApplicationContext(RuntimeEnvironment.application);
+    mThemedContext = new ThemedReactContext(reactContext, RuntimeEnvironment.application);
+    mEnableBatchedYogaStyleInputs = ReactFeatureFlags.enableBatchedYogaStyleInputs;
+  }
+
+  @After
+  public void tearDown() {
+    ReactFeatureFlags.enableBatchedYogaStyleInputs = mEnableBatchedYogaStyleInputs;
+  }
+
+  @Test
+  public void testBatchedStyleMatchesIndividualSetters() {
+    ReactFeatureFlags.enableBatchedYogaStyleInputs = false;
+    Map<String, Object> expected = styleOf(createNode(createLayoutProps()));
+    ReactFeatureFlags.enableBatchedYogaStyleInputs = true;
+    Map<String, Object> actual = styleOf(createNode(createLayoutProps()));
+
+    assertThat(actual).isEqualTo(expected);
+    assertThat(actual.get("setPadding:" + YogaEdge.TOP)).isNull();
+    assertThat(actual.get("setPaddingPercent:" + YogaEdge.TOP)).isEqualTo(5f);
+    assertThat(actual.get("setPadding:" + YogaEdge.HORIZONTAL)).isEqualTo(12f);
+    assertThat(actual.get("setPadding:" + YogaEdge.ALL)).isEqualTo(8f);
+    assertThat(actual.get("setMargin:" + YogaEdge.TOP)).isEqualTo(10f);
+    assertThat(actual.get("setMarginAuto:" + YogaEdge.LEFT)).isEqualTo(StyleRecorder.NO_VALUE);
+    assertThat(actual.get("setBorder:" + YogaEdge.ALL)).isEqualTo(1f);
+  }
+
+  @Test
+  public void testBatchedStyleMatchesIndividualSettersAcrossUpdates() {
+    JavaOnlyMap update =
+        JavaOnlyMap.of("paddingTop", 3.0, "paddingHorizontal", null, "width", "50%");
+
+    ReactFeatureFlags.enableBatchedYogaStyleInputs = false;
+    LayoutShadowNode expected = createNode(createLayoutProps());
+    expected.updateProperties(new ReactStylesDiffMap(update));
+    ReactFeatureFlags.enableBatchedYogaStyleInputs = true;
+    LayoutShadowNode actual = createNode(createLayoutProps());
+    actual.updateProperties(new ReactStylesDiffMap(update));
+
+    Map<String, Object> style = styleOf(actual);
+    assertThat(style).isEqualTo(styleOf(expected));
+    assertThat(style.get("setPadding:" + YogaEdge.TOP)).isEqualTo(3f);
+    assertThat(style.get("setPadding:" + YogaEdge.HORIZONTAL)).isEqualTo(Float.NaN);
+    assertThat(style.get("setWidthPercent")).isEqualTo(50f);
+  }
+
+  @Test
+  public void testFailedUpdateDoesNotLeakInputsToNextNode() {
+    ReactFeatureFlags.enableBatchedYogaStyleInputs = true;
+    LayoutShadowNode failed = createNode(null);
+    try {
+      failed.updateProperties(
+          new ReactStylesDiffMap(
+              JavaOnlyMap.of("marginTop", 20.0, "padding", 6.0, "flexDirection", "diagonal")));
+      fail("Expected an invalid flexDirection to be rejected");
+    } catch (RuntimeException expected) {
+      // expected
+    }
+
+    LayoutShadowNode next = createNode(JavaOnlyMap.of("width", 10.0));
+    Map<String, Object> style = styleOf(next);
+    assertThat(style.get("setWidth")).isEqualTo(10f);
+    assertThat(style.containsKey("setMargin:" + YogaEdge.TOP)).isFalse();
+    assertThat(style.containsKey("setPadding:" + YogaEdge.ALL)).isFalse();
+  }
+
+  private LayoutShadowNode createNode(JavaOnlyMap props) {
+    LayoutShadowNode node = new LayoutShadowNode();
+    mStyleRecorders.put(node, mLastStyleRecorder);
+    node.setThemedContext(mThemedContext);
+    if (props != null) {
+      node.updateProperties(new ReactStylesDiffMap(props));
+    }
+    return node;
+  }
+
+  private Map<String, Object> styleOf(LayoutShadowNode node) {
+    return mStyleRecorders.get(node).mStyle;
+  }
+
+  private static JavaOnlyMap createLayoutProps() {
+    JavaOnlyMap props = new JavaOnlyMap();
+    props.putDouble("width", 320);
+    props.putDouble("height", 480);
+    props.putDouble("minWidth", 100);
+    props.putString("maxHeight", "100%");
+    props.putString("flexDirection", "row");
+    props.putString("justifyContent", "space-between");
+    props.putString("alignItems", "center");
+    props.putString("flexWrap", "wrap");
+    props.putDouble("flexShrink", 0);
+    props.putDouble("padding", 8);
+    props.putDouble("paddingHorizontal", 12);
+    props.putString("paddingTop", "5%");
+    props.putDouble("marginTop", 10);
+    props.putString("marginLeft", "auto");
+    props.putDouble("borderWidth", 1);
+    props.putString("position", "absolute");
+    return props;
+  }
+
+  /**
+   * Keeps the last value passed to every Yoga style setter, per edge for edge properties. Batched
+   * inputs go through the {@link YogaNode#setStyleInputs} fallback, which calls the same setters.
+   */
+  private static class StyleRecorder implements Answer<Object> {
+
+    static final String NO_VALUE = "set";
+
+    final Map<String, Object> mStyle = new HashMap<>();
+
+    @Override
+    public Object answer(InvocationOnMock invocation) throws Throwable {
+      String name = invocation.getMethod().getName();
+      if (name.equals("setStyleInputs")) {
+        return invocation.callRealMethod();
+      }
+      if (!name.startsWith("set") || name.equals("setData")) {
+        return null;
+      }
+      Object[] args = invocation.getArguments();
+      if (args.length > 0 && args[0] instanceof YogaEdge) {
+        // A point value replaces a percent or auto one on the same edge, and the other way round.
+        String edge = ":" + args[0];
+        String base = name.replace("Percent", "").replace("Auto", "");
+        mStyle.remove(base + edge);
+        mStyle.remove(base + "Percent" + edge);
+        mStyle.remove(base + "Auto" + edge);
+        mStyle.put(name + edge, args.length > 1 ? args[1] : NO_VALUE);
+      } else {
+        String base = name.replace("Percent", "").replace("Auto", "");
+        mStyle.remove(base);
+        mStyle.remove(base + "Percent");
+        mStyle.remove(base + "Auto");
+        mStyle.put(name, args.length > 0 ? args[0] : NO_VALUE);
+      }
+      return null;
+    }
+  }
+}
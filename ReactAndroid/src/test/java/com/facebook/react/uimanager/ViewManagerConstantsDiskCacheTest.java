@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import android.content.Context;
+import com.facebook.react.common.MapBuilder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(RobolectricTestRunner.class)
+public class ViewManagerConstantsDiskCacheTest {
+
+  private static final List<String> VIEW_MANAGER_NAMES = Arrays.asList("RCTView", "RCTText");
+
+  private static final Executor DIRECT_EXECUTOR =
+      new Executor() {
+        @Override
+        public void execute(Runnable command) {
+          command.run();
+        }
+      };
+
+  private Context mContext;
+
+  @Before
+  public void setUp() {
+    mContext = RuntimeEnvironment.application;
+  }
+
+  @Test
+  public void testConstantsAreReadBack() {
+    Map<String, Object> constants =
+        MapBuilder.<String, Object>of(
+            "directEventTypes",
+            MapBuilder.of("topTwirl", MapBuilder.of("registrationName", "onTwirl")),
+            "Constants",
+            MapBuilder.of("list", Arrays.asList(1, 2.5, "three", null), "flag", true),
+            "NativeProps",
+            MapBuilder.of("opacity", "number"));
+
+    open(VIEW_MANAGER_NAMES).put("RCTView", constants);
+
+    Map<String, Object> cachedConstants = open(VIEW_MANAGER_NAMES).get("RCTView");
+    assertThat(cachedConstants).isNotNull();
+    assertThat(cachedConstants.keySet()).isEqualTo(constants.keySet());
+    assertThat(cachedConstants.get("directEventTypes"))
+        .isEqualTo(constants.get("directEventTypes"));
+    assertThat(cachedConstants.get("NativeProps")).isEqualTo(constants.get("NativeProps"));
+    Map cachedCustomConstants = (Map) cachedConstants.get("Constants");
+    assertThat(cachedCustomConstants.get("flag")).isEqualTo(true);
+    List cachedList = (List) cachedCustomConstants.get("list");
+    assertThat(cachedList).hasSize(4);
+    assertThat(((Number) cachedList.get(0)).intValue()).isEqualTo(1);
+    assertThat(((Number) cachedList.get(1)).doubleValue()).isEqualTo(2.5);
+    assertThat(cachedList.get(2)).isEqualTo("three");
+    assertThat(cachedList.get(3)).isNull();
+  }
+
+  @Test
+  public void testUncachedViewManager() {
+    assertThat(open(VIEW_MANAGER_NAMES).get("RCTText")).isNull();
+  }
+
+  @Test
+  public void testChangingViewManagersClearsCache() {
+    open(VIEW_MANAGER_NAMES).put("RCTView", MapBuilder.<String, Object>of("Commands", "none"));
+
+    ViewManagerConstantsDiskCache cache = open(Arrays.asList("RCTView", "RCTImageView"));
+
+    assertThat(cache.get("RCTView")).isNull();
+  }
+
+  @Test
+  public void testUnsupportedValuesAreNotCached() {
+    ViewManagerConstantsDiskCache cache = open(VIEW_MANAGER_NAMES);
+    cache.put("RCTView", MapBuilder.<String, Object>of("Constants", Double.NaN));
+    cache.put("RCTText", MapBuilder.<String, Object>of("Constants", new Object()));
+
+    assertThat(cache.get("RCTView")).isNull();
+    assertThat(cache.get("RCTText")).isNull();
+  }
+
+  private ViewManagerConstantsDiskCache open(List<String> viewManagerNames) {
+    ViewManagerConstantsDiskCache cache =
+        ViewManagerConstantsDiskCache.open(mContext, viewManagerNames, DIRECT_EXECUTOR);
+    assertThat(cache).isNotNull();
+    return cache;
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.art;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.graphics.Rect;
+import android.util.DisplayMetrics;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.config.ReactFeatureFlags;
+import com.facebook.react.uimanager.DisplayMetricsHolder;
+import com.facebook.react.uimanager.ReactYogaConfigProvider;
+import com.facebook.yoga.YogaConfig;
+import com.facebook.yoga.YogaNode;
+import com.facebook.yoga.YogaNodeFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+
+/** Checks the part of an ART surface that is redrawn after a change of its nodes. */
+@PrepareForTest({ReactYogaConfigProvider.class, YogaNodeFactory.class})
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "androidx.*", "android.*"})
+@RunWith(RobolectricTestRunner.class)
+public class ARTSurfaceViewShadowNodeTest {
+
+  private static final int PATH_TYPE_MOVETO = 0;
+  private static final int PATH_TYPE_CLOSE = 1;
+  private static final int PATH_TYPE_LINETO = 2;
+
+  @Rule public PowerMockRule rule = new PowerMockRule();
+
+  private boolean mEnableARTDirtyRegions;
+  private ARTSurfaceViewShadowNode mSurface;
+  private ARTGroupShadowNode mGroup;
+  private ARTShapeShadowNode mFirstShape;
+
+  @Before
+  public void setUp() {
+    PowerMockito.mockStatic(ReactYogaConfigProvider.class);
+    when(ReactYogaConfigProvider.get()).thenReturn(mock(YogaConfig.class));
+    PowerMockito.mockStatic(YogaNodeFactory.class);
+    when(YogaNodeFactory.create(any(YogaConfig.class))).thenReturn(mock(YogaNode.class));
+
+    DisplayMetrics displayMetrics = new DisplayMetrics();
+    displayMetrics.density = 1f;
+    DisplayMetricsHolder.setWindowDisplayMetrics(displayMetrics);
+    mEnableARTDirtyRegions = ReactFeatureFlags.enableARTDirtyRegions;
+    ReactFeatureFlags.enableARTDirtyRegions = true;
+
+    // Shapes are outset by a pixel for anti-aliasing, the first one covers (-1, -1, 11, 11) and the
+    // second one (49, 49, 61, 61)
+    mSurface = new ARTSurfaceViewShadowNode();
+    mGroup = new ARTGroupShadowNode();
+    mFirstShape = createSquare(0, 0, 10);
+    mGroup.addChildAt(mFirstShape, 0);
+    mGroup.addChildAt(createSquare(50, 50, 10), 1);
+    mSurface.addChildAt(mGroup, 0);
+
+    assertThat(mSurface.getDirtyRect()).isNull();
+  }
+
+  @After
+  public void tearDown() {
+    ReactFeatureFlags.enableARTDirtyRegions = mEnableARTDirtyRegions;
+  }
+
+  @Test
+  public void testNothingIsRedrawnWithoutChanges() {
+    assertThat(mSurface.getDirtyRect().isEmpty()).isTrue();
+  }
+
+  @Test
+  public void testShapeChangeRedrawsItsOldAndNewBounds() {
+    mFirstShape.setShapePath(createSquarePath(20, 0, 10));
+
+    assertThat(mSurface.getDirtyRect()).isEqualTo(new Rect(-1, -1, 31, 11));
+    assertThat(mSurface.getDirtyRect().isEmpty()).isTrue();
+  }
+
+  @Test
+  public void testTransformChangeRedrawsTheGroupBeforeAndAfter() {
+    mGroup.setTransform(JavaOnlyArray.of(1.0, 0.0, 0.0, 1.0, 100.0, 0.0));
+
+    assertThat(mSurface.getDirtyRect()).isEqualTo(new Rect(-1, -1, 161, 61));
+  }
+
+  @Test
+  public void testChildRemovalRedrawsItsBounds() {
+    mGroup.removeChildAt(1);
+
+    assertThat(mSurface.getDirtyRect()).isEqualTo(new Rect(49, 49, 61, 61));
+  }
+
+  @Test
+  public void testTextChangeRedrawsTheWholeSurface() {
+    ARTTextShadowNode text = new ARTTextShadowNode();
+    mSurface.addChildAt(text, 1);
+    assertThat(mSurface.getDirtyRect()).isNull();
+    // Text that didn't change doesn't make the other changes redraw the whole surface
+    mFirstShape.setShapePath(createSquarePath(20, 0, 10));
+    assertThat(mSurface.getDirtyRect()).isEqualTo(new Rect(-1, -1, 31, 11));
+
+    text.setFrame(JavaOnlyMap.of("lines", JavaOnlyArray.of("ART")));
+
+    assertThat(mSurface.getDirtyRect()).isNull();
+  }
+
+  private static ARTShapeShadowNode createSquare(float x, float y, float size) {
+    ARTShapeShadowNode shape = new ARTShapeShadowNode();
+    shape.setShapePath(createSquarePath(x, y, size));
+    return shape;
+  }
+
+  private static JavaOnlyArray createSquarePath(float x, float y, float size) {
+    return JavaOnlyArray.of(
+        PATH_TYPE_MOVETO,
+        x,
+        y,
+        PATH_TYPE_LINETO,
+        x + size,
+        y,
+        PATH_TYPE_LINETO,
+        x + size,
+        y + size,
+        PATH_TYPE_LINETO,
+        x,
+        y + size,
+        PATH_TYPE_CLOSE);
+  }
+}
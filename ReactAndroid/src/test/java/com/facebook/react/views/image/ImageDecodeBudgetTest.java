@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.image;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import com.facebook.imagepipeline.common.ResizeOptions;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class ImageDecodeBudgetTest {
+
+  private static final int ROOT_VIEW_TAG = 11;
+
+  @After
+  public void tearDown() {
+    ImageDecodeBudget.clearPixelStats(ROOT_VIEW_TAG);
+  }
+
+  @Test
+  public void testSizesAreRoundedUpToBuckets() {
+    assertThat(ImageDecodeBudget.getBucketSize(1)).isEqualTo(1);
+    assertThat(ImageDecodeBudget.getBucketSize(64)).isEqualTo(64);
+    assertThat(ImageDecodeBudget.getBucketSize(65)).isEqualTo(96);
+    assertThat(ImageDecodeBudget.getBucketSize(96)).isEqualTo(96);
+    assertThat(ImageDecodeBudget.getBucketSize(97)).isEqualTo(128);
+    assertThat(ImageDecodeBudget.getBucketSize(1000)).isEqualTo(1024);
+  }
+
+  @Test
+  public void testSimilarViewSizesShareResizeOptions() {
+    ResizeOptions resizeOptions = ImageDecodeBudget.getResizeOptions(140, 140);
+
+    assertThat(ImageDecodeBudget.getResizeOptions(144, 132)).isEqualTo(resizeOptions);
+    assertThat(resizeOptions.width).isEqualTo(192);
+    assertThat(resizeOptions.height).isEqualTo(192);
+  }
+
+  @Test
+  public void testPixelStatsAreRecordedPerRootView() {
+    assertThat(ImageDecodeBudget.getPixelStats(ROOT_VIEW_TAG)).isNull();
+
+    ImageDecodeBudget.recordImage(ROOT_VIEW_TAG, 400, 300, 100, 100);
+    ImageDecodeBudget.recordImage(ROOT_VIEW_TAG, 100, 100, 50, 50);
+    ImageDecodeBudget.recordImage(ROOT_VIEW_TAG + 10, 100, 100, 100, 100);
+
+    ImagePixelStats stats = ImageDecodeBudget.getPixelStats(ROOT_VIEW_TAG);
+    assertThat(stats.imageCount).isEqualTo(2);
+    assertThat(stats.decodedPixels).isEqualTo(130000);
+    assertThat(stats.displayedPixels).isEqualTo(12500);
+    ImageDecodeBudget.clearPixelStats(ROOT_VIEW_TAG + 10);
+  }
+}
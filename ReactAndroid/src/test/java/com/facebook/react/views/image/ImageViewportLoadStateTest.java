@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.image;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import com.facebook.imagepipeline.common.Priority;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class ImageViewportLoadStateTest {
+
+  private ImageViewportLoadState mLoadState;
+
+  @Before
+  public void setUp() {
+    mLoadState = new ImageViewportLoadState();
+  }
+
+  @Test
+  public void testPriorityFollowsZone() {
+    assertThat(mLoadState.onLoadRequested(ImageViewport.VISIBLE)).isEqualTo(Priority.HIGH);
+    assertThat(mLoadState.onLoadRequested(ImageViewport.NEAR)).isEqualTo(Priority.MEDIUM);
+    assertThat(mLoadState.isWaitingForViewport()).isFalse();
+  }
+
+  @Test
+  public void testFarLoadIsDeferredUntilNear() {
+    assertThat(mLoadState.onLoadRequested(ImageViewport.FAR)).isNull();
+    assertThat(mLoadState.isWaitingForViewport()).isTrue();
+    assertThat(mLoadState.shouldObserveScroll()).isTrue();
+    assertThat(mLoadState.shouldObserveLayout()).isTrue();
+
+    assertThat(mLoadState.onViewportChanged(ImageViewport.FAR))
+        .isEqualTo(ImageViewportLoadState.ACTION_NONE);
+    assertThat(mLoadState.onViewportChanged(ImageViewport.NEAR))
+        .isEqualTo(ImageViewportLoadState.ACTION_LOAD);
+
+    assertThat(mLoadState.onLoadRequested(ImageViewport.NEAR)).isEqualTo(Priority.MEDIUM);
+    assertThat(mLoadState.isWaitingForViewport()).isFalse();
+    assertThat(mLoadState.shouldObserveLayout()).isFalse();
+  }
+
+  @Test
+  public void testLoadScrolledAwayIsCancelledAndDeferred() {
+    mLoadState.onLoadRequested(ImageViewport.VISIBLE);
+    mLoadState.onLoadStarted();
+    assertThat(mLoadState.shouldObserveScroll()).isTrue();
+    assertThat(mLoadState.shouldObserveLayout()).isFalse();
+
+    assertThat(mLoadState.onViewportChanged(ImageViewport.NEAR))
+        .isEqualTo(ImageViewportLoadState.ACTION_NONE);
+    assertThat(mLoadState.onViewportChanged(ImageViewport.FAR))
+        .isEqualTo(ImageViewportLoadState.ACTION_CANCEL);
+    assertThat(mLoadState.isWaitingForViewport()).isTrue();
+    assertThat(mLoadState.shouldObserveLayout()).isTrue();
+
+    // Releasing the controller reports the load as finished, the view keeps waiting
+    mLoadState.onLoadFinished();
+    assertThat(mLoadState.shouldObserveScroll()).isTrue();
+    assertThat(mLoadState.onViewportChanged(ImageViewport.VISIBLE))
+        .isEqualTo(ImageViewportLoadState.ACTION_LOAD);
+  }
+
+  @Test
+  public void testFinishedLoadIsNotCancelled() {
+    mLoadState.onLoadRequested(ImageViewport.VISIBLE);
+    mLoadState.onLoadStarted();
+    mLoadState.onLoadFinished();
+
+    assertThat(mLoadState.shouldObserveScroll()).isFalse();
+    assertThat(mLoadState.onViewportChanged(ImageViewport.FAR))
+        .isEqualTo(ImageViewportLoadState.ACTION_NONE);
+    assertThat(mLoadState.isWaitingForViewport()).isFalse();
+  }
+}
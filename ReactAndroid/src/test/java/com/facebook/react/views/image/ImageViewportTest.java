@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.image;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import android.view.View;
+import android.widget.FrameLayout;
+import android.widget.ScrollView;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(RobolectricTestRunner.class)
+public class ImageViewportTest {
+
+  private ScrollView mScrollView;
+  private FrameLayout mContent;
+
+  @Before
+  public void setUp() {
+    mScrollView = new ScrollView(RuntimeEnvironment.application);
+    mContent = new FrameLayout(RuntimeEnvironment.application);
+    mScrollView.addView(mContent);
+    mScrollView.layout(0, 0, 100, 100);
+    mContent.layout(0, 0, 100, 1000);
+  }
+
+  @Test
+  public void testViewOutsideOfScrollViewIsVisible() {
+    View view = new View(RuntimeEnvironment.application);
+
+    assertThat(ImageViewport.getZone(view)).isEqualTo(ImageViewport.VISIBLE);
+  }
+
+  @Test
+  public void testZonesFollowTheViewport() {
+    View visible = addView(50);
+    View near = addView(150);
+    View far = addView(300);
+
+    assertThat(ImageViewport.getZone(visible)).isEqualTo(ImageViewport.VISIBLE);
+    assertThat(ImageViewport.getZone(near)).isEqualTo(ImageViewport.NEAR);
+    assertThat(ImageViewport.getZone(far)).isEqualTo(ImageViewport.FAR);
+
+    mScrollView.scrollTo(0, 250);
+
+    assertThat(ImageViewport.getZone(visible)).isEqualTo(ImageViewport.FAR);
+    assertThat(ImageViewport.getZone(near)).isEqualTo(ImageViewport.NEAR);
+    assertThat(ImageViewport.getZone(far)).isEqualTo(ImageViewport.VISIBLE);
+  }
+
+  private View addView(int top) {
+    View view = new View(RuntimeEnvironment.application);
+    mContent.addView(view);
+    view.layout(0, top, 100, top + 40);
+    return view;
+  }
+}
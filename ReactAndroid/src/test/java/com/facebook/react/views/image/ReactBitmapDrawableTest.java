@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.image;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import android.graphics.Bitmap;
+import android.graphics.Matrix;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import com.facebook.drawee.drawable.TransformCallback;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class ReactBitmapDrawableTest {
+
+  private static final float[] RADII = {10, 10, 10, 10};
+
+  private Bitmap mBitmap;
+  private final Matrix mTransform = new Matrix();
+  private final RectF mRootBounds = new RectF(0, 0, 100, 100);
+
+  private final TransformCallback mTransformCallback =
+      new TransformCallback() {
+        @Override
+        public void getTransform(Matrix transform) {
+          transform.set(mTransform);
+        }
+
+        @Override
+        public void getRootBounds(RectF bounds) {
+          bounds.set(mRootBounds);
+        }
+      };
+
+  @Before
+  public void setUp() {
+    mBitmap = Bitmap.createBitmap(50, 25, Bitmap.Config.ARGB_8888);
+  }
+
+  @Test
+  public void testImageIsRoundedWhereItIsDrawn() {
+    ReactBitmapDrawable drawable = createDrawable(Shader.TileMode.CLAMP);
+    // A letterboxed image, as drawn in 'contain' mode
+    mTransform.setTranslate(0, 25);
+
+    assertThat(drawable.getDrawRect()).isEqualTo(new RectF(0, 25, 100, 75));
+  }
+
+  @Test
+  public void testImageIsClippedToTheView() {
+    ReactBitmapDrawable drawable = createDrawable(Shader.TileMode.CLAMP);
+    mTransform.setTranslate(50, 0);
+
+    assertThat(drawable.getDrawRect()).isEqualTo(new RectF(50, 0, 100, 50));
+  }
+
+  @Test
+  public void testRepeatedImageFillsTheView() {
+    ReactBitmapDrawable drawable = createDrawable(Shader.TileMode.REPEAT);
+
+    assertThat(drawable.getDrawRect()).isEqualTo(mRootBounds);
+  }
+
+  @Test
+  public void testDrawRectFollowsTheTransform() {
+    ReactBitmapDrawable drawable = createDrawable(Shader.TileMode.CLAMP);
+    assertThat(drawable.getDrawRect()).isEqualTo(new RectF(0, 0, 100, 50));
+
+    mTransform.setTranslate(0, 50);
+
+    assertThat(drawable.getDrawRect()).isEqualTo(new RectF(0, 50, 100, 100));
+  }
+
+  private ReactBitmapDrawable createDrawable(Shader.TileMode tileMode) {
+    ReactBitmapDrawable drawable = new ReactBitmapDrawable(mBitmap, RADII, tileMode, 0, 0);
+    drawable.setBounds(0, 0, 100, 50);
+    drawable.setTransformCallback(mTransformCallback);
+    return drawable;
+  }
+}
@@ -20,6 +20,7 @@ import android.view.Gravity;
 import android.view.inputmethod.EditorInfo;
 import android.widget.EditText;
 import com.facebook.react.bridge.CatalystInstance;
+import com.facebook.react.bridge.JavaOnlyArray;
 import com.facebook.react.bridge.JavaOnlyMap;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactTestHelper;
@@ -393,4 +394,23 @@ public class ReactTextInputPropertyTest {
     assertThat(view.getSelectionStart()).isEqualTo(5);
     assertThat(view.getSelectionEnd()).isEqualTo(10);
   }
+
+  @Test
+  public void testReplaceTextRange() {
+    ReactEditText view = mManager.createViewInstance(mThemedContext);
+    view.setText("Some text to edit");
+
+    mManager.receiveCommand(view, "replaceTextRange", JavaOnlyArray.of(0, 5, 9, "words", 10, 10));
+    assertThat(view.getText().toString()).isEqualTo("Some words to edit");
+    assertThat(view.getSelectionStart()).isEqualTo(10);
+
+    // Out of date with the text on the native side
+    view.incrementAndGetEventCounter();
+    mManager.receiveCommand(view, "replaceTextRange", JavaOnlyArray.of(0, 0, 4, "More", 4, 4));
+    assertThat(view.getText().toString()).isEqualTo("Some words to edit");
+
+    // Out of bounds
+    mManager.receiveCommand(view, "replaceTextRange", JavaOnlyArray.of(1, 5, 50, "", 5, 5));
+    assertThat(view.getText().toString()).isEqualTo("Some words to edit");
+  }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.view;
+
+import static org.junit.Assert.*;
+
+import android.graphics.Rect;
+import android.graphics.RectF;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "androidx.*", "android.*"})
+public class BorderGeometryCacheTest {
+
+  @Rule public PowerMockRule rule = new PowerMockRule();
+
+  private BorderGeometryCache mCache;
+
+  @Before
+  public void setUp() {
+    mCache = BorderGeometryCache.getInstance();
+    mCache.clear();
+  }
+
+  @Test
+  public void testIdenticalBordersShareGeometry() {
+    long hits = mCache.getHitCount();
+    long misses = mCache.getMissCount();
+
+    BorderGeometryCache.BorderGeometry first = obtain(new Rect(0, 0, 100, 50), 8f);
+    BorderGeometryCache.BorderGeometry second = obtain(new Rect(0, 0, 100, 50), 8f);
+
+    assertSame(first, second);
+    assertEquals(misses + 1, mCache.getMissCount());
+    assertEquals(hits + 1, mCache.getHitCount());
+  }
+
+  @Test
+  public void testSizeOrRadiusChangeComputesNewGeometry() {
+    BorderGeometryCache.BorderGeometry geometry = obtain(new Rect(0, 0, 100, 50), 8f);
+
+    assertNotSame(geometry, obtain(new Rect(0, 0, 100, 60), 8f));
+    assertNotSame(geometry, obtain(new Rect(0, 0, 100, 50), 4f));
+    assertEquals(100f, obtain(new Rect(0, 0, 100, 60), 8f).outerClipRect.right, 0f);
+  }
+
+  @Test
+  public void testDashPathEffectsAreShared() {
+    assertSame(mCache.obtainDashPathEffect(3f), mCache.obtainDashPathEffect(3f));
+    assertNotSame(mCache.obtainDashPathEffect(3f), mCache.obtainDashPathEffect(1f));
+  }
+
+  private BorderGeometryCache.BorderGeometry obtain(Rect bounds, float radius) {
+    return mCache.obtain(
+        bounds, new RectF(1f, 1f, 1f, 1f), 1f, 0.5f, new float[] {radius, radius, radius, radius});
+  }
+}
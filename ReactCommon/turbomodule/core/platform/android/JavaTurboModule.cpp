@@ -569,7 +569,8 @@ jsi::Value JavaTurboModule::invokeJavaMethod(
       }
       auto jResult = jni::adopt_local(returnObject);
       auto result = jni::static_ref_cast<NativeMap::jhybridobject>(jResult);
-      return jsi::valueFromDynamic(runtime, result->cthis()->consume());
+      return jsi::valueFromDynamic(
+          runtime, NativeMap::materializeAndConsume(result));
     }
     case ArrayKind: {
       auto returnObject =
@@ -581,7 +582,8 @@ jsi::Value JavaTurboModule::invokeJavaMethod(
       }
       auto jResult = jni::adopt_local(returnObject);
       auto result = jni::static_ref_cast<NativeArray::jhybridobject>(jResult);
-      return jsi::valueFromDynamic(runtime, result->cthis()->consume());
+      return jsi::valueFromDynamic(
+          runtime, NativeArray::materializeAndConsume(result));
     }
     case PromiseKind: {
       jsi::Function Promise =